@@ -0,0 +1,107 @@
+package com.springaishield.benchmarks;
+
+import com.springaishield.core.impl.BehavioralScoringEngine;
+import com.springaishield.springboot.security.AIShieldFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surcoût de bout en bout d'{@link AIShieldFilter} : collecte du contexte, scoring, décision et persistance
+ * (dépôt mémoire), pour une requête saine et une requête bloquée.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIShieldFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @State(Scope.Benchmark)
+    public static class Shield {
+
+        @Param({"0", "50"})
+        public int historySize;
+
+        @Param({"32", "2048"})
+        public int urlLength;
+
+        AIShieldFilter filter;
+        String cleanQuery;
+        String attackQuery;
+
+        @Setup
+        public void setUp() {
+            InMemoryBehaviorRepository repository = new InMemoryBehaviorRepository();
+            repository.put(BenchmarkData.USER_ID, BenchmarkData.history(historySize));
+            filter = new AIShieldFilter(new BehavioralScoringEngine(repository, BenchmarkData.matcher(7)), repository);
+
+            cleanQuery = queryOf(BenchmarkData.cleanUrl(urlLength));
+            attackQuery = queryOf(BenchmarkData.attackUrl(urlLength));
+        }
+
+        private static String queryOf(String url) {
+            return url.substring(url.indexOf('?') + 1);
+        }
+    }
+
+    // Requête et réponse réutilisées par thread pour ne pas mesurer l'allocation des objets simulés
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            request = new MockHttpServletRequest("GET", "/api/search");
+            request.setRemoteAddr(BenchmarkData.KNOWN_IP);
+            request.setRemoteUser(BenchmarkData.USER_ID);
+            response = new MockHttpServletResponse();
+        }
+
+        @Setup(Level.Invocation)
+        public void resetResponse() {
+            response.reset();
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse cleanRequest(Shield shield, Exchange exchange) throws Exception {
+        exchange.request.setQueryString(shield.cleanQuery);
+        shield.filter.doFilter(exchange.request, exchange.response, NO_OP_CHAIN);
+        return exchange.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse blockedRequest(Shield shield, Exchange exchange) throws Exception {
+        exchange.request.setQueryString(shield.attackQuery);
+        shield.filter.doFilter(exchange.request, exchange.response, NO_OP_CHAIN);
+        return exchange.response;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public MockHttpServletResponse cleanRequestAllCores(Shield shield, Exchange exchange) throws Exception {
+        exchange.request.setQueryString(shield.cleanQuery);
+        shield.filter.doFilter(exchange.request, exchange.response, NO_OP_CHAIN);
+        return exchange.response;
+    }
+}
@@ -0,0 +1,77 @@
+package com.springaishield.benchmarks;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.signature.Signature;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données déterministes partagés par les benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String USER_ID = "bench-user";
+    static final String KNOWN_IP = "10.0.0.1";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Historique du plus récent au plus ancien, majoritairement sur {@link #KNOWN_IP}.
+     */
+    static List<UserBehavior> history(int size) {
+        List<UserBehavior> history = new ArrayList<>(size);
+        Instant now = Instant.now();
+        for (int i = 0; i < size; i++) {
+            String ip = i % 5 == 0 ? "10.0.0." + (i % 250 + 2) : KNOWN_IP;
+            history.add(new UserBehavior(String.valueOf(i), USER_ID, ip, "ACCESS_GRANTED",
+                    "/api/items/" + i, RiskScore.low(), now.minusSeconds(i)));
+        }
+        return history;
+    }
+
+    /**
+     * URL saine d'environ {@code length} caractères, avec quelques séquences encodées.
+     */
+    static String cleanUrl(int length) {
+        StringBuilder url = new StringBuilder("/api/search?page=2&q=");
+        Random random = new Random(42);
+        while (url.length() < length) {
+            url.append(random.nextInt(10) == 0 ? "%20" : String.valueOf((char) ('a' + random.nextInt(26))));
+        }
+        return url.toString();
+    }
+
+    /**
+     * URL d'attaque XSS encodée, complétée jusqu'à {@code length} caractères.
+     */
+    static String attackUrl(int length) {
+        StringBuilder url = new StringBuilder(cleanUrl(Math.max(0, length - 40)));
+        url.append("&x=%3Cscript%3Ealert(1)%3C/script%3E");
+        return url.toString();
+    }
+
+    /**
+     * Pack par défaut complété de signatures synthétiques jusqu'à {@code count} motifs.
+     */
+    static SignatureMatcher matcher(int count) {
+        List<Signature> signatures = new ArrayList<>(SignaturePack.loadDefault().signatures());
+        Random random = new Random(7);
+        while (signatures.size() < count) {
+            StringBuilder pattern = new StringBuilder("zq");
+            int length = 4 + random.nextInt(8);
+            for (int i = 0; i < length; i++) {
+                pattern.append((char) ('a' + random.nextInt(26)));
+            }
+            signatures.add(new Signature(pattern.toString(), "SYNTHETIC_" + signatures.size() % 16,
+                    0.1, "Signature synthétique " + signatures.size() % 16));
+        }
+        return SignatureMatcher.compile(signatures);
+    }
+}
@@ -0,0 +1,40 @@
+package com.springaishield.benchmarks;
+
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Substitut mémoire de la base pour les benchmarks : historique figé par utilisateur, écritures comptées mais ignorées.
+ * On mesure ainsi le coût du moteur et du filtre, pas celui de JPA.
+ */
+public class InMemoryBehaviorRepository implements BehaviorRepository {
+
+    private final Map<String, List<UserBehavior>> histories = new ConcurrentHashMap<>();
+    private final LongAdder saveCount = new LongAdder();
+
+    public void put(String userId, List<UserBehavior> newestFirst) {
+        histories.put(userId, List.copyOf(newestFirst));
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        saveCount.increment();
+        return behavior;
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        List<UserBehavior> history = histories.getOrDefault(userId, Collections.emptyList());
+        return history.size() <= limit ? history : history.subList(0, limit);
+    }
+
+    public long saveCount() {
+        return saveCount.sum();
+    }
+}
@@ -0,0 +1,73 @@
+package com.springaishield.benchmarks;
+
+import com.springaishield.core.impl.MLPredictor;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.profile.BehaviorProfile;
+import com.springaishield.core.profile.BehaviorProfileStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de {@link MLPredictor#predictRisk(SecurityContext, List)} selon la taille de l'historique,
+ * comparé à la lecture d'un {@link BehaviorProfile} équivalent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MLPredictorBenchmark {
+
+    @Param({"0", "10", "50", "500"})
+    public int historySize;
+
+    private final MLPredictor predictor = new MLPredictor();
+    private List<UserBehavior> history;
+    private BehaviorProfile profile;
+    private SecurityContext knownIpContext;
+    private SecurityContext newIpContext;
+
+    @Setup
+    public void setUp() {
+        history = BenchmarkData.history(historySize);
+        BehaviorProfileStore store = new BehaviorProfileStore(10, Duration.ofHours(1));
+        profile = store.profile(BenchmarkData.USER_ID, () -> history);
+        knownIpContext = new SecurityContext(BenchmarkData.USER_ID, "/home", BenchmarkData.KNOWN_IP);
+        newIpContext = new SecurityContext(BenchmarkData.USER_ID, "/home", "192.168.1.77");
+    }
+
+    @Benchmark
+    public double knownIp() {
+        return predictor.predictRisk(knownIpContext, history);
+    }
+
+    @Benchmark
+    public double newIp() {
+        return predictor.predictRisk(newIpContext, history);
+    }
+
+    @Benchmark
+    public double knownIpFromProfile() {
+        return predictor.predictRisk(knownIpContext, profile);
+    }
+
+    @Benchmark
+    public double newIpFromProfile() {
+        return predictor.predictRisk(newIpContext, profile);
+    }
+}
@@ -0,0 +1,78 @@
+package com.springaishield.benchmarks;
+
+import com.springaishield.core.impl.BehavioralScoringEngine;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de {@link BehavioralScoringEngine#calculateRisk(SecurityContext)} selon la profondeur d'historique,
+ * la longueur d'URL et la taille du pack de signatures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoringEngineBenchmark {
+
+    @Param({"0", "10", "50"})
+    public int historySize;
+
+    @Param({"32", "256", "2048"})
+    public int urlLength;
+
+    @Param({"7", "100", "500"})
+    public int signatureCount;
+
+    private BehavioralScoringEngine engine;
+    private SecurityContext cleanContext;
+    private SecurityContext attackContext;
+
+    @Setup
+    public void setUp() {
+        InMemoryBehaviorRepository repository = new InMemoryBehaviorRepository();
+        repository.put(BenchmarkData.USER_ID, BenchmarkData.history(historySize));
+        engine = new BehavioralScoringEngine(repository, BenchmarkData.matcher(signatureCount));
+
+        cleanContext = new SecurityContext(BenchmarkData.USER_ID, BenchmarkData.cleanUrl(urlLength), BenchmarkData.KNOWN_IP);
+        attackContext = new SecurityContext(BenchmarkData.USER_ID, BenchmarkData.attackUrl(urlLength), BenchmarkData.KNOWN_IP);
+    }
+
+    @Benchmark
+    public RiskScore cleanRequest() {
+        return engine.calculateRisk(cleanContext);
+    }
+
+    @Benchmark
+    public RiskScore attackRequest() {
+        return engine.calculateRisk(attackContext);
+    }
+
+    // Contention : même moteur (ThreadLocal, dépôt partagé) sollicité par plusieurs threads
+    @Benchmark
+    @Threads(4)
+    public RiskScore cleanRequest4Threads() {
+        return engine.calculateRisk(cleanContext);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public RiskScore cleanRequestAllCores() {
+        return engine.calculateRisk(cleanContext);
+    }
+}
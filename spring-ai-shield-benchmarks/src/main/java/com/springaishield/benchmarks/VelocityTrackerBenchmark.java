@@ -0,0 +1,55 @@
+package com.springaishield.benchmarks;
+
+import com.springaishield.core.velocity.VelocityTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de {@link VelocityTracker#record(String)} sur tous les cœurs : clés réparties (cas nominal)
+ * et clé unique (rafale depuis une seule IP, contention maximale).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class VelocityTrackerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tracker {
+
+        final VelocityTracker tracker = new VelocityTracker(Duration.ofSeconds(10), 10, 100_000);
+        final String[] keys = new String[10_000];
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+            }
+        }
+    }
+
+    @Benchmark
+    public long spreadKeys(Tracker state) {
+        return state.tracker.record(state.keys[ThreadLocalRandom.current().nextInt(state.keys.length)]);
+    }
+
+    @Benchmark
+    public long singleHotKey(Tracker state) {
+        return state.tracker.record(state.keys[0]);
+    }
+}
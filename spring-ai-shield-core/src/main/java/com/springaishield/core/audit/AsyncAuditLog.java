@@ -0,0 +1,224 @@
+package com.springaishield.core.audit;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'audit asynchrone : une ligne JSON par décision, formatée hors du thread de la requête.
+ * <ul>
+ *     <li>Tampon circulaire d'emplacements préalloués : l'appelant ne copie que des références (contexte, score)
+ *     et n'alloue rien ; aucun verrou, un seul CAS pour réserver l'emplacement.</li>
+ *     <li>Un thread démon formate chaque décision dans un {@link StringBuilder} réutilisé et la transmet à
+ *     l'{@link AuditSink}.</li>
+ *     <li>Tampon plein : la ligne est abandonnée et comptée ({@link #droppedCount()}), la requête n'attend jamais.</li>
+ * </ul>
+ * Format : {@code {"ts":1700000000000,"decision":"blocked","score":0.6,"user":"...","ip":"...","url":"...",
+ * "reason":"...","factors":["SQL_INJECTION"]}}.
+ */
+public class AsyncAuditLog implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AuditSink sink;
+    private final Thread writer;
+
+    private final AtomicLong tail = new AtomicLong(); // prochain emplacement à réserver
+    private volatile long head; // prochain emplacement à écrire (thread d'écriture uniquement)
+    private volatile boolean running = true;
+
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * @param capacity Nombre d'emplacements, arrondi à la puissance de deux supérieure.
+     */
+    public AsyncAuditLog(AuditSink sink, int capacity) {
+        if (capacity <= 0 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("capacity doit être compris entre 1 et 2^24.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i - size); // aucun emplacement publié au départ
+        }
+        this.mask = size - 1;
+        this.sink = sink;
+
+        this.writer = new Thread(this::drainLoop, "ai-shield-audit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enregistre une décision ; ne bloque jamais.
+     *
+     * @return {@code false} si le tampon était plein (ligne abandonnée) ou le journal fermé.
+     */
+    public boolean record(SecurityContext context, RiskScore risk, boolean blocked) {
+        if (!running) {
+            droppedCount.increment();
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= slots.length) {
+                droppedCount.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) sequence & mask];
+        slot.timestamp = System.currentTimeMillis();
+        slot.context = context;
+        slot.risk = risk;
+        slot.blocked = blocked;
+        slot.published = sequence; // écriture volatile : publie les champs ci-dessus
+        return true;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            long sequence = head;
+            Slot slot = slots[(int) sequence & mask];
+            if (slot.published == sequence) {
+                write(slot);
+                slot.context = null;
+                slot.risk = null;
+                head = sequence + 1; // libère l'emplacement pour les producteurs
+                continue;
+            }
+            if (tail.get() != sequence) {
+                Thread.onSpinWait(); // emplacement réservé, publication imminente
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+            flushSink();
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        flushSink();
+    }
+
+    private void write(Slot slot) {
+        StringBuilder out = line;
+        out.setLength(0);
+        out.append("{\"ts\":").append(slot.timestamp)
+                .append(",\"decision\":\"").append(slot.blocked ? "blocked" : "allowed")
+                .append("\",\"score\":").append(slot.risk.score());
+        appendField(out, "user", slot.context.userId());
+        appendField(out, "ip", slot.context.ipAddress());
+        appendField(out, "url", slot.context.requestUrl());
+        appendField(out, "reason", slot.risk.reason());
+        out.append(",\"factors\":[");
+        List<RiskFactor> factors = slot.risk.contributingFactors();
+        for (int i = 0; i < factors.size(); i++) {
+            if (i > 0) out.append(',');
+            appendString(out, factors.get(i).name());
+        }
+        out.append("]}");
+
+        try {
+            sink.write(out);
+            writtenCount.increment();
+        } catch (RuntimeException e) {
+            // Une destination en échec ne doit pas arrêter le thread d'écriture
+            droppedCount.increment();
+        }
+    }
+
+    private void flushSink() {
+        try {
+            sink.flush();
+        } catch (RuntimeException e) {
+            // ignoré : réessayé au prochain passage
+        }
+    }
+
+    private static void appendField(StringBuilder out, String name, String value) {
+        out.append(",\"").append(name).append("\":");
+        appendString(out, value);
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        out.append("\\u").append(HEX[c >> 12 & 0xF]).append(HEX[c >> 8 & 0xF])
+                                .append(HEX[c >> 4 & 0xF]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Arrête le thread d'écriture après avoir vidé le tampon.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long writtenCount() {
+        return writtenCount.sum();
+    }
+
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    public int pendingCount() {
+        return (int) (tail.get() - head);
+    }
+
+    private static final class Slot {
+
+        volatile long published;
+        long timestamp;
+        SecurityContext context;
+        RiskScore risk;
+        boolean blocked;
+
+        Slot(long published) {
+            this.published = published;
+        }
+    }
+}
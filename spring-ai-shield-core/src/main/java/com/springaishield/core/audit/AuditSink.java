@@ -0,0 +1,19 @@
+package com.springaishield.core.audit;
+
+/**
+ * Destination des lignes d'audit produites par {@link AsyncAuditLog} (journal, fichier, collecteur...).
+ * Appelée uniquement depuis le thread d'écriture de l'audit : les implémentations n'ont pas à être thread-safe.
+ */
+public interface AuditSink {
+
+    /**
+     * Écrit une ligne JSON complète. {@code line} est réutilisé après l'appel : le copier pour le conserver.
+     */
+    void write(CharSequence line);
+
+    /**
+     * Appelé quand le tampon est vide : moment opportun pour vider un tampon d'écriture.
+     */
+    default void flush() {
+    }
+}
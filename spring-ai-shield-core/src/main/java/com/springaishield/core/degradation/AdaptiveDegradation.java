@@ -0,0 +1,263 @@
+package com.springaishield.core.degradation;
+
+import com.springaishield.core.route.ScoringLevel;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Dégradation adaptative : quand la base ralentit, le filtre ne doit pas propager l'incident à tous les endpoints.
+ * <ul>
+ *     <li>Le surcoût du filtre est suivi par une moyenne mobile exponentielle (EWMA) par chemin : analyse complète
+ *     (historique, modèle, persistance) et heuristiques seules.</li>
+ *     <li>Chemin courant au-dessus du budget : le mode descend d'un cran, {@link DegradationMode#FULL} puis
+ *     {@link DegradationMode#HEURISTICS_ONLY} puis {@link DegradationMode#SAMPLED}.</li>
+ *     <li>Retour automatique d'un cran quand le chemin supérieur repasse sous {@code budget × recoveryRatio}
+ *     (hystérésis). En mode heuristique, une fraction des requêtes ({@code probeRate}, et au moins une par
+ *     {@code minDwell}) emprunte encore le chemin complet pour le mesurer.</li>
+ *     <li>Un mode est conservé au moins {@code minDwell} : pas d'oscillation d'une requête à l'autre.</li>
+ * </ul>
+ * Le thread de la requête ne prend jamais de verrou : lecture du mode, tirage aléatoire et CAS sur la moyenne.
+ */
+public class AdaptiveDegradation {
+
+    private static final long NO_SAMPLE = Double.doubleToRawLongBits(Double.NaN);
+
+    private final long budgetNanos;
+    private final long recoveryNanos;
+    private final double smoothing;
+    private final long minDwellNanos;
+    private final double probeRate;
+    private final double sampleRate;
+    private final Consumer<DegradationMode> listener;
+    private final LongSupplier clock;
+
+    // Moyennes en nanosecondes (bits d'un double), NaN tant qu'aucune mesure n'a été reçue
+    private final AtomicLong fullPath = new AtomicLong(NO_SAMPLE);
+    private final AtomicLong heuristicPath = new AtomicLong(NO_SAMPLE);
+
+    private volatile DegradationMode mode = DegradationMode.FULL;
+    private volatile boolean pinned;
+    private volatile long changedAt;
+    private volatile long lastProbeAt;
+
+    private final AtomicLong transitionCount = new AtomicLong();
+    private final LongAdder probeCount = new LongAdder();
+    private final LongAdder shedCount = new LongAdder();
+
+    /**
+     * @param budget        Surcoût moyen toléré par requête.
+     * @param recoveryRatio Fraction du budget sous laquelle le mode supérieur est rétabli (0 exclu à 1).
+     * @param smoothing     Poids d'une nouvelle mesure dans la moyenne (0 exclu à 1).
+     * @param minDwell      Durée minimale passée dans un mode.
+     * @param probeRate     Fraction des requêtes mesurant le chemin complet en mode heuristique.
+     * @param sampleRate    Fraction des requêtes analysées en mode échantillonné.
+     * @param listener      Appelé à chaque changement de mode, sur le thread de la requête ; peut être {@code null}.
+     */
+    public AdaptiveDegradation(Duration budget, double recoveryRatio, double smoothing, Duration minDwell,
+                               double probeRate, double sampleRate, Consumer<DegradationMode> listener) {
+        this(budget, recoveryRatio, smoothing, minDwell, probeRate, sampleRate, listener, System::nanoTime);
+    }
+
+    AdaptiveDegradation(Duration budget, double recoveryRatio, double smoothing, Duration minDwell,
+                        double probeRate, double sampleRate, Consumer<DegradationMode> listener, LongSupplier clock) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("budget doit être strictement positif.");
+        }
+        if (recoveryRatio <= 0.0 || recoveryRatio > 1.0 || smoothing <= 0.0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("recoveryRatio et smoothing doivent être compris entre 0 (exclu) et 1.");
+        }
+        if (probeRate < 0.0 || probeRate > 1.0 || sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("probeRate et sampleRate doivent être compris entre 0 et 1.");
+        }
+        if (minDwell.isNegative()) {
+            throw new IllegalArgumentException("minDwell ne peut pas être négatif.");
+        }
+        this.budgetNanos = budget.toNanos();
+        this.recoveryNanos = (long) (budgetNanos * recoveryRatio);
+        this.smoothing = smoothing;
+        this.minDwellNanos = minDwell.toNanos();
+        this.probeRate = probeRate;
+        this.sampleRate = sampleRate;
+        this.listener = listener;
+        this.clock = clock;
+        this.changedAt = clock.getAsLong();
+        this.lastProbeAt = changedAt;
+    }
+
+    /**
+     * Niveau d'analyse à appliquer à une requête, compte tenu du mode courant.
+     *
+     * @param routeLevel Niveau prévu par la politique de la route.
+     * @return {@link ScoringLevel#SKIP} pour une requête écartée en mode échantillonné.
+     */
+    public ScoringLevel levelFor(ScoringLevel routeLevel) {
+        if (routeLevel == ScoringLevel.SKIP) {
+            return routeLevel;
+        }
+        return switch (mode) {
+            case FULL -> routeLevel;
+            case HEURISTICS_ONLY -> routeLevel == ScoringLevel.FULL && probe()
+                    ? ScoringLevel.FULL : ScoringLevel.HEURISTICS_ONLY;
+            case SAMPLED -> {
+                if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                    yield ScoringLevel.HEURISTICS_ONLY;
+                }
+                shedCount.increment();
+                yield ScoringLevel.SKIP;
+            }
+        };
+    }
+
+    private boolean probe() {
+        if (pinned) {
+            return false;
+        }
+        // Sonde au moins une fois par minDwell, même à faible trafic : sans mesure, pas de retour possible
+        long now = clock.getAsLong();
+        if (ThreadLocalRandom.current().nextDouble() >= probeRate && now - lastProbeAt < minDwellNanos) {
+            return false;
+        }
+        lastProbeAt = now;
+        probeCount.increment();
+        return true;
+    }
+
+    /**
+     * Enregistre le surcoût d'une requête analysée au niveau {@code level} et ajuste le mode.
+     */
+    public void record(ScoringLevel level, long nanos) {
+        switch (level) {
+            case FULL -> update(fullPath, nanos);
+            case HEURISTICS_ONLY -> update(heuristicPath, nanos);
+            default -> {
+                return;
+            }
+        }
+        adjust(clock.getAsLong());
+    }
+
+    private void update(AtomicLong average, long nanos) {
+        long bits;
+        long next;
+        do {
+            bits = average.get();
+            double current = Double.longBitsToDouble(bits);
+            next = Double.doubleToRawLongBits(Double.isNaN(current) ? nanos : current + smoothing * (nanos - current));
+        } while (!average.compareAndSet(bits, next));
+    }
+
+    private void adjust(long now) {
+        if (pinned) {
+            return;
+        }
+        DegradationMode current = mode;
+        DegradationMode target = target(current);
+        if (target == current || now - changedAt < minDwellNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (pinned || mode != current) {
+                return; // changé entre-temps par un autre thread
+            }
+            mode = target;
+            changedAt = now;
+            lastProbeAt = now;
+            transitionCount.incrementAndGet();
+        }
+        if (listener != null) {
+            listener.accept(target);
+        }
+    }
+
+    // Comparaisons fausses avec NaN : un chemin jamais mesuré ne fait ni descendre ni remonter
+    private DegradationMode target(DegradationMode current) {
+        double full = fullPathNanos();
+        double heuristic = heuristicPathNanos();
+        return switch (current) {
+            case FULL -> full > budgetNanos ? DegradationMode.HEURISTICS_ONLY : current;
+            case HEURISTICS_ONLY -> heuristic > budgetNanos ? DegradationMode.SAMPLED
+                    : full < recoveryNanos ? DegradationMode.FULL : current;
+            case SAMPLED -> heuristic < recoveryNanos ? DegradationMode.HEURISTICS_ONLY : current;
+        };
+    }
+
+    /**
+     * Fixe le mode (intervention manuelle) : plus d'ajustement automatique jusqu'à {@link #release()}.
+     */
+    public synchronized void pin(DegradationMode pinnedMode) {
+        if (pinnedMode == null) {
+            throw new IllegalArgumentException("pinnedMode est obligatoire.");
+        }
+        pinned = true;
+        if (mode != pinnedMode) {
+            mode = pinnedMode;
+            changedAt = clock.getAsLong();
+            transitionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rend la main à l'ajustement automatique, à partir du mode courant.
+     */
+    public synchronized void release() {
+        pinned = false;
+        changedAt = clock.getAsLong();
+        lastProbeAt = changedAt;
+    }
+
+    public DegradationMode mode() {
+        return mode;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    /**
+     * Temps passé dans le mode courant.
+     */
+    public Duration timeInMode() {
+        return Duration.ofNanos(clock.getAsLong() - changedAt);
+    }
+
+    /**
+     * Surcoût moyen du chemin complet, en nanosecondes ({@code NaN} sans mesure).
+     */
+    public double fullPathNanos() {
+        return Double.longBitsToDouble(fullPath.get());
+    }
+
+    /**
+     * Surcoût moyen du chemin heuristique, en nanosecondes ({@code NaN} sans mesure).
+     */
+    public double heuristicPathNanos() {
+        return Double.longBitsToDouble(heuristicPath.get());
+    }
+
+    public long budgetNanos() {
+        return budgetNanos;
+    }
+
+    public long transitionCount() {
+        return transitionCount.get();
+    }
+
+    /**
+     * Requêtes du mode heuristique envoyées sur le chemin complet pour le mesurer.
+     */
+    public long probeCount() {
+        return probeCount.sum();
+    }
+
+    /**
+     * Requêtes passées sans analyse en mode échantillonné.
+     */
+    public long shedCount() {
+        return shedCount.sum();
+    }
+}
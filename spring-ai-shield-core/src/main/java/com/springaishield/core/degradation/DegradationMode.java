@@ -0,0 +1,16 @@
+package com.springaishield.core.degradation;
+
+/**
+ * Mode de fonctionnement du bouclier sous charge, du plus complet au plus économe.
+ */
+public enum DegradationMode {
+
+    /** Politique de chaque route appliquée telle quelle. */
+    FULL,
+
+    /** Routes {@code FULL} ramenées aux analyseurs en mémoire : ni historique ni modèle, persistance des seuls blocages. */
+    HEURISTICS_ONLY,
+
+    /** Une fraction des requêtes seulement est analysée (heuristiques) ; les autres passent sans analyse. */
+    SAMPLED
+}
@@ -0,0 +1,58 @@
+package com.springaishield.core.encoding;
+
+import com.springaishield.core.reputation.IpAddresses;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Adresse IP sous forme binaire pour le stockage : 4 octets (IPv4) ou 16 octets (IPv6), au lieu d'une quinzaine à
+ * une quarantaine de caractères.
+ * <p>
+ * Le décodage rend la forme textuelle de {@link InetAddress#getHostAddress()}, celle que fournissent les conteneurs
+ * servlet et WebFlux : IPv6 non compressée ({@code 0:0:0:0:0:0:0:1}), IPv4 intégrée ramenée à l'IPv4.
+ */
+public final class IpCodec {
+
+    private IpCodec() {
+    }
+
+    /**
+     * @return {@code null} si {@code ip} n'est pas une adresse littérale (valeur absente, {@code "unknown"}...).
+     */
+    public static byte[] encode(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        long v4 = IpAddresses.parseIpv4(ip, 0, ip.length());
+        if (v4 != IpAddresses.INVALID) {
+            return new byte[]{(byte) (v4 >>> 24), (byte) (v4 >>> 16), (byte) (v4 >>> 8), (byte) v4};
+        }
+        long[] v6 = new long[2];
+        if (!IpAddresses.parseIpv6(ip, v6)) {
+            return null;
+        }
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (v6[0] >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (v6[1] >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * @return {@code null} pour {@code null}.
+     * @throws IllegalArgumentException si {@code bytes} ne fait ni 4 ni 16 octets.
+     */
+    public static String decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            // Adresse construite à partir des octets : aucune résolution DNS
+            return InetAddress.getByAddress(bytes).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Adresse binaire invalide (" + bytes.length + " octets).", e);
+        }
+    }
+}
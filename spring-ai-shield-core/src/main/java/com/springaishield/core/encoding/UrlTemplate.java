@@ -0,0 +1,156 @@
+package com.springaishield.core.encoding;
+
+/**
+ * Découpage d'une URL en gabarit de chemin et en arguments, pour la stocker sous forme compacte : le gabarit
+ * ({@code /api/users/{}/orders}), partagé par de nombreuses requêtes, va dans un dictionnaire ; seuls les segments
+ * variables et la chaîne de requête restent sur chaque ligne. {@link #expand(String, String)} reconstruit l'URL
+ * d'origine à l'identique.
+ * <p>
+ * Un segment est variable s'il n'est pas un mot simple : chiffres, identifiants (UUID, hachages, jetons mêlant
+ * lettres et chiffres), caractères encodés ou spéciaux, segments longs. Le nombre de gabarits reste ainsi borné par
+ * les routes de l'application plutôt que par les données.
+ */
+public final class UrlTemplate {
+
+    /** Segment variable dans un gabarit. */
+    public static final String PLACEHOLDER = "{}";
+
+    private static final int MAX_LITERAL_SEGMENT = 32;
+    // Segment d'au moins cette longueur contenant un chiffre : identifiant plutôt que mot (v1, api2 restent littéraux)
+    private static final int MIN_TOKEN_LENGTH = 8;
+
+    private UrlTemplate() {
+    }
+
+    /**
+     * @param template Gabarit du chemin ; {@code null} si l'URL n'est pas un chemin absolu (stockée entière dans
+     *                 {@code args}).
+     * @param args     Segments variables séparés par {@code /}, puis {@code ?} et la chaîne de requête ;
+     *                 {@code null} si l'URL est entièrement décrite par le gabarit.
+     */
+    public record Split(String template, String args) {
+    }
+
+    public static Split split(String url) {
+        if (url == null || url.isEmpty() || url.charAt(0) != '/') {
+            return new Split(null, url);
+        }
+        int queryStart = url.indexOf('?');
+        int pathEnd = queryStart >= 0 ? queryStart : url.length();
+
+        StringBuilder template = new StringBuilder(pathEnd);
+        StringBuilder args = null;
+        int start = 0;
+        while (start < pathEnd) {
+            int end = url.indexOf('/', start + 1);
+            if (end < 0 || end > pathEnd) {
+                end = pathEnd;
+            }
+            // Segment entre start + 1 et end (start pointe sur le '/')
+            template.append('/');
+            if (isVariable(url, start + 1, end)) {
+                template.append(PLACEHOLDER);
+                if (args == null) {
+                    args = new StringBuilder();
+                } else {
+                    args.append('/');
+                }
+                args.append(url, start + 1, end);
+            } else {
+                template.append(url, start + 1, end);
+            }
+            start = end;
+        }
+
+        if (queryStart >= 0) {
+            if (args == null) {
+                args = new StringBuilder();
+            }
+            args.append(url, queryStart, url.length());
+        }
+        return new Split(template.toString(), args != null ? args.toString() : null);
+    }
+
+    /**
+     * Inverse de {@link #split(String)}.
+     *
+     * @throws IllegalArgumentException si {@code args} ne contient pas un segment par emplacement du gabarit.
+     */
+    public static String expand(String template, String args) {
+        if (template == null) {
+            return args;
+        }
+        if (args == null) {
+            return template;
+        }
+        int queryStart = args.indexOf('?');
+        int varsEnd = queryStart >= 0 ? queryStart : args.length();
+
+        StringBuilder url = new StringBuilder(template.length() + args.length());
+        int varStart = 0;
+        int from = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf(PLACEHOLDER, from)) >= 0) {
+            if (varStart > varsEnd) {
+                throw new IllegalArgumentException("Arguments insuffisants pour le gabarit " + template);
+            }
+            int varEnd = args.indexOf('/', varStart);
+            if (varEnd < 0 || varEnd > varsEnd) {
+                varEnd = varsEnd;
+            }
+            url.append(template, from, placeholder).append(args, varStart, varEnd);
+            varStart = varEnd + 1;
+            from = placeholder + PLACEHOLDER.length();
+        }
+        if (varStart < varsEnd) {
+            throw new IllegalArgumentException("Arguments en trop pour le gabarit " + template);
+        }
+        url.append(template, from, template.length());
+        if (queryStart >= 0) {
+            url.append(args, queryStart, args.length());
+        }
+        return url.toString();
+    }
+
+    /**
+     * Empreinte 64 bits stable de l'URL complète (FNV-1a puis mélange final) : identique d'une instance et d'un
+     * redémarrage à l'autre, elle peut être stockée et indexée.
+     */
+    public static long hash(String url) {
+        if (url == null) {
+            return 0L;
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < url.length(); i++) {
+            h = (h ^ url.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static boolean isVariable(String url, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return false; // « // » conservé tel quel
+        }
+        if (length > MAX_LITERAL_SEGMENT) {
+            return true;
+        }
+        boolean digit = false;
+        boolean letter = false;
+        for (int i = from; i < to; i++) {
+            char c = url.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z') {
+                letter = true;
+            } else if (c != '-' && c != '_' && c != '.') {
+                return true; // %, {, ;, caractères non ASCII...
+            }
+        }
+        return digit && (!letter || length >= MIN_TOKEN_LENGTH);
+    }
+}
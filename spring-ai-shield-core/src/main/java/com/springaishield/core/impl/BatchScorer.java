@@ -0,0 +1,212 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Scoring par lots, hors requête : rejouer l'historique ({@code ai_user_behavior}) après un changement de règles,
+ * évaluer un export de journaux...
+ * <ul>
+ *     <li>L'entrée est lue par tranches de {@code chunkSize} éléments : la mémoire occupée est bornée par deux
+ *     tranches (celle évaluée et la suivante, lue pendant l'évaluation), quelle que soit la taille du lot.</li>
+ *     <li>Dans une tranche, les contextes sont regroupés par utilisateur : l'historique est chargé une fois par
+ *     utilisateur et par tranche, puis les groupes (découpés s'ils sont gros) sont évalués en fork-join.</li>
+ *     <li>Les résultats sont remis au consommateur sur le thread appelant, dans l'ordre de l'entrée :
+ *     le consommateur n'a pas besoin d'être thread-safe.</li>
+ * </ul>
+ * Le pipeline s'exécute en ligne sur les threads du pool ({@link ScoringPipeline#evaluate(SecurityContext, List)}) :
+ * ni exécuteur déporté ni budget de latence. L'historique lu est l'historique actuel de l'utilisateur, pas celui de
+ * la date de l'événement rejoué ; les évaluateurs à état (débit) voient passer le trafic rejoué.
+ */
+public class BatchScorer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 2048;
+    // Contextes d'un même utilisateur évalués d'un bloc avant de découper la tâche
+    private static final int LEAF_SIZE = 64;
+
+    private final ScoringPipeline pipeline;
+    private final Function<String, List<UserBehavior>> historyLoader;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    private final LongAdder historyLookups = new LongAdder();
+
+    public BatchScorer(ScoringPipeline pipeline, BehaviorRepository behaviorRepository) {
+        this(pipeline, userId -> behaviorRepository.findRecentByUserId(userId, ScoringPipeline.HISTORY_DEPTH),
+                ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param historyLoader Historique d'un utilisateur ; jamais appelé si aucun évaluateur n'en a besoin.
+     * @param pool          Pool d'évaluation (appels concurrents à {@code historyLoader} : jusqu'à son parallélisme).
+     * @param chunkSize     Éléments lus et évalués ensemble.
+     */
+    public BatchScorer(ScoringPipeline pipeline, Function<String, List<UserBehavior>> historyLoader,
+                       ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize doit être strictement positif.");
+        }
+        this.pipeline = pipeline;
+        this.historyLoader = historyLoader;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return Nombre de contextes évalués.
+     */
+    public long score(Stream<SecurityContext> contexts, BiConsumer<? super SecurityContext, RiskScore> sink) {
+        return score(contexts, Function.identity(), sink);
+    }
+
+    /**
+     * Variante pour des éléments qui portent un contexte (ligne d'historique avec son identifiant et son ancien
+     * score...) : l'élément d'origine est remis au consommateur avec son nouveau score.
+     *
+     * @return Nombre d'éléments évalués.
+     */
+    public <T> long score(Stream<T> items, Function<? super T, SecurityContext> contextOf,
+                          BiConsumer<? super T, RiskScore> sink) {
+        Iterator<T> iterator = items.iterator();
+        long count = 0;
+
+        List<T> current = readChunk(iterator);
+        while (!current.isEmpty()) {
+            ChunkTask<T> task = new ChunkTask<>(current, contextOf);
+            pool.execute(task);
+            // Lecture de la tranche suivante pendant l'évaluation (source JDBC, fichier...)
+            List<T> next = readChunk(iterator);
+            task.join();
+
+            RiskScore[] scores = task.scores;
+            for (int i = 0; i < current.size(); i++) {
+                sink.accept(current.get(i), scores[i]);
+            }
+            count += current.size();
+            current = next;
+        }
+        return count;
+    }
+
+    private <T> List<T> readChunk(Iterator<T> iterator) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && iterator.hasNext()) {
+            chunk.add(iterator.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Chargements d'historique effectués (un par utilisateur et par tranche).
+     */
+    public long historyLookups() {
+        return historyLookups.sum();
+    }
+
+    private final class ChunkTask<T> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Function<? super T, SecurityContext> contextOf;
+        private final SecurityContext[] contexts;
+        private final RiskScore[] scores;
+
+        ChunkTask(List<T> items, Function<? super T, SecurityContext> contextOf) {
+            this.items = items;
+            this.contextOf = contextOf;
+            this.contexts = new SecurityContext[items.size()];
+            this.scores = new RiskScore[items.size()];
+        }
+
+        @Override
+        protected void compute() {
+            Map<String, IndexList> users = new HashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                contexts[i] = contextOf.apply(items.get(i));
+                users.computeIfAbsent(contexts[i].userId(), userId -> new IndexList()).add(i);
+            }
+
+            List<UserTask> tasks = new ArrayList<>(users.size());
+            users.forEach((userId, indices) -> tasks.add(new UserTask(userId, indices)));
+            ForkJoinTask.invokeAll(tasks);
+        }
+
+        private final class UserTask extends RecursiveAction {
+
+            private final String userId;
+            private final IndexList indices;
+
+            UserTask(String userId, IndexList indices) {
+                this.userId = userId;
+                this.indices = indices;
+            }
+
+            @Override
+            protected void compute() {
+                List<UserBehavior> history = List.of();
+                if (pipeline.requiresHistory()) {
+                    historyLookups.increment();
+                    history = historyLoader.apply(userId);
+                }
+                new SliceTask(indices, 0, indices.size, history).compute();
+            }
+        }
+
+        private final class SliceTask extends RecursiveAction {
+
+            private final IndexList indices;
+            private final int from;
+            private final int to;
+            private final List<UserBehavior> history;
+
+            SliceTask(IndexList indices, int from, int to, List<UserBehavior> history) {
+                this.indices = indices;
+                this.from = from;
+                this.to = to;
+                this.history = history;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > LEAF_SIZE) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new SliceTask(indices, from, middle, history),
+                            new SliceTask(indices, middle, to, history));
+                    return;
+                }
+                for (int i = from; i < to; i++) {
+                    int index = indices.values[i];
+                    scores[index] = BehavioralScoringEngine.aggregate(pipeline.evaluate(contexts[index], history));
+                }
+            }
+        }
+    }
+
+    private static final class IndexList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.service.RiskScoringService;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de décisions devant un {@link RiskScoringService} : un même triplet (utilisateur, IP, URL) répété en
+ * quelques secondes (clients qui réessaient, robots) réutilise le score calculé, sans historique ni décodage.
+ * <ul>
+ *     <li>Table à correspondance directe de taille fixe, indexée par un hachage 64 bits à graine aléatoire ;
+ *     une collision remplace simplement l'entrée. Le contexte complet est comparé avant de servir un score.</li>
+ *     <li>Durée de vie courte ({@code ttl}) : les entrées expirées sont recalculées.</li>
+ *     <li>Invalidation par utilisateur : chaque entrée porte l'époque de l'utilisateur (table d'époques par
+ *     tranches) ; {@link #invalidateUser(String)} la fait avancer. {@link #invalidating(BehaviorRepository)}
+ *     l'appelle quand un événement enregistré change une caractéristique du modèle : premier événement ou
+ *     nouvelle IP pour l'utilisateur. Les autres dérives de l'historique (fréquence d'une IP) sont bornées
+ *     par le TTL.</li>
+ *     <li>Les évaluateurs non {@link RiskFactorEvaluator#cacheable() cacheables} (compteurs de débit) sont
+ *     exécutés à chaque requête, après la décision, et leurs facteurs ajoutés au score.</li>
+ * </ul>
+ * Les scores partiels (budget de latence dépassé) et les URL de plus de {@value #MAX_CACHED_URL_LENGTH}
+ * caractères ne sont pas mis en cache.
+ */
+public class CachingRiskScoringService implements RiskScoringService {
+
+    static final int MAX_CACHED_URL_LENGTH = 2048;
+    private static final int EPOCH_STRIPES = 1 << 14;
+    // Estimation d'une entrée hors texte : enregistrement, contexte, en-têtes des trois chaînes
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final RiskScoringService delegate;
+    private final RiskFactorEvaluator[] perRequestEvaluators;
+    private final ShieldMetrics metrics;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final long seed = new SecureRandom().nextLong();
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLongArray userEpochs = new AtomicLongArray(EPOCH_STRIPES);
+    // Hachage de la dernière IP enregistrée par tranche d'utilisateurs (0 : aucun événement vu)
+    private final AtomicIntegerArray lastIpHashes = new AtomicIntegerArray(EPOCH_STRIPES);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidationCount = new LongAdder();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final AtomicLong entryCount = new AtomicLong();
+
+    public CachingRiskScoringService(RiskScoringService delegate, int capacity, Duration ttl, ShieldMetrics metrics) {
+        this(delegate, List.of(), capacity, ttl, metrics);
+    }
+
+    /**
+     * @param perRequestEvaluators Évaluateurs exécutés à chaque requête, hors cache (absents du pipeline délégué).
+     * @param capacity             Nombre d'entrées, arrondi à la puissance de deux supérieure.
+     */
+    public CachingRiskScoringService(RiskScoringService delegate, List<RiskFactorEvaluator> perRequestEvaluators,
+                                     int capacity, Duration ttl, ShieldMetrics metrics) {
+        this(delegate, perRequestEvaluators, capacity, ttl, metrics, System::nanoTime);
+    }
+
+    CachingRiskScoringService(RiskScoringService delegate, List<RiskFactorEvaluator> perRequestEvaluators,
+                              int capacity, Duration ttl, ShieldMetrics metrics, LongSupplier clock) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity doit être compris entre 1 et 2^30.");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl doit être strictement positif.");
+        }
+        for (RiskFactorEvaluator evaluator : perRequestEvaluators) {
+            if (evaluator.requiresHistory()) {
+                throw new IllegalArgumentException(
+                        "L'évaluateur " + evaluator.name() + " lit l'historique : il ne peut pas être exécuté hors pipeline.");
+            }
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.delegate = delegate;
+        this.perRequestEvaluators = perRequestEvaluators.toArray(RiskFactorEvaluator[]::new);
+        this.metrics = metrics;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public RiskScore calculateRisk(SecurityContext context) {
+        RiskScore score = cachedOrComputed(context);
+        return perRequestEvaluators.length == 0 ? score : withPerRequestFactors(context, score);
+    }
+
+    // Déjà peu coûteux : pas de mise en cache, seuls les évaluateurs par requête sont ajoutés
+    @Override
+    public RiskScore calculateHeuristicRisk(SecurityContext context) {
+        RiskScore score = delegate.calculateHeuristicRisk(context);
+        return perRequestEvaluators.length == 0 ? score : withPerRequestFactors(context, score);
+    }
+
+    private RiskScore cachedOrComputed(SecurityContext context) {
+        if (context.requestUrl() != null && context.requestUrl().length() > MAX_CACHED_URL_LENGTH) {
+            record(false);
+            return delegate.calculateRisk(context);
+        }
+
+        long hash = hash(context);
+        int slot = (int) hash & mask;
+        int stripe = stripe(context.userId());
+        // Époque lue avant le calcul : une invalidation concurrente rend l'entrée aussitôt périmée
+        long epoch = userEpochs.get(stripe);
+        long now = clock.getAsLong();
+
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.hash == hash && entry.epoch == epoch && now - entry.expiresAt < 0
+                && entry.context.equals(context)) {
+            record(true);
+            return entry.score;
+        }
+
+        record(false);
+        RiskScore score = delegate.calculateRisk(context);
+        if (!isPartial(score)) {
+            store(slot, new Entry(hash, context, score, now + ttlNanos, epoch, sizeOf(context)));
+        }
+        return score;
+    }
+
+    private void store(int slot, Entry entry) {
+        Entry previous = slots.getAndSet(slot, entry);
+        if (previous == null) {
+            entryCount.incrementAndGet();
+            estimatedBytes.addAndGet(entry.bytes);
+        } else {
+            estimatedBytes.addAndGet(entry.bytes - previous.bytes);
+        }
+    }
+
+    private RiskScore withPerRequestFactors(SecurityContext context, RiskScore score) {
+        EvaluationContext evaluationContext = EvaluationContext.withHistory(context, List.of());
+        List<RiskFactor> extra = new ArrayList<>(2);
+        for (RiskFactorEvaluator evaluator : perRequestEvaluators) {
+            long start = System.nanoTime();
+            evaluator.evaluate(evaluationContext, extra);
+            metrics.recordStage(evaluator.name(), System.nanoTime() - start);
+        }
+        if (extra.isEmpty()) {
+            return score;
+        }
+
+        List<RiskFactor> factors = new ArrayList<>(score.contributingFactors().size() + extra.size());
+        factors.addAll(score.contributingFactors());
+        factors.addAll(extra);
+        return BehavioralScoringEngine.aggregate(factors);
+    }
+
+    private static boolean isPartial(RiskScore score) {
+        for (RiskFactor factor : score.contributingFactors()) {
+            if (ScoringPipeline.TIMEOUT_FACTOR.equals(factor.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(boolean hit) {
+        (hit ? hitCount : missCount).increment();
+        metrics.recordDecisionCache(hit);
+    }
+
+    /**
+     * Périme toutes les décisions en cache de cet utilisateur (et des utilisateurs de la même tranche).
+     */
+    public void invalidateUser(String userId) {
+        userEpochs.incrementAndGet(stripe(userId));
+        invalidationCount.increment();
+    }
+
+    /**
+     * Prend en compte un événement enregistré : invalide l'utilisateur si l'événement modifie une
+     * caractéristique du modèle (premier événement, IP différente de la précédente).
+     */
+    public void onEvent(UserBehavior behavior) {
+        int stripe = stripe(behavior.userId());
+        int ipHash = behavior.ipAddress() == null ? 1 : behavior.ipAddress().hashCode() | 1;
+        if (lastIpHashes.getAndSet(stripe, ipHash) != ipHash) {
+            invalidateUser(behavior.userId());
+        }
+    }
+
+    /**
+     * Dépôt qui notifie ce cache de chaque événement enregistré (voir {@link #onEvent(UserBehavior)}).
+     */
+    public BehaviorRepository invalidating(BehaviorRepository repository) {
+        return new BehaviorRepository() {
+            @Override
+            public UserBehavior save(UserBehavior behavior) {
+                onEvent(behavior);
+                return repository.save(behavior);
+            }
+
+            @Override
+            public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+                for (UserBehavior behavior : behaviors) {
+                    onEvent(behavior);
+                }
+                return repository.saveAll(behaviors);
+            }
+
+            @Override
+            public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+                return repository.findRecentByUserId(userId, limit);
+            }
+        };
+    }
+
+    // FNV-1a 64 bits à graine, puis mélange final : seul l'index doit être bien réparti, l'égalité est vérifiée
+    private long hash(SecurityContext context) {
+        long h = seed;
+        h = hash(h, context.userId());
+        h = hash(h, context.ipAddress());
+        h = hash(h, context.requestUrl());
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static long hash(long h, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        // Séparateur : ("ab", "c") et ("a", "bc") ne doivent pas se confondre
+        return (h ^ 0xffff) * 0x100000001b3L;
+    }
+
+    private static int stripe(String userId) {
+        int h = userId == null ? 0 : userId.hashCode();
+        return (h ^ (h >>> 16)) & (EPOCH_STRIPES - 1);
+    }
+
+    private static int sizeOf(SecurityContext context) {
+        return ENTRY_OVERHEAD_BYTES + length(context.userId()) + length(context.ipAddress())
+                + length(context.requestUrl());
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long invalidationCount() {
+        return invalidationCount.sum();
+    }
+
+    public long entryCount() {
+        return entryCount.get();
+    }
+
+    /**
+     * Mémoire occupée par les entrées, estimée (chaînes compactes Latin-1, hors score partagé avec l'appelant).
+     */
+    public long estimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private record Entry(long hash, SecurityContext context, RiskScore score, long expiresAt, long epoch, int bytes) {
+    }
+}
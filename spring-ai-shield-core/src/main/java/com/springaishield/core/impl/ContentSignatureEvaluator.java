@@ -0,0 +1,58 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.signature.ContentCanonicalizer;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+
+import java.util.List;
+
+/**
+ * Analyse de contenu (heuristiques) : recherche des signatures du pack dans l'URL canonicalisée.
+ * Aucun accès à l'historique.
+ */
+public class ContentSignatureEvaluator implements RiskFactorEvaluator {
+
+    private static final RiskFactor DECODE_ERROR_SUSPICION =
+            new RiskFactor("DECODE_ERROR_SUSPICION", 0.5, "Requête suspecte mal formée.");
+
+    private final ThreadLocal<ContentCanonicalizer> canonicalizers;
+
+    public ContentSignatureEvaluator(SignatureMatcher signatureMatcher) {
+        this.canonicalizers = ThreadLocal.withInitial(() -> new ContentCanonicalizer(signatureMatcher));
+    }
+
+    @Override
+    public String name() {
+        return ShieldMetrics.CONTENT_ANALYSIS;
+    }
+
+    @Override
+    public int cost() {
+        return COST_LOW;
+    }
+
+    @Override
+    public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+        SecurityContext request = context.securityContext();
+        if (request.requestUrl() == null) return;
+
+        // Décodage (%3C -> <, double encodage, UTF-8), minuscules et recherche des signatures en un seul passage,
+        // sans copie de l'URL : l'état est réutilisé d'une requête à l'autre sur le même thread
+        ContentCanonicalizer canonicalizer = canonicalizers.get();
+        canonicalizer.reset();
+        canonicalizer.feed(request.requestUrl());
+        canonicalizer.finish();
+
+        SignatureMatcher.Scan scan = canonicalizer.scan();
+        scan.collectFactors(factors);
+
+        // Une séquence mal formée autour d'une signature est suspecte en soi (tentative de contournement du décodage)
+        if (canonicalizer.isMalformed() && scan.hasMatches()) {
+            factors.add(DECODE_ERROR_SUSPICION);
+        }
+    }
+}
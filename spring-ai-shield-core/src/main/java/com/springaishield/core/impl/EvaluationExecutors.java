@@ -0,0 +1,44 @@
+package com.springaishield.core.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécuteurs du mode PARALLEL : threads virtuels quand la JVM les fournit (Java 21+),
+ * sinon pool borné de threads démons.
+ */
+public final class EvaluationExecutors {
+
+    private EvaluationExecutors() {
+    }
+
+    public static ExecutorService newDefaultExecutor() {
+        try {
+            // Appel réflexif : le module cible Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            return newBoundedExecutor(threads, threads * 64);
+        }
+    }
+
+    /**
+     * Pool fixe à file bornée. Une tâche refusée (pool saturé) est traitée comme un analyseur hors délai :
+     * on ne bloque jamais le thread de la requête.
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "ai-shield-eval-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,23 @@
+package com.springaishield.core.impl;
+
+/**
+ * Ordre et arrêt de l'évaluation des analyseurs du moteur.
+ */
+public enum EvaluationMode {
+
+    /** Tous les analyseurs, dans l'ordre historique (ML puis contenu). */
+    SEQUENTIAL,
+
+    /**
+     * Analyseurs par coût croissant (contenu puis ML) ; l'évaluation s'arrête dès que le seuil de blocage est atteint,
+     * les analyseurs restants ne pouvant qu'augmenter le score.
+     */
+    TIERED,
+
+    /**
+     * Analyseurs indépendants exécutés en parallèle sous un budget de latence par requête : les analyseurs légers
+     * (sans historique) restent sur le thread appelant, les autres sont déportés. À l'échéance, le score est calculé
+     * avec les facteurs déjà disponibles et complété selon la {@link TimeoutPolicy}.
+     */
+    PARALLEL
+}
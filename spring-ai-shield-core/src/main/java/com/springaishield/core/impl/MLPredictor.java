@@ -2,6 +2,7 @@ package com.springaishield.core.impl;
 
 import com.springaishield.core.model.SecurityContext;
 import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.profile.BehaviorProfile;
 
 import java.util.List;
 
@@ -18,28 +19,41 @@ public class MLPredictor {
     public double predictRisk(SecurityContext context, List<UserBehavior> recentHistory) {
 
         // --- FEATURE ENGINEERING (Création de caractéristiques pour le modèle) ---
+        // Un seul passage sur l'historique : nombre d'accès depuis l'IP courante (IP connue si > 0)
+        long recentAccessCount = 0;
+        for (UserBehavior behavior : recentHistory) {
+            if (behavior.ipAddress().equals(context.ipAddress())) {
+                recentAccessCount++;
+            }
+        }
+
+        return predict(recentHistory.isEmpty(), recentAccessCount);
+    }
 
-        boolean isKnownIp = recentHistory.stream()
-                .anyMatch(b -> b.ipAddress().equals(context.ipAddress()));
+    /**
+     * Même modèle, à partir des caractéristiques agrégées du profil (O(1), sans historique matérialisé).
+     * La fréquence de l'IP couvre tout le profil et non plus les 50 derniers événements.
+     */
+    public double predictRisk(SecurityContext context, BehaviorProfile profile) {
+        return predict(profile.totalEvents() == 0, profile.ipCount(context.ipAddress()));
+    }
 
-        long recentAccessCount = recentHistory.stream()
-                .filter(b -> b.ipAddress().equals(context.ipAddress()))
-                .count();
+    private static double predict(boolean noHistory, long ipAccessCount) {
 
         // --- SIMULATION DU MODÈLE LOGISTIQUE ---
 
         double baseScore = 0.1;
 
-        if (recentHistory.isEmpty()) {
+        if (noHistory) {
             return 0.3; // Risque initial si aucune donnée historique
         }
 
-        if (!isKnownIp) {
+        if (ipAccessCount == 0) {
             // L'IP est nouvelle (facteur de risque important)
             baseScore += 0.4;
         }
 
-        if (recentAccessCount > 20) {
+        if (ipAccessCount > 20) {
             // Très habituel, réduit légèrement le score
             baseScore -= 0.15;
         }
@@ -47,4 +61,4 @@ public class MLPredictor {
         // Le facteur ML seul ne peut pas dépasser 0.5
         return Math.max(0.0, Math.min(0.5, baseScore));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.profile.BehaviorProfile;
+import com.springaishield.core.profile.BehaviorProfileStore;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+
+import java.util.List;
+
+/**
+ * Analyse comportementale : prédiction {@link MLPredictor} sur l'historique récent de l'utilisateur,
+ * ou sur son {@link BehaviorProfile} lorsqu'un {@link BehaviorProfileStore} est fourni. Dans ce cas l'historique
+ * n'est lu qu'une fois par utilisateur, pour amorcer le profil.
+ */
+public class MachineLearningEvaluator implements RiskFactorEvaluator {
+
+    private static final RiskFactor HIGH_ANOMALY =
+            new RiskFactor("ML_PREDICTION", 0.5, "Comportement anormal élevé détecté par ML.");
+    private static final RiskFactor LOW_ANOMALY =
+            new RiskFactor("ML_PREDICTION", 0.2, "Comportement légèrement suspect détecté par ML.");
+
+    private final MLPredictor mlPredictor;
+    private final BehaviorProfileStore profileStore;
+
+    public MachineLearningEvaluator() {
+        this(new MLPredictor());
+    }
+
+    public MachineLearningEvaluator(MLPredictor mlPredictor) {
+        this(mlPredictor, null);
+    }
+
+    public MachineLearningEvaluator(MLPredictor mlPredictor, BehaviorProfileStore profileStore) {
+        this.mlPredictor = mlPredictor;
+        this.profileStore = profileStore;
+    }
+
+    @Override
+    public String name() {
+        return ShieldMetrics.ML_PREDICTION;
+    }
+
+    @Override
+    public int cost() {
+        // Avec profils, la lecture de l'historique n'a lieu qu'au premier accès d'un utilisateur
+        return profileStore == null ? COST_HIGH : COST_MEDIUM;
+    }
+
+    @Override
+    public boolean requiresHistory() {
+        return profileStore == null;
+    }
+
+    @Override
+    public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+        double mlPrediction;
+        if (profileStore == null) {
+            mlPrediction = mlPredictor.predictRisk(context.securityContext(), context.history());
+        } else {
+            BehaviorProfile profile = profileStore.profile(context.securityContext().userId(), context::history);
+            mlPrediction = mlPredictor.predictRisk(context.securityContext(), profile);
+        }
+
+        if (mlPrediction > 0.5) {
+            factors.add(HIGH_ANOMALY);
+        } else if (mlPrediction > 0.3) {
+            factors.add(LOW_ANOMALY);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.service.ReactiveRiskScoringService;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Moteur de scoring non bloquant : l'historique est lu via un {@link ReactiveBehaviorRepository},
+ * puis le {@link ScoringPipeline} s'exécute en mémoire sur le thread qui reçoit l'historique.
+ * En mode PARALLEL, la lecture de l'historique est bornée par le budget du pipeline ; à l'échéance (ou en cas d'erreur),
+ * les évaluateurs qui en dépendent sont ignorés selon la {@link TimeoutPolicy}.
+ * En mode TIERED, l'arrêt anticipé évite les évaluateurs restants mais pas la lecture de l'historique.
+ */
+public class ReactiveScoringEngine implements ReactiveRiskScoringService {
+
+    private final ScoringPipeline pipeline;
+    private final ReactiveBehaviorRepository behaviorRepository;
+    private final ShieldMetrics metrics;
+
+    public ReactiveScoringEngine(ScoringPipeline pipeline, ReactiveBehaviorRepository behaviorRepository,
+                                 ShieldMetrics metrics) {
+        this.pipeline = pipeline;
+        this.behaviorRepository = behaviorRepository;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<RiskScore> calculateRisk(SecurityContext context) {
+        if (!pipeline.requiresHistory()) {
+            return Mono.fromSupplier(() -> BehavioralScoringEngine.aggregate(pipeline.evaluate(context, List.of())));
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<List<UserBehavior>> history = behaviorRepository
+                    .findRecentByUserId(context.userId(), ScoringPipeline.HISTORY_DEPTH)
+                    .collectList()
+                    .doOnNext(loaded -> metrics.recordStage(ShieldMetrics.HISTORY_FETCH, System.nanoTime() - start));
+
+            if (pipeline.evaluationMode() == EvaluationMode.PARALLEL) {
+                history = history.timeout(pipeline.deadline())
+                        .onErrorResume(e -> Mono.empty());
+            }
+
+            return history
+                    .map(loaded -> BehavioralScoringEngine.aggregate(pipeline.evaluate(context, loaded)))
+                    .switchIfEmpty(Mono.fromSupplier(() -> BehavioralScoringEngine.aggregate(pipeline.evaluate(context, null))));
+        });
+    }
+
+    @Override
+    public Mono<RiskScore> calculateHeuristicRisk(SecurityContext context) {
+        return Mono.fromSupplier(() -> BehavioralScoringEngine.aggregate(pipeline.evaluateHeuristics(context)));
+    }
+}
@@ -0,0 +1,393 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pipeline d'évaluation compilé une fois au démarrage à partir des {@link RiskFactorEvaluator} actifs.
+ * <ul>
+ *     <li>L'ordre est figé à la construction : les évaluateurs {@link RiskFactorEvaluator#COST_TRIVIAL} (réputation,
+ *     débit...) d'abord dans tous les modes, pour qu'une décision anticipée précède toute lecture de l'historique ;
+ *     puis l'ordre de déclaration (mode TIERED : coût croissant, ordre de déclaration à coût égal).</li>
+ *     <li>L'historique est chargé au plus une fois par requête, juste avant le premier évaluateur qui le demande,
+ *     et jamais si aucun évaluateur actif n'en a besoin.</li>
+ *     <li>Chaque évaluateur est chronométré sous son {@link RiskFactorEvaluator#name()}.</li>
+ *     <li>Mode PARALLEL : les évaluateurs légers (coût {@link RiskFactorEvaluator#COST_LOW}, sans historique) tournent
+ *     sur le thread appelant pendant que les autres sont déportés sur l'exécuteur ; l'attente est bornée par le budget.</li>
+ *     <li>Décision anticipée ({@link EvaluationContext#accept()}, {@link EvaluationContext#halt()}) : les évaluateurs
+ *     suivants sont ignorés. En mode PARALLEL, les évaluateurs {@link RiskFactorEvaluator#COST_TRIVIAL} passent avant
+ *     toute tâche déportée.</li>
+ * </ul>
+ */
+public class ScoringPipeline implements AutoCloseable {
+
+    public static final int HISTORY_DEPTH = 50;
+    public static final Duration DEFAULT_DEADLINE = Duration.ofMillis(50);
+    static final String TIMEOUT_FACTOR = "EVALUATION_TIMEOUT";
+
+    // Journalisation de la plate-forme (routée vers SLF4J par Spring Boot) : le Core n'a pas de dépendance de log
+    private static final System.Logger LOGGER = System.getLogger(ScoringPipeline.class.getName());
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final BehaviorRepository behaviorRepository;
+    private final RiskFactorEvaluator[] evaluators;
+    private final boolean[] offloaded;
+    private final boolean[] heuristic;
+    private final int offloadedCount;
+    private final boolean requiresHistory;
+    private final ShieldMetrics metrics;
+    private final EvaluationMode evaluationMode;
+    private final double blockingThreshold;
+    private final long deadlineNanos;
+    private final TimeoutPolicy timeoutPolicy;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder suppressedFailureLogs = new LongAdder();
+    private final AtomicLong nextFailureLogNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param behaviorRepository Source de l'historique ; {@code null} si aucun évaluateur n'en a besoin
+     *                           ou si l'historique est toujours fourni par l'appelant ({@link #evaluate(SecurityContext, List)}).
+     * @param blockingThreshold  Score à partir duquel le mode TIERED ignore les évaluateurs restants, sauf seuil propre
+     *                           à la route ({@link SecurityContext#blockingThreshold()}).
+     */
+    public ScoringPipeline(BehaviorRepository behaviorRepository, List<? extends RiskFactorEvaluator> evaluators,
+                           ShieldMetrics metrics, EvaluationMode evaluationMode, double blockingThreshold) {
+        this(behaviorRepository, evaluators, metrics, evaluationMode, blockingThreshold,
+                DEFAULT_DEADLINE, TimeoutPolicy.FAIL_OPEN, null);
+    }
+
+    /**
+     * @param deadline      Budget de latence par requête (mode PARALLEL uniquement).
+     * @param timeoutPolicy Décision si des évaluateurs manquent à l'échéance (mode PARALLEL uniquement).
+     * @param executor      Exécuteur des évaluateurs déportés ; {@code null} pour l'exécuteur par défaut
+     *                      ({@link EvaluationExecutors#newDefaultExecutor()}), alors fermé par {@link #close()}.
+     */
+    public ScoringPipeline(BehaviorRepository behaviorRepository, List<? extends RiskFactorEvaluator> evaluators,
+                           ShieldMetrics metrics, EvaluationMode evaluationMode, double blockingThreshold,
+                           Duration deadline, TimeoutPolicy timeoutPolicy, ExecutorService executor) {
+        List<RiskFactorEvaluator> ordered = new ArrayList<>(evaluators);
+        if (evaluationMode == EvaluationMode.TIERED) {
+            ordered.sort(Comparator.comparingInt(RiskFactorEvaluator::cost)); // tri stable
+        } else {
+            // Ordre des beans sinon : un évaluateur d'historique déclaré avant la réputation lirait la base pour une IP refusée
+            ordered.sort(Comparator.comparingInt(evaluator -> evaluator.cost() <= RiskFactorEvaluator.COST_TRIVIAL ? 0 : 1));
+        }
+        this.evaluators = ordered.toArray(new RiskFactorEvaluator[0]);
+        this.requiresHistory = ordered.stream().anyMatch(RiskFactorEvaluator::requiresHistory);
+        this.behaviorRepository = behaviorRepository;
+        this.metrics = metrics;
+        this.evaluationMode = evaluationMode;
+        this.blockingThreshold = blockingThreshold;
+        this.deadlineNanos = deadline.toNanos();
+        this.timeoutPolicy = timeoutPolicy;
+
+        this.heuristic = new boolean[this.evaluators.length];
+        for (int i = 0; i < this.evaluators.length; i++) {
+            heuristic[i] = !this.evaluators[i].requiresHistory() && this.evaluators[i].cost() <= RiskFactorEvaluator.COST_LOW;
+        }
+
+        this.offloaded = new boolean[this.evaluators.length];
+        int count = 0;
+        if (evaluationMode == EvaluationMode.PARALLEL) {
+            for (int i = 0; i < this.evaluators.length; i++) {
+                RiskFactorEvaluator evaluator = this.evaluators[i];
+                offloaded[i] = evaluator.requiresHistory() || evaluator.cost() > RiskFactorEvaluator.COST_LOW;
+                if (offloaded[i]) count++;
+            }
+        }
+        this.offloadedCount = count;
+        this.ownsExecutor = count > 0 && executor == null;
+        this.executor = ownsExecutor ? EvaluationExecutors.newDefaultExecutor() : executor;
+    }
+
+    public List<RiskFactorEvaluator> evaluators() {
+        return List.of(evaluators);
+    }
+
+    public boolean requiresHistory() {
+        return requiresHistory;
+    }
+
+    public EvaluationMode evaluationMode() {
+        return evaluationMode;
+    }
+
+    public double blockingThreshold() {
+        return blockingThreshold;
+    }
+
+    public Duration deadline() {
+        return Duration.ofNanos(deadlineNanos);
+    }
+
+    /**
+     * Exécute les évaluateurs et renvoie les facteurs collectés, dans l'ordre des évaluateurs.
+     */
+    public List<RiskFactor> evaluate(SecurityContext securityContext) {
+        EvaluationContext context = new EvaluationContext(securityContext, () -> loadHistory(securityContext));
+        if (offloadedCount > 0) {
+            return evaluateParallel(context);
+        }
+        return evaluateInline(context, true, false);
+    }
+
+    /**
+     * Exécute uniquement les évaluateurs heuristiques (coût au plus {@link RiskFactorEvaluator#COST_LOW}, sans
+     * historique) sur le thread appelant : jamais d'historique, d'exécuteur ni d'attente. Les autres sont ignorés
+     * sans être signalés.
+     */
+    public List<RiskFactor> evaluateHeuristics(SecurityContext securityContext) {
+        return evaluateInline(EvaluationContext.withHistory(securityContext, List.of()), false, true);
+    }
+
+    /**
+     * Exécute tous les évaluateurs sur le thread appelant avec un historique déjà chargé (chemin réactif) :
+     * aucune I/O ni attente. Si {@code history} est {@code null} (lecture hors délai ou en échec), les évaluateurs
+     * qui en dépendent sont ignorés et signalés comme dans le mode PARALLEL.
+     */
+    public List<RiskFactor> evaluate(SecurityContext securityContext, List<UserBehavior> history) {
+        EvaluationContext context = EvaluationContext.withHistory(securityContext, history != null ? history : List.of());
+        return evaluateInline(context, history != null, false);
+    }
+
+    private List<RiskFactor> evaluateInline(EvaluationContext context, boolean historyAvailable, boolean heuristicsOnly) {
+        List<RiskFactor> factors = new ArrayList<>();
+        StringBuilder missing = null;
+        double sum = 0.0;
+        // Seuil de la route : s'arrêter au seuil global laisserait passer une requête sous-évaluée
+        double threshold = context.securityContext().blockingThreshold();
+        if (Double.isNaN(threshold)) {
+            threshold = blockingThreshold;
+        }
+
+        for (int i = 0; i < evaluators.length; i++) {
+            RiskFactorEvaluator evaluator = evaluators[i];
+            if (heuristicsOnly && !heuristic[i]) {
+                continue;
+            }
+
+            // Décision déjà acquise : les évaluateurs restants (les plus coûteux) sont ignorés
+            if (evaluationMode == EvaluationMode.TIERED && sum >= threshold) {
+                factors.add(shortCircuit(i));
+                break;
+            }
+
+            if (!historyAvailable && evaluator.requiresHistory()) {
+                metrics.recordEvaluatorTimeout(evaluator.name());
+                missing = missing == null ? new StringBuilder() : missing.append(", ");
+                missing.append(evaluator.name());
+                continue;
+            }
+
+            int before = factors.size();
+            runEvaluator(evaluator, context, factors);
+
+            if (context.isAccepted()) {
+                return new ArrayList<>(factors.subList(before, factors.size()));
+            }
+            if (context.isHalted()) {
+                return factors;
+            }
+            for (int j = before; j < factors.size(); j++) {
+                sum += factors.get(j).weight();
+            }
+        }
+        if (missing != null) {
+            factors.add(timeoutFactor(missing));
+        }
+        return factors;
+    }
+
+    private List<RiskFactor> evaluateParallel(EvaluationContext context) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        int count = evaluators.length;
+        AtomicReferenceArray<List<RiskFactor>> results = new AtomicReferenceArray<>(count);
+        Future<?>[] futures = new Future<?>[count];
+        CountDownLatch done = new CountDownLatch(offloadedCount);
+
+        // 1. Évaluateurs de filtrage (réputation, débit...) : une décision anticipée évite tout travail déporté
+        for (int i = 0; i < count; i++) {
+            if (offloaded[i] || evaluators[i].cost() > RiskFactorEvaluator.COST_TRIVIAL) continue;
+            List<RiskFactor> local = new ArrayList<>(2);
+            runEvaluator(evaluators[i], context, local);
+            results.set(i, local);
+            if (context.isAccepted()) {
+                return local;
+            }
+            if (context.isHalted()) {
+                return collect(results);
+            }
+        }
+
+        // 2. Évaluateurs coûteux déportés (historique + ML, détecteurs externes...)
+        for (int i = 0; i < count; i++) {
+            if (!offloaded[i]) continue;
+            int index = i;
+            try {
+                // Une exception laisse le résultat vide : elle est traitée comme un dépassement du budget
+                futures[i] = executor.submit(() -> {
+                    try {
+                        List<RiskFactor> local = new ArrayList<>(2);
+                        runEvaluator(evaluators[index], context, local);
+                        results.set(index, local);
+                    } catch (RuntimeException e) {
+                        // Sans trace, un évaluateur défaillant cesserait de noter sans que personne ne le voie
+                        reportFailure(evaluators[index], e);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                done.countDown(); // exécuteur saturé : l'évaluateur est traité comme hors délai
+            }
+        }
+
+        // 3. Autres évaluateurs légers sur le thread appelant, pendant ce temps
+        for (int i = 0; i < count; i++) {
+            if (offloaded[i] || results.get(i) != null) continue;
+            List<RiskFactor> local = new ArrayList<>(2);
+            runEvaluator(evaluators[i], context, local);
+            results.set(i, local);
+            if (context.isAccepted() || context.isHalted()) {
+                cancel(futures);
+                return context.isAccepted() ? local : collect(results);
+            }
+        }
+
+        // 4. Attente bornée par le budget restant
+        try {
+            done.await(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<RiskFactor> factors = new ArrayList<>();
+        StringBuilder missing = null;
+        for (int i = 0; i < count; i++) {
+            List<RiskFactor> result = results.get(i);
+            if (result != null) {
+                factors.addAll(result);
+                continue;
+            }
+            if (futures[i] != null) {
+                futures[i].cancel(true);
+            }
+            metrics.recordEvaluatorTimeout(evaluators[i].name());
+            missing = missing == null ? new StringBuilder() : missing.append(", ");
+            missing.append(evaluators[i].name());
+        }
+        if (missing != null) {
+            factors.add(timeoutFactor(missing));
+        }
+        return factors;
+    }
+
+    private void reportFailure(RiskFactorEvaluator evaluator, RuntimeException e) {
+        failureCount.increment();
+        metrics.recordEvaluatorFailure(evaluator.name());
+        long now = System.nanoTime();
+        long next = nextFailureLogNanos.get();
+        if (now - next < 0 || !nextFailureLogNanos.compareAndSet(next, now + FAILURE_LOG_INTERVAL_NANOS)) {
+            suppressedFailureLogs.increment();
+            return;
+        }
+        long suppressed = suppressedFailureLogs.sumThenReset();
+        LOGGER.log(System.Logger.Level.WARNING, "AIShield : l''évaluateur {0} a échoué ({1} échecs non journalisés "
+                + "depuis le dernier message) : {2}", evaluator.name(), suppressed, String.valueOf(e));
+    }
+
+    /**
+     * Exceptions levées par les évaluateurs déportés (mode PARALLEL), comptées comme hors délai dans la décision.
+     */
+    public long evaluatorFailureCount() {
+        return failureCount.sum();
+    }
+
+    private static List<RiskFactor> collect(AtomicReferenceArray<List<RiskFactor>> results) {
+        List<RiskFactor> factors = new ArrayList<>();
+        for (int i = 0; i < results.length(); i++) {
+            List<RiskFactor> result = results.get(i);
+            if (result != null) {
+                factors.addAll(result);
+            }
+        }
+        return factors;
+    }
+
+    private static void cancel(Future<?>[] futures) {
+        for (Future<?> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void runEvaluator(RiskFactorEvaluator evaluator, EvaluationContext context, List<RiskFactor> factors) {
+        if (evaluator.requiresHistory()) {
+            context.history(); // chargé ici pour ne pas compter la lecture dans le temps de l'évaluateur
+        }
+        long start = System.nanoTime();
+        evaluator.evaluate(context, factors);
+        metrics.recordStage(evaluator.name(), System.nanoTime() - start);
+    }
+
+    private List<UserBehavior> loadHistory(SecurityContext securityContext) {
+        if (behaviorRepository == null) {
+            throw new IllegalStateException("Aucun BehaviorRepository : l'historique doit être fourni par l'appelant.");
+        }
+        long start = System.nanoTime();
+        List<UserBehavior> history = behaviorRepository.findRecentByUserId(securityContext.userId(), HISTORY_DEPTH);
+        metrics.recordStage(ShieldMetrics.HISTORY_FETCH, System.nanoTime() - start);
+        return history;
+    }
+
+    private RiskFactor shortCircuit(int firstSkipped) {
+        StringBuilder skipped = new StringBuilder();
+        for (int i = firstSkipped; i < evaluators.length; i++) {
+            if (skipped.length() > 0) skipped.append(", ");
+            skipped.append(evaluators[i].name());
+        }
+        return new RiskFactor("SHORT_CIRCUIT", 0.0,
+                "Évaluateurs ignorés (" + skipped + ") : seuil de blocage déjà atteint.");
+    }
+
+    private RiskFactor timeoutFactor(CharSequence missing) {
+        if (timeoutPolicy == TimeoutPolicy.FAIL_CLOSED) {
+            return new RiskFactor(TIMEOUT_FACTOR, 1.0,
+                    "Budget de latence dépassé (" + missing + ") : requête refusée par précaution.");
+        }
+        return new RiskFactor(TIMEOUT_FACTOR, 0.0,
+                "Budget de latence dépassé (" + missing + ") : score partiel.");
+    }
+
+    /**
+     * Arrête l'exécuteur par défaut s'il a été créé par ce pipeline (un exécuteur fourni reste à la charge de l'appelant).
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.springaishield.core.impl;
+
+/**
+ * Décision lorsque des analyseurs n'ont pas répondu dans le budget de latence (ou ont échoué) en mode PARALLEL.
+ */
+public enum TimeoutPolicy {
+
+    /** Score calculé avec les seuls facteurs disponibles : la disponibilité prime. */
+    FAIL_OPEN,
+
+    /** Facteur de poids maximal ajouté : la requête est refusée par précaution. */
+    FAIL_CLOSED
+}
@@ -0,0 +1,71 @@
+package com.springaishield.core.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Point d'instrumentation du moteur et du filtre, indépendant de toute librairie de métriques.
+ * L'intégration Spring Boot fournit une implémentation Micrometer ; par défaut rien n'est mesuré.
+ * Les étiquettes doivent rester de cardinalité bornée : noms d'étapes et de facteurs, jamais d'utilisateur ni d'URL.
+ */
+public interface ShieldMetrics {
+
+    String HISTORY_FETCH = "history_fetch";
+    String ML_PREDICTION = "ml_prediction";
+    String CONTENT_ANALYSIS = "content_analysis";
+    String PERSISTENCE = "persistence";
+
+    ShieldMetrics NOOP = new ShieldMetrics() {
+    };
+
+    /**
+     * Durée d'une étape du scoring (voir les constantes de cette interface).
+     */
+    default void recordStage(String stage, long nanos) {
+    }
+
+    /**
+     * Temps passé dans le filtre, hors reste de la chaîne (surcoût ajouté à la requête).
+     */
+    default void recordFilterOverhead(long nanos) {
+    }
+
+    /**
+     * Un facteur de risque a contribué à une décision.
+     */
+    default void recordFactor(String factorName) {
+    }
+
+    default void recordDecision(boolean blocked) {
+    }
+
+    /**
+     * Un analyseur n'a pas répondu dans le budget de latence (ou a échoué) en mode parallèle.
+     */
+    default void recordEvaluatorTimeout(String evaluator) {
+    }
+
+    /**
+     * Un analyseur déporté (mode parallèle) a levé une exception ; compté aussi comme hors délai.
+     */
+    default void recordEvaluatorFailure(String evaluator) {
+    }
+
+    /**
+     * Consultation du cache de décisions : décision servie depuis le cache ({@code hit}) ou recalculée.
+     */
+    default void recordDecisionCache(boolean hit) {
+    }
+
+    /**
+     * Résultat d'une évaluation fantôme (voir {@code ShadowEvaluator}) : {@code agreed}, {@code newly_blocked},
+     * {@code newly_allowed}, {@code shed} (abandonnée, exécuteur saturé) ou {@code error}.
+     */
+    default void recordShadow(String outcome) {
+    }
+
+    /**
+     * Expose une valeur instantanée (taille, mémoire estimée...) sous le nom {@code name}, lue à chaque collecte.
+     */
+    default void registerGauge(String name, Supplier<Number> value) {
+    }
+}
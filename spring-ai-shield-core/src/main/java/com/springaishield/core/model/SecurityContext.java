@@ -1,5 +1,13 @@
 package com.springaishield.core.model;
 
 
-public record SecurityContext(String userId, String requestUrl, String ipAddress) {
-}
\ No newline at end of file
+/**
+ * @param blockingThreshold Seuil de blocage de la route, qui borne l'arrêt anticipé du mode TIERED ;
+ *                          {@link Double#NaN} : seuil global du pipeline.
+ */
+public record SecurityContext(String userId, String requestUrl, String ipAddress, double blockingThreshold) {
+
+    public SecurityContext(String userId, String requestUrl, String ipAddress) {
+        this(userId, requestUrl, ipAddress, Double.NaN);
+    }
+}
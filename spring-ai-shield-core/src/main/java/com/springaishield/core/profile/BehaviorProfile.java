@@ -0,0 +1,155 @@
+package com.springaishield.core.profile;
+
+import com.springaishield.core.model.UserBehavior;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Profil comportemental d'un utilisateur, maintenu incrémentalement à chaque événement enregistré :
+ * fréquence par IP, première/dernière apparition et débit (moyenne mobile exponentielle de l'intervalle entre événements).
+ * Les IP sont comptées exactement jusqu'à {@code exactIpLimit} IP distinctes, puis dans un {@link CountMinSketch}
+ * (utilisateurs « lourds ») : la mémoire par utilisateur reste bornée.
+ * Lectures en O(1) (O(exactIpLimit) au pire), sans matérialiser d'historique.
+ */
+public final class BehaviorProfile {
+
+    private static final double RATE_SMOOTHING = 0.2;
+    private static final int SKETCH_DEPTH = 4;
+
+    private final int exactIpLimit;
+    private final int sketchWidth;
+
+    private String[] ips = new String[4];
+    private int[] counts = new int[4];
+    private int distinctIps;
+    private CountMinSketch sketch;
+
+    private long totalEvents;
+    private long firstSeenMillis = Long.MAX_VALUE;
+    private long lastSeenMillis = Long.MIN_VALUE;
+    private double meanIntervalMillis = Double.NaN;
+    private boolean seeded;
+
+    volatile long lastAccessNanos = System.nanoTime();
+
+    BehaviorProfile(int exactIpLimit, int sketchWidth) {
+        this.exactIpLimit = exactIpLimit;
+        this.sketchWidth = sketchWidth;
+    }
+
+    synchronized void record(UserBehavior behavior) {
+        long timestamp = behavior.timestamp() != null ? behavior.timestamp().toEpochMilli() : System.currentTimeMillis();
+        if (behavior.ipAddress() != null) {
+            countIp(behavior.ipAddress());
+        }
+        totalEvents++;
+
+        if (timestamp >= lastSeenMillis && totalEvents > 1) {
+            double interval = timestamp - lastSeenMillis;
+            meanIntervalMillis = Double.isNaN(meanIntervalMillis)
+                    ? interval
+                    : RATE_SMOOTHING * interval + (1 - RATE_SMOOTHING) * meanIntervalMillis;
+        }
+        firstSeenMillis = Math.min(firstSeenMillis, timestamp);
+        lastSeenMillis = Math.max(lastSeenMillis, timestamp);
+    }
+
+    /**
+     * Complète le profil avec l'historique persistant (du plus récent au plus ancien), une seule fois par profil.
+     * Seuls les événements antérieurs au premier événement déjà compté sont ajoutés : pas de double comptage.
+     */
+    synchronized void seed(List<UserBehavior> newestFirst) {
+        if (seeded) {
+            return;
+        }
+        long before = firstSeenMillis;
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            UserBehavior behavior = newestFirst.get(i);
+            if (behavior.timestamp() == null || behavior.timestamp().toEpochMilli() < before) {
+                record(behavior);
+            }
+        }
+        seeded = true;
+    }
+
+    synchronized boolean isSeeded() {
+        return seeded;
+    }
+
+    private void countIp(String ip) {
+        if (sketch != null) {
+            sketch.add(ip, 1);
+            return;
+        }
+        for (int i = 0; i < distinctIps; i++) {
+            if (ips[i].equals(ip)) {
+                counts[i]++;
+                return;
+            }
+        }
+        if (distinctIps == exactIpLimit) {
+            switchToSketch();
+            sketch.add(ip, 1);
+            return;
+        }
+        if (distinctIps == ips.length) {
+            ips = Arrays.copyOf(ips, Math.min(exactIpLimit, ips.length * 2));
+            counts = Arrays.copyOf(counts, ips.length);
+        }
+        ips[distinctIps] = ip;
+        counts[distinctIps] = 1;
+        distinctIps++;
+    }
+
+    private void switchToSketch() {
+        sketch = new CountMinSketch(SKETCH_DEPTH, sketchWidth);
+        for (int i = 0; i < distinctIps; i++) {
+            sketch.add(ips[i], counts[i]);
+        }
+        ips = null;
+        counts = null;
+    }
+
+    /**
+     * Nombre d'événements vus depuis {@code ip} (approximé par excès pour un utilisateur lourd).
+     */
+    public synchronized long ipCount(String ip) {
+        if (sketch != null) {
+            return sketch.estimate(ip);
+        }
+        for (int i = 0; i < distinctIps; i++) {
+            if (ips[i].equals(ip)) {
+                return counts[i];
+            }
+        }
+        return 0;
+    }
+
+    public synchronized long totalEvents() {
+        return totalEvents;
+    }
+
+    public synchronized boolean isSketched() {
+        return sketch != null;
+    }
+
+    public synchronized Instant firstSeen() {
+        return totalEvents == 0 ? null : Instant.ofEpochMilli(firstSeenMillis);
+    }
+
+    public synchronized Instant lastSeen() {
+        return totalEvents == 0 ? null : Instant.ofEpochMilli(lastSeenMillis);
+    }
+
+    /**
+     * Débit estimé (moyenne mobile exponentielle), 0 tant que moins de deux événements ont été vus.
+     */
+    public synchronized double eventsPerMinute() {
+        if (Double.isNaN(meanIntervalMillis)) {
+            return 0.0;
+        }
+        return 60_000.0 / Math.max(1.0, meanIntervalMillis);
+    }
+}
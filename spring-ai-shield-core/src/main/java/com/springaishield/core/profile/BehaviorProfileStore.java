@@ -0,0 +1,133 @@
+package com.springaishield.core.profile;
+
+import com.springaishield.core.model.UserBehavior;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Profils comportementaux des utilisateurs actifs, alimentés par {@link ProfilingBehaviorRepository}.
+ * Mémoire bornée : au plus {@code maxUsers} profils ; les profils inactifs depuis plus de {@code ttl} sont évincés
+ * en priorité, puis les moins récemment utilisés. Un profil évincé est reconstruit depuis l'historique persistant.
+ * Attention : en déploiement multi-instances, chaque nœud ne voit que ses propres événements après l'amorçage.
+ */
+public class BehaviorProfileStore {
+
+    public static final int DEFAULT_EXACT_IP_LIMIT = 32;
+    public static final int DEFAULT_SKETCH_WIDTH = 1024;
+
+    private final int maxUsers;
+    private final long ttlNanos;
+    private final int exactIpLimit;
+    private final int sketchWidth;
+
+    private final Map<String, BehaviorProfile> profiles = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public BehaviorProfileStore(int maxUsers, Duration ttl) {
+        this(maxUsers, ttl, DEFAULT_EXACT_IP_LIMIT, DEFAULT_SKETCH_WIDTH);
+    }
+
+    /**
+     * @param exactIpLimit Nombre d'IP distinctes comptées exactement avant de passer au sketch.
+     * @param sketchWidth  Largeur du Count-Min Sketch (puissance de 2) ; 4 lignes de cette largeur par utilisateur lourd.
+     */
+    public BehaviorProfileStore(int maxUsers, Duration ttl, int exactIpLimit, int sketchWidth) {
+        if (maxUsers <= 0 || exactIpLimit <= 0 || Integer.bitCount(sketchWidth) != 1) {
+            throw new IllegalArgumentException("maxUsers et exactIpLimit doivent être positifs, sketchWidth une puissance de 2.");
+        }
+        this.maxUsers = maxUsers;
+        this.ttlNanos = ttl.toNanos();
+        this.exactIpLimit = exactIpLimit;
+        this.sketchWidth = sketchWidth;
+    }
+
+    /**
+     * Intègre un événement enregistré au profil de son utilisateur.
+     */
+    public void record(UserBehavior behavior) {
+        profileOf(behavior.userId()).record(behavior);
+    }
+
+    /**
+     * Profil de l'utilisateur, amorcé au premier accès avec {@code history} (appelé au plus une fois par profil).
+     */
+    public BehaviorProfile profile(String userId, Supplier<List<UserBehavior>> history) {
+        BehaviorProfile profile = profileOf(userId);
+        if (!profile.isSeeded()) {
+            synchronized (profile) {
+                if (!profile.isSeeded()) {
+                    profile.seed(history.get());
+                }
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Profil existant, sans amorçage ni création ({@code null} si l'utilisateur n'a pas de profil en mémoire).
+     */
+    public BehaviorProfile find(String userId) {
+        return profiles.get(userId);
+    }
+
+    public int profileCount() {
+        return profiles.size();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private BehaviorProfile profileOf(String userId) {
+        long now = System.nanoTime();
+        BehaviorProfile profile = profiles.get(userId);
+        if (profile == null) {
+            profile = profiles.computeIfAbsent(userId, id -> new BehaviorProfile(exactIpLimit, sketchWidth));
+            if (profiles.size() > maxUsers) {
+                evict();
+            }
+        }
+        profile.lastAccessNanos = now;
+        return profile;
+    }
+
+    private void evict() {
+        // Une seule éviction à la fois ; les autres threads ne l'attendent pas
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            profiles.entrySet().removeIf(entry -> {
+                boolean expired = now - entry.getValue().lastAccessNanos > ttlNanos;
+                if (expired) {
+                    evictionCount.increment();
+                }
+                return expired;
+            });
+
+            int overflow = profiles.size() - (int) (maxUsers * 0.9);
+            if (overflow > 0 && profiles.size() > maxUsers) {
+                // Éviction LRU approximative, par lot pour amortir le tri
+                List<Map.Entry<String, BehaviorProfile>> entries = new ArrayList<>(profiles.entrySet());
+                entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos));
+                for (int i = 0; i < overflow && i < entries.size(); i++) {
+                    if (profiles.remove(entries.get(i).getKey(), entries.get(i).getValue())) {
+                        evictionCount.increment();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
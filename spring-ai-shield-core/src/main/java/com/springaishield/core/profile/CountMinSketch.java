@@ -0,0 +1,60 @@
+package com.springaishield.core.profile;
+
+/**
+ * Count-Min Sketch à mise à jour conservatrice : fréquence approximée de chaînes (IP) en mémoire fixe
+ * ({@code depth} × {@code width} entiers). L'estimation ne sous-estime jamais ; la surestimation diminue avec la largeur.
+ * Non thread-safe : protégé par le {@link BehaviorProfile} propriétaire.
+ */
+final class CountMinSketch {
+
+    private final int[] table;
+    private final int depth;
+    private final int mask;
+
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("La largeur du sketch doit être une puissance de 2 : " + width);
+        }
+        this.table = new int[depth * width];
+        this.depth = depth;
+        this.mask = width - 1;
+    }
+
+    void add(String key, int count) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        int target = estimate(h1, h2) + count;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (mask + 1) + ((h1 + row * h2) & mask);
+            if (table[index] < target) {
+                table[index] = target;
+            }
+        }
+    }
+
+    int estimate(String key) {
+        long hash = mix(key.hashCode());
+        return estimate((int) hash, (int) (hash >>> 32) | 1);
+    }
+
+    private int estimate(int h1, int h2) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row * (mask + 1) + ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    // Finaliseur de MurmurHash3 (64 bits) : deux hachages indépendants tirés d'un seul hashCode (Kirsch-Mitzenmacher)
+    private static long mix(int value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,42 @@
+package com.springaishield.core.profile;
+
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+
+import java.util.List;
+
+/**
+ * Décorateur qui met à jour le {@link BehaviorProfileStore} à chaque événement enregistré.
+ * Les lectures sont transmises telles quelles au délégué.
+ */
+public class ProfilingBehaviorRepository implements BehaviorRepository {
+
+    private final BehaviorRepository delegate;
+    private final BehaviorProfileStore profileStore;
+
+    public ProfilingBehaviorRepository(BehaviorRepository delegate, BehaviorProfileStore profileStore) {
+        this.delegate = delegate;
+        this.profileStore = profileStore;
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        UserBehavior saved = delegate.save(behavior);
+        profileStore.record(saved != null ? saved : behavior);
+        return saved;
+    }
+
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<UserBehavior> saved = delegate.saveAll(behaviors);
+        for (UserBehavior behavior : behaviors) {
+            profileStore.record(behavior);
+        }
+        return saved;
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        return delegate.findRecentByUserId(userId, limit);
+    }
+}
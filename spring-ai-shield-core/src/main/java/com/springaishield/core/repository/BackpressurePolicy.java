@@ -0,0 +1,16 @@
+package com.springaishield.core.repository;
+
+/**
+ * Comportement de l'écriture différée lorsque la file d'attente est pleine.
+ */
+public enum BackpressurePolicy {
+
+    /** L'événement est abandonné (compté), la requête n'attend jamais. */
+    DROP,
+
+    /** Le thread de la requête attend qu'une place se libère. */
+    BLOCK,
+
+    /** Une fraction des événements attend une place (au plus un intervalle de flush), le reste est abandonné. */
+    SAMPLE
+}
@@ -1,6 +1,8 @@
 package com.springaishield.core.repository;
 
 import com.springaishield.core.model.UserBehavior;
+
+import java.util.ArrayList;
 import java.util.List;
 
 public interface BehaviorRepository {
@@ -9,4 +11,16 @@ public interface BehaviorRepository {
     UserBehavior save(UserBehavior behavior);
 
     List<UserBehavior> findRecentByUserId(String userId, int limit);
-}
\ No newline at end of file
+
+    /**
+     * Sauvegarde un lot d'événements. Par défaut, délègue à {@link #save(UserBehavior)} un par un ;
+     * les implémentations JDBC/JPA peuvent surcharger pour regrouper les insertions.
+     */
+    default List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<UserBehavior> saved = new ArrayList<>(behaviors.size());
+        for (UserBehavior behavior : behaviors) {
+            saved.add(save(behavior));
+        }
+        return saved;
+    }
+}
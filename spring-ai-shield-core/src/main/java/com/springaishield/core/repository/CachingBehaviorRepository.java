@@ -0,0 +1,276 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.UserBehavior;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Décorateur de cache : conserve en mémoire les derniers événements de chaque utilisateur actif
+ * (tampon circulaire de taille fixe) afin que {@link #findRecentByUserId(String, int)} ne touche
+ * la base qu'au premier accès (cold miss).
+ * Le cache est alimenté en écriture (write-through) par {@link #save(UserBehavior)}.
+ * Mémoire bornée : au plus {@code maxUsers} × {@code eventsPerUser} événements ; les utilisateurs
+ * inactifs depuis plus de {@code ttl} sont évincés en priorité.
+ * Attention : en déploiement multi-instances, les événements écrits par les autres nœuds ne sont pas vus.
+ */
+public class CachingBehaviorRepository implements BehaviorRepository {
+
+    private final BehaviorRepository delegate;
+    private final int eventsPerUser;
+    private final int maxUsers;
+    private final long ttlNanos;
+
+    private final Map<String, UserHistory> histories = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public CachingBehaviorRepository(BehaviorRepository delegate, int eventsPerUser, int maxUsers, Duration ttl) {
+        if (eventsPerUser <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("eventsPerUser et maxUsers doivent être strictement positifs.");
+        }
+        this.delegate = delegate;
+        this.eventsPerUser = eventsPerUser;
+        this.maxUsers = maxUsers;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        UserBehavior saved = delegate.save(behavior);
+
+        // Seuls les utilisateurs déjà en cache sont mis à jour : un utilisateur qui n'est jamais lu ne coûte rien
+        UserHistory history = histories.get(saved.userId());
+        if (history != null) {
+            history.append(saved, System.nanoTime());
+        }
+        return saved;
+    }
+
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<UserBehavior> saved = delegate.saveAll(behaviors);
+        long now = System.nanoTime();
+        for (UserBehavior behavior : saved) {
+            UserHistory history = histories.get(behavior.userId());
+            if (history != null) {
+                history.append(behavior, now);
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        if (limit > eventsPerUser) {
+            // Le tampon ne couvre pas cette profondeur : lecture directe
+            missCount.increment();
+            return delegate.findRecentByUserId(userId, limit);
+        }
+
+        UserHistory history = histories.get(userId);
+        if (history == null) {
+            history = histories.computeIfAbsent(userId, k -> new UserHistory(eventsPerUser));
+            if (histories.size() > maxUsers) {
+                evict();
+            }
+        }
+        return history.read(userId, limit, System.nanoTime());
+    }
+
+    private void evict() {
+        // Une seule éviction à la fois ; les autres threads ne l'attendent pas
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            histories.entrySet().removeIf(entry -> {
+                boolean expired = entry.getValue().isIdle(now);
+                if (expired) {
+                    evictionCount.increment();
+                }
+                return expired;
+            });
+
+            int overflow = histories.size() - (int) (maxUsers * 0.9);
+            if (overflow > 0 && histories.size() > maxUsers) {
+                // Éviction LRU approximative, par lot pour amortir le tri
+                List<Map.Entry<String, UserHistory>> entries = new ArrayList<>(histories.entrySet());
+                entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos));
+                for (int i = 0; i < overflow && i < entries.size(); i++) {
+                    if (histories.remove(entries.get(i).getKey(), entries.get(i).getValue())) {
+                        evictionCount.increment();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    public int cachedUserCount() {
+        return histories.size();
+    }
+
+    /**
+     * Un événement en attente et sa ligne en base : même identifiant, ou, sans identifiant (écriture différée),
+     * même URL et même horodatage à la microseconde près (précision des colonnes TIMESTAMP(6)).
+     */
+    private static boolean sameEvent(UserBehavior stored, UserBehavior event) {
+        if (event.id() != null) {
+            return event.id().equals(stored.id());
+        }
+        return stored.timestamp() != null && event.timestamp() != null
+                && stored.timestamp().truncatedTo(ChronoUnit.MICROS)
+                .equals(event.timestamp().truncatedTo(ChronoUnit.MICROS))
+                && Objects.equals(stored.requestUrl(), event.requestUrl());
+    }
+
+    private static boolean isAfter(UserBehavior stored, UserBehavior event) {
+        return stored.timestamp() != null && event.timestamp() != null && stored.timestamp().isAfter(event.timestamp());
+    }
+
+    /**
+     * Historique récent d'un utilisateur : tampon circulaire, du plus ancien au plus récent.
+     * <p>
+     * Les événements ajoutés avant le chargement (ou avant un rechargement) sont gardés à part puis fusionnés avec
+     * la lecture en base : derrière une écriture différée, ils peuvent ne pas encore y être.
+     */
+    private final class UserHistory {
+
+        private final UserBehavior[] events;
+        private final ArrayDeque<UserBehavior> pending = new ArrayDeque<>();
+        private int head; // prochaine position d'écriture
+        private int size;
+        private boolean loaded;
+        private volatile long lastAccessNanos;
+
+        UserHistory(int capacity) {
+            this.events = new UserBehavior[capacity];
+            this.lastAccessNanos = System.nanoTime();
+        }
+
+        synchronized List<UserBehavior> read(String userId, int limit, long now) {
+            if (!loaded || isIdle(now)) {
+                missCount.increment();
+                if (loaded) {
+                    keepUnconfirmed();
+                }
+                load(delegate.findRecentByUserId(userId, events.length));
+            } else {
+                hitCount.increment();
+            }
+            lastAccessNanos = now;
+
+            int count = Math.min(limit, size);
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+            // Même ordre que la base : du plus récent au plus ancien
+            List<UserBehavior> result = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                result.add(events[Math.floorMod(head - i, events.length)]);
+            }
+            return result;
+        }
+
+        synchronized void append(UserBehavior behavior, long now) {
+            if (!loaded) {
+                pending.addLast(behavior);
+                if (pending.size() > events.length) {
+                    pending.removeFirst();
+                }
+                return;
+            }
+            if (behavior.id() != null && containsId(behavior.id())) {
+                return;
+            }
+            events[head] = behavior;
+            head = (head + 1) % events.length;
+            size = Math.min(size + 1, events.length);
+            lastAccessNanos = now;
+        }
+
+        private void load(List<UserBehavior> newestFirst) {
+            List<UserBehavior> merged = newestFirst;
+            if (!pending.isEmpty()) {
+                merged = new ArrayList<>(newestFirst);
+                for (UserBehavior event : pending) {
+                    if (newestFirst.stream().noneMatch(stored -> sameEvent(stored, event))) {
+                        // Ordre de la base conservé : l'événement passe devant le premier qui n'est pas plus récent
+                        int position = 0;
+                        while (position < merged.size() && isAfter(merged.get(position), event)) {
+                            position++;
+                        }
+                        merged.add(position, event);
+                    }
+                }
+                pending.clear();
+            }
+
+            Arrays.fill(events, null);
+            head = 0;
+            size = 0;
+            int count = Math.min(merged.size(), events.length);
+            for (int i = count - 1; i >= 0; i--) {
+                events[head] = merged.get(i);
+                head = (head + 1) % events.length;
+                size++;
+            }
+            loaded = true;
+        }
+
+        /**
+         * Avant un rechargement : les événements sans identifiant (encore en file d'écriture) sont conservés.
+         */
+        private void keepUnconfirmed() {
+            for (int i = size; i >= 1; i--) {
+                UserBehavior event = events[Math.floorMod(head - i, events.length)];
+                if (event.id() == null) {
+                    pending.addLast(event);
+                }
+            }
+        }
+
+        private boolean containsId(String id) {
+            for (int i = 1; i <= size; i++) {
+                UserBehavior event = events[Math.floorMod(head - i, events.length)];
+                if (id.equals(event.id())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isIdle(long now) {
+            return now - lastAccessNanos > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.UserBehavior;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dépôt réactif en mémoire : les {@code eventsPerUser} derniers événements de chaque utilisateur, sans I/O.
+ * Au-delà de {@code maxUsers} utilisateurs, des historiques arbitraires sont retirés (approximation bornée en mémoire).
+ * Historique perdu au redémarrage et non partagé entre instances : à remplacer par un dépôt R2DBC en production.
+ */
+public class InMemoryReactiveBehaviorRepository implements ReactiveBehaviorRepository {
+
+    private final int eventsPerUser;
+    private final int maxUsers;
+    private final Map<String, ArrayDeque<UserBehavior>> histories = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InMemoryReactiveBehaviorRepository(int eventsPerUser, int maxUsers) {
+        if (eventsPerUser <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("eventsPerUser et maxUsers doivent être positifs.");
+        }
+        this.eventsPerUser = eventsPerUser;
+        this.maxUsers = maxUsers;
+    }
+
+    @Override
+    public Mono<UserBehavior> save(UserBehavior behavior) {
+        return Mono.fromSupplier(() -> append(behavior));
+    }
+
+    @Override
+    public Flux<UserBehavior> findRecentByUserId(String userId, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(snapshot(userId, limit)));
+    }
+
+    public int userCount() {
+        return histories.size();
+    }
+
+    private UserBehavior append(UserBehavior behavior) {
+        UserBehavior stored = behavior.id() != null ? behavior : new UserBehavior(
+                String.valueOf(sequence.incrementAndGet()), behavior.userId(), behavior.ipAddress(),
+                behavior.eventType(), behavior.requestUrl(), behavior.riskScore(), behavior.timestamp());
+
+        ArrayDeque<UserBehavior> history = histories.computeIfAbsent(stored.userId(), id -> new ArrayDeque<>());
+        synchronized (history) {
+            history.addFirst(stored);
+            if (history.size() > eventsPerUser) {
+                history.removeLast();
+            }
+        }
+        if (histories.size() > maxUsers) {
+            evict(stored.userId());
+        }
+        return stored;
+    }
+
+    private List<UserBehavior> snapshot(String userId, int limit) {
+        ArrayDeque<UserBehavior> history = histories.get(userId);
+        if (history == null) {
+            return List.of();
+        }
+        synchronized (history) {
+            List<UserBehavior> result = new ArrayList<>(Math.min(limit, history.size()));
+            Iterator<UserBehavior> it = history.iterator();
+            while (it.hasNext() && result.size() < limit) {
+                result.add(it.next());
+            }
+            return result;
+        }
+    }
+
+    private void evict(String keep) {
+        Iterator<String> it = histories.keySet().iterator();
+        while (histories.size() > maxUsers && it.hasNext()) {
+            if (!it.next().equals(keep)) {
+                it.remove();
+            }
+        }
+    }
+}
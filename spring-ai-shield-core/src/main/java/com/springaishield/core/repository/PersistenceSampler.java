@@ -0,0 +1,79 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.UserBehavior;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Politique de persistance échantillonnée : décide si un événement doit être enregistré dans l'historique.
+ * <ul>
+ *     <li>Toujours : événements refusés (tout type autre que {@code ACCESS_GRANTED}) et risque élevé
+ *     (score au moins {@code elevatedThreshold}).</li>
+ *     <li>Toujours : premier accès autorisé depuis une IP différente de la précédente pour cet utilisateur, afin
+ *     que la caractéristique « IP connue » du modèle reste fiable.</li>
+ *     <li>Les autres accès autorisés à faible risque : un sur {@code 1 / grantedRate}, par compteur propre à
+ *     l'utilisateur. Déterministe : chaque utilisateur garde la même proportion d'événements, sans tirage aléatoire.</li>
+ * </ul>
+ * État borné : compteurs et dernière IP par tranche d'utilisateurs ; deux utilisateurs d'une même tranche
+ * partagent leur compteur (proportion globale conservée).
+ */
+public class PersistenceSampler {
+
+    private static final String ACCESS_GRANTED = "ACCESS_GRANTED";
+    private static final int STRIPES = 1 << 14;
+
+    private final double elevatedThreshold;
+    private final int period;
+    private final AtomicIntegerArray counters = new AtomicIntegerArray(STRIPES);
+    private final AtomicIntegerArray lastIpHashes = new AtomicIntegerArray(STRIPES);
+
+    private final LongAdder keptCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+
+    /**
+     * @param grantedRate       Fraction des accès autorisés à faible risque conservés, dans ]0, 1].
+     * @param elevatedThreshold Score à partir duquel un accès autorisé est toujours conservé.
+     */
+    public PersistenceSampler(double grantedRate, double elevatedThreshold) {
+        if (!(grantedRate > 0.0 && grantedRate <= 1.0)) {
+            throw new IllegalArgumentException("grantedRate doit être compris dans ]0, 1].");
+        }
+        this.elevatedThreshold = elevatedThreshold;
+        this.period = (int) Math.max(1, Math.round(1.0 / grantedRate));
+    }
+
+    public boolean shouldPersist(UserBehavior behavior) {
+        boolean keep = isAlwaysKept(behavior) || sampled(behavior);
+        (keep ? keptCount : skippedCount).increment();
+        return keep;
+    }
+
+    private boolean isAlwaysKept(UserBehavior behavior) {
+        return !ACCESS_GRANTED.equals(behavior.eventType())
+                || behavior.riskScore() != null && behavior.riskScore().score() >= elevatedThreshold;
+    }
+
+    private boolean sampled(UserBehavior behavior) {
+        int stripe = stripe(behavior.userId());
+        int ipHash = behavior.ipAddress() == null ? 1 : behavior.ipAddress().hashCode() | 1; // 0 : aucune IP vue
+        if (lastIpHashes.getAndSet(stripe, ipHash) != ipHash) {
+            counters.set(stripe, 1);
+            return true;
+        }
+        return period == 1 || Math.floorMod(counters.getAndIncrement(stripe), period) == 0;
+    }
+
+    private static int stripe(String userId) {
+        int h = userId == null ? 0 : userId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    public long keptCount() {
+        return keptCount.sum();
+    }
+
+    public long skippedCount() {
+        return skippedCount.sum();
+    }
+}
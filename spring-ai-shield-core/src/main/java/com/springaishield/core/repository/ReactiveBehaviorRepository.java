@@ -0,0 +1,58 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.UserBehavior;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Variante non bloquante de {@link BehaviorRepository}, pour les applications WebFlux :
+ * aucune méthode ne doit bloquer le thread appelant (boucle d'événements Netty).
+ * Nécessite reactor-core sur le classpath.
+ */
+public interface ReactiveBehaviorRepository {
+
+    Mono<UserBehavior> save(UserBehavior behavior);
+
+    /**
+     * Événements récents de l'utilisateur, du plus récent au plus ancien.
+     */
+    Flux<UserBehavior> findRecentByUserId(String userId, int limit);
+
+    /**
+     * Adapte un dépôt bloquant (JPA...) en déportant chaque appel sur {@code scheduler}
+     * (typiquement {@code Schedulers.boundedElastic()}).
+     */
+    static ReactiveBehaviorRepository fromBlocking(BehaviorRepository delegate, Scheduler scheduler) {
+        return new ReactiveBehaviorRepository() {
+            @Override
+            public Mono<UserBehavior> save(UserBehavior behavior) {
+                return Mono.fromCallable(() -> delegate.save(behavior)).subscribeOn(scheduler);
+            }
+
+            @Override
+            public Flux<UserBehavior> findRecentByUserId(String userId, int limit) {
+                return Mono.fromCallable(() -> delegate.findRecentByUserId(userId, limit))
+                        .flatMapIterable(history -> history)
+                        .subscribeOn(scheduler);
+            }
+        };
+    }
+
+    /**
+     * N'enregistre que les événements retenus par {@code sampler} (voir {@link SamplingBehaviorRepository}).
+     */
+    static ReactiveBehaviorRepository sampling(ReactiveBehaviorRepository delegate, PersistenceSampler sampler) {
+        return new ReactiveBehaviorRepository() {
+            @Override
+            public Mono<UserBehavior> save(UserBehavior behavior) {
+                return sampler.shouldPersist(behavior) ? delegate.save(behavior) : Mono.just(behavior);
+            }
+
+            @Override
+            public Flux<UserBehavior> findRecentByUserId(String userId, int limit) {
+                return delegate.findRecentByUserId(userId, limit);
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.UserBehavior;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Décorateur qui n'enregistre que les événements retenus par un {@link PersistenceSampler} ;
+ * les lectures sont déléguées telles quelles.
+ * Un événement écarté est renvoyé sans identifiant, comme s'il avait été enregistré.
+ */
+public class SamplingBehaviorRepository implements BehaviorRepository {
+
+    private final BehaviorRepository delegate;
+    private final PersistenceSampler sampler;
+
+    public SamplingBehaviorRepository(BehaviorRepository delegate, PersistenceSampler sampler) {
+        this.delegate = delegate;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        return sampler.shouldPersist(behavior) ? delegate.save(behavior) : behavior;
+    }
+
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<UserBehavior> kept = new ArrayList<>(behaviors.size());
+        for (UserBehavior behavior : behaviors) {
+            if (sampler.shouldPersist(behavior)) {
+                kept.add(behavior);
+            }
+        }
+        return kept.isEmpty() ? kept : delegate.saveAll(kept);
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        return delegate.findRecentByUserId(userId, limit);
+    }
+
+    public PersistenceSampler sampler() {
+        return sampler;
+    }
+}
@@ -0,0 +1,197 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.UserBehavior;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Décorateur d'écriture différée (write-behind) : {@link #save(UserBehavior)} se contente de déposer
+ * l'événement dans une file bornée, un thread d'arrière-plan la vide par lots via
+ * {@link BehaviorRepository#saveAll(List)}.
+ * Les lectures sont déléguées telles quelles : un événement encore en file n'y est pas visible.
+ */
+public class WriteBehindBehaviorRepository implements BehaviorRepository, AutoCloseable {
+
+    private final BehaviorRepository delegate;
+    private final BlockingQueue<UserBehavior> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BackpressurePolicy backpressurePolicy;
+    private final double sampleRate;
+    private final Thread writer;
+
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public WriteBehindBehaviorRepository(BehaviorRepository delegate, int queueCapacity, int batchSize,
+                                         Duration flushInterval, BackpressurePolicy backpressurePolicy,
+                                         double sampleRate) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity et batchSize doivent être strictement positifs.");
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.backpressurePolicy = backpressurePolicy;
+        this.sampleRate = sampleRate;
+
+        this.writer = new Thread(this::drainLoop, "ai-shield-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        if (!running) {
+            // Après l'arrêt, on écrit directement pour ne rien perdre
+            return delegate.save(behavior);
+        }
+        if (!queue.offer(behavior)) {
+            applyBackpressure(behavior);
+        }
+        if (!running) {
+            // Fermeture entre le test et le dépôt : le writer a pu sortir, l'événement resterait en file
+            drainOnCaller();
+        }
+        // L'identifiant n'est pas encore connu : on renvoie l'événement tel quel
+        return behavior;
+    }
+
+    private void drainOnCaller() {
+        List<UserBehavior> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            delegate.saveAll(rest);
+            writtenCount.add(rest.size());
+        }
+    }
+
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        for (UserBehavior behavior : behaviors) {
+            save(behavior);
+        }
+        return behaviors;
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        return delegate.findRecentByUserId(userId, limit);
+    }
+
+    private void applyBackpressure(UserBehavior behavior) {
+        try {
+            switch (backpressurePolicy) {
+                case DROP -> droppedCount.increment();
+                case BLOCK -> {
+                    // Attente bornée : une file pleine dont le writer est arrêté ne se viderait plus
+                    while (!queue.offer(behavior, flushIntervalNanos, TimeUnit.NANOSECONDS)) {
+                        if (!running) {
+                            delegate.save(behavior);
+                            return;
+                        }
+                    }
+                }
+                case SAMPLE -> {
+                    boolean sampled = ThreadLocalRandom.current().nextDouble() < sampleRate;
+                    if (!sampled || !queue.offer(behavior, flushIntervalNanos, TimeUnit.NANOSECONDS)) {
+                        droppedCount.increment();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<UserBehavior> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                UserBehavior first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // On complète le lot jusqu'à batchSize ou jusqu'à l'échéance du flush
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    UserBehavior next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Arrêt demandé : on vide ce qui reste avant de sortir
+                running = false;
+                queue.drainTo(batch);
+            }
+            flush(batch);
+        }
+    }
+
+    private void flush(List<UserBehavior> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.saveAll(batch);
+            writtenCount.add(batch.size());
+        } catch (RuntimeException e) {
+            // Un lot en échec ne doit pas arrêter le writer
+            failedCount.add(batch.size());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Arrête le writer après avoir vidé la file.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    public long writtenCount() {
+        return writtenCount.sum();
+    }
+
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long failedCount() {
+        return failedCount.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.springaishield.core.reputation;
+
+import java.util.Arrays;
+
+/**
+ * Trie binaire de préfixes en tableaux primitifs : le nœud {@code i} a ses fils en {@code children[2i]} et
+ * {@code children[2i + 1]} (0 = absent, la racine n'étant jamais un fils) et son verdict en {@code verdicts[i]}.
+ * Recherche du préfixe le plus long en au plus {@code bits} étapes, sans allocation. Immuable une fois compacté.
+ */
+final class CidrTrie {
+
+    static final byte NONE = 0;
+    static final byte ALLOW = 1;
+    static final byte DENY = 2;
+
+    private int[] children = new int[2 * 64];
+    private byte[] verdicts = new byte[64];
+    private int size = 1;
+    private int prefixCount;
+
+    /**
+     * Ajoute un préfixe de {@code length} bits lus depuis le poids fort de (hi, lo).
+     * À préfixe identique, DENY l'emporte sur ALLOW.
+     */
+    void insert(long hi, long lo, int length, byte verdict) {
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+            int slot = 2 * node + bit(hi, lo, i);
+            int child = children[slot];
+            if (child == 0) {
+                child = newNode();
+                children[slot] = child;
+            }
+            node = child;
+        }
+        if (verdicts[node] == NONE) {
+            prefixCount++;
+        }
+        verdicts[node] = (byte) Math.max(verdicts[node], verdict);
+    }
+
+    byte lookup(long hi, long lo, int bits) {
+        int node = 0;
+        byte best = verdicts[0];
+        for (int i = 0; i < bits; i++) {
+            node = children[2 * node + bit(hi, lo, i)];
+            if (node == 0) break;
+            if (verdicts[node] != NONE) best = verdicts[node];
+        }
+        return best;
+    }
+
+    int prefixCount() {
+        return prefixCount;
+    }
+
+    int nodeCount() {
+        return size;
+    }
+
+    void compact() {
+        children = Arrays.copyOf(children, 2 * size);
+        verdicts = Arrays.copyOf(verdicts, size);
+    }
+
+    private int newNode() {
+        if (size == verdicts.length) {
+            verdicts = Arrays.copyOf(verdicts, size * 2);
+            children = Arrays.copyOf(children, size * 4);
+        }
+        return size++;
+    }
+
+    private static int bit(long hi, long lo, int index) {
+        return index < 64 ? (int) (hi >>> (63 - index)) & 1 : (int) (lo >>> (127 - index)) & 1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.springaishield.core.reputation;
+
+/**
+ * Analyse d'adresses IPv4/IPv6 textuelles sans allocation. Une adresse IPv6 est représentée par deux {@code long}
+ * (64 bits de poids fort, 64 bits de poids faible) ; une adresse IPv4 par les 32 bits de poids faible d'un {@code long}.
+ */
+public final class IpAddresses {
+
+    public static final long INVALID = -1L;
+
+    private IpAddresses() {
+    }
+
+    /**
+     * Adresse IPv4 pointée entre {@code from} et {@code to}, ou {@link #INVALID}.
+     */
+    public static long parseIpv4(CharSequence s, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int value = 0;
+            int digits = 0;
+            while (i < to && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                value = value * 10 + (s.charAt(i) - '0');
+                if (++digits > 3) return INVALID;
+                i++;
+            }
+            if (digits == 0 || value > 255) return INVALID;
+            address = (address << 8) | value;
+            octets++;
+            if (i == to) break;
+            if (s.charAt(i) != '.' || octets == 4) return INVALID;
+            i++;
+            if (i == to) return INVALID;
+        }
+        return octets == 4 ? address : INVALID;
+    }
+
+    /**
+     * Adresse IPv6 (formes compressée « :: », IPv4 intégrée et zone « %eth0 » acceptées) écrite dans {@code out[0..1]}.
+     *
+     * @return {@code false} si l'adresse est invalide.
+     */
+    public static boolean parseIpv6(CharSequence s, long[] out) {
+        int n = s.length();
+        for (int k = 0; k < n; k++) {
+            if (s.charAt(k) == '%') {
+                n = k;
+                break;
+            }
+        }
+        if (n < 2) return false;
+
+        long headHi = 0, headLo = 0, tailHi = 0, tailLo = 0;
+        int headCount = 0, tailCount = 0;
+        boolean compressed = false;
+        int i = 0;
+        if (s.charAt(0) == ':') {
+            if (s.charAt(1) != ':') return false;
+            compressed = true;
+            i = 2;
+        }
+
+        while (i < n) {
+            int start = i;
+            int value = 0;
+            int digits = 0;
+            int hex;
+            while (i < n && (hex = hexValue(s.charAt(i))) >= 0) {
+                value = (value << 4) | hex;
+                digits++;
+                i++;
+            }
+
+            int groups;
+            long bits;
+            if (i < n && s.charAt(i) == '.') {
+                // IPv4 intégrée (::ffff:1.2.3.4) : toujours en dernière position, compte pour deux groupes
+                bits = parseIpv4(s, start, n);
+                if (bits == INVALID) return false;
+                groups = 2;
+                i = n;
+            } else {
+                if (digits == 0 || digits > 4) return false;
+                bits = value;
+                groups = 1;
+            }
+
+            if (compressed) {
+                tailHi = (tailHi << (16 * groups)) | (tailLo >>> (64 - 16 * groups));
+                tailLo = (tailLo << (16 * groups)) | bits;
+                tailCount += groups;
+            } else {
+                headHi = (headHi << (16 * groups)) | (headLo >>> (64 - 16 * groups));
+                headLo = (headLo << (16 * groups)) | bits;
+                headCount += groups;
+            }
+            if (headCount + tailCount > 8) return false;
+
+            if (i == n) break;
+            if (s.charAt(i) != ':') return false;
+            i++;
+            if (i < n && s.charAt(i) == ':') {
+                if (compressed) return false;
+                compressed = true;
+                i++;
+            } else if (i == n) {
+                return false;
+            }
+        }
+
+        int total = headCount + tailCount;
+        if (compressed ? total > 7 : total != 8) return false;
+
+        // Groupes de tête alignés en poids fort, groupes de queue en poids faible
+        for (int g = headCount; g < 8; g++) {
+            headHi = (headHi << 16) | (headLo >>> 48);
+            headLo <<= 16;
+        }
+        out[0] = headHi | tailHi;
+        out[1] = headLo | tailLo;
+        return true;
+    }
+
+    // Chiffres ASCII uniquement (Character.digit accepterait d'autres chiffres Unicode)
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+}
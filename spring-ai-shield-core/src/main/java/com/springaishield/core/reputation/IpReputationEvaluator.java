@@ -0,0 +1,55 @@
+package com.springaishield.core.reputation;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Réputation IP : une adresse en liste de refus est rejetée, une adresse en liste d'autorisation est acceptée,
+ * dans les deux cas avant tout autre évaluateur plus coûteux et avant la lecture de l'historique.
+ */
+public class IpReputationEvaluator implements RiskFactorEvaluator {
+
+    public static final String NAME = "ip_reputation";
+
+    private static final RiskFactor DENIED = new RiskFactor("IP_DENYLIST", 1.0, "Adresse IP en liste de refus.");
+    private static final RiskFactor ALLOWED = new RiskFactor("IP_ALLOWLIST", 0.0, "Adresse IP en liste d'autorisation.");
+
+    private final Supplier<IpReputationList> reputation;
+
+    /**
+     * @param reputation Liste courante, relue à chaque requête (voir {@link ReloadableIpReputation}).
+     */
+    public IpReputationEvaluator(Supplier<IpReputationList> reputation) {
+        this.reputation = reputation;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public int cost() {
+        return COST_TRIVIAL;
+    }
+
+    @Override
+    public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+        switch (reputation.get().lookup(context.securityContext().ipAddress())) {
+            case DENY -> {
+                factors.add(DENIED);
+                context.halt();
+            }
+            case ALLOW -> {
+                factors.add(ALLOWED);
+                context.accept();
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.springaishield.core.reputation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Listes d'autorisation et de refus de plages CIDR IPv4/IPv6, compilées en deux {@link CidrTrie}.
+ * Immuable et thread-safe : {@link #lookup(String)} n'alloue pas (tampon IPv6 réutilisé par thread).
+ * <p>
+ * Format de fichier, une plage par ligne ({@code #} pour les commentaires) : {@code VERDICT;plage}, où VERDICT vaut
+ * {@code ALLOW} ou {@code DENY} et plage une adresse ou une notation CIDR ({@code 203.0.113.0/24}, {@code 2001:db8::/32}).
+ * Le préfixe le plus long l'emporte ; à préfixe égal, DENY l'emporte.
+ */
+public final class IpReputationList {
+
+    private static final ThreadLocal<long[]> IPV6_SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+    private static final IpReputationList EMPTY = new IpReputationList(new CidrTrie(), new CidrTrie());
+
+    private final CidrTrie ipv4;
+    private final CidrTrie ipv6;
+
+    private IpReputationList(CidrTrie ipv4, CidrTrie ipv6) {
+        ipv4.compact();
+        ipv6.compact();
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+    }
+
+    public static IpReputationList empty() {
+        return EMPTY;
+    }
+
+    public static IpReputationList load(InputStream in, String sourceName) throws IOException {
+        CidrTrie ipv4 = new CidrTrie();
+        CidrTrie ipv6 = new CidrTrie();
+        long[] address = new long[2];
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split(";", 2);
+            byte verdict = fields.length == 2 ? verdictOf(fields[0].trim()) : CidrTrie.NONE;
+            if (verdict == CidrTrie.NONE) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber
+                        + " : ligne attendue au format ALLOW|DENY;plage");
+            }
+
+            String range = fields[1].trim();
+            int slash = range.indexOf('/');
+            String ip = slash < 0 ? range : range.substring(0, slash);
+            int length;
+            boolean v6 = ip.indexOf(':') >= 0;
+            try {
+                length = slash < 0 ? (v6 ? 128 : 32) : Integer.parseInt(range.substring(slash + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber + " : longueur de préfixe invalide '" + range + "'");
+            }
+
+            if (v6) {
+                if (!IpAddresses.parseIpv6(ip, address) || length < 0 || length > 128) {
+                    throw new IllegalArgumentException(sourceName + ":" + lineNumber + " : plage IPv6 invalide '" + range + "'");
+                }
+                ipv6.insert(address[0], address[1], length, verdict);
+            } else {
+                long v4 = IpAddresses.parseIpv4(ip, 0, ip.length());
+                if (v4 == IpAddresses.INVALID || length < 0 || length > 32) {
+                    throw new IllegalArgumentException(sourceName + ":" + lineNumber + " : plage IPv4 invalide '" + range + "'");
+                }
+                ipv4.insert(v4 << 32, 0L, length, verdict);
+            }
+        }
+        return new IpReputationList(ipv4, ipv6);
+    }
+
+    private static byte verdictOf(String name) {
+        return switch (name.toUpperCase(Locale.ROOT)) {
+            case "ALLOW" -> CidrTrie.ALLOW;
+            case "DENY" -> CidrTrie.DENY;
+            default -> CidrTrie.NONE;
+        };
+    }
+
+    /**
+     * Verdict du préfixe le plus long couvrant {@code ip} ; {@link IpVerdict#NONE} si aucune plage ou adresse invalide.
+     * Une adresse IPv6 de forme IPv4 mappée ({@code ::ffff:a.b.c.d}) est recherchée dans les plages IPv4.
+     */
+    public IpVerdict lookup(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return IpVerdict.NONE;
+        }
+        if (ip.indexOf(':') < 0) {
+            long v4 = IpAddresses.parseIpv4(ip, 0, ip.length());
+            return v4 == IpAddresses.INVALID ? IpVerdict.NONE : verdictOf(ipv4.lookup(v4 << 32, 0L, 32));
+        }
+
+        long[] address = IPV6_SCRATCH.get();
+        if (!IpAddresses.parseIpv6(ip, address)) {
+            return IpVerdict.NONE;
+        }
+        if (address[0] == 0L && (address[1] >>> 32) == 0xFFFFL) {
+            return verdictOf(ipv4.lookup(address[1] << 32, 0L, 32));
+        }
+        return verdictOf(ipv6.lookup(address[0], address[1], 128));
+    }
+
+    private static IpVerdict verdictOf(byte verdict) {
+        return switch (verdict) {
+            case CidrTrie.ALLOW -> IpVerdict.ALLOW;
+            case CidrTrie.DENY -> IpVerdict.DENY;
+            default -> IpVerdict.NONE;
+        };
+    }
+
+    /**
+     * Nombre de plages distinctes chargées (IPv4 + IPv6).
+     */
+    public int rangeCount() {
+        return ipv4.prefixCount() + ipv6.prefixCount();
+    }
+}
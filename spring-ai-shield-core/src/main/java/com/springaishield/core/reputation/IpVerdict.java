@@ -0,0 +1,16 @@
+package com.springaishield.core.reputation;
+
+/**
+ * Résultat d'une recherche de réputation IP (préfixe le plus long).
+ */
+public enum IpVerdict {
+
+    /** Aucune plage ne couvre l'adresse (ou adresse invalide). */
+    NONE,
+
+    /** Liste d'autorisation : acceptation anticipée. */
+    ALLOW,
+
+    /** Liste de refus : rejet anticipé. */
+    DENY
+}
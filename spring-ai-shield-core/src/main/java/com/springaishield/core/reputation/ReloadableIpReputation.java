@@ -0,0 +1,119 @@
+package com.springaishield.core.reputation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Liste de réputation chargée depuis un fichier local et rechargée à chaud : la nouvelle liste est compilée à part
+ * puis publiée par une seule écriture volatile. Les lecteurs ne prennent aucun verrou et voient toujours une liste
+ * complète. Un fichier invalide est ignoré : la liste précédente reste active ({@link #failedReloadCount()}).
+ */
+public class ReloadableIpReputation implements Supplier<IpReputationList>, AutoCloseable {
+
+    private final Path file;
+    private volatile IpReputationList current;
+    private volatile FileTime loadedVersion;
+    private volatile String lastError;
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong failedReloadCount = new AtomicLong();
+    private ScheduledExecutorService watcher;
+
+    /**
+     * Charge le fichier immédiatement : une erreur de chargement initial est propagée.
+     */
+    public ReloadableIpReputation(Path file) throws IOException {
+        this.file = file;
+        this.loadedVersion = Files.getLastModifiedTime(file);
+        this.current = read();
+    }
+
+    @Override
+    public IpReputationList get() {
+        return current;
+    }
+
+    /**
+     * Recompile et publie le fichier.
+     */
+    public synchronized void reload() throws IOException {
+        FileTime version = Files.getLastModifiedTime(file);
+        IpReputationList list = read();
+        current = list;
+        loadedVersion = version;
+        reloadCount.incrementAndGet();
+    }
+
+    /**
+     * Recharge uniquement si la date de modification du fichier a changé.
+     *
+     * @return {@code true} si une nouvelle liste a été publiée.
+     */
+    public synchronized boolean reloadIfModified() {
+        try {
+            if (Files.getLastModifiedTime(file).equals(loadedVersion)) {
+                return false;
+            }
+            reload();
+            lastError = null;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failedReloadCount.incrementAndGet();
+            lastError = e.getMessage();
+            return false;
+        }
+    }
+
+    /**
+     * Vérifie le fichier toutes les {@code interval} sur un thread démon dédié.
+     */
+    public synchronized void startWatching(Duration interval) {
+        if (watcher != null) {
+            return;
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-shield-ip-reputation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        watcher.scheduleWithFixedDelay(this::reloadIfModified, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private IpReputationList read() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return IpReputationList.load(in, file.toString());
+        }
+    }
+
+    public long reloadCount() {
+        return reloadCount.get();
+    }
+
+    public long failedReloadCount() {
+        return failedReloadCount.get();
+    }
+
+    /**
+     * Message du dernier rechargement en échec, {@code null} si le dernier a réussi.
+     */
+    public String lastError() {
+        return lastError;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.springaishield.core.route;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Politiques par route compilées au démarrage en un arbre de segments de chemin : la politique d'une requête est
+ * résolue en un seul parcours du chemin, sans allocation.
+ * <p>
+ * Motifs acceptés (segments séparés par {@code /}) :
+ * <ul>
+ *     <li>segment littéral : {@code /login} ;</li>
+ *     <li>{@code *} : exactement un segment quelconque, {@code /api/*}{@code /health} ;</li>
+ *     <li>{@code **} en dernier segment : le préfixe et tout ce qui suit, {@code /static/**}.</li>
+ * </ul>
+ * Le motif le plus précis l'emporte, segment par segment : littéral, puis {@code *}, puis {@code **}.
+ * Un chemin ambigu ({@code .} ou {@code ..}, {@code ;}, {@code %}, {@code \}) reçoit toujours la politique par défaut :
+ * un chemin encodé ne doit pas pouvoir emprunter une route exemptée.
+ */
+public final class RoutePolicies {
+
+    private final Node root = new Node();
+    private final RoutePolicy defaultPolicy;
+    private int routeCount;
+
+    private RoutePolicies(RoutePolicy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    /**
+     * Même politique pour toutes les requêtes.
+     */
+    public static RoutePolicies uniform(RoutePolicy policy) {
+        return compile(Map.of(), policy);
+    }
+
+    /**
+     * @param policies      Politique par motif de chemin (l'ordre n'a pas d'importance).
+     * @param defaultPolicy Politique des chemins qui ne correspondent à aucun motif.
+     * @throws IllegalArgumentException si un motif est invalide ou déclaré deux fois.
+     */
+    public static RoutePolicies compile(Map<String, RoutePolicy> policies, RoutePolicy defaultPolicy) {
+        if (defaultPolicy == null) {
+            throw new IllegalArgumentException("defaultPolicy est obligatoire.");
+        }
+        RoutePolicies compiled = new RoutePolicies(defaultPolicy);
+        policies.forEach(compiled::insert);
+        return compiled;
+    }
+
+    private void insert(String pattern, RoutePolicy policy) {
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Motif de route invalide (doit commencer par '/') : " + pattern);
+        }
+        String[] segments = Arrays.stream(pattern.split("/")).filter(segment -> !segment.isEmpty())
+                .toArray(String[]::new);
+
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' n'est accepté qu'en dernier segment : " + pattern);
+                }
+                node.subtree = checkUnique(node.subtree, policy, pattern);
+                routeCount++;
+                return;
+            }
+            if (segment.equals("*")) {
+                node = node.wildcard != null ? node.wildcard : (node.wildcard = new Node());
+            } else if (segment.indexOf('*') >= 0 || isAmbiguous(segment, 0, segment.length())) {
+                throw new IllegalArgumentException("Segment de route invalide '" + segment + "' : " + pattern);
+            } else {
+                node = node.literal(segment);
+            }
+        }
+        node.exact = checkUnique(node.exact, policy, pattern);
+        routeCount++;
+    }
+
+    private static RoutePolicy checkUnique(RoutePolicy existing, RoutePolicy policy, String pattern) {
+        if (existing != null) {
+            throw new IllegalArgumentException("Motif de route déclaré deux fois : " + pattern);
+        }
+        return policy;
+    }
+
+    /**
+     * Politique du chemin (sans la chaîne de requête).
+     */
+    public RoutePolicy resolve(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/' || isAmbiguousPath(path)) {
+            return defaultPolicy;
+        }
+        RoutePolicy policy = match(root, path, 0);
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    private static RoutePolicy match(Node node, String path, int pos) {
+        while (pos < path.length() && path.charAt(pos) == '/') {
+            pos++;
+        }
+        if (pos == path.length()) {
+            return node.exact != null ? node.exact : node.subtree;
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        // Retour arrière limité : un littéral sans suite correspondante laisse sa chance à '*', puis à '**'
+        Node literal = node.find(path, pos, end);
+        if (literal != null) {
+            RoutePolicy policy = match(literal, path, end);
+            if (policy != null) {
+                return policy;
+            }
+        }
+        if (node.wildcard != null) {
+            RoutePolicy policy = match(node.wildcard, path, end);
+            if (policy != null) {
+                return policy;
+            }
+        }
+        return node.subtree;
+    }
+
+    private static boolean isAmbiguousPath(String path) {
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isAmbiguous(path, start, end)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static boolean isAmbiguous(String path, int from, int to) {
+        int length = to - from;
+        if (length == 1 && path.charAt(from) == '.' || length == 2 && path.startsWith("..", from)) {
+            return true;
+        }
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c == ';' || c == '%' || c == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public RoutePolicy defaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public int routeCount() {
+        return routeCount;
+    }
+
+    private static final class Node {
+
+        // Peu d'enfants par segment en pratique : un parcours linéaire sans allocation bat une table de hachage
+        private String[] names = new String[0];
+        private Node[] children = new Node[0];
+        private Node wildcard;
+        private RoutePolicy exact;
+        private RoutePolicy subtree;
+
+        Node literal(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return children[i];
+                }
+            }
+            names = Arrays.copyOf(names, names.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            names[names.length - 1] = name;
+            return children[children.length - 1] = new Node();
+        }
+
+        Node find(String path, int from, int to) {
+            int length = to - from;
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length() == length && path.regionMatches(from, names[i], 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.springaishield.core.route;
+
+/**
+ * Politique de scoring d'une route.
+ *
+ * @param level             Profondeur d'analyse.
+ * @param blockingThreshold Score à partir duquel la requête est bloquée.
+ * @param persist           Enregistrer l'événement dans l'historique.
+ */
+public record RoutePolicy(ScoringLevel level, double blockingThreshold, boolean persist) {
+
+    public RoutePolicy {
+        if (level == null) {
+            throw new IllegalArgumentException("level est obligatoire.");
+        }
+    }
+
+    /**
+     * Comportement historique : analyse complète, persistance, seuil donné.
+     */
+    public static RoutePolicy full(double blockingThreshold) {
+        return new RoutePolicy(ScoringLevel.FULL, blockingThreshold, true);
+    }
+}
@@ -0,0 +1,16 @@
+package com.springaishield.core.route;
+
+/**
+ * Profondeur d'analyse appliquée à une route.
+ */
+public enum ScoringLevel {
+
+    /** Aucune analyse ni persistance : la requête passe directement (ressources statiques, sondes de santé). */
+    SKIP,
+
+    /** Analyseurs en mémoire sur la requête seule (signatures, débit, réputation) : ni historique ni modèle. */
+    HEURISTICS_ONLY,
+
+    /** Pipeline complet. */
+    FULL
+}
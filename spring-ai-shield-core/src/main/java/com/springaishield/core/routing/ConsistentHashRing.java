@@ -0,0 +1,70 @@
+package com.springaishield.core.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anneau de hachage cohérent : chaque nœud occupe {@code virtualNodes} positions, une clé revient au premier nœud
+ * rencontré après son empreinte. Ajouter un nœud ne déplace qu'environ {@code 1 / (n + 1)} des clés, toutes vers le
+ * nouveau nœud.
+ * <p>
+ * Les positions dépendent uniquement de {@code toString()} des nœuds : identiques d'une instance et d'un redémarrage à
+ * l'autre, quel que soit l'ordre de la liste. Immuable, utilisable sans synchronisation.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final long[] positions;
+    private final Object[] owners;
+
+    public ConsistentHashRing(List<T> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Au moins un nœud et un nœud virtuel par nœud sont requis.");
+        }
+        int size = nodes.size() * virtualNodes;
+        long[] hashes = new long[size];
+        Integer[] order = new Integer[size];
+        for (int n = 0; n < nodes.size(); n++) {
+            String name = String.valueOf(nodes.get(n));
+            for (int v = 0; v < virtualNodes; v++) {
+                int i = n * virtualNodes + v;
+                hashes[i] = hash(name + "#" + v);
+                order[i] = i;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        this.positions = new long[size];
+        this.owners = new Object[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = hashes[order[i]];
+            owners[i] = nodes.get(order[i] / virtualNodes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T nodeFor(String key) {
+        long h = hash(key != null ? key : "");
+        int i = Arrays.binarySearch(positions, h);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return (T) owners[i == positions.length ? 0 : i];
+    }
+
+    /**
+     * FNV-1a sur l'UTF-8 puis mélange final (murmur3) : répartition uniforme même pour des clés très proches
+     * ({@code user1}, {@code user2}...).
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,24 @@
+package com.springaishield.core.service;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante non bloquante de {@link RiskScoringService} pour les applications WebFlux.
+ */
+public interface ReactiveRiskScoringService {
+
+    /**
+     * Calcule le score de risque (0.0 à 1.0) sans bloquer le thread appelant.
+     */
+    Mono<RiskScore> calculateRisk(SecurityContext context);
+
+    /**
+     * Variante réduite aux analyseurs en mémoire sur la requête seule, sans historique.
+     * Par défaut, évaluation complète.
+     */
+    default Mono<RiskScore> calculateHeuristicRisk(SecurityContext context) {
+        return calculateRisk(context);
+    }
+}
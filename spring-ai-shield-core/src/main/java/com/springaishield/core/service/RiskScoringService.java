@@ -15,4 +15,13 @@ public interface RiskScoringService {
      * @return Le score de risque calculé.
      */
     RiskScore calculateRisk(SecurityContext context);
-}
\ No newline at end of file
+
+    /**
+     * Variante réduite aux analyseurs en mémoire sur la requête seule, sans historique
+     * (routes {@link com.springaishield.core.route.ScoringLevel#HEURISTICS_ONLY}).
+     * Par défaut, évaluation complète.
+     */
+    default RiskScore calculateHeuristicRisk(SecurityContext context) {
+        return calculateRisk(context);
+    }
+}
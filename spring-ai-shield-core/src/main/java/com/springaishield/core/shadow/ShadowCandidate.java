@@ -0,0 +1,65 @@
+package com.springaishield.core.shadow;
+
+import com.springaishield.core.impl.BehavioralScoringEngine;
+import com.springaishield.core.impl.ScoringPipeline;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.service.RiskScoringService;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeu de règles candidat du mode fantôme. Il est évalué après la décision en production, quand l'événement de la
+ * requête a déjà pu être enregistré (cache d'historique, écriture différée) : il ne doit lire que l'historique
+ * antérieur à cette décision, sans quoi il noterait la requête avec elle-même dans son historique.
+ */
+@FunctionalInterface
+public interface ShadowCandidate {
+
+    /**
+     * @param asOf Instant de la décision en production : seuls les événements strictement antérieurs sont lus.
+     */
+    RiskScore calculateRisk(SecurityContext context, Instant asOf);
+
+    /**
+     * Candidat qui ne lit pas l'historique : {@code asOf} est ignoré.
+     */
+    static ShadowCandidate of(RiskScoringService candidate) {
+        return (context, asOf) -> candidate.calculateRisk(context);
+    }
+
+    static ShadowCandidate of(ScoringPipeline pipeline, BehaviorRepository repository) {
+        BehavioralScoringEngine engine = new BehavioralScoringEngine(pipeline);
+        return (context, asOf) -> engine.calculateRisk(context, pipeline.requiresHistory()
+                ? before(repository.findRecentByUserId(context.userId(), ScoringPipeline.HISTORY_DEPTH), asOf)
+                : List.of());
+    }
+
+    /**
+     * Variante réactive : l'historique est attendu sur le thread fantôme, hors boucle d'événements.
+     */
+    static ShadowCandidate of(ScoringPipeline pipeline, ReactiveBehaviorRepository repository) {
+        BehavioralScoringEngine engine = new BehavioralScoringEngine(pipeline);
+        return (context, asOf) -> engine.calculateRisk(context, pipeline.requiresHistory()
+                ? before(repository.findRecentByUserId(context.userId(), ScoringPipeline.HISTORY_DEPTH)
+                        .collectList().block(), asOf)
+                : List.of());
+    }
+
+    // Lecture bornée à HISTORY_DEPTH puis filtrée : il peut manquer au candidat autant d'événements anciens qu'il y a
+    // eu d'événements récents de l'utilisateur depuis la décision
+    private static List<UserBehavior> before(List<UserBehavior> history, Instant asOf) {
+        List<UserBehavior> earlier = new ArrayList<>(history.size());
+        for (UserBehavior behavior : history) {
+            if (behavior.timestamp() == null || behavior.timestamp().isBefore(asOf)) {
+                earlier.add(behavior);
+            }
+        }
+        return earlier;
+    }
+}
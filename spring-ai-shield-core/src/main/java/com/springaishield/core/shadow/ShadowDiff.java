@@ -0,0 +1,19 @@
+package com.springaishield.core.shadow;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+
+/**
+ * Requête pour laquelle le jeu de règles candidat ne prend pas la même décision que le moteur en production.
+ *
+ * @param timestamp Instant de l'évaluation fantôme (ms depuis l'époque).
+ */
+public record ShadowDiff(
+        long timestamp,
+        SecurityContext context,
+        RiskScore live,
+        boolean liveBlocked,
+        RiskScore candidate,
+        boolean candidateBlocked
+) {
+}
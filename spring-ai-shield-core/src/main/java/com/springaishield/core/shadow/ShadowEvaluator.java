@@ -0,0 +1,233 @@
+package com.springaishield.core.shadow;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.service.ReactiveRiskScoringService;
+import com.springaishield.core.service.RiskScoringService;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Mode fantôme : un jeu de règles candidat ({@link ShadowCandidate}) est évalué en arrière-plan sur une fraction
+ * des requêtes, et sa décision comparée à celle du moteur en production. La réponse n'en dépend jamais.
+ * <ul>
+ *     <li>Le thread de la requête ne fait qu'un tirage aléatoire puis, pour une requête échantillonnée, un dépôt dans
+ *     une file bornée ; il n'attend jamais le candidat.</li>
+ *     <li>File pleine (le candidat ne suit pas) : l'évaluation est abandonnée et comptée ({@code shed}),
+ *     jamais mise en attente sans limite.</li>
+ *     <li>Le candidat ne lit que l'historique antérieur à la décision en production ({@link ShadowCandidate}) : pas
+ *     l'événement de la requête comparée, enregistré entre-temps.</li>
+ *     <li>Les divergences sont comptées (nouvellement bloquées, nouvellement autorisées) ; les dernières sont
+ *     conservées ({@link #recentDiffs()}) et transmises à l'écouteur, sur le thread fantôme.</li>
+ * </ul>
+ * Les deux décisions sont prises avec un seuil unique chacune (pas de seuil par route).
+ */
+public class ShadowEvaluator implements AutoCloseable {
+
+    private final ShadowCandidate candidate;
+    private final double liveThreshold;
+    private final double candidateThreshold;
+    private final double sampleRate;
+    private final ShieldMetrics metrics;
+    private final Consumer<ShadowDiff> listener;
+    private final ThreadPoolExecutor executor;
+
+    private final ShadowDiff[] diffLog;
+    private int diffLogNext;
+    private long diffLogTotal;
+
+    private final LongAdder sampledCount = new LongAdder();
+    private final LongAdder agreedCount = new LongAdder();
+    private final LongAdder newlyBlockedCount = new LongAdder();
+    private final LongAdder newlyAllowedCount = new LongAdder();
+    private final LongAdder shedCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+
+    /**
+     * @param sampleRate    Fraction des requêtes évaluées par le candidat (0 à 1).
+     * @param threads       Threads fantômes (le candidat peut lire l'historique : I/O possible).
+     * @param queueCapacity Évaluations en attente au plus ; au-delà, elles sont abandonnées.
+     * @param diffLogSize   Dernières divergences conservées.
+     * @param listener      Appelé pour chaque divergence, sur le thread fantôme ; peut être {@code null}.
+     */
+    public ShadowEvaluator(ShadowCandidate candidate, double liveThreshold, double candidateThreshold,
+                           double sampleRate, int threads, int queueCapacity, int diffLogSize,
+                           ShieldMetrics metrics, Consumer<ShadowDiff> listener) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate doit être compris entre 0 et 1.");
+        }
+        if (threads <= 0 || queueCapacity <= 0 || diffLogSize <= 0) {
+            throw new IllegalArgumentException("threads, queueCapacity et diffLogSize doivent être strictement positifs.");
+        }
+        this.candidate = candidate;
+        this.liveThreshold = liveThreshold;
+        this.candidateThreshold = candidateThreshold;
+        this.sampleRate = sampleRate;
+        this.metrics = metrics;
+        this.listener = listener;
+        this.diffLog = new ShadowDiff[diffLogSize];
+
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-shield-shadow-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    shedCount.increment();
+                    metrics.recordShadow("shed");
+                });
+    }
+
+    /**
+     * Soumet la requête au candidat si elle est échantillonnée ; ne bloque ni n'échoue jamais.
+     *
+     * @param live Score du moteur en production pour cette requête.
+     */
+    public void observe(SecurityContext context, RiskScore live) {
+        if (sampleRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        sampledCount.increment();
+        // Avant l'enregistrement de l'événement de la requête : le candidat lit l'historique tel que la production l'a vu
+        Instant asOf = Instant.now();
+        executor.execute(() -> compare(context, live, asOf));
+    }
+
+    private void compare(SecurityContext context, RiskScore live, Instant asOf) {
+        RiskScore shadow;
+        long start = System.nanoTime();
+        try {
+            shadow = candidate.calculateRisk(context, asOf);
+        } catch (RuntimeException e) {
+            errorCount.increment();
+            metrics.recordShadow("error");
+            return;
+        }
+        metrics.recordStage("shadow", System.nanoTime() - start);
+
+        boolean liveBlocked = live.score() >= liveThreshold;
+        boolean candidateBlocked = shadow.score() >= candidateThreshold;
+        if (liveBlocked == candidateBlocked) {
+            agreedCount.increment();
+            metrics.recordShadow("agreed");
+            return;
+        }
+
+        (candidateBlocked ? newlyBlockedCount : newlyAllowedCount).increment();
+        metrics.recordShadow(candidateBlocked ? "newly_blocked" : "newly_allowed");
+        ShadowDiff diff = new ShadowDiff(System.currentTimeMillis(), context, live, liveBlocked, shadow, candidateBlocked);
+        synchronized (diffLog) {
+            diffLog[diffLogNext] = diff;
+            diffLogNext = (diffLogNext + 1) % diffLog.length;
+            diffLogTotal++;
+        }
+        if (listener != null) {
+            try {
+                listener.accept(diff);
+            } catch (RuntimeException e) {
+                // Un écouteur en échec ne doit pas interrompre les comparaisons
+            }
+        }
+    }
+
+    /**
+     * Service qui renvoie le score de {@code live} et soumet chaque requête analysée en entier au candidat.
+     * Les analyses réduites ({@link RiskScoringService#calculateHeuristicRisk}) ne sont pas comparées.
+     */
+    public RiskScoringService shadowing(RiskScoringService live) {
+        return new RiskScoringService() {
+            @Override
+            public RiskScore calculateRisk(SecurityContext context) {
+                RiskScore score = live.calculateRisk(context);
+                observe(context, score);
+                return score;
+            }
+
+            @Override
+            public RiskScore calculateHeuristicRisk(SecurityContext context) {
+                return live.calculateHeuristicRisk(context);
+            }
+        };
+    }
+
+    /**
+     * Variante non bloquante de {@link #shadowing(RiskScoringService)}.
+     */
+    public ReactiveRiskScoringService shadowing(ReactiveRiskScoringService live) {
+        return new ReactiveRiskScoringService() {
+            @Override
+            public Mono<RiskScore> calculateRisk(SecurityContext context) {
+                return live.calculateRisk(context).doOnNext(score -> observe(context, score));
+            }
+
+            @Override
+            public Mono<RiskScore> calculateHeuristicRisk(SecurityContext context) {
+                return live.calculateHeuristicRisk(context);
+            }
+        };
+    }
+
+    /**
+     * Dernières divergences, de la plus récente à la plus ancienne.
+     */
+    public List<ShadowDiff> recentDiffs() {
+        synchronized (diffLog) {
+            int size = (int) Math.min(diffLogTotal, diffLog.length);
+            List<ShadowDiff> diffs = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                diffs.add(diffLog[Math.floorMod(diffLogNext - i, diffLog.length)]);
+            }
+            return diffs;
+        }
+    }
+
+    /**
+     * Arrête les threads fantômes ; les évaluations en attente sont abandonnées.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public long sampledCount() {
+        return sampledCount.sum();
+    }
+
+    public long agreedCount() {
+        return agreedCount.sum();
+    }
+
+    public long newlyBlockedCount() {
+        return newlyBlockedCount.sum();
+    }
+
+    public long newlyAllowedCount() {
+        return newlyAllowedCount.sum();
+    }
+
+    public long shedCount() {
+        return shedCount.sum();
+    }
+
+    public long errorCount() {
+        return errorCount.sum();
+    }
+
+    public int pendingCount() {
+        return executor.getQueue().size();
+    }
+}
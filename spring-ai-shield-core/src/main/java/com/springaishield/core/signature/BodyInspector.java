@@ -0,0 +1,181 @@
+package com.springaishield.core.signature;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inspection incrémentale d'un corps de requête, au fil de sa lecture par l'application : chaque octet lu passe
+ * par un {@link ContentCanonicalizer} puis par l'automate des signatures. Rien n'est mis en mémoire tampon ;
+ * l'état tient dans l'automate, quelle que soit la taille du corps.
+ * <ul>
+ *     <li>Seuls les {@code maxLength} premiers octets sont inspectés, le reste passe sans analyse.</li>
+ *     <li>Dès que le score de la requête (URL) augmenté du poids des signatures trouvées atteint le seuil,
+ *     la lecture en cours et les suivantes lèvent {@link BodyRejectedException}.</li>
+ * </ul>
+ * Une instance par requête ; non thread-safe (un corps est lu par un seul thread à la fois).
+ */
+public final class BodyInspector {
+
+    private final ContentCanonicalizer canonicalizer;
+    private final long maxLength;
+    private final double baseScore;
+    private final double blockingThreshold;
+
+    private long inspectedBytes;
+    private boolean truncated;
+    private boolean finished;
+    private boolean rejected;
+
+    /**
+     * @param baseScore         Score déjà attribué à la requête (URL, historique...).
+     * @param blockingThreshold Seuil de blocage de la route.
+     */
+    public BodyInspector(SignatureMatcher matcher, long maxLength, double baseScore, double blockingThreshold) {
+        this.canonicalizer = new ContentCanonicalizer(matcher);
+        this.maxLength = maxLength;
+        this.baseScore = baseScore;
+        this.blockingThreshold = blockingThreshold;
+    }
+
+    public void inspect(int b) throws BodyRejectedException {
+        checkNotRejected();
+        if (b < 0) {
+            finish();
+            return;
+        }
+        if (accept(1) > 0) {
+            canonicalizer.feedByte(b);
+            check();
+        }
+    }
+
+    public void inspect(byte[] buffer, int offset, int length) throws BodyRejectedException {
+        checkNotRejected();
+        int count = accept(length);
+        for (int i = 0; i < count; i++) {
+            canonicalizer.feedByte(buffer[offset + i]);
+        }
+        if (count > 0) {
+            check();
+        }
+    }
+
+    /**
+     * Tampon de lecture non bloquante : lu par accès absolu, sa position n'est pas modifiée.
+     */
+    public void inspect(ByteBuffer buffer) throws BodyRejectedException {
+        checkNotRejected();
+        int from = buffer.position();
+        int count = accept(buffer.remaining());
+        for (int i = 0; i < count; i++) {
+            canonicalizer.feedByte(buffer.get(from + i));
+        }
+        if (count > 0) {
+            check();
+        }
+    }
+
+    /**
+     * Contenu déjà décodé par le conteneur (paramètres d'un formulaire), compté dans la même limite.
+     */
+    public void inspect(CharSequence content) throws BodyRejectedException {
+        checkNotRejected();
+        int count = accept(content.length());
+        for (int i = 0; i < count; i++) {
+            canonicalizer.feed(content.charAt(i));
+        }
+        if (count > 0) {
+            check();
+        }
+    }
+
+    /**
+     * Fin du corps : une séquence %XX ou UTF-8 inachevée est close avant la dernière vérification.
+     */
+    public void finish() throws BodyRejectedException {
+        checkNotRejected();
+        if (!finished) {
+            finished = true;
+            canonicalizer.finish();
+            check();
+        }
+    }
+
+    private int accept(int length) {
+        long remaining = maxLength - inspectedBytes;
+        if (finished || remaining <= 0) {
+            truncated |= length > 0;
+            return 0;
+        }
+        int count = (int) Math.min(length, remaining);
+        inspectedBytes += count;
+        if (count < length) {
+            truncated = true;
+        }
+        return count;
+    }
+
+    private void check() throws BodyRejectedException {
+        SignatureMatcher.Scan scan = canonicalizer.scan();
+        if (scan.hasMatches() && baseScore + scan.matchedWeight() >= blockingThreshold) {
+            rejected = true;
+            throw new BodyRejectedException("Corps de requête rejeté par Spring AI Shield : signature détectée.");
+        }
+    }
+
+    private void checkNotRejected() throws BodyRejectedException {
+        if (rejected) {
+            throw new BodyRejectedException("Corps de requête déjà rejeté par Spring AI Shield.");
+        }
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    /**
+     * Une partie du corps a dépassé {@code maxLength} et n'a pas été inspectée.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public long inspectedBytes() {
+        return inspectedBytes;
+    }
+
+    /**
+     * Facteurs trouvés dans le corps.
+     */
+    public List<RiskFactor> factors() {
+        List<RiskFactor> factors = new ArrayList<>();
+        canonicalizer.scan().collectFactors(factors);
+        return factors;
+    }
+
+    /**
+     * Score de la requête complété par le corps (plafonné à 1.0) : facteurs de la requête puis du corps ;
+     * motif : le facteur du corps le plus lourd.
+     */
+    public RiskScore risk(RiskScore requestRisk) {
+        List<RiskFactor> factors = new ArrayList<>(requestRisk.contributingFactors());
+        int first = factors.size();
+        canonicalizer.scan().collectFactors(factors);
+
+        double score = baseScore;
+        RiskFactor primary = null;
+        for (int i = first; i < factors.size(); i++) {
+            RiskFactor factor = factors.get(i);
+            score += factor.weight();
+            if (primary == null || factor.weight() > primary.weight()) {
+                primary = factor;
+            }
+        }
+        String reason = primary != null ? "Corps de requête : " + primary.detail() : requestRisk.reason();
+        return new RiskScore(Math.min(1.0, score), reason, factors);
+    }
+}
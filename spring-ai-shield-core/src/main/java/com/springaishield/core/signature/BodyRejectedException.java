@@ -0,0 +1,14 @@
+package com.springaishield.core.signature;
+
+import java.io.IOException;
+
+/**
+ * Levée pendant la lecture d'un corps de requête dont le contenu atteint le seuil de blocage :
+ * pour l'application, la lecture échoue comme une coupure réseau.
+ */
+public class BodyRejectedException extends IOException {
+
+    public BodyRejectedException(String message) {
+        super(message);
+    }
+}
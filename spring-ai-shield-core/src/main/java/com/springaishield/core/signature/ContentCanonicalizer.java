@@ -0,0 +1,211 @@
+package com.springaishield.core.signature;
+
+/**
+ * Canonicalisation en flux : décodage des séquences %XX (UTF-8), '+' en espace, mise en minuscules,
+ * et envoi direct de chaque caractère produit à un {@link SignatureMatcher.Scan}.
+ * Aucune chaîne intermédiaire n'est créée : l'état tient dans quelques champs, l'instance est
+ * réutilisable via {@link #reset()} (typiquement une instance par thread).
+ * <ul>
+ *     <li>Double encodage : un '%' obtenu par décodage (%25) ouvre une nouvelle séquence, donc %253C donne '&lt;'.</li>
+ *     <li>Séquences mal formées (%zz, % final) : conservées telles quelles, sans exception, et signalées par {@link #isMalformed()}.</li>
+ *     <li>UTF-8 invalide : remplacé par U+FFFD, comme {@link java.net.URLDecoder}.</li>
+ * </ul>
+ * Non thread-safe.
+ */
+public final class ContentCanonicalizer {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final SignatureMatcher.Scan scan;
+
+    // Séquence %XX en cours : 0 = aucune, 1 = '%' lu, 2 = '%' et un chiffre hexadécimal lus
+    private int escapeState;
+    private char escapeFirstDigit;
+    private boolean escapeFromDecoding; // le '%' courant provient lui-même d'un décodage (double encodage)
+
+    // Séquence UTF-8 multi-octets en cours
+    private int utf8Remaining;
+    private int utf8CodePoint;
+    private int utf8MinCodePoint;
+
+    private boolean malformed;
+
+    public ContentCanonicalizer(SignatureMatcher matcher) {
+        this.scan = matcher.newScan();
+    }
+
+    public void reset() {
+        escapeState = 0;
+        escapeFromDecoding = false;
+        utf8Remaining = 0;
+        malformed = false;
+        scan.reset();
+    }
+
+    public void feed(CharSequence content) {
+        for (int i = 0, length = content.length(); i < length; i++) {
+            feed(content.charAt(i));
+        }
+    }
+
+    /**
+     * Caractère brut (déjà décodé en UTF-16, par exemple issu d'une URL sous forme de String).
+     */
+    public void feed(char c) {
+        switch (escapeState) {
+            case 0 -> {
+                if (c == '%') {
+                    escapeState = 1;
+                    escapeFromDecoding = false;
+                } else {
+                    flushIncompleteUtf8();
+                    emit(c == '+' ? ' ' : c);
+                }
+            }
+            case 1 -> {
+                if (hexValue(c) >= 0) {
+                    escapeFirstDigit = c;
+                    escapeState = 2;
+                } else {
+                    abortEscape();
+                    feed(c);
+                }
+            }
+            default -> {
+                int high = hexValue(escapeFirstDigit);
+                int low = hexValue(c);
+                if (low >= 0) {
+                    escapeState = 0;
+                    decodedByte((high << 4) | low);
+                } else {
+                    abortEscape();
+                    feed(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Octet brut (corps de requête par exemple) : les octets ASCII suivent le même traitement que
+     * {@link #feed(char)}, les autres sont décodés comme de l'UTF-8.
+     */
+    public void feedByte(int b) {
+        b &= 0xFF;
+        if (b < 0x80) {
+            feed((char) b);
+            return;
+        }
+        if (escapeState != 0) {
+            abortEscape();
+        }
+        utf8Byte(b);
+    }
+
+    /**
+     * Termine le contenu : une séquence %XX ou UTF-8 inachevée est traitée comme mal formée.
+     */
+    public void finish() {
+        if (escapeState != 0) {
+            abortEscape();
+        }
+        flushIncompleteUtf8();
+    }
+
+    public SignatureMatcher.Scan scan() {
+        return scan;
+    }
+
+    public boolean isMalformed() {
+        return malformed;
+    }
+
+    private void decodedByte(int b) {
+        if (b == '%' && utf8Remaining == 0) {
+            // Double encodage : le '%' décodé ouvre une nouvelle séquence
+            escapeState = 1;
+            escapeFromDecoding = true;
+        } else if (b < 0x80) {
+            flushIncompleteUtf8();
+            emit((char) b);
+        } else {
+            utf8Byte(b);
+        }
+    }
+
+    private void abortEscape() {
+        // Séquence invalide : on restitue les caractères lus tels quels
+        if (!escapeFromDecoding) {
+            malformed = true;
+        }
+        int state = escapeState;
+        escapeState = 0;
+        escapeFromDecoding = false;
+        flushIncompleteUtf8();
+        emit('%');
+        if (state == 2) {
+            emit(escapeFirstDigit);
+        }
+    }
+
+    private void utf8Byte(int b) {
+        if (utf8Remaining > 0) {
+            if ((b & 0xC0) == 0x80) {
+                utf8CodePoint = (utf8CodePoint << 6) | (b & 0x3F);
+                if (--utf8Remaining == 0) {
+                    emitCodePoint(utf8CodePoint);
+                }
+                return;
+            }
+            // Octet de tête inattendu : la séquence précédente est invalide
+            flushIncompleteUtf8();
+        }
+
+        if ((b & 0xE0) == 0xC0) {
+            utf8Remaining = 1;
+            utf8CodePoint = b & 0x1F;
+            utf8MinCodePoint = 0x80;
+        } else if ((b & 0xF0) == 0xE0) {
+            utf8Remaining = 2;
+            utf8CodePoint = b & 0x0F;
+            utf8MinCodePoint = 0x800;
+        } else if ((b & 0xF8) == 0xF0) {
+            utf8Remaining = 3;
+            utf8CodePoint = b & 0x07;
+            utf8MinCodePoint = 0x10000;
+        } else {
+            emit(REPLACEMENT);
+        }
+    }
+
+    private void flushIncompleteUtf8() {
+        if (utf8Remaining > 0) {
+            utf8Remaining = 0;
+            emit(REPLACEMENT);
+        }
+    }
+
+    private void emitCodePoint(int codePoint) {
+        // Les encodages trop longs et les substituts isolés sont refusés, comme par le décodeur du JDK
+        if (codePoint < utf8MinCodePoint || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            emit(REPLACEMENT);
+        } else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            emit((char) codePoint);
+        } else {
+            int lower = Character.toLowerCase(codePoint);
+            scan.feed(Character.highSurrogate(lower));
+            scan.feed(Character.lowSurrogate(lower));
+        }
+    }
+
+    private void emit(char c) {
+        scan.feed(Character.toLowerCase(c));
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+}
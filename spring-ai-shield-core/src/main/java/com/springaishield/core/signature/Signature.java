@@ -0,0 +1,11 @@
+package com.springaishield.core.signature;
+
+/**
+ * Signature d'attaque : un motif littéral rattaché à un facteur de risque.
+ */
+public record Signature(
+        String pattern, // Motif recherché, en minuscules (ex: 'union', '<script>')
+        String factorName, // Facteur déclenché (ex: SQL_HEURISTIC)
+        double weight, // Poids du facteur sur le score final
+        String detail // Description du facteur (ex: 'Mot-clé SQL dangereux détecté.')
+) {}
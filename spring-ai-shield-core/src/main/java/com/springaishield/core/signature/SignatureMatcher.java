@@ -0,0 +1,239 @@
+package com.springaishield.core.signature;
+
+import com.springaishield.core.model.RiskFactor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Automate Aho-Corasick compilé à partir d'un {@link SignaturePack}.
+ * Le contenu est parcouru une seule fois, quel que soit le nombre de signatures :
+ * le coût par caractère est une lecture de tableau.
+ * L'automate est immuable et partageable entre threads ; l'état d'un parcours vit dans un {@link Scan}.
+ * La comparaison est sensible à la casse : le contenu doit être fourni en minuscules, comme les motifs.
+ */
+public final class SignatureMatcher {
+
+    private static final int ROOT = 0;
+
+    private final List<Signature> signatures;
+    private final List<RiskFactor> factors; // un RiskFactor par facteur distinct, dans l'ordre du pack
+    private final int[] factorOfSignature;
+
+    // Alphabet compressé : chaque caractère présent dans un motif a sa classe, tous les autres partagent la classe 0
+    private final int[] asciiClass = new int[128];
+    private final Map<Character, Integer> extraClass = new HashMap<>();
+    private final int classCount;
+
+    private final int[] transitions; // DFA complet : transitions[état * classCount + classe]
+    private final int[][] outputs; // signatures reconnues en arrivant sur l'état (null si aucune)
+
+    private SignatureMatcher(List<Signature> signatures) {
+        this.signatures = List.copyOf(signatures);
+
+        Map<String, Integer> factorIndex = new LinkedHashMap<>();
+        List<RiskFactor> factorList = new ArrayList<>();
+        this.factorOfSignature = new int[signatures.size()];
+        for (int i = 0; i < signatures.size(); i++) {
+            Signature signature = signatures.get(i);
+            Integer index = factorIndex.get(signature.factorName());
+            if (index == null) {
+                index = factorList.size();
+                factorIndex.put(signature.factorName(), index);
+                factorList.add(new RiskFactor(signature.factorName(), signature.weight(), signature.detail()));
+            }
+            factorOfSignature[i] = index;
+        }
+        this.factors = Collections.unmodifiableList(factorList);
+
+        int nextClass = 1;
+        for (Signature signature : signatures) {
+            for (char c : signature.pattern().toCharArray()) {
+                if (c < 128) {
+                    if (asciiClass[c] == 0) {
+                        asciiClass[c] = nextClass++;
+                    }
+                } else if (!extraClass.containsKey(c)) {
+                    extraClass.put(c, nextClass++);
+                }
+            }
+        }
+        this.classCount = nextClass;
+
+        // 1. Trie des motifs
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        gotoTable.add(newRow());
+        stateOutputs.add(new ArrayList<>());
+        for (int i = 0; i < signatures.size(); i++) {
+            int state = ROOT;
+            for (char c : signatures.get(i).pattern().toCharArray()) {
+                int cls = classOf(c);
+                int next = gotoTable.get(state)[cls];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.get(state)[cls] = next;
+                    gotoTable.add(newRow());
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            stateOutputs.get(state).add(i);
+        }
+
+        // 2. Liens d'échec (parcours en largeur) et résolution en DFA complet
+        int stateCount = gotoTable.size();
+        int[] fail = new int[stateCount];
+        this.transitions = new int[stateCount * classCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classCount; cls++) {
+            int next = gotoTable.get(ROOT)[cls];
+            if (next < 0) {
+                transitions[cls] = ROOT;
+            } else {
+                transitions[cls] = next;
+                fail[next] = ROOT;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(fail[state]));
+            for (int cls = 0; cls < classCount; cls++) {
+                int next = gotoTable.get(state)[cls];
+                if (next < 0) {
+                    transitions[state * classCount + cls] = transitions[fail[state] * classCount + cls];
+                } else {
+                    transitions[state * classCount + cls] = next;
+                    fail[next] = transitions[fail[state] * classCount + cls];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            List<Integer> out = stateOutputs.get(state);
+            if (!out.isEmpty()) {
+                outputs[state] = out.stream().mapToInt(Integer::intValue).distinct().toArray();
+            }
+        }
+    }
+
+    public static SignatureMatcher compile(SignaturePack pack) {
+        return new SignatureMatcher(pack.signatures());
+    }
+
+    public static SignatureMatcher compile(List<Signature> signatures) {
+        return new SignatureMatcher(signatures);
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        Integer cls = extraClass.get(c);
+        return cls == null ? 0 : cls;
+    }
+
+    public List<Signature> signatures() {
+        return signatures;
+    }
+
+    /**
+     * Facteurs distincts du pack, dans l'ordre de première déclaration.
+     */
+    public List<RiskFactor> factors() {
+        return factors;
+    }
+
+    public int stateCount() {
+        return outputs.length;
+    }
+
+    public Scan newScan() {
+        return new Scan();
+    }
+
+    /**
+     * Parcours en cours : état de l'automate et signatures reconnues. Non thread-safe, réutilisable via {@link #reset()}.
+     * Le contenu peut être fourni par morceaux successifs (flux).
+     */
+    public final class Scan {
+
+        private int state = ROOT;
+        private final BitSet matchedSignatures = new BitSet(signatures.size());
+        private final BitSet matchedFactors = new BitSet(factors.size());
+
+        public void feed(char c) {
+            state = transitions[state * classCount + classOf(c)];
+            int[] out = outputs[state];
+            if (out != null) {
+                for (int signature : out) {
+                    matchedSignatures.set(signature);
+                    matchedFactors.set(factorOfSignature[signature]);
+                }
+            }
+        }
+
+        public void feed(CharSequence content) {
+            for (int i = 0, length = content.length(); i < length; i++) {
+                feed(content.charAt(i));
+            }
+        }
+
+        public void reset() {
+            state = ROOT;
+            matchedSignatures.clear();
+            matchedFactors.clear();
+        }
+
+        public boolean hasMatches() {
+            return !matchedFactors.isEmpty();
+        }
+
+        /**
+         * Somme des poids des facteurs reconnus, sans allocation (décision en cours de flux).
+         */
+        public double matchedWeight() {
+            double weight = 0.0;
+            for (int i = matchedFactors.nextSetBit(0); i >= 0; i = matchedFactors.nextSetBit(i + 1)) {
+                weight += factors.get(i).weight();
+            }
+            return weight;
+        }
+
+        /**
+         * Signatures reconnues, dans l'ordre du pack.
+         */
+        public List<Signature> matchedSignatures() {
+            List<Signature> result = new ArrayList<>(matchedSignatures.cardinality());
+            for (int i = matchedSignatures.nextSetBit(0); i >= 0; i = matchedSignatures.nextSetBit(i + 1)) {
+                result.add(signatures.get(i));
+            }
+            return result;
+        }
+
+        /**
+         * Ajoute un {@link RiskFactor} par facteur reconnu (une seule fois même si plusieurs motifs du facteur sont trouvés).
+         */
+        public void collectFactors(List<RiskFactor> target) {
+            for (int i = matchedFactors.nextSetBit(0); i >= 0; i = matchedFactors.nextSetBit(i + 1)) {
+                target.add(factors.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.springaishield.core.signature;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ensemble de signatures chargé depuis un fichier texte.
+ * Format d'une ligne : {@code FACTEUR;poids;détail;motif} ; les lignes vides et commençant par '#' sont ignorées.
+ */
+public final class SignaturePack {
+
+    private static final String DEFAULT_RESOURCE = "default-signatures.txt";
+
+    private final List<Signature> signatures;
+
+    private SignaturePack(List<Signature> signatures) {
+        this.signatures = Collections.unmodifiableList(signatures);
+    }
+
+    public static SignaturePack of(List<Signature> signatures) {
+        return new SignaturePack(new ArrayList<>(signatures));
+    }
+
+    /**
+     * Pack embarqué dans la librairie (heuristiques SQLi / XSS historiques).
+     */
+    public static SignaturePack loadDefault() {
+        try (InputStream in = SignaturePack.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Pack de signatures par défaut introuvable : " + DEFAULT_RESOURCE);
+            }
+            return load(in, DEFAULT_RESOURCE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param sourceName Nom de la source, utilisé dans les messages d'erreur.
+     * @throws IllegalArgumentException si une ligne est mal formée ou incohérente avec son facteur.
+     */
+    public static SignaturePack load(InputStream in, String sourceName) throws IOException {
+        List<Signature> signatures = new ArrayList<>();
+        Map<String, Signature> firstByFactor = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.stripLeading().startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split(";", 4);
+            if (fields.length != 4 || fields[3].isEmpty()) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber
+                        + " : ligne attendue au format FACTEUR;poids;détail;motif");
+            }
+
+            double weight;
+            try {
+                weight = Double.parseDouble(fields[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber + " : poids invalide '" + fields[1] + "'");
+            }
+            // Le court-circuit du mode TIERED suppose des poids positifs : un poids négatif ferait baisser le score
+            if (!Double.isFinite(weight) || weight < 0) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber
+                        + " : le poids doit être un nombre positif ou nul, pas '" + fields[1].trim() + "'");
+            }
+
+            Signature signature = new Signature(
+                    fields[3].toLowerCase(Locale.ROOT),
+                    fields[0].trim(),
+                    weight,
+                    fields[2].trim()
+            );
+
+            Signature first = firstByFactor.putIfAbsent(signature.factorName(), signature);
+            if (first != null && (first.weight() != signature.weight() || !first.detail().equals(signature.detail()))) {
+                throw new IllegalArgumentException(sourceName + ":" + lineNumber + " : le facteur "
+                        + signature.factorName() + " est déjà déclaré avec un autre poids ou détail");
+            }
+            signatures.add(signature);
+        }
+        return new SignaturePack(signatures);
+    }
+
+    public List<Signature> signatures() {
+        return signatures;
+    }
+}
@@ -0,0 +1,84 @@
+package com.springaishield.core.spi;
+
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Contexte partagé par les évaluateurs d'une même requête. L'historique de l'utilisateur est chargé
+ * au plus une fois, au premier appel de {@link #history()}, puis partagé.
+ */
+public final class EvaluationContext {
+
+    private final SecurityContext securityContext;
+    private final Supplier<List<UserBehavior>> historyLoader;
+    private volatile List<UserBehavior> history;
+    private volatile boolean accepted;
+    private volatile boolean halted;
+
+    public EvaluationContext(SecurityContext securityContext, Supplier<List<UserBehavior>> historyLoader) {
+        this.securityContext = securityContext;
+        this.historyLoader = historyLoader;
+    }
+
+    /**
+     * Contexte dont l'historique est déjà connu (aucun chargement).
+     */
+    public static EvaluationContext withHistory(SecurityContext securityContext, List<UserBehavior> history) {
+        EvaluationContext context = new EvaluationContext(securityContext, () -> history);
+        context.history = history;
+        return context;
+    }
+
+    public SecurityContext securityContext() {
+        return securityContext;
+    }
+
+    /**
+     * Historique récent de l'utilisateur, du plus récent au plus ancien.
+     */
+    public List<UserBehavior> history() {
+        List<UserBehavior> result = history;
+        if (result == null) {
+            synchronized (this) {
+                result = history;
+                if (result == null) {
+                    result = historyLoader.get();
+                    history = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isHistoryLoaded() {
+        return history != null;
+    }
+
+    /**
+     * Acceptation anticipée (liste d'autorisation...) : les évaluateurs suivants ne sont pas exécutés et seuls les
+     * facteurs de l'évaluateur courant sont conservés. Pris en compte pour les évaluateurs exécutés sur le thread
+     * appelant (tous, sauf les évaluateurs déportés du mode PARALLEL).
+     */
+    public void accept() {
+        accepted = true;
+    }
+
+    /**
+     * Décision acquise (rejet anticipé) : les évaluateurs suivants ne sont pas exécutés, les facteurs déjà collectés
+     * sont conservés. Même portée que {@link #accept()}.
+     */
+    public void halt() {
+        halted = true;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+}
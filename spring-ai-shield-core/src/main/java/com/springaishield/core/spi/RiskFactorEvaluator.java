@@ -0,0 +1,50 @@
+package com.springaishield.core.spi;
+
+import com.springaishield.core.model.RiskFactor;
+
+import java.util.List;
+
+/**
+ * SPI d'un détecteur de risque. Chaque évaluateur ajoute zéro, un ou plusieurs {@link RiskFactor} pour une requête.
+ * Avec l'intégration Spring Boot, tout bean de ce type est ajouté automatiquement au pipeline de scoring.
+ * Les implémentations doivent être thread-safe : une même instance traite toutes les requêtes.
+ */
+public interface RiskFactorEvaluator {
+
+    int COST_TRIVIAL = 1; // compteur en mémoire
+    int COST_LOW = 10; // calcul en mémoire sur la requête seule
+    int COST_MEDIUM = 100;
+    int COST_HIGH = 1000; // accès à un stockage externe
+
+    /**
+     * Nom stable et de cardinalité bornée (utilisé comme étiquette de métrique et dans les traces).
+     */
+    String name();
+
+    /**
+     * Coût relatif : en mode TIERED, les évaluateurs les moins coûteux passent en premier. Dans tous les modes, les
+     * évaluateurs {@link #COST_TRIVIAL} passent avant les autres.
+     */
+    default int cost() {
+        return COST_MEDIUM;
+    }
+
+    /**
+     * Indique si l'évaluateur lit {@link EvaluationContext#history()}. Si aucun évaluateur actif ne le déclare,
+     * l'historique n'est jamais chargé.
+     */
+    default boolean requiresHistory() {
+        return false;
+    }
+
+    /**
+     * Indique si le résultat ne dépend que de la requête et de l'historique, et peut donc être servi par le cache
+     * de décisions. {@code false} pour un évaluateur à état par requête (compteur de débit...) : il est alors
+     * exécuté à chaque requête, même quand la décision vient du cache.
+     */
+    default boolean cacheable() {
+        return true;
+    }
+
+    void evaluate(EvaluationContext context, List<RiskFactor> factors);
+}
@@ -0,0 +1,254 @@
+package com.springaishield.core.store;
+
+import com.springaishield.core.encoding.IpCodec;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Format binaire d'un événement dans un segment :
+ * <pre>
+ * int    longueur totale (en-tête compris) ; 0 : fin des données du segment
+ * int    CRC32C du corps
+ * long   identifiant
+ * long   secondes epoch    int nanosecondes
+ * double score
+ * byte   IP : 0 absente, 4 ou 16 octets suivent, 1 texte (adresse non littérale)
+ * str    userId, eventType, requestUrl, raison
+ * byte   nombre de facteurs, puis (str nom, double poids) par facteur
+ * </pre>
+ * {@code str} : longueur sur 2 octets non signés ({@code 0xFFFF} pour {@code null}) puis UTF-8, tronqué à
+ * {@value #MAX_STRING} octets. Le détail des facteurs n'est pas conservé.
+ * <p>
+ * La longueur est écrite en dernier et le CRC couvre le corps : une écriture interrompue (arrêt brutal, page non
+ * vidée) est détectée à la relecture et marque la fin du segment.
+ */
+final class EventLayout {
+
+    static final int HEADER = 8;
+    static final int MAX_STRING = 0xFFFE;
+
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int MAX_FACTORS = 0xFF;
+    private static final byte IP_NONE = 0;
+    private static final byte IP_TEXT = 1;
+    // Identifiant, secondes, nanosecondes, score, marqueur d'IP
+    private static final int FIXED_BODY = 8 + 8 + 4 + 8 + 1;
+    private static final int USER_ID_OFFSET = HEADER + 8 + 8 + 4 + 8;
+
+    private EventLayout() {
+    }
+
+    /**
+     * Événement prêt à écrire : les chaînes sont encodées une fois, pour connaître la taille avant d'écrire
+     * directement dans le segment.
+     */
+    static final class Encoded {
+
+        final UserBehavior behavior;
+        final Instant timestamp;
+        final byte[] ip;
+        final boolean ipText;
+        final byte[] userId;
+        final byte[] eventType;
+        final byte[] requestUrl;
+        final byte[] reason;
+        final byte[][] factorNames;
+        final double[] factorWeights;
+        final int length;
+
+        Encoded(UserBehavior behavior) {
+            this.behavior = behavior;
+            this.timestamp = behavior.timestamp() != null ? behavior.timestamp() : Instant.now();
+            byte[] binaryIp = IpCodec.encode(behavior.ipAddress());
+            this.ipText = binaryIp == null && behavior.ipAddress() != null;
+            this.ip = ipText ? utf8(behavior.ipAddress()) : binaryIp;
+            this.userId = utf8(behavior.userId());
+            this.eventType = utf8(behavior.eventType());
+            this.requestUrl = utf8(behavior.requestUrl());
+            RiskScore score = behavior.riskScore();
+            this.reason = utf8(score != null ? score.reason() : null);
+
+            List<RiskFactor> factors = score != null && score.contributingFactors() != null
+                    ? score.contributingFactors() : Collections.emptyList();
+            int count = Math.min(factors.size(), MAX_FACTORS);
+            this.factorNames = new byte[count][];
+            this.factorWeights = new double[count];
+            int size = HEADER + FIXED_BODY + (ip == null ? 0 : ipText ? 2 + ip.length : ip.length)
+                    + sizeOf(userId) + sizeOf(eventType) + sizeOf(requestUrl) + sizeOf(reason) + 1;
+            for (int i = 0; i < count; i++) {
+                factorNames[i] = utf8(factors.get(i).name());
+                factorWeights[i] = factors.get(i).weight();
+                size += sizeOf(factorNames[i]) + 8;
+            }
+            this.length = size;
+        }
+    }
+
+    /**
+     * Écrit l'événement à {@code offset} ; le corps d'abord, la longueur en dernier.
+     */
+    static void write(ByteBuffer target, int offset, long id, Encoded event) {
+        int p = offset + HEADER;
+        target.putLong(p, id);
+        target.putLong(p + 8, event.timestamp.getEpochSecond());
+        target.putInt(p + 16, event.timestamp.getNano());
+        RiskScore score = event.behavior.riskScore();
+        target.putDouble(p + 20, score != null ? score.score() : 0.0);
+        p += 28;
+        if (event.ip == null) {
+            target.put(p++, IP_NONE);
+        } else if (event.ipText) {
+            target.put(p++, IP_TEXT);
+            p = putString(target, p, event.ip);
+        } else {
+            target.put(p++, (byte) event.ip.length);
+            target.put(p, event.ip);
+            p += event.ip.length;
+        }
+        p = putString(target, p, event.userId);
+        p = putString(target, p, event.eventType);
+        p = putString(target, p, event.requestUrl);
+        p = putString(target, p, event.reason);
+        target.put(p++, (byte) event.factorNames.length);
+        for (int i = 0; i < event.factorNames.length; i++) {
+            p = putString(target, p, event.factorNames[i]);
+            target.putDouble(p, event.factorWeights[i]);
+            p += 8;
+        }
+
+        target.putInt(offset + 4, crc(target, offset, event.length));
+        target.putInt(offset, event.length);
+    }
+
+    /**
+     * @return Longueur de l'enregistrement valide à {@code offset}, 0 en fin de données ou si l'enregistrement est
+     * incomplet ou corrompu.
+     */
+    static int validLength(ByteBuffer source, int offset) {
+        if (offset + HEADER > source.capacity()) {
+            return 0;
+        }
+        int length = source.getInt(offset);
+        if (length < HEADER + FIXED_BODY || offset + length > source.capacity()) {
+            return 0;
+        }
+        return crc(source, offset, length) == source.getInt(offset + 4) ? length : 0;
+    }
+
+    static long id(ByteBuffer source, int offset) {
+        return source.getLong(offset + HEADER);
+    }
+
+    /**
+     * Utilisateur de l'enregistrement, sans décoder le reste (reconstruction de l'index, compaction).
+     */
+    static String userId(ByteBuffer source, int offset) {
+        int p = offset + USER_ID_OFFSET;
+        byte ip = source.get(p++);
+        if (ip == IP_TEXT) {
+            p += 2 + (source.getShort(p) & 0xFFFF);
+        } else if (ip != IP_NONE) {
+            p += ip;
+        }
+        return getString(source, p);
+    }
+
+    static UserBehavior read(ByteBuffer source, int offset) {
+        int p = offset + HEADER;
+        long id = source.getLong(p);
+        Instant timestamp = Instant.ofEpochSecond(source.getLong(p + 8), source.getInt(p + 16));
+        double score = source.getDouble(p + 20);
+        p += 28;
+
+        String ip;
+        byte ipTag = source.get(p++);
+        if (ipTag == IP_NONE) {
+            ip = null;
+        } else if (ipTag == IP_TEXT) {
+            ip = getString(source, p);
+            p += 2 + (source.getShort(p) & 0xFFFF);
+        } else {
+            byte[] bytes = new byte[ipTag];
+            source.get(p, bytes);
+            ip = IpCodec.decode(bytes);
+            p += ipTag;
+        }
+        String[] strings = new String[4];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = getString(source, p);
+            p += sizeOf(source, p);
+        }
+        int count = source.get(p++) & 0xFF;
+        List<RiskFactor> factors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = getString(source, p);
+            p += sizeOf(source, p);
+            factors.add(new RiskFactor(name, source.getDouble(p), ""));
+            p += 8;
+        }
+        return new UserBehavior(String.valueOf(id), strings[0], ip, strings[1], strings[2],
+                new RiskScore(score, strings[3], factors), timestamp);
+    }
+
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        // Tranche du segment : calcul sans copie
+        crc.update(buffer.slice(offset + HEADER, length - HEADER));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING) {
+            return bytes;
+        }
+        // Coupure avant le caractère à cheval sur la limite : pas de séquence multi-octets tronquée (relue U+FFFD)
+        int end = MAX_STRING;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    private static int sizeOf(byte[] value) {
+        return 2 + (value != null ? value.length : 0);
+    }
+
+    private static int sizeOf(ByteBuffer source, int p) {
+        int length = source.getShort(p) & 0xFFFF;
+        return 2 + (length == NULL_STRING ? 0 : length);
+    }
+
+    private static int putString(ByteBuffer target, int p, byte[] value) {
+        if (value == null) {
+            target.putShort(p, (short) NULL_STRING);
+            return p + 2;
+        }
+        target.putShort(p, (short) value.length);
+        target.put(p + 2, value);
+        return p + 2 + value.length;
+    }
+
+    private static String getString(ByteBuffer source, int p) {
+        int length = source.getShort(p) & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        source.get(p + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,480 @@
+package com.springaishield.core.store;
+
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Historique embarqué, sans base de données : les événements sont ajoutés à la suite dans des segments projetés en
+ * mémoire ({@link EventLayout}), et un index en mémoire garde l'emplacement des {@code eventsPerUser} derniers
+ * événements de chaque utilisateur.
+ * <ul>
+ *     <li>Écriture : encodage directement dans la projection du segment actif, sans tampon intermédiaire ni appel
+ *     système ; le système vide les pages. Survit à un arrêt du processus ; en cas de coupure de la machine, les
+ *     derniers événements non vidés sont perdus (détectés par CRC à la relecture).</li>
+ *     <li>Lecture : {@link #findRecentByUserId(String, int)} lit uniquement les enregistrements indexés.</li>
+ *     <li>Segment plein : un nouveau segment devient actif. Au-delà de {@code maxSegments}, le plus ancien est
+ *     compacté en arrière-plan : ses événements encore indexés sont recopiés dans le segment actif, puis il est
+ *     supprimé. S'ils occupent plus de la moitié du segment, il est supprimé sans recopie (les plus anciens
+ *     événements sont perdus, voir {@link #droppedCount()}) : la place disque reste bornée.</li>
+ *     <li>Démarrage : l'index est reconstruit en parcourant les segments.</li>
+ * </ul>
+ * Au-delà de {@code maxUsers}, des utilisateurs arbitraires sortent de l'index (même approximation que
+ * {@link com.springaishield.core.repository.InMemoryReactiveBehaviorRepository}) ; leurs événements sont récupérés par
+ * la compaction. Un seul processus par répertoire.
+ */
+public class MappedEventStore implements BehaviorRepository, AutoCloseable {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{10})\\.dat");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int eventsPerUser;
+    private final int maxUsers;
+
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, History> index = new ConcurrentHashMap<>();
+    // Ajouts sérialisés ; la suppression d'un segment attend la fin des lectures en cours
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final ExecutorService compactor;
+
+    private Segment active;
+    private long nextId;
+
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong copiedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private long recoveredCount;
+    private volatile String lastError;
+
+    /**
+     * @param segmentSize Taille de chaque fichier de segment, en octets.
+     * @param maxSegments Segments conservés au plus (au moins 2).
+     */
+    public MappedEventStore(Path directory, int segmentSize, int maxSegments, int eventsPerUser, int maxUsers)
+            throws IOException {
+        if (segmentSize < 4096 || maxSegments < 2 || eventsPerUser <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException(
+                    "segmentSize >= 4096, maxSegments >= 2, eventsPerUser et maxUsers positifs attendus.");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.eventsPerUser = eventsPerUser;
+        this.maxUsers = maxUsers;
+        Files.createDirectories(directory);
+        recover();
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-shield-store-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (segments.size() > maxSegments) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        EventLayout.Encoded event = new EventLayout.Encoded(behavior);
+        appendLock.lock();
+        try {
+            return append(event);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Un seul passage par le verrou d'ajout pour tout le lot.
+     */
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<EventLayout.Encoded> events = new ArrayList<>(behaviors.size());
+        for (UserBehavior behavior : behaviors) {
+            events.add(new EventLayout.Encoded(behavior));
+        }
+        List<UserBehavior> saved = new ArrayList<>(events.size());
+        appendLock.lock();
+        try {
+            for (EventLayout.Encoded event : events) {
+                saved.add(append(event));
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        return saved;
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        History history = userId != null ? index.get(userId) : null;
+        if (history == null || limit <= 0) {
+            return List.of();
+        }
+        // Copie de l'index sous le verrou : la compaction met l'index à jour avant de supprimer un segment, et la
+        // suppression attend la fin de la lecture. Chaque emplacement copié désigne donc un segment encore présent.
+        segmentLock.readLock().lock();
+        try {
+            long[] locations = history.snapshot(limit);
+            List<UserBehavior> recent = new ArrayList<>(locations.length);
+            for (long location : locations) {
+                recent.add(EventLayout.read(segments.get(segmentOf(location)).buffer, offsetOf(location)));
+            }
+            return recent;
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    private UserBehavior append(EventLayout.Encoded event) {
+        if (event.length > segmentSize - Segment.FIRST_RECORD) {
+            throw new IllegalArgumentException(
+                    "Événement trop volumineux pour un segment (" + event.length + " octets).");
+        }
+        if (!active.fits(event.length)) {
+            roll();
+        }
+        long id = nextId++;
+        int offset = active.writePosition;
+        EventLayout.write(active.buffer, offset, id, event);
+        active.writePosition += event.length;
+        appendedCount.incrementAndGet();
+        if (event.behavior.userId() != null) {
+            historyOf(event.behavior.userId()).add(id, location(active.id, offset));
+        }
+
+        UserBehavior behavior = event.behavior;
+        return new UserBehavior(String.valueOf(id), behavior.userId(), behavior.ipAddress(), behavior.eventType(),
+                behavior.requestUrl(), behavior.riskScore(), event.timestamp);
+    }
+
+    /**
+     * Appelé sous le verrou d'ajout.
+     */
+    private void roll() {
+        try {
+            active.force();
+            Segment next = Segment.create(directory, active.id + 1, segmentSize);
+            segments.put(next.id, next);
+            active = next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Création du segment suivant impossible dans " + directory, e);
+        }
+        if (segments.size() > maxSegments && compactor != null) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    private History historyOf(String userId) {
+        History history = index.get(userId);
+        if (history == null) {
+            history = index.computeIfAbsent(userId, id -> new History(eventsPerUser));
+            if (index.size() > maxUsers) {
+                evict(userId);
+            }
+        }
+        return history;
+    }
+
+    private void evict(String keep) {
+        Iterator<String> it = index.keySet().iterator();
+        while (index.size() > maxUsers && it.hasNext()) {
+            if (!it.next().equals(keep)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Compacte les plus anciens segments jusqu'à revenir à {@code maxSegments}. Thread de compaction uniquement.
+     */
+    private void compact() {
+        try {
+            while (segments.size() > maxSegments) {
+                compactOldest();
+            }
+            lastError = null;
+        } catch (IOException | RuntimeException e) {
+            // Nouvel essai au prochain changement de segment
+            lastError = e.getMessage();
+        }
+    }
+
+    private void compactOldest() throws IOException {
+        Segment oldest = segments.firstEntry().getValue();
+        ByteBuffer buffer = oldest.buffer;
+
+        // Premier passage : volume encore référencé par l'index
+        long liveBytes = 0;
+        for (int offset = Segment.FIRST_RECORD, length; (length = EventLayout.validLength(buffer, offset)) > 0;
+             offset += length) {
+            if (isIndexed(buffer, oldest.id, offset)) {
+                liveBytes += length;
+            }
+        }
+        // Au-delà, la recopie remplirait un segment par segment supprimé sans libérer de place
+        boolean copy = liveBytes <= oldest.capacity() / 2;
+
+        long copied = 0;
+        long dropped = 0;
+        for (int offset = Segment.FIRST_RECORD, length; (length = EventLayout.validLength(buffer, offset)) > 0;
+             offset += length) {
+            String userId = EventLayout.userId(buffer, offset);
+            History history = userId != null ? index.get(userId) : null;
+            long from = location(oldest.id, offset);
+            if (history == null || !history.contains(from)) {
+                continue;
+            }
+            if (!copy) {
+                history.remove(from);
+                dropped++;
+                continue;
+            }
+            appendLock.lock();
+            try {
+                if (!active.fits(length)) {
+                    roll();
+                }
+                // Recopie brute de l'enregistrement (identifiant et CRC inchangés)
+                int target = active.writePosition;
+                active.buffer.put(target + 4, buffer, offset + 4, length - 4);
+                active.buffer.putInt(target, length);
+                active.writePosition += length;
+                history.replace(from, location(active.id, target));
+                copied++;
+            } finally {
+                appendLock.unlock();
+            }
+        }
+
+        segmentLock.writeLock().lock();
+        try {
+            segments.remove(oldest.id);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        oldest.delete();
+        copiedCount.addAndGet(copied);
+        droppedCount.addAndGet(dropped);
+    }
+
+    private boolean isIndexed(ByteBuffer buffer, int segmentId, int offset) {
+        String userId = EventLayout.userId(buffer, offset);
+        History history = userId != null ? index.get(userId) : null;
+        return history != null && history.contains(location(segmentId, offset));
+    }
+
+    /**
+     * Rouvre les segments dans l'ordre et reconstruit l'index. Un enregistrement recopié par une compaction
+     * interrompue apparaît deux fois : même identifiant, la copie la plus récente l'emporte.
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> SEGMENT_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+        long maxId = 0;
+        for (Path file : files) {
+            Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+            matcher.matches();
+            Segment segment = Segment.open(file, Integer.parseInt(matcher.group(1)));
+            segments.put(segment.id, segment);
+            ByteBuffer buffer = segment.buffer;
+            for (int offset = Segment.FIRST_RECORD; offset < segment.writePosition;
+                 offset += buffer.getInt(offset)) {
+                long id = EventLayout.id(buffer, offset);
+                String userId = EventLayout.userId(buffer, offset);
+                if (userId != null) {
+                    historyOf(userId).add(id, location(segment.id, offset));
+                }
+                maxId = Math.max(maxId, id);
+                recoveredCount++;
+            }
+        }
+        nextId = maxId + 1;
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active == null) {
+            active = Segment.create(directory, 0, segmentSize);
+            segments.put(active.id, active);
+        } else {
+            // Reste d'une écriture interrompue après la position d'écriture : effacé pour ne pas être relu
+            int end = Math.min(active.writePosition + EventLayout.HEADER, active.capacity());
+            for (int i = active.writePosition; i < end; i++) {
+                active.buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private static long location(int segmentId, int offset) {
+        return (long) segmentId << 32 | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public int userCount() {
+        return index.size();
+    }
+
+    public long appendedCount() {
+        return appendedCount.get();
+    }
+
+    /**
+     * Événements relus au démarrage.
+     */
+    public long recoveredCount() {
+        return recoveredCount;
+    }
+
+    /**
+     * Événements recopiés par la compaction.
+     */
+    public long copiedCount() {
+        return copiedCount.get();
+    }
+
+    /**
+     * Événements encore indexés perdus avec un segment supprimé sans recopie.
+     */
+    public long droppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Message de la dernière compaction en échec, {@code null} si la dernière a réussi.
+     */
+    public String lastError() {
+        return lastError;
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appendLock.lock();
+        try {
+            active.force();
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fermeture du magasin d'événements incomplète : " + directory, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Emplacements des derniers événements d'un utilisateur, du plus récent au plus ancien (identifiants
+     * décroissants).
+     */
+    private static final class History {
+
+        private final long[] ids;
+        private final long[] locations;
+        private int size;
+
+        History(int capacity) {
+            this.ids = new long[capacity];
+            this.locations = new long[capacity];
+        }
+
+        /**
+         * En écriture normale l'identifiant est le plus grand : insertion en tête. À la reconstruction, une recopie
+         * de compaction arrive hors ordre.
+         */
+        synchronized void add(long id, long location) {
+            int position = 0;
+            while (position < size && ids[position] > id) {
+                position++;
+            }
+            if (position < size && ids[position] == id) {
+                locations[position] = location;
+                return;
+            }
+            if (position == ids.length) {
+                return; // Plus ancien que tout l'historique conservé
+            }
+            int moved = Math.min(size, ids.length - 1) - position;
+            System.arraycopy(ids, position, ids, position + 1, moved);
+            System.arraycopy(locations, position, locations, position + 1, moved);
+            ids[position] = id;
+            locations[position] = location;
+            size = Math.min(size + 1, ids.length);
+        }
+
+        synchronized long[] snapshot(int limit) {
+            long[] copy = new long[Math.min(limit, size)];
+            System.arraycopy(locations, 0, copy, 0, copy.length);
+            return copy;
+        }
+
+        synchronized boolean contains(long location) {
+            return indexOf(location) >= 0;
+        }
+
+        synchronized void replace(long location, long newLocation) {
+            int i = indexOf(location);
+            if (i >= 0) {
+                locations[i] = newLocation;
+            }
+        }
+
+        synchronized void remove(long location) {
+            int i = indexOf(location);
+            if (i >= 0) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                System.arraycopy(locations, i + 1, locations, i, size - i - 1);
+                size--;
+            }
+        }
+
+        private int indexOf(long location) {
+            for (int i = 0; i < size; i++) {
+                if (locations[i] == location) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.springaishield.core.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier de segment projeté en mémoire : en-tête de 8 octets (marque, version) puis enregistrements
+ * {@link EventLayout} contigus. Le fichier est créé à sa taille finale (creux) ; les octets jamais écrits valent 0 et
+ * marquent la fin des données.
+ * <p>
+ * Écritures réservées au thread qui détient le verrou d'ajout du magasin ; lectures concurrentes par accès absolus
+ * (ni position ni limite modifiées).
+ */
+final class Segment {
+
+    static final int FIRST_RECORD = 8;
+
+    private static final int MAGIC = 0x41495345; // "AISE"
+    private static final int VERSION = 1;
+
+    final int id;
+    final Path file;
+    final MappedByteBuffer buffer;
+    private final FileChannel channel;
+
+    int writePosition;
+
+    private Segment(int id, Path file, FileChannel channel, MappedByteBuffer buffer, int writePosition) {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.writePosition = writePosition;
+    }
+
+    static Path fileName(Path directory, int id) {
+        return directory.resolve(String.format("segment-%010d.dat", id));
+    }
+
+    static Segment create(Path directory, int id, int size) throws IOException {
+        Path file = fileName(directory, id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            return new Segment(id, file, channel, buffer, FIRST_RECORD);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ouvre un segment existant ; la position d'écriture suit le dernier enregistrement valide.
+     */
+    static Segment open(Path file, int id) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < FIRST_RECORD || size > Integer.MAX_VALUE) {
+                throw new IOException("Taille de segment invalide : " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Segment non reconnu : " + file);
+            }
+            Segment segment = new Segment(id, file, channel, buffer, FIRST_RECORD);
+            int offset = FIRST_RECORD;
+            int length;
+            while ((length = EventLayout.validLength(buffer, offset)) > 0) {
+                offset += length;
+            }
+            segment.writePosition = offset;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean fits(int length) {
+        return writePosition + length <= buffer.capacity();
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * La projection reste valide jusqu'à son ramassage par le GC (pas de libération explicite en Java) ; le fichier
+     * peut être supprimé dès maintenant.
+     */
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,62 @@
+package com.springaishield.core.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteur à fenêtre glissante sans verrou : anneau de {@code buckets} cases, chacune un {@code long} qui associe
+ * le numéro de tranche (32 bits de poids fort) et son compteur (32 bits de poids faible), mis à jour par CAS.
+ * Une case d'une tranche périmée est réinitialisée par le premier incrément qui la réutilise : aucun balayage.
+ */
+final class SlidingWindowCounter {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray slots;
+    private final int buckets;
+    volatile long lastEpoch;
+
+    /**
+     * @param epoch Tranche de création : un compteur tout juste créé n'est pas inactif pour l'éviction.
+     */
+    SlidingWindowCounter(int buckets, long epoch) {
+        this.slots = new AtomicLongArray(buckets);
+        this.buckets = buckets;
+        this.lastEpoch = epoch;
+    }
+
+    /**
+     * Incrémente la tranche {@code epoch} et renvoie le total sur la fenêtre (tranches {@code epoch - buckets + 1} à {@code epoch}).
+     */
+    long incrementAndSum(long epoch) {
+        int index = (int) Math.floorMod(epoch, (long) buckets);
+        int tag = (int) epoch;
+        for (;;) {
+            long current = slots.get(index);
+            long next;
+            if ((int) (current >>> 32) == tag) {
+                if ((current & COUNT_MASK) == COUNT_MASK) break; // saturation
+                next = current + 1;
+            } else {
+                next = ((long) tag << 32) | 1L;
+            }
+            if (slots.compareAndSet(index, current, next)) break;
+        }
+        if (lastEpoch != epoch) {
+            lastEpoch = epoch;
+        }
+        return sum(epoch);
+    }
+
+    long sum(long epoch) {
+        int tag = (int) epoch;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long slot = slots.get(i);
+            int age = tag - (int) (slot >>> 32); // différence modulo 2^32
+            if (age >= 0 && age < buckets) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,71 @@
+package com.springaishield.core.velocity;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+
+import java.util.List;
+
+/**
+ * Détecteur de débit : compte chaque requête évaluée par IP et par utilisateur authentifié, et ajoute un facteur
+ * lorsque la fenêtre glissante dépasse la limite configurée. Aucun accès à l'historique ni à la base.
+ */
+public class VelocityEvaluator implements RiskFactorEvaluator {
+
+    public static final String NAME = "velocity";
+    private static final String ANONYMOUS = "ANONYMOUS";
+
+    private final VelocityTracker ipTracker;
+    private final VelocityTracker userTracker;
+    private final long ipLimit;
+    private final long userLimit;
+    private final RiskFactor ipFactor;
+    private final RiskFactor userFactor;
+
+    /**
+     * @param ipLimit   Requêtes maximales par IP sur la fenêtre ({@code <= 0} : pas de limite).
+     * @param userLimit Requêtes maximales par utilisateur sur la fenêtre ({@code <= 0} : pas de limite).
+     * @param weight    Poids du facteur ajouté en cas de dépassement.
+     */
+    public VelocityEvaluator(VelocityTracker ipTracker, VelocityTracker userTracker,
+                             long ipLimit, long userLimit, double weight) {
+        this.ipTracker = ipTracker;
+        this.userTracker = userTracker;
+        this.ipLimit = ipLimit;
+        this.userLimit = userLimit;
+        this.ipFactor = new RiskFactor("VELOCITY_IP", weight, "Débit anormal depuis cette adresse IP.");
+        this.userFactor = new RiskFactor("VELOCITY_USER", weight, "Débit anormal pour cet utilisateur.");
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    // Doit précéder les autres évaluateurs en mode TIERED : une requête non comptée fausserait le débit
+    @Override
+    public int cost() {
+        return COST_TRIVIAL;
+    }
+
+    // Chaque requête doit être comptée, y compris celles dont la décision est servie par le cache
+    @Override
+    public boolean cacheable() {
+        return false;
+    }
+
+    @Override
+    public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+        SecurityContext request = context.securityContext();
+
+        if (ipLimit > 0 && request.ipAddress() != null && ipTracker.record(request.ipAddress()) > ipLimit) {
+            factors.add(ipFactor);
+        }
+        // Les anonymes partagent un même identifiant : seul le débit par IP les concerne
+        if (userLimit > 0 && request.userId() != null && !ANONYMOUS.equals(request.userId())
+                && userTracker.record(request.userId()) > userLimit) {
+            factors.add(userFactor);
+        }
+    }
+}
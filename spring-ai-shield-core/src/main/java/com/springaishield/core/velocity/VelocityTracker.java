@@ -0,0 +1,114 @@
+package com.springaishield.core.velocity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Débit par clé (IP, utilisateur...) sur une fenêtre glissante découpée en tranches.
+ * Chemin critique sans verrou : lecture de la {@link ConcurrentHashMap} puis CAS sur une case du {@link SlidingWindowCounter}.
+ * Mémoire bornée : au plus {@code maxKeys} compteurs de {@code buckets} longs ; les clés inactives depuis une fenêtre
+ * sont évincées en priorité, puis les moins récemment vues.
+ */
+public class VelocityTracker {
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final int maxKeys;
+    private final LongSupplier clockMillis;
+
+    private final Map<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public VelocityTracker(Duration window, int buckets, int maxKeys) {
+        this(window, buckets, maxKeys, () -> System.nanoTime() / 1_000_000);
+    }
+
+    VelocityTracker(Duration window, int buckets, int maxKeys, LongSupplier clockMillis) {
+        if (buckets <= 0 || maxKeys <= 0 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("buckets et maxKeys doivent être positifs, la fenêtre d'au moins buckets ms.");
+        }
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.maxKeys = maxKeys;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * Compte un événement pour {@code key} et renvoie le nombre d'événements de la fenêtre courante (celui-ci inclus).
+     */
+    public long record(String key) {
+        long epoch = clockMillis.getAsLong() / bucketMillis;
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new SlidingWindowCounter(buckets, epoch));
+            if (counters.size() > maxKeys) {
+                evict(epoch, key);
+            }
+        }
+        return counter.incrementAndSum(epoch);
+    }
+
+    /**
+     * Nombre d'événements de la fenêtre courante pour {@code key}, sans compter.
+     */
+    public long count(String key) {
+        SlidingWindowCounter counter = counters.get(key);
+        return counter == null ? 0 : counter.sum(clockMillis.getAsLong() / bucketMillis);
+    }
+
+    public int keyCount() {
+        return counters.size();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private void evict(long epoch, String keep) {
+        // Une seule éviction à la fois ; les autres threads ne l'attendent pas
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // La clé qui a déclenché l'éviction n'est jamais évincée : son compte serait perdu aussitôt
+            counters.entrySet().removeIf(entry -> {
+                boolean idle = !entry.getKey().equals(keep) && epoch - entry.getValue().lastEpoch >= buckets;
+                if (idle) {
+                    evictionCount.increment();
+                }
+                return idle;
+            });
+
+            int overflow = counters.size() - (int) (maxKeys * 0.9);
+            if (overflow > 0 && counters.size() > maxKeys) {
+                // Éviction LRU approximative, par lot pour amortir le tri. Le tri porte sur une copie des dernières
+                // tranches : lastEpoch change pendant le tri et TimSort rejetterait une comparaison incohérente.
+                List<Candidate> candidates = new ArrayList<>(counters.size());
+                for (Map.Entry<String, SlidingWindowCounter> entry : counters.entrySet()) {
+                    if (!entry.getKey().equals(keep)) {
+                        candidates.add(new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastEpoch));
+                    }
+                }
+                candidates.sort(Comparator.comparingLong(Candidate::lastEpoch));
+                for (int i = 0; i < overflow && i < candidates.size(); i++) {
+                    if (counters.remove(candidates.get(i).key(), candidates.get(i).counter())) {
+                        evictionCount.increment();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Candidate(String key, SlidingWindowCounter counter, long lastEpoch) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.springaishield.core.audit;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAuditLogTest {
+
+    private static final RiskScore BLOCKED = new RiskScore(0.6, "Injection \"SQL\"\n",
+            List.of(new RiskFactor("SQL_INJECTION", 0.5, "sql")));
+
+    @Test
+    @DisplayName("Ligne JSON échappée, écrite hors du thread appelant")
+    void testJsonLine() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        try (AsyncAuditLog audit = new AsyncAuditLog(line -> lines.add(line.toString()), 16)) {
+            assertTrue(audit.record(new SecurityContext("user1", "/api?q=a\\b", "10.0.0.1"), BLOCKED, true));
+        }
+
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        assertTrue(line.startsWith("{\"ts\":"), line);
+        assertTrue(line.endsWith(",\"decision\":\"blocked\",\"score\":0.6,\"user\":\"user1\",\"ip\":\"10.0.0.1\","
+                + "\"url\":\"/api?q=a\\\\b\",\"reason\":\"Injection \\\"SQL\\\"\\n\",\"factors\":[\"SQL_INJECTION\"]}"), line);
+    }
+
+    @Test
+    @DisplayName("Tampon plein : lignes abandonnées sans bloquer l'appelant")
+    void testDropWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstWrite = new CountDownLatch(1);
+        AuditSink slowSink = line -> {
+            firstWrite.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        SecurityContext context = new SecurityContext("user1", "/home", "10.0.0.1");
+
+        try (AsyncAuditLog audit = new AsyncAuditLog(slowSink, 4)) {
+            audit.record(context, RiskScore.low(), false);
+            assertTrue(firstWrite.await(5, TimeUnit.SECONDS));
+
+            int accepted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (audit.record(context, RiskScore.low(), false)) accepted++;
+            }
+            assertEquals(3, accepted); // l'emplacement en cours d'écriture n'est pas encore libéré
+            assertEquals(7, audit.droppedCount());
+            release.countDown();
+        }
+    }
+}
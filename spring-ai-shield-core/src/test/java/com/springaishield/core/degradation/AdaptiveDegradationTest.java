@@ -0,0 +1,91 @@
+package com.springaishield.core.degradation;
+
+import com.springaishield.core.route.ScoringLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveDegradationTest {
+
+    private static final long BUDGET = Duration.ofMillis(50).toNanos();
+    private static final long DWELL = Duration.ofSeconds(5).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<DegradationMode> transitions = new ArrayList<>();
+    private AdaptiveDegradation degradation;
+
+    @BeforeEach
+    void setUp() {
+        // Sondes uniquement à l'échéance de minDwell, aucune requête analysée en mode échantillonné
+        degradation = new AdaptiveDegradation(Duration.ofNanos(BUDGET), 0.5, 0.5, Duration.ofNanos(DWELL),
+                0.0, 0.0, transitions::add, clock::get);
+    }
+
+    @Test
+    @DisplayName("Budget dépassé : descente d'un cran par minDwell, jusqu'au mode échantillonné")
+    void testStepsDown() {
+        clock.addAndGet(DWELL);
+        degradation.record(ScoringLevel.FULL, BUDGET * 4);
+        assertEquals(DegradationMode.HEURISTICS_ONLY, degradation.mode());
+        assertEquals(ScoringLevel.HEURISTICS_ONLY, degradation.levelFor(ScoringLevel.FULL));
+
+        // Heuristiques lentes elles aussi, mais minDwell pas encore écoulé
+        degradation.record(ScoringLevel.HEURISTICS_ONLY, BUDGET * 2);
+        assertEquals(DegradationMode.HEURISTICS_ONLY, degradation.mode());
+
+        clock.addAndGet(DWELL);
+        degradation.record(ScoringLevel.HEURISTICS_ONLY, BUDGET * 2);
+        assertEquals(DegradationMode.SAMPLED, degradation.mode());
+        assertEquals(ScoringLevel.SKIP, degradation.levelFor(ScoringLevel.FULL));
+        assertEquals(1, degradation.shedCount());
+        assertEquals(List.of(DegradationMode.HEURISTICS_ONLY, DegradationMode.SAMPLED), transitions);
+    }
+
+    @Test
+    @DisplayName("Retour au mode complet quand les sondes repassent sous le seuil de reprise")
+    void testRecoversThroughProbes() {
+        clock.addAndGet(DWELL);
+        degradation.record(ScoringLevel.FULL, BUDGET * 4);
+        assertEquals(DegradationMode.HEURISTICS_ONLY, degradation.mode());
+
+        // Pas de sonde avant minDwell (probeRate = 0), puis une sonde
+        assertEquals(ScoringLevel.HEURISTICS_ONLY, degradation.levelFor(ScoringLevel.FULL));
+        clock.addAndGet(DWELL);
+        assertEquals(ScoringLevel.FULL, degradation.levelFor(ScoringLevel.FULL));
+        assertEquals(ScoringLevel.HEURISTICS_ONLY, degradation.levelFor(ScoringLevel.FULL));
+
+        // Moyenne lissée : une mesure rapide ne suffit pas à repasser sous budget × 0,5
+        degradation.record(ScoringLevel.FULL, BUDGET / 10);
+        assertEquals(DegradationMode.HEURISTICS_ONLY, degradation.mode());
+        degradation.record(ScoringLevel.FULL, BUDGET / 10);
+        degradation.record(ScoringLevel.FULL, BUDGET / 10);
+        degradation.record(ScoringLevel.FULL, BUDGET / 10);
+        assertEquals(DegradationMode.FULL, degradation.mode());
+        assertEquals(ScoringLevel.HEURISTICS_ONLY, degradation.levelFor(ScoringLevel.HEURISTICS_ONLY));
+        assertEquals(ScoringLevel.FULL, degradation.levelFor(ScoringLevel.FULL));
+        assertEquals(1, degradation.probeCount());
+    }
+
+    @Test
+    @DisplayName("Mode fixé manuellement : plus d'ajustement ni de sonde jusqu'à la libération")
+    void testPinned() {
+        degradation.pin(DegradationMode.HEURISTICS_ONLY);
+        clock.addAndGet(DWELL * 2);
+        degradation.record(ScoringLevel.FULL, 1);
+        assertEquals(DegradationMode.HEURISTICS_ONLY, degradation.mode());
+        assertEquals(ScoringLevel.HEURISTICS_ONLY, degradation.levelFor(ScoringLevel.FULL));
+
+        degradation.release();
+        clock.addAndGet(DWELL);
+        degradation.record(ScoringLevel.FULL, 1);
+        assertEquals(DegradationMode.FULL, degradation.mode());
+        assertTrue(transitions.contains(DegradationMode.FULL));
+    }
+}
@@ -0,0 +1,24 @@
+package com.springaishield.core.encoding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpCodecTest {
+
+    @Test
+    @DisplayName("IPv4 sur 4 octets, IPv6 sur 16, valeurs non littérales refusées")
+    void testEncodeDecode() {
+        assertEquals(4, IpCodec.encode("192.168.1.20").length);
+        assertEquals("192.168.1.20", IpCodec.decode(IpCodec.encode("192.168.1.20")));
+
+        assertEquals(16, IpCodec.encode("2001:db8::1").length);
+        assertEquals("2001:db8:0:0:0:0:0:1", IpCodec.decode(IpCodec.encode("2001:db8::1")));
+        assertEquals("0:0:0:0:0:0:0:1", IpCodec.decode(IpCodec.encode("0:0:0:0:0:0:0:1")));
+
+        assertNull(IpCodec.encode("unknown"));
+        assertNull(IpCodec.encode(null));
+        assertNull(IpCodec.decode(null));
+    }
+}
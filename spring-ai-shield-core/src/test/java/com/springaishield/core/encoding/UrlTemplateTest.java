@@ -0,0 +1,35 @@
+package com.springaishield.core.encoding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlTemplateTest {
+
+    @Test
+    @DisplayName("Identifiants remplacés dans le gabarit, URL reconstruite à l'identique")
+    void testRoundTrip() {
+        String url = "/api/v1/users/42/orders/3f2b9c1e-8d4a-4f6b-9a0e-1c2d3e4f5a6b?page=2&q=select+*";
+        UrlTemplate.Split split = UrlTemplate.split(url);
+        assertEquals("/api/v1/users/{}/orders/{}", split.template());
+        assertEquals("42/3f2b9c1e-8d4a-4f6b-9a0e-1c2d3e4f5a6b?page=2&q=select+*", split.args());
+        assertEquals(url, UrlTemplate.expand(split.template(), split.args()));
+    }
+
+    @Test
+    @DisplayName("Chemins sans partie variable, encodés ou non absolus")
+    void testEdgeCases() {
+        assertEquals(new UrlTemplate.Split("/hello", null), UrlTemplate.split("/hello"));
+        assertEquals(new UrlTemplate.Split("/search", "?q=1"), UrlTemplate.split("/search?q=1"));
+        assertEquals(new UrlTemplate.Split("/files/{}", "a%2Fb"), UrlTemplate.split("/files/a%2Fb"));
+        assertEquals(new UrlTemplate.Split(null, "*"), UrlTemplate.split("*"));
+
+        for (String url : new String[]{"/", "//x/", "/a/b/?x=/1/2", "/tok/abc123def456/x", "*"}) {
+            UrlTemplate.Split split = UrlTemplate.split(url);
+            assertEquals(url, UrlTemplate.expand(split.template(), split.args()), url);
+        }
+        assertEquals(UrlTemplate.hash("/a?b"), UrlTemplate.hash("/a?b"));
+        assertNotEquals(UrlTemplate.hash("/a?b"), UrlTemplate.hash("/a?c"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchScorerTest {
+
+    private final ScoringPipeline pipeline = new ScoringPipeline(null,
+            List.of(new MachineLearningEvaluator(),
+                    new ContentSignatureEvaluator(SignatureMatcher.compile(SignaturePack.loadDefault()))),
+            ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL, 0.5);
+
+    @Test
+    @DisplayName("Lot - Ordre conservé, mêmes scores qu'à l'unité, historique chargé une fois par utilisateur et tranche")
+    void testScoresInOrderWithSharedHistory() {
+        List<SecurityContext> contexts = IntStream.range(0, 500)
+                .mapToObj(i -> new SecurityContext("user" + (i % 3),
+                        i % 7 == 0 ? "/search?q=select+*+from+users" : "/items/" + i, "10.0.0." + (i % 5)))
+                .toList();
+        ConcurrentHashMap<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+        BatchScorer scorer = new BatchScorer(pipeline, userId -> {
+            lookups.computeIfAbsent(userId, key -> new AtomicInteger()).incrementAndGet();
+            return List.of(new UserBehavior(userId, "10.0.0.1", "ACCESS_GRANTED", "/", RiskScore.low()));
+        }, new ForkJoinPool(4), 100);
+
+        List<SecurityContext> seen = new ArrayList<>();
+        List<RiskScore> scores = new ArrayList<>();
+        long count = scorer.score(contexts.stream(), (context, score) -> {
+            seen.add(context);
+            scores.add(score);
+        });
+
+        assertEquals(500, count);
+        assertEquals(contexts, seen);
+        for (int i = 0; i < contexts.size(); i++) {
+            List<UserBehavior> history = List.of(new UserBehavior(contexts.get(i).userId(), "10.0.0.1",
+                    "ACCESS_GRANTED", "/", RiskScore.low()));
+            RiskScore expected = BehavioralScoringEngine.aggregate(pipeline.evaluate(contexts.get(i), history));
+            assertEquals(expected.score(), scores.get(i).score(), 1e-9, "contexte " + i);
+        }
+        // 5 tranches de 100, 3 utilisateurs par tranche
+        assertEquals(15, scorer.historyLookups());
+        assertEquals(5, lookups.get("user0").get());
+    }
+}
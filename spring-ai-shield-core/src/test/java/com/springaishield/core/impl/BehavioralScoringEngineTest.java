@@ -1,7 +1,10 @@
 package com.springaishield.core.impl;
 
+import com.springaishield.core.metrics.ShieldMetrics;
 import com.springaishield.core.model.*;
 import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +15,8 @@ import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class BehavioralScoringEngineTest {
@@ -83,4 +88,32 @@ class BehavioralScoringEngineTest {
         RiskScore result = engine.calculateRisk(context);
         assertTrue(result.score() < 0.2, "Une requête normale ne doit pas être bloquée.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Mode TIERED - Arrêt avant l'historique sur un SQLi évident")
+    void testTieredModeSkipsHistoryWhenDecided() {
+        BehavioralScoringEngine tiered = new BehavioralScoringEngine(behaviorRepository,
+                SignatureMatcher.compile(SignaturePack.loadDefault()), ShieldMetrics.NOOP, EvaluationMode.TIERED, 0.5);
+        SecurityContext context = new SecurityContext("user1", "/api?query=select", "127.0.0.1");
+
+        RiskScore result = tiered.calculateRisk(context);
+
+        assertEquals(0.6, result.score());
+        assertTrue(result.contributingFactors().stream().anyMatch(f -> f.name().equals("SHORT_CIRCUIT")),
+                "L'arrêt anticipé doit apparaître dans les facteurs.");
+        verify(behaviorRepository, never()).findRecentByUserId(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Mode TIERED - Requête saine : l'analyse ML est bien exécutée")
+    void testTieredModeRunsHistoryWhenUndecided() {
+        BehavioralScoringEngine tiered = new BehavioralScoringEngine(behaviorRepository,
+                SignatureMatcher.compile(SignaturePack.loadDefault()), ShieldMetrics.NOOP, EvaluationMode.TIERED, 0.5);
+        SecurityContext context = new SecurityContext("user1", "/home?page=1", "127.0.0.1");
+
+        RiskScore result = tiered.calculateRisk(context);
+
+        assertTrue(result.score() < 0.2);
+        verify(behaviorRepository).findRecentByUserId("user1", 50);
+    }
+}
@@ -0,0 +1,104 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.service.RiskScoringService;
+import com.springaishield.core.velocity.VelocityEvaluator;
+import com.springaishield.core.velocity.VelocityTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingRiskScoringServiceTest {
+
+    private static final SecurityContext REQUEST = new SecurityContext("user1", "/api/items?page=2", "10.0.0.1");
+
+    private RiskScoringService delegate;
+    private final AtomicLong clock = new AtomicLong();
+    private CachingRiskScoringService cache;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(RiskScoringService.class);
+        when(delegate.calculateRisk(any())).thenReturn(RiskScore.low());
+        cache = new CachingRiskScoringService(delegate, List.of(), 64, Duration.ofSeconds(2),
+                ShieldMetrics.NOOP, clock::get);
+    }
+
+    @Test
+    @DisplayName("Requête identique servie depuis le cache jusqu'à expiration")
+    void testHitUntilExpiry() {
+        cache.calculateRisk(REQUEST);
+        cache.calculateRisk(new SecurityContext("user1", "/api/items?page=2", "10.0.0.1"));
+        cache.calculateRisk(new SecurityContext("user1", "/api/items?page=3", "10.0.0.1"));
+        verify(delegate, times(2)).calculateRisk(any());
+        assertEquals(1, cache.hitCount());
+
+        clock.addAndGet(Duration.ofSeconds(3).toNanos());
+        cache.calculateRisk(REQUEST);
+        verify(delegate, times(3)).calculateRisk(any());
+        assertTrue(cache.estimatedBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Nouvelle IP enregistrée : décisions de l'utilisateur invalidées")
+    void testInvalidationOnNewIp() {
+        BehaviorRepository repository = cache.invalidating(Mockito.mock(BehaviorRepository.class));
+
+        cache.calculateRisk(REQUEST);
+        repository.save(new UserBehavior("user1", "10.0.0.1", "ACCESS_GRANTED", REQUEST.requestUrl(), RiskScore.low()));
+        cache.calculateRisk(REQUEST);
+        repository.save(new UserBehavior("user1", "10.0.0.1", "ACCESS_GRANTED", REQUEST.requestUrl(), RiskScore.low()));
+        cache.calculateRisk(REQUEST);
+        verify(delegate, times(2)).calculateRisk(any());
+
+        repository.save(new UserBehavior("user1", "10.9.9.9", "ACCESS_GRANTED", "/login", RiskScore.low()));
+        cache.calculateRisk(REQUEST);
+        verify(delegate, times(3)).calculateRisk(any());
+    }
+
+    @Test
+    @DisplayName("Score partiel (budget dépassé) jamais mis en cache")
+    void testPartialScoreNotCached() {
+        RiskFactor timeout = new RiskFactor(ScoringPipeline.TIMEOUT_FACTOR, 0.0, "partiel");
+        when(delegate.calculateRisk(any())).thenReturn(new RiskScore(0.1, "partiel", List.of(timeout)));
+
+        cache.calculateRisk(REQUEST);
+        cache.calculateRisk(REQUEST);
+        verify(delegate, times(2)).calculateRisk(any());
+        assertEquals(0, cache.entryCount());
+    }
+
+    @Test
+    @DisplayName("Évaluateur de débit exécuté même quand la décision vient du cache")
+    void testPerRequestEvaluatorOnHit() {
+        VelocityEvaluator velocity = new VelocityEvaluator(
+                new VelocityTracker(Duration.ofSeconds(10), 10, 100),
+                new VelocityTracker(Duration.ofSeconds(10), 10, 100), 2, 0, 0.5);
+        cache = new CachingRiskScoringService(delegate, List.of(velocity), 64, Duration.ofSeconds(2),
+                ShieldMetrics.NOOP, clock::get);
+
+        assertEquals(0.1, cache.calculateRisk(REQUEST).score());
+        assertEquals(0.1, cache.calculateRisk(REQUEST).score());
+        RiskScore third = cache.calculateRisk(REQUEST);
+
+        verify(delegate, times(1)).calculateRisk(any());
+        assertEquals(0.5, third.score());
+        assertEquals("VELOCITY_IP", third.contributingFactors().get(0).name());
+    }
+}
@@ -0,0 +1,81 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.InMemoryReactiveBehaviorRepository;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveScoringEngineTest {
+
+    private static ScoringPipeline pipeline(EvaluationMode mode, TimeoutPolicy policy) {
+        return new ScoringPipeline(null,
+                List.of(new MachineLearningEvaluator(),
+                        new ContentSignatureEvaluator(SignatureMatcher.compile(SignaturePack.loadDefault()))),
+                ShieldMetrics.NOOP, mode, 0.5, Duration.ofMillis(50), policy, null);
+    }
+
+    @Test
+    @DisplayName("Réactif - SQLi détecté, historique lu sans blocage")
+    void testSqlInjectionDetection() {
+        InMemoryReactiveBehaviorRepository repository = new InMemoryReactiveBehaviorRepository(50, 100);
+        ReactiveScoringEngine engine = new ReactiveScoringEngine(
+                pipeline(EvaluationMode.SEQUENTIAL, TimeoutPolicy.FAIL_OPEN), repository, ShieldMetrics.NOOP);
+
+        StepVerifier.create(engine.calculateRisk(new SecurityContext("user1", "/api?query=select", "127.0.0.1")))
+                .assertNext(score -> assertTrue(score.score() >= 0.5))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Réactif - Historique enregistré puis relu du plus récent au plus ancien")
+    void testInMemoryRepositoryOrder() {
+        InMemoryReactiveBehaviorRepository repository = new InMemoryReactiveBehaviorRepository(2, 100);
+        for (int i = 0; i < 3; i++) {
+            repository.save(new UserBehavior("user1", "10.0.0.1", "ACCESS_GRANTED", "/p" + i, RiskScore.low())).block();
+        }
+
+        StepVerifier.create(repository.findRecentByUserId("user1", 10).map(UserBehavior::requestUrl))
+                .expectNext("/p2", "/p1")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Réactif - Historique hors budget en FAIL_CLOSED : requête refusée")
+    void testHistoryDeadlineFailClosed() {
+        ReactiveBehaviorRepository slow = new ReactiveBehaviorRepository() {
+            @Override
+            public Mono<UserBehavior> save(UserBehavior behavior) {
+                return Mono.just(behavior);
+            }
+
+            @Override
+            public Flux<UserBehavior> findRecentByUserId(String userId, int limit) {
+                return Flux.<UserBehavior>never();
+            }
+        };
+        ReactiveScoringEngine engine = new ReactiveScoringEngine(
+                pipeline(EvaluationMode.PARALLEL, TimeoutPolicy.FAIL_CLOSED), slow, ShieldMetrics.NOOP);
+
+        StepVerifier.create(engine.calculateRisk(new SecurityContext("user1", "/home", "127.0.0.1")))
+                .assertNext(score -> {
+                    assertEquals(1.0, score.score());
+                    assertTrue(score.contributingFactors().stream().anyMatch(f -> f.name().equals("EVALUATION_TIMEOUT")));
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
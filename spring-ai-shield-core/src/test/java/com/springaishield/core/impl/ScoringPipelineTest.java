@@ -0,0 +1,270 @@
+package com.springaishield.core.impl;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ScoringPipelineTest {
+
+    private BehaviorRepository behaviorRepository;
+    private final SecurityContext context = new SecurityContext("user1", "/home", "127.0.0.1");
+
+    @BeforeEach
+    void setUp() {
+        behaviorRepository = Mockito.mock(BehaviorRepository.class);
+        when(behaviorRepository.findRecentByUserId(anyString(), anyInt())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("Aucun évaluateur d'historique : le dépôt n'est jamais interrogé")
+    void testNoHistoryFetchWithoutHistoryEvaluator() {
+        ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                List.of(new FixedEvaluator("a", 10, false, 0.1)), ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL, 0.5);
+
+        assertEquals(1, pipeline.evaluate(context).size());
+        assertFalse(pipeline.requiresHistory());
+        verify(behaviorRepository, never()).findRecentByUserId(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Heuristiques seules : évaluateurs coûteux et historique ignorés")
+    void testHeuristicsOnly() {
+        List<String> calls = new ArrayList<>();
+        ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                List.of(new FixedEvaluator("historique", 1000, true, 0.5, calls),
+                        new FixedEvaluator("modele", 100, false, 0.5, calls),
+                        new FixedEvaluator("leger", 10, false, 0.2, calls)),
+                ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL, 0.5);
+
+        List<RiskFactor> factors = pipeline.evaluateHeuristics(context);
+
+        assertEquals(List.of("leger"), calls);
+        assertEquals(1, factors.size());
+        verify(behaviorRepository, never()).findRecentByUserId(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Historique partagé : une seule lecture pour plusieurs évaluateurs")
+    void testHistoryFetchedOnce() {
+        ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                List.of(new FixedEvaluator("a", 10, true, 0.0), new FixedEvaluator("b", 20, true, 0.0)),
+                ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL, 0.5);
+
+        pipeline.evaluate(context);
+
+        verify(behaviorRepository, times(1)).findRecentByUserId("user1", ScoringPipeline.HISTORY_DEPTH);
+    }
+
+    @Test
+    @DisplayName("Mode TIERED - Tri par coût et arrêt dès le seuil atteint")
+    void testTieredOrderAndShortCircuit() {
+        List<String> calls = new ArrayList<>();
+        ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                List.of(new FixedEvaluator("cher", 1000, true, 0.2, calls),
+                        new FixedEvaluator("leger", 10, false, 0.6, calls)),
+                ShieldMetrics.NOOP, EvaluationMode.TIERED, 0.5);
+
+        List<RiskFactor> factors = pipeline.evaluate(context);
+
+        assertEquals(List.of("leger"), calls);
+        assertEquals("SHORT_CIRCUIT", factors.get(factors.size() - 1).name());
+        assertTrue(factors.get(factors.size() - 1).detail().contains("cher"));
+        verify(behaviorRepository, never()).findRecentByUserId(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Mode TIERED - Seuil de la route au-dessus du seuil global : pas d'arrêt avant le seuil de la route")
+    void testTieredUsesRouteThreshold() {
+        List<String> calls = new ArrayList<>();
+        ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                List.of(new FixedEvaluator("cher", 1000, true, 0.3, calls),
+                        new FixedEvaluator("leger", 10, false, 0.6, calls)),
+                ShieldMetrics.NOOP, EvaluationMode.TIERED, 0.5);
+
+        List<RiskFactor> strict = pipeline.evaluate(new SecurityContext("user1", "/admin", "127.0.0.1", 0.8));
+
+        assertEquals(List.of("leger", "cher"), calls);
+        assertEquals(List.of("LEGER", "CHER"), strict.stream().map(RiskFactor::name).toList());
+        assertTrue(BehavioralScoringEngine.aggregate(strict).score() >= 0.8);
+        verify(behaviorRepository, times(1)).findRecentByUserId("user1", ScoringPipeline.HISTORY_DEPTH);
+
+        // Seuil de route plus bas que le seuil global : l'arrêt suit aussi la route
+        calls.clear();
+        List<RiskFactor> lenient = pipeline.evaluate(new SecurityContext("user1", "/public", "127.0.0.1", 0.3));
+        assertEquals(List.of("leger"), calls);
+        assertEquals("SHORT_CIRCUIT", lenient.get(lenient.size() - 1).name());
+    }
+
+    @Test
+    @DisplayName("Mode PARALLEL - Budget dépassé en FAIL_OPEN : score partiel")
+    void testParallelDeadlineFailOpen() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                    List.of(new FixedEvaluator("lent", 1000, true, 0.5, 2000), new FixedEvaluator("leger", 10, false, 0.2)),
+                    ShieldMetrics.NOOP, EvaluationMode.PARALLEL, 0.5, Duration.ofMillis(50), TimeoutPolicy.FAIL_OPEN, executor);
+
+            long start = System.nanoTime();
+            List<RiskFactor> factors = pipeline.evaluate(context);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertTrue(elapsedMillis < 1000, "L'évaluation doit rendre la main à l'échéance.");
+            assertEquals(List.of("LEGER", "EVALUATION_TIMEOUT"), factors.stream().map(RiskFactor::name).toList());
+            assertEquals(0.0, factors.get(1).weight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Mode PARALLEL - Budget dépassé en FAIL_CLOSED : poids maximal")
+    void testParallelDeadlineFailClosed() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                    List.of(new FixedEvaluator("lent", 1000, true, 0.0, 2000)),
+                    ShieldMetrics.NOOP, EvaluationMode.PARALLEL, 0.5, Duration.ofMillis(50), TimeoutPolicy.FAIL_CLOSED, executor);
+
+            RiskScore score = BehavioralScoringEngine.aggregate(pipeline.evaluate(context));
+
+            assertEquals(1.0, score.score());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Mode PARALLEL - Tous les facteurs dans le budget, dans l'ordre des évaluateurs")
+    void testParallelCompletesWithinDeadline() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository,
+                    List.of(new FixedEvaluator("historique", 1000, true, 0.2), new FixedEvaluator("leger", 10, false, 0.1)),
+                    ShieldMetrics.NOOP, EvaluationMode.PARALLEL, 0.5, Duration.ofSeconds(5), TimeoutPolicy.FAIL_CLOSED, executor);
+
+            List<RiskFactor> factors = pipeline.evaluate(context);
+
+            assertEquals(List.of("HISTORIQUE", "LEGER"), factors.stream().map(RiskFactor::name).toList());
+            verify(behaviorRepository, times(1)).findRecentByUserId(anyString(), anyInt());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Mode PARALLEL - Évaluateur déporté en échec : compté, signalé aux métriques, hors délai")
+    void testParallelEvaluatorFailureIsReported() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        ShieldMetrics metrics = Mockito.mock(ShieldMetrics.class);
+        RiskFactorEvaluator broken = new RiskFactorEvaluator() {
+            @Override
+            public String name() {
+                return "casse";
+            }
+
+            @Override
+            public int cost() {
+                return 1000;
+            }
+
+            @Override
+            public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+                throw new IllegalStateException("modèle absent");
+            }
+        };
+        try {
+            ScoringPipeline pipeline = new ScoringPipeline(behaviorRepository, List.of(broken),
+                    metrics, EvaluationMode.PARALLEL, 0.5, Duration.ofSeconds(5), TimeoutPolicy.FAIL_OPEN, executor);
+
+            List<RiskFactor> factors = pipeline.evaluate(context);
+            pipeline.evaluate(context);
+
+            assertEquals(List.of("EVALUATION_TIMEOUT"), factors.stream().map(RiskFactor::name).toList());
+            assertEquals(2, pipeline.evaluatorFailureCount());
+            verify(metrics, times(2)).recordEvaluatorFailure("casse");
+            verify(metrics, times(2)).recordEvaluatorTimeout("casse");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class FixedEvaluator implements RiskFactorEvaluator {
+
+        private final String name;
+        private final int cost;
+        private final boolean requiresHistory;
+        private final double weight;
+        private final List<String> calls;
+        private final long delayMillis;
+
+        FixedEvaluator(String name, int cost, boolean requiresHistory, double weight) {
+            this(name, cost, requiresHistory, weight, new ArrayList<>(), 0);
+        }
+
+        FixedEvaluator(String name, int cost, boolean requiresHistory, double weight, List<String> calls) {
+            this(name, cost, requiresHistory, weight, calls, 0);
+        }
+
+        FixedEvaluator(String name, int cost, boolean requiresHistory, double weight, long delayMillis) {
+            this(name, cost, requiresHistory, weight, new ArrayList<>(), delayMillis);
+        }
+
+        FixedEvaluator(String name, int cost, boolean requiresHistory, double weight, List<String> calls, long delayMillis) {
+            this.name = name;
+            this.cost = cost;
+            this.requiresHistory = requiresHistory;
+            this.weight = weight;
+            this.calls = calls;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public boolean requiresHistory() {
+            return requiresHistory;
+        }
+
+        @Override
+        public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+            calls.add(name);
+            if (requiresHistory) context.history();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (weight > 0) factors.add(new RiskFactor(name.toUpperCase(), weight, "Facteur " + name));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.springaishield.core.profile;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehaviorProfileStoreTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static UserBehavior event(String ip, int secondsAfterT0) {
+        return new UserBehavior(null, "user1", ip, "ACCESS_GRANTED", "/home", RiskScore.low(), T0.plusSeconds(secondsAfterT0));
+    }
+
+    @Test
+    @DisplayName("Comptage exact des IP, première/dernière apparition et débit")
+    void testIncrementalFeatures() {
+        BehaviorProfileStore store = new BehaviorProfileStore(100, Duration.ofMinutes(10));
+        for (int i = 0; i < 10; i++) {
+            store.record(event(i % 2 == 0 ? "10.0.0.1" : "10.0.0.2", i * 6));
+        }
+
+        BehaviorProfile profile = store.find("user1");
+        assertEquals(10, profile.totalEvents());
+        assertEquals(5, profile.ipCount("10.0.0.1"));
+        assertEquals(0, profile.ipCount("10.0.0.3"));
+        assertEquals(T0, profile.firstSeen());
+        assertEquals(T0.plusSeconds(54), profile.lastSeen());
+        assertEquals(10.0, profile.eventsPerMinute(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Utilisateur lourd : passage au sketch sans sous-estimation")
+    void testSwitchToSketch() {
+        BehaviorProfileStore store = new BehaviorProfileStore(100, Duration.ofMinutes(10), 4, 1024);
+        for (int i = 0; i < 100; i++) {
+            store.record(event("10.0.0." + (i % 10), i));
+        }
+
+        BehaviorProfile profile = store.find("user1");
+        assertTrue(profile.isSketched());
+        for (int ip = 0; ip < 10; ip++) {
+            assertTrue(profile.ipCount("10.0.0." + ip) >= 10, "Un Count-Min Sketch ne sous-estime jamais.");
+        }
+        assertEquals(0, profile.ipCount("192.168.1.1"));
+    }
+
+    @Test
+    @DisplayName("Amorçage depuis l'historique une seule fois, sans double comptage")
+    void testSeedOnce() {
+        BehaviorProfileStore store = new BehaviorProfileStore(100, Duration.ofMinutes(10));
+        store.record(event("10.0.0.1", 100)); // enregistré avant le premier scoring
+        AtomicInteger loads = new AtomicInteger();
+        List<UserBehavior> history = List.of(event("10.0.0.1", 100), event("10.0.0.1", 50), event("10.0.0.2", 10));
+
+        store.profile("user1", () -> {
+            loads.incrementAndGet();
+            return history;
+        });
+        BehaviorProfile profile = store.profile("user1", () -> {
+            loads.incrementAndGet();
+            return history;
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(3, profile.totalEvents());
+        assertEquals(2, profile.ipCount("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Mémoire bornée : éviction au-delà de maxUsers")
+    void testEviction() {
+        BehaviorProfileStore store = new BehaviorProfileStore(10, Duration.ofMinutes(10));
+        for (int i = 0; i < 50; i++) {
+            store.record(new UserBehavior(null, "user" + i, "10.0.0.1", "ACCESS_GRANTED", "/", RiskScore.low(), T0));
+        }
+
+        assertTrue(store.profileCount() <= 10);
+        assertTrue(store.evictionCount() > 0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CachingBehaviorRepositoryTest {
+
+    private BehaviorRepository delegate;
+    private CachingBehaviorRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(BehaviorRepository.class);
+        when(delegate.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(delegate.findRecentByUserId(anyString(), anyInt())).thenReturn(List.of(
+                event("2", "user1", "10.0.0.2"),
+                event("1", "user1", "10.0.0.1")
+        ));
+        repository = new CachingBehaviorRepository(delegate, 50, 2, Duration.ofMinutes(10));
+    }
+
+    private static UserBehavior event(String id, String userId, String ip) {
+        return new UserBehavior(id, userId, ip, "ACCESS_GRANTED", "/home", RiskScore.low(), Instant.now());
+    }
+
+    @Test
+    @DisplayName("Cache - Seul le premier accès interroge la base")
+    void testColdMissThenHits() {
+        repository.findRecentByUserId("user1", 50);
+        List<UserBehavior> history = repository.findRecentByUserId("user1", 50);
+
+        assertEquals(2, history.size());
+        assertEquals("2", history.get(0).id(), "L'ordre doit rester du plus récent au plus ancien.");
+        verify(delegate, times(1)).findRecentByUserId("user1", 50);
+        assertEquals(1, repository.missCount());
+        assertEquals(1, repository.hitCount());
+    }
+
+    @Test
+    @DisplayName("Cache - Écriture traversante (write-through)")
+    void testSaveUpdatesCachedHistory() {
+        repository.findRecentByUserId("user1", 50);
+        repository.save(event("3", "user1", "10.0.0.3"));
+
+        List<UserBehavior> history = repository.findRecentByUserId("user1", 2);
+
+        assertEquals(List.of("3", "2"), history.stream().map(UserBehavior::id).toList());
+        verify(delegate, times(1)).findRecentByUserId(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Cache - Le nombre d'utilisateurs en mémoire est borné")
+    void testUserCountIsBounded() {
+        repository.findRecentByUserId("user1", 50);
+        repository.findRecentByUserId("user2", 50);
+        repository.findRecentByUserId("user3", 50);
+
+        assertTrue(repository.cachedUserCount() <= 2);
+        assertTrue(repository.evictionCount() >= 1);
+    }
+
+    @Test
+    @DisplayName("Cache - Un rechargement garde les événements pas encore écrits en base")
+    void testReloadKeepsQueuedEvents() {
+        // TTL nul : chaque lecture recharge depuis la base
+        CachingBehaviorRepository reloading = new CachingBehaviorRepository(delegate, 50, 2, Duration.ZERO);
+        reloading.findRecentByUserId("user1", 50);
+
+        // Écriture différée : pas d'identifiant, l'événement est encore en file
+        UserBehavior queued = new UserBehavior("user1", "10.0.0.9", "ACCESS_GRANTED", "/new", RiskScore.low());
+        reloading.save(queued);
+
+        List<UserBehavior> history = reloading.findRecentByUserId("user1", 3);
+        assertEquals("10.0.0.9", history.get(0).ipAddress(), "L'événement en file doit rester le plus récent.");
+        assertEquals(3, history.size());
+
+        // Une fois écrit, la ligne en base remplace l'événement en file, sans doublon
+        UserBehavior stored = new UserBehavior("3", "user1", "10.0.0.9", "ACCESS_GRANTED", "/new", RiskScore.low(),
+                queued.timestamp());
+        when(delegate.findRecentByUserId(anyString(), anyInt())).thenReturn(List.of(stored,
+                event("2", "user1", "10.0.0.2"), event("1", "user1", "10.0.0.1")));
+        assertEquals(List.of("3", "2", "1"),
+                reloading.findRecentByUserId("user1", 50).stream().map(UserBehavior::id).toList());
+    }
+}
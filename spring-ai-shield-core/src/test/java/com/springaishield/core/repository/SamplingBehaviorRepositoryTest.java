@@ -0,0 +1,59 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SamplingBehaviorRepositoryTest {
+
+    private static UserBehavior event(String userId, String ip, String type, double score) {
+        return new UserBehavior(userId, ip, type, "/home", new RiskScore(score, "test"));
+    }
+
+    @Test
+    @DisplayName("Accès autorisés à faible risque : un sur dix, par utilisateur")
+    void testGrantedSampledPerUser() {
+        PersistenceSampler sampler = new PersistenceSampler(0.1, 0.3);
+
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (sampler.shouldPersist(event("user1", "10.0.0.1", "ACCESS_GRANTED", 0.1))) kept++;
+        }
+
+        assertEquals(10, kept);
+        assertEquals(90, sampler.skippedCount());
+    }
+
+    @Test
+    @DisplayName("Refus, risque élevé et nouvelle IP toujours enregistrés")
+    void testAlwaysKept() {
+        PersistenceSampler sampler = new PersistenceSampler(0.01, 0.3);
+        sampler.shouldPersist(event("user1", "10.0.0.1", "ACCESS_GRANTED", 0.1));
+        assertFalse(sampler.shouldPersist(event("user1", "10.0.0.1", "ACCESS_GRANTED", 0.1)));
+
+        assertTrue(sampler.shouldPersist(event("user1", "10.0.0.1", "ACCESS_DENIED", 0.6)));
+        assertTrue(sampler.shouldPersist(event("user1", "10.0.0.1", "ACCESS_GRANTED", 0.4)));
+        assertTrue(sampler.shouldPersist(event("user1", "192.168.1.9", "ACCESS_GRANTED", 0.1)));
+        assertFalse(sampler.shouldPersist(event("user1", "192.168.1.9", "ACCESS_GRANTED", 0.1)));
+    }
+
+    @Test
+    @DisplayName("Décorateur : seuls les événements retenus atteignent le dépôt")
+    void testRepositoryDelegation() {
+        BehaviorRepository delegate = Mockito.mock(BehaviorRepository.class);
+        SamplingBehaviorRepository repository = new SamplingBehaviorRepository(delegate, new PersistenceSampler(0.5, 0.3));
+
+        for (int i = 0; i < 4; i++) {
+            repository.save(event("user1", "10.0.0.1", "ACCESS_GRANTED", 0.1));
+        }
+
+        verify(delegate, times(2)).save(any());
+    }
+}
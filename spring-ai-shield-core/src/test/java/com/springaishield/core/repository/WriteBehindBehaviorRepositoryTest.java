@@ -0,0 +1,105 @@
+package com.springaishield.core.repository;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WriteBehindBehaviorRepositoryTest {
+
+    private static UserBehavior event(String userId) {
+        return new UserBehavior(userId, "127.0.0.1", "ACCESS_GRANTED", "/home", RiskScore.low());
+    }
+
+    @Test
+    @DisplayName("Écriture différée - Les événements sont écrits par lots à la fermeture")
+    void testEventsAreFlushedInBatches() {
+        BehaviorRepository delegate = Mockito.mock(BehaviorRepository.class);
+        WriteBehindBehaviorRepository repository = new WriteBehindBehaviorRepository(
+                delegate, 100, 10, Duration.ofSeconds(5), BackpressurePolicy.BLOCK, 1.0);
+
+        for (int i = 0; i < 25; i++) {
+            repository.save(event("user" + i));
+        }
+        repository.close();
+
+        verify(delegate, never()).save(any());
+        verify(delegate, atLeast(3)).saveAll(anyList());
+        assertEquals(25, repository.writtenCount());
+        assertEquals(0, repository.droppedCount());
+    }
+
+    @Test
+    @DisplayName("Écriture différée - Politique DROP quand la file est pleine")
+    void testDropPolicyWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BehaviorRepository delegate = Mockito.mock(BehaviorRepository.class);
+        when(delegate.saveAll(anyList())).thenAnswer(invocation -> {
+            writerBlocked.countDown();
+            release.await();
+            return List.of();
+        });
+
+        WriteBehindBehaviorRepository repository = new WriteBehindBehaviorRepository(
+                delegate, 2, 1, Duration.ofMillis(10), BackpressurePolicy.DROP, 1.0);
+
+        // Le premier événement occupe le writer, les deux suivants remplissent la file
+        repository.save(event("a"));
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        repository.save(event("b"));
+        repository.save(event("c"));
+        repository.save(event("d"));
+
+        assertEquals(1, repository.droppedCount());
+        release.countDown();
+        repository.close();
+        assertEquals(3, repository.writtenCount());
+    }
+
+    @Test
+    @DisplayName("Écriture différée - Aucun événement perdu quand la fermeture croise des écritures")
+    void testNoEventLostAcrossClose() throws InterruptedException {
+        AtomicInteger persisted = new AtomicInteger();
+        BehaviorRepository delegate = Mockito.mock(BehaviorRepository.class);
+        when(delegate.save(any())).thenAnswer(invocation -> {
+            persisted.incrementAndGet();
+            return invocation.getArgument(0);
+        });
+        when(delegate.saveAll(anyList())).thenAnswer(invocation -> {
+            persisted.addAndGet(invocation.<List<?>>getArgument(0).size());
+            return invocation.getArgument(0);
+        });
+
+        int total = 20_000;
+        WriteBehindBehaviorRepository repository = new WriteBehindBehaviorRepository(
+                delegate, total, 50, Duration.ofMillis(1), BackpressurePolicy.BLOCK, 1.0);
+        CountDownLatch started = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                if (i == 100) {
+                    started.countDown();
+                }
+                repository.save(event("user" + i));
+            }
+        });
+        producer.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        repository.close();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(0, repository.pendingCount(), "Rien ne reste en file après la fermeture.");
+        assertEquals(total, persisted.get());
+    }
+}
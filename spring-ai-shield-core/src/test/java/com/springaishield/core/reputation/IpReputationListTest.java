@@ -0,0 +1,139 @@
+package com.springaishield.core.reputation;
+
+import com.springaishield.core.impl.ContentSignatureEvaluator;
+import com.springaishield.core.impl.EvaluationMode;
+import com.springaishield.core.impl.MachineLearningEvaluator;
+import com.springaishield.core.impl.ScoringPipeline;
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class IpReputationListTest {
+
+    private static IpReputationList load(String content) throws IOException {
+        return IpReputationList.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "test");
+    }
+
+    @Test
+    @DisplayName("IPv4 - Préfixe le plus long")
+    void testIpv4LongestPrefix() throws IOException {
+        IpReputationList list = load("""
+                # commentaire
+                DENY;10.0.0.0/8
+                ALLOW;10.1.0.0/16
+                DENY;10.1.2.3
+                """);
+
+        assertEquals(IpVerdict.DENY, list.lookup("10.9.9.9"));
+        assertEquals(IpVerdict.ALLOW, list.lookup("10.1.200.1"));
+        assertEquals(IpVerdict.DENY, list.lookup("10.1.2.3"));
+        assertEquals(IpVerdict.NONE, list.lookup("192.168.0.1"));
+        assertEquals(IpVerdict.NONE, list.lookup("10.1.2"));
+        assertEquals(IpVerdict.NONE, list.lookup("10.1.2.256"));
+        assertEquals(3, list.rangeCount());
+    }
+
+    @Test
+    @DisplayName("IPv6 - Formes compressées, zone et IPv4 mappée")
+    void testIpv6() throws IOException {
+        IpReputationList list = load("""
+                DENY;2001:db8::/32
+                ALLOW;2001:db8:1::/48
+                DENY;203.0.113.0/24
+                """);
+
+        assertEquals(IpVerdict.DENY, list.lookup("2001:db8:ffff::1"));
+        assertEquals(IpVerdict.ALLOW, list.lookup("2001:DB8:1:0:0:0:0:1"));
+        assertEquals(IpVerdict.ALLOW, list.lookup("2001:db8:1::1%eth0"));
+        assertEquals(IpVerdict.NONE, list.lookup("::1"));
+        assertEquals(IpVerdict.DENY, list.lookup("::ffff:203.0.113.7"));
+        assertEquals(IpVerdict.NONE, list.lookup("2001:db8::1::2"));
+        assertEquals(IpVerdict.NONE, list.lookup("2001:db8:"));
+    }
+
+    @Test
+    @DisplayName("Ligne invalide : erreur avec numéro de ligne")
+    void testInvalidLine() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> load("DENY;10.0.0.0/8\nBLOCK;1.2.3.4\n"));
+        assertTrue(error.getMessage().contains("test:2"));
+    }
+
+    @Test
+    @DisplayName("Rechargement à chaud, fichier invalide ignoré")
+    void testReload(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("reputation.txt");
+        Files.writeString(file, "DENY;1.2.3.0/24\n");
+        try (ReloadableIpReputation reputation = new ReloadableIpReputation(file)) {
+            assertEquals(IpVerdict.DENY, reputation.get().lookup("1.2.3.4"));
+
+            Files.writeString(file, "ALLOW;1.2.3.0/24\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+            assertTrue(reputation.reloadIfModified());
+            assertEquals(IpVerdict.ALLOW, reputation.get().lookup("1.2.3.4"));
+
+            Files.writeString(file, "ALLOW;not-an-ip\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            assertFalse(reputation.reloadIfModified());
+            assertEquals(1, reputation.failedReloadCount());
+            assertEquals(IpVerdict.ALLOW, reputation.get().lookup("1.2.3.4"));
+        }
+    }
+
+    @Test
+    @DisplayName("Pipeline SEQUENTIAL - Réputation déclarée en dernier : exécutée d'abord, rejet sans lecture de l'historique")
+    void testSequentialEarlyDecisionSkipsHistory() throws IOException {
+        BehaviorRepository repository = Mockito.mock(BehaviorRepository.class);
+        IpReputationList list = load("DENY;6.6.6.0/24\n");
+        ScoringPipeline pipeline = new ScoringPipeline(repository,
+                List.of(new MachineLearningEvaluator(),
+                        new ContentSignatureEvaluator(SignatureMatcher.compile(SignaturePack.loadDefault())),
+                        new IpReputationEvaluator(() -> list)),
+                ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL, 0.5);
+
+        List<RiskFactor> denied = pipeline.evaluate(new SecurityContext("user1", "/home", "6.6.6.6"));
+
+        verify(repository, never()).findRecentByUserId(anyString(), anyInt());
+        assertEquals(List.of("IP_DENYLIST"), denied.stream().map(RiskFactor::name).toList());
+        assertEquals(IpReputationEvaluator.NAME, pipeline.evaluators().get(0).name());
+        assertEquals(MachineLearningEvaluator.class, pipeline.evaluators().get(1).getClass());
+    }
+
+    @Test
+    @DisplayName("Pipeline - Rejet et acceptation anticipés sans lecture de l'historique")
+    void testEarlyDecisionSkipsHistory() throws IOException {
+        BehaviorRepository repository = Mockito.mock(BehaviorRepository.class);
+        IpReputationList list = load("DENY;6.6.6.0/24\nALLOW;10.0.0.0/8\n");
+        ScoringPipeline pipeline = new ScoringPipeline(repository,
+                List.of(new MachineLearningEvaluator(),
+                        new ContentSignatureEvaluator(SignatureMatcher.compile(SignaturePack.loadDefault())),
+                        new IpReputationEvaluator(() -> list)),
+                ShieldMetrics.NOOP, EvaluationMode.TIERED, 0.5);
+
+        List<RiskFactor> denied = pipeline.evaluate(new SecurityContext("user1", "/home", "6.6.6.6"));
+        List<RiskFactor> allowed = pipeline.evaluate(new SecurityContext("user1", "/api?q=select", "10.1.1.1"));
+
+        assertEquals(List.of("IP_DENYLIST"), denied.stream().map(RiskFactor::name).toList());
+        assertEquals(List.of("IP_ALLOWLIST"), allowed.stream().map(RiskFactor::name).toList());
+        verify(repository, never()).findRecentByUserId(anyString(), anyInt());
+    }
+}
@@ -0,0 +1,80 @@
+package com.springaishield.core.route;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutePoliciesTest {
+
+    private static final RoutePolicy FULL = RoutePolicy.full(0.5);
+    private static final RoutePolicy SKIP = new RoutePolicy(ScoringLevel.SKIP, 0.5, false);
+    private static final RoutePolicy HEURISTICS = new RoutePolicy(ScoringLevel.HEURISTICS_ONLY, 0.8, false);
+    private static final RoutePolicy STRICT = new RoutePolicy(ScoringLevel.FULL, 0.3, true);
+
+    private static RoutePolicies policies() {
+        Map<String, RoutePolicy> routes = new LinkedHashMap<>();
+        routes.put("/static/**", SKIP);
+        routes.put("/actuator/health", SKIP);
+        routes.put("/api/*/status", HEURISTICS);
+        routes.put("/api/admin/**", STRICT);
+        routes.put("/login", STRICT);
+        return RoutePolicies.compile(routes, FULL);
+    }
+
+    @Test
+    @DisplayName("Résolution - Littéral, joker et préfixe")
+    void testResolve() {
+        RoutePolicies policies = policies();
+
+        assertSame(SKIP, policies.resolve("/static"));
+        assertSame(SKIP, policies.resolve("/static/css/app.css"));
+        assertSame(SKIP, policies.resolve("/actuator/health"));
+        assertSame(FULL, policies.resolve("/actuator/health/db"));
+        assertSame(HEURISTICS, policies.resolve("/api/orders/status"));
+        assertSame(FULL, policies.resolve("/api/orders/status/1"));
+        assertSame(STRICT, policies.resolve("/login"));
+        assertSame(STRICT, policies.resolve("//login/"));
+        assertSame(FULL, policies.resolve("/loginx"));
+        assertSame(FULL, policies.resolve("/"));
+        assertEquals(5, policies.routeCount());
+    }
+
+    @Test
+    @DisplayName("Le motif le plus précis l'emporte, avec retour arrière")
+    void testMostSpecificWins() {
+        RoutePolicies policies = policies();
+
+        // Littéral "admin" prioritaire sur le joker
+        assertSame(STRICT, policies.resolve("/api/admin/status"));
+        // Aucun motif sous /api hormis admin et le joker suivi de status
+        assertSame(FULL, policies.resolve("/api/users"));
+    }
+
+    @Test
+    @DisplayName("Chemins ambigus : politique par défaut")
+    void testAmbiguousPathsGetDefault() {
+        RoutePolicies policies = policies();
+
+        assertSame(FULL, policies.resolve("/static/../api/admin/users"));
+        assertSame(FULL, policies.resolve("/static/%2e%2e/api/admin/users"));
+        assertSame(FULL, policies.resolve("/static/..;/api/admin/users"));
+        assertSame(FULL, policies.resolve("/static\\..\\api"));
+        assertSame(FULL, policies.resolve("static/app.css"));
+    }
+
+    @Test
+    @DisplayName("Motifs invalides rejetés")
+    void testInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> RoutePolicies.compile(Map.of("/a/**/b", SKIP), FULL));
+        assertThrows(IllegalArgumentException.class, () -> RoutePolicies.compile(Map.of("/a*", SKIP), FULL));
+        assertThrows(IllegalArgumentException.class, () -> RoutePolicies.compile(Map.of("static/**", SKIP), FULL));
+        Map<String, RoutePolicy> duplicates = new LinkedHashMap<>();
+        duplicates.put("/a/", SKIP);
+        duplicates.put("/a", FULL);
+        assertThrows(IllegalArgumentException.class, () -> RoutePolicies.compile(duplicates, FULL));
+    }
+}
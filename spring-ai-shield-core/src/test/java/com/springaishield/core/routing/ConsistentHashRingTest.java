@@ -0,0 +1,51 @@
+package com.springaishield.core.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    @DisplayName("Anneau - Répartition équilibrée et indépendante de l'ordre des nœuds")
+    void testDistribution() {
+        ConsistentHashRing<Integer> ring = new ConsistentHashRing<>(List.of(0, 1, 2), 128);
+        ConsistentHashRing<Integer> reordered = new ConsistentHashRing<>(List.of(2, 0, 1), 128);
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            Integer node = ring.nodeFor("user" + i);
+            assertEquals(node, reordered.nodeFor("user" + i));
+            counts.merge(node, 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 * 0.3,
+                "Part trop éloignée de la moyenne : " + counts));
+        assertEquals(ring.nodeFor(null), ring.nodeFor(""));
+    }
+
+    @Test
+    @DisplayName("Anneau - Ajouter un nœud ne déplace que les clés qu'il reprend")
+    void testAddNode() {
+        ConsistentHashRing<Integer> before = new ConsistentHashRing<>(List.of(0, 1, 2), 128);
+        ConsistentHashRing<Integer> after = new ConsistentHashRing<>(List.of(0, 1, 2, 3), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            Integer from = before.nodeFor("user" + i);
+            Integer to = after.nodeFor("user" + i);
+            if (!from.equals(to)) {
+                assertEquals(3, to, "Une clé déplacée ne peut aller que vers le nouveau nœud.");
+                moved++;
+            }
+        }
+        assertTrue(moved > KEYS / 4 * 0.7 && moved < KEYS / 4 * 1.3, "Clés déplacées : " + moved);
+    }
+}
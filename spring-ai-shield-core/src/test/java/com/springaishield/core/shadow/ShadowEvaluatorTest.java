@@ -0,0 +1,133 @@
+package com.springaishield.core.shadow;
+
+import com.springaishield.core.impl.BehavioralScoringEngine;
+import com.springaishield.core.impl.EvaluationMode;
+import com.springaishield.core.impl.MachineLearningEvaluator;
+import com.springaishield.core.impl.ScoringPipeline;
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.InMemoryReactiveBehaviorRepository;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.service.RiskScoringService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowEvaluatorTest {
+
+    private static final RiskScoringService LIVE = context -> RiskScore.low();
+
+    @Test
+    @DisplayName("Fantôme - Divergences comptées et journalisées, score en production inchangé")
+    void testDiffs() throws InterruptedException {
+        // Candidat plus strict : bloque les URL d'administration
+        RiskScoringService candidate = context -> context.requestUrl().startsWith("/admin")
+                ? new RiskScore(0.8, "admin") : RiskScore.low();
+        CountDownLatch diffs = new CountDownLatch(2);
+        try (ShadowEvaluator shadow = new ShadowEvaluator(ShadowCandidate.of(candidate), 0.5, 0.5, 1.0, 1, 16, 8,
+                ShieldMetrics.NOOP, diff -> diffs.countDown())) {
+            RiskScoringService service = shadow.shadowing(LIVE);
+
+            assertEquals(0.1, service.calculateRisk(new SecurityContext("u1", "/admin/users", "10.0.0.1")).score());
+            service.calculateRisk(new SecurityContext("u1", "/home", "10.0.0.1"));
+            service.calculateRisk(new SecurityContext("u2", "/admin/logs", "10.0.0.2"));
+
+            assertTrue(diffs.await(5, TimeUnit.SECONDS));
+            assertEquals(2, shadow.newlyBlockedCount());
+            List<ShadowDiff> recent = shadow.recentDiffs();
+            assertEquals("/admin/logs", recent.get(0).context().requestUrl());
+            assertTrue(recent.get(0).candidateBlocked());
+            assertFalse(recent.get(0).liveBlocked());
+        }
+    }
+
+    @Test
+    @DisplayName("Fantôme - Événement de la requête enregistré avant la comparaison : ignoré par le candidat")
+    void testCandidateIgnoresEventRecordedAfterDecision() throws InterruptedException {
+        InMemoryReactiveBehaviorRepository store = new InMemoryReactiveBehaviorRepository(50, 100);
+        CountDownLatch recorded = new CountDownLatch(1);
+        // Lecture de l'historique du candidat retenue jusqu'à l'enregistrement de l'événement de la requête
+        ReactiveBehaviorRepository repository = new ReactiveBehaviorRepository() {
+            @Override
+            public Mono<UserBehavior> save(UserBehavior behavior) {
+                return store.save(behavior);
+            }
+
+            @Override
+            public Flux<UserBehavior> findRecentByUserId(String userId, int limit) {
+                return Flux.defer(() -> {
+                    try {
+                        recorded.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return store.findRecentByUserId(userId, limit);
+                });
+            }
+        };
+        ScoringPipeline pipeline = new ScoringPipeline(null, List.of(new MachineLearningEvaluator()),
+                ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL, 0.5);
+        ShadowCandidate candidate = ShadowCandidate.of(pipeline, repository);
+        // Utilisateur connu sur une autre adresse : la nouvelle IP est suspecte tant qu'elle n'est pas dans l'historique
+        store.save(new UserBehavior(null, "u1", "10.0.0.1", "ACCESS_GRANTED", "/home", RiskScore.low(),
+                Instant.now().minusSeconds(60))).block();
+        SecurityContext context = new SecurityContext("u1", "/home", "10.0.0.9");
+        // Production : même jeu de règles, historique lu avant l'enregistrement de la requête
+        RiskScore live = new BehavioralScoringEngine(pipeline)
+                .calculateRisk(context, store.findRecentByUserId("u1", 50).collectList().block());
+        assertTrue(live.score() > 0.1, live::toString);
+
+        try (ShadowEvaluator shadow = new ShadowEvaluator(candidate, live.score(), live.score(), 1.0, 1, 16, 8,
+                ShieldMetrics.NOOP, null)) {
+            shadow.observe(context, live);
+            store.save(new UserBehavior("u1", "10.0.0.9", "ACCESS_GRANTED", "/home", live)).block();
+            recorded.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (shadow.agreedCount() + shadow.newlyAllowedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, shadow.agreedCount());
+            assertEquals(0, shadow.newlyAllowedCount());
+        }
+        // Sans borne, l'événement enregistré fait baisser le score : la comparaison aurait divergé
+        assertTrue(candidate.calculateRisk(context, Instant.now().plusSeconds(60)).score() < live.score());
+    }
+
+    @Test
+    @DisplayName("Fantôme - Exécuteur saturé : évaluations abandonnées, jamais d'attente")
+    void testShedsWhenSaturated() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RiskScoringService slow = context -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return RiskScore.low();
+        };
+        try (ShadowEvaluator shadow = new ShadowEvaluator(ShadowCandidate.of(slow), 0.5, 0.5, 1.0, 1, 2, 8, ShieldMetrics.NOOP, null)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                shadow.observe(new SecurityContext("u" + i, "/home", "10.0.0.1"), RiskScore.low());
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            // 1 en cours, 2 en file : le reste est abandonné
+            assertTrue(shadow.shedCount() >= 7);
+            assertTrue(shadow.pendingCount() <= 2);
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.springaishield.core.signature;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BodyInspectorTest {
+
+    private final SignatureMatcher matcher = SignatureMatcher.compile(List.of(
+            new Signature("union select", "SQL", 0.6, "sql"),
+            new Signature("<script>", "XSS", 0.3, "xss")
+    ));
+
+    private static void feed(BodyInspector inspector, String content, int chunkSize) throws BodyRejectedException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            inspector.inspect(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+    }
+
+    @Test
+    @DisplayName("Corps - Signature coupée entre deux lectures détectée et rejetée")
+    void testRejectsAcrossChunks() {
+        BodyInspector inspector = new BodyInspector(matcher, 1024, 0.1, 0.5);
+        assertThrows(BodyRejectedException.class, () -> feed(inspector, "{\"q\":\"1 UNION SELECT pwd\"}", 3));
+
+        assertTrue(inspector.isRejected());
+        RiskScore risk = inspector.risk(new RiskScore(0.1, "URL", List.of(new RiskFactor("IP_NEW", 0.1, "ip"))));
+        assertEquals(0.7, risk.score(), 1e-9);
+        assertEquals(List.of("IP_NEW", "SQL"), risk.contributingFactors().stream().map(RiskFactor::name).toList());
+        assertEquals("SQL", inspector.factors().get(0).name());
+        // Le flux reste en échec pour l'application
+        assertThrows(BodyRejectedException.class, () -> inspector.inspect('x'));
+    }
+
+    @Test
+    @DisplayName("Corps - Sous le seuil : lecture intacte, facteurs conservés")
+    void testBelowThreshold() throws BodyRejectedException {
+        BodyInspector inspector = new BodyInspector(matcher, 1024, 0.1, 0.5);
+        feed(inspector, "comment=<script>", 4);
+        inspector.finish();
+
+        assertFalse(inspector.isRejected());
+        assertEquals(List.of("XSS"), inspector.factors().stream().map(RiskFactor::name).toList());
+    }
+
+    @Test
+    @DisplayName("Corps - Au-delà de la longueur maximale, rien n'est inspecté")
+    void testMaxLength() throws BodyRejectedException {
+        BodyInspector inspector = new BodyInspector(matcher, 16, 0.1, 0.5);
+        feed(inspector, "x".repeat(16) + "union select", 5);
+        inspector.finish();
+
+        assertFalse(inspector.isRejected());
+        assertTrue(inspector.isTruncated());
+        assertEquals(16, inspector.inspectedBytes());
+    }
+}
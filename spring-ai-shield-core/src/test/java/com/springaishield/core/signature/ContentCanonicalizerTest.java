@@ -0,0 +1,67 @@
+package com.springaishield.core.signature;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCanonicalizerTest {
+
+    private final SignatureMatcher matcher = SignatureMatcher.compile(List.of(
+            new Signature("<script>", "XSS", 0.5, "xss"),
+            new Signature("union select", "SQL", 0.6, "sql"),
+            new Signature("café", "TEST", 0.1, "utf8")
+    ));
+
+    private ContentCanonicalizer canonicalize(String content) {
+        ContentCanonicalizer canonicalizer = new ContentCanonicalizer(matcher);
+        canonicalizer.feed(content);
+        canonicalizer.finish();
+        return canonicalizer;
+    }
+
+    private static List<String> factors(ContentCanonicalizer canonicalizer) {
+        return canonicalizer.scan().matchedSignatures().stream().map(Signature::factorName).toList();
+    }
+
+    @Test
+    @DisplayName("Canonicalisation - Décodage, '+' et casse")
+    void testDecodesAndFoldsCase() {
+        assertEquals(List.of("XSS"), factors(canonicalize("/q=%3CScRiPt%3E")));
+        assertEquals(List.of("SQL"), factors(canonicalize("/q=UNION+SELECT")));
+    }
+
+    @Test
+    @DisplayName("Canonicalisation - Double encodage")
+    void testDoubleEncoding() {
+        assertEquals(List.of("XSS"), factors(canonicalize("/q=%253Cscript%253E")));
+        assertEquals(List.of("XSS"), factors(canonicalize("/q=%25253Cscript%25253E")));
+    }
+
+    @Test
+    @DisplayName("Canonicalisation - Séquences mal formées sans exception")
+    void testMalformedEscapes() {
+        ContentCanonicalizer canonicalizer = canonicalize("/q=%zz<script>%4");
+        assertTrue(canonicalizer.isMalformed());
+        assertEquals(List.of("XSS"), factors(canonicalizer));
+
+        // Un '%' littéral obtenu par décodage n'est pas une erreur
+        assertFalse(canonicalize("/promo=100%25off").isMalformed());
+    }
+
+    @Test
+    @DisplayName("Canonicalisation - UTF-8 encodé et octets bruts")
+    void testUtf8() {
+        assertEquals(List.of("TEST"), factors(canonicalize("/q=CAF%C3%89")));
+
+        ContentCanonicalizer canonicalizer = new ContentCanonicalizer(matcher);
+        for (byte b : "{\"q\":\"Café\"}".getBytes(StandardCharsets.UTF_8)) {
+            canonicalizer.feedByte(b);
+        }
+        canonicalizer.finish();
+        assertEquals(List.of("TEST"), factors(canonicalizer));
+    }
+}
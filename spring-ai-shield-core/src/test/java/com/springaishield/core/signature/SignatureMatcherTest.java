@@ -0,0 +1,84 @@
+package com.springaishield.core.signature;
+
+import com.springaishield.core.model.RiskFactor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignatureMatcherTest {
+
+    private static SignatureMatcher matcher(String... lines) throws Exception {
+        String content = String.join("\n", lines);
+        SignaturePack pack = SignaturePack.load(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "test");
+        return SignatureMatcher.compile(pack);
+    }
+
+    @Test
+    @DisplayName("Automate - Toutes les signatures sont trouvées en un seul parcours")
+    void testReportsEveryMatchedSignature() throws Exception {
+        SignatureMatcher matcher = matcher(
+                "A;0.1;a;he",
+                "A;0.1;a;she",
+                "B;0.2;b;his",
+                "B;0.2;b;hers");
+
+        SignatureMatcher.Scan scan = matcher.newScan();
+        scan.feed("ushers");
+
+        List<String> patterns = scan.matchedSignatures().stream().map(Signature::pattern).toList();
+        assertEquals(List.of("he", "she", "hers"), patterns);
+    }
+
+    @Test
+    @DisplayName("Automate - Un facteur n'est rapporté qu'une fois")
+    void testFactorsAreDeduplicated() throws Exception {
+        SignatureMatcher matcher = SignatureMatcher.compile(SignaturePack.loadDefault());
+
+        SignatureMatcher.Scan scan = matcher.newScan();
+        scan.feed("/api?q=select 1 union select 2 --");
+        List<RiskFactor> factors = new ArrayList<>();
+        scan.collectFactors(factors);
+
+        assertEquals(1, factors.size());
+        assertEquals("SQL_HEURISTIC", factors.get(0).name());
+        assertEquals(0.6, factors.get(0).weight());
+    }
+
+    @Test
+    @DisplayName("Automate - Contenu livré par morceaux")
+    void testStreamingFeed() throws Exception {
+        SignatureMatcher matcher = matcher("XSS;0.5;xss;<script>");
+
+        SignatureMatcher.Scan scan = matcher.newScan();
+        scan.feed("aaa<scr");
+        assertFalse(scan.hasMatches());
+        scan.feed("ipt>bbb");
+        assertTrue(scan.hasMatches());
+
+        scan.reset();
+        assertFalse(scan.hasMatches());
+    }
+
+    @Test
+    @DisplayName("Pack - Poids incohérent pour un même facteur")
+    void testInconsistentFactorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> matcher("A;0.1;a;x", "A;0.2;a;y"));
+    }
+
+    @Test
+    @DisplayName("Pack - Poids négatif ou non fini refusé, numéro de ligne dans le message")
+    void testNegativeOrNonFiniteWeightIsRejected() {
+        for (String weight : new String[]{"-0.1", "NaN", "Infinity"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> matcher("A;0.1;a;x", "B;" + weight + ";b;y"));
+            assertTrue(e.getMessage().contains(":2 "), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.springaishield.core.store;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedEventStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static UserBehavior event(String userId, String ip, String url) {
+        RiskScore score = new RiskScore(0.65, "SQL_HEURISTIC:0.5",
+                List.of(new RiskFactor("SQL_HEURISTIC", 0.5, "mot-clé SQL")));
+        return new UserBehavior(null, userId, ip, "ACCESS_DENIED", url, score,
+                Instant.parse("2026-10-17T08:00:00.123456Z"));
+    }
+
+    @Test
+    @DisplayName("Magasin mappé - Relecture du plus récent au plus ancien, champs conservés")
+    void testRoundTrip() throws IOException {
+        try (MappedEventStore store = new MappedEventStore(directory, 64 * 1024, 4, 3, 100)) {
+            store.save(event("alice", "10.0.0.1", "/a"));
+            store.save(event("bob", "2001:db8::1", "/b"));
+            store.saveAll(List.of(event("alice", "unknown", "/c"), event("alice", null, "/d"),
+                    event("alice", "10.0.0.1", "/e")));
+
+            List<UserBehavior> history = store.findRecentByUserId("alice", 10);
+            assertEquals(List.of("/e", "/d", "/c"), history.stream().map(UserBehavior::requestUrl).toList(),
+                    "Seuls les eventsPerUser derniers événements sont indexés.");
+            assertEquals("unknown", history.get(2).ipAddress(), "Une adresse non littérale reste en texte.");
+            assertNull(history.get(1).ipAddress());
+
+            UserBehavior bob = store.findRecentByUserId("bob", 10).get(0);
+            assertEquals("2001:db8:0:0:0:0:0:1", bob.ipAddress());
+            assertEquals("ACCESS_DENIED", bob.eventType());
+            assertEquals(0.65, bob.riskScore().score());
+            assertEquals("SQL_HEURISTIC:0.5", bob.riskScore().reason());
+            assertEquals("SQL_HEURISTIC", bob.riskScore().contributingFactors().get(0).name());
+            assertEquals(Instant.parse("2026-10-17T08:00:00.123456Z"), bob.timestamp());
+            assertEquals(List.of(), store.findRecentByUserId("carol", 10));
+        }
+    }
+
+    @Test
+    @DisplayName("Magasin mappé - Index reconstruit au redémarrage, écriture interrompue ignorée")
+    void testRecovery() throws IOException {
+        String lastId;
+        try (MappedEventStore store = new MappedEventStore(directory, 64 * 1024, 4, 50, 100)) {
+            store.save(event("alice", "10.0.0.1", "/a"));
+            lastId = store.save(event("alice", "10.0.0.1", "/b")).id();
+        }
+
+        // Enregistrement à moitié écrit après le dernier : longueur présente, corps absent (CRC faux)
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(0, 200);
+            long end = Segment.FIRST_RECORD;
+            ByteBuffer length = ByteBuffer.allocate(4);
+            while (channel.read(length.clear(), end) == 4 && length.getInt(0) != 0) {
+                end += length.getInt(0);
+            }
+            channel.write(header, end);
+        }
+
+        try (MappedEventStore store = new MappedEventStore(directory, 64 * 1024, 4, 50, 100)) {
+            assertEquals(List.of("/b", "/a"),
+                    store.findRecentByUserId("alice", 10).stream().map(UserBehavior::requestUrl).toList());
+            UserBehavior next = store.save(event("alice", "10.0.0.1", "/c"));
+            assertEquals(Long.parseLong(lastId) + 1, Long.parseLong(next.id()), "Les identifiants reprennent.");
+            assertEquals("/c", store.findRecentByUserId("alice", 1).get(0).requestUrl());
+        }
+    }
+
+    @Test
+    @DisplayName("Magasin mappé - Compaction : segments bornés, événements indexés recopiés")
+    void testRollAndCompaction() throws Exception {
+        try (MappedEventStore store = new MappedEventStore(directory, 8 * 1024, 3, 2, 100)) {
+            store.save(event("quiet", "10.0.0.9", "/early"));
+            for (int i = 0; i < 500; i++) {
+                store.save(event("user" + (i % 5), "10.0.0." + (i % 5), "/page/" + i));
+            }
+            for (int attempt = 0; attempt < 100 && store.segmentCount() > 3; attempt++) {
+                Thread.sleep(20);
+            }
+            assertTrue(store.segmentCount() <= 3, "Les segments au-delà de maxSegments sont compactés.");
+            assertTrue(store.copiedCount() > 0);
+            assertEquals(0, store.droppedCount());
+            assertEquals("/early", store.findRecentByUserId("quiet", 10).get(0).requestUrl(),
+                    "Un événement encore indexé survit à la suppression de son segment.");
+
+            for (int user = 0; user < 5; user++) {
+                List<UserBehavior> history = store.findRecentByUserId("user" + user, 10);
+                assertEquals(List.of("/page/" + (495 + user), "/page/" + (490 + user)),
+                        history.stream().map(UserBehavior::requestUrl).toList());
+            }
+        }
+
+        try (MappedEventStore store = new MappedEventStore(directory, 8 * 1024, 3, 2, 100)) {
+            assertEquals("/page/499", store.findRecentByUserId("user4", 1).get(0).requestUrl(),
+                    "Une recopie de compaction ne passe pas devant un événement plus récent.");
+        }
+    }
+
+    @Test
+    @DisplayName("Magasin mappé - Lecture pendant la compaction : aucun événement indexé manqué")
+    void testReadsDuringCompaction() throws Exception {
+        try (MappedEventStore store = new MappedEventStore(directory, 8 * 1024, 3, 2, 100)) {
+            store.save(event("quiet", "10.0.0.9", "/early"));
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    store.save(event("user" + (i % 5), "10.0.0." + (i % 5), "/page/" + i));
+                }
+            });
+            writer.start();
+            int reads = 0;
+            while (writer.isAlive()) {
+                assertEquals(1, store.findRecentByUserId("quiet", 10).size(),
+                        "Un événement recopié puis supprimé de son segment reste lisible.");
+                reads++;
+            }
+            writer.join();
+            assertTrue(reads > 0);
+            assertTrue(store.copiedCount() > 0, "La compaction doit avoir déplacé l'événement pendant les lectures.");
+        }
+    }
+
+    @Test
+    @DisplayName("Magasin mappé - Chaîne trop longue tronquée sur une frontière de caractère UTF-8")
+    void testLongStringTruncatedOnCodePoint() throws IOException {
+        // 1 + 2 × 40 000 octets : la limite tombe au milieu d'un « é »
+        String accented = "a" + "é".repeat(40_000);
+        // 4 octets par caractère (hors plan multilingue de base) : la limite tombe au milieu d'un emoji
+        String emoji = "\uD83D\uDE00".repeat(20_000);
+        try (MappedEventStore store = new MappedEventStore(directory, 512 * 1024, 4, 3, 100)) {
+            store.save(event("alice", "10.0.0.1", accented));
+            store.save(event("bob", "10.0.0.1", emoji));
+
+            String url = store.findRecentByUserId("alice", 1).get(0).requestUrl();
+            assertEquals(accented.substring(0, 1 + (EventLayout.MAX_STRING - 1) / 2), url);
+            assertFalse(url.contains("\uFFFD"));
+
+            String truncatedEmoji = store.findRecentByUserId("bob", 1).get(0).requestUrl();
+            assertEquals(emoji.substring(0, EventLayout.MAX_STRING / 4 * 2), truncatedEmoji);
+            assertFalse(truncatedEmoji.contains("\uFFFD"));
+        }
+    }
+}
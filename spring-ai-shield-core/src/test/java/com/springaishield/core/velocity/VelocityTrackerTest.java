@@ -0,0 +1,128 @@
+package com.springaishield.core.velocity;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.spi.EvaluationContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityTrackerTest {
+
+    @Test
+    @DisplayName("Fenêtre glissante : les tranches expirées ne comptent plus")
+    void testSlidingWindow() {
+        AtomicLong clock = new AtomicLong(0);
+        VelocityTracker tracker = new VelocityTracker(Duration.ofSeconds(10), 10, 100, clock::get);
+
+        for (int i = 0; i < 5; i++) tracker.record("10.0.0.1");
+        clock.set(5_000);
+        for (int i = 0; i < 3; i++) tracker.record("10.0.0.1");
+        assertEquals(8, tracker.count("10.0.0.1"));
+
+        clock.set(10_500); // la tranche [0, 1s) est sortie de la fenêtre
+        assertEquals(3, tracker.count("10.0.0.1"));
+
+        clock.set(60_000);
+        assertEquals(1, tracker.record("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Comptage exact sous contention (plusieurs threads, même clé)")
+    void testConcurrentIncrements() throws InterruptedException {
+        VelocityTracker tracker = new VelocityTracker(Duration.ofHours(1), 10, 100);
+        int threads = 8;
+        int perThread = 50_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) tracker.record("hot");
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        assertEquals((long) threads * perThread, tracker.count("hot"));
+    }
+
+    @Test
+    @DisplayName("Mémoire bornée : éviction des clés au-delà de maxKeys")
+    void testEviction() {
+        VelocityTracker tracker = new VelocityTracker(Duration.ofSeconds(10), 10, 50);
+        for (int i = 0; i < 500; i++) tracker.record("10.0." + i / 250 + "." + i % 250);
+
+        assertTrue(tracker.keyCount() <= 50);
+        assertTrue(tracker.evictionCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Éviction : la clé qui la déclenche n'est pas évincée et garde son compte")
+    void testEvictionKeepsTriggeringKey() {
+        AtomicLong clock = new AtomicLong(60_000);
+        VelocityTracker tracker = new VelocityTracker(Duration.ofSeconds(10), 10, 20, clock::get);
+        for (int i = 0; i < 20; i++) tracker.record("10.0.0." + i);
+
+        // Clés existantes inactives : évincées ; la nouvelle clé, créée dans la tranche courante, reste
+        clock.set(120_000);
+        assertEquals(1, tracker.record("10.0.1.1"));
+
+        assertEquals(1, tracker.count("10.0.1.1"));
+        assertEquals(1, tracker.keyCount());
+        assertEquals(20, tracker.evictionCount());
+    }
+
+    @Test
+    @DisplayName("Éviction LRU sous contention : les dernières tranches changeant pendant le tri ne font pas échouer record()")
+    void testConcurrentEvictionWhileTimeAdvances() throws InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        VelocityTracker tracker = new VelocityTracker(Duration.ofSeconds(10), 10, 200, clock::get);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 50_000; i++) {
+                        // Horloge avancée en continu : lastEpoch des clés chaudes change pendant les tris
+                        clock.addAndGet(1);
+                        tracker.record("hot-" + (i % 150));
+                        tracker.record("cold-" + seed + "-" + i);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        assertEquals(List.of(), failures);
+        assertTrue(tracker.keyCount() <= 200 + 8, () -> "clés : " + tracker.keyCount());
+    }
+
+    @Test
+    @DisplayName("Évaluateur : facteur VELOCITY_IP au-delà de la limite, anonymes exclus du débit utilisateur")
+    void testEvaluator() {
+        AtomicLong clock = new AtomicLong(0);
+        VelocityEvaluator evaluator = new VelocityEvaluator(
+                new VelocityTracker(Duration.ofSeconds(10), 10, 100, clock::get),
+                new VelocityTracker(Duration.ofSeconds(10), 10, 100, clock::get), 3, 3, 0.5);
+        EvaluationContext context = EvaluationContext.withHistory(new SecurityContext("ANONYMOUS", "/", "10.0.0.1"), List.of());
+
+        List<RiskFactor> factors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) evaluator.evaluate(context, factors);
+        assertTrue(factors.isEmpty());
+
+        evaluator.evaluate(context, factors);
+        assertEquals(List.of("VELOCITY_IP"), factors.stream().map(RiskFactor::name).toList());
+    }
+}
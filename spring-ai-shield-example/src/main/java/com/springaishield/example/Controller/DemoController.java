@@ -1,6 +1,8 @@
 package com.springaishield.example.Controller;
 
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,4 +19,10 @@ public class DemoController {
     public String search(@RequestParam(name = "q", defaultValue = "") String query) {
         return "Résultats de recherche pour : " + query;
     }
-}
\ No newline at end of file
+
+    // Corps inspecté pendant sa lecture (ai-shield.body-inspection.enabled=true)
+    @PostMapping("/comments")
+    public String comment(@RequestBody String body) {
+        return "Commentaire reçu (" + body.length() + " caractères).";
+    }
+}
@@ -1,11 +1,13 @@
 package com.springaishield.example;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
+@ConditionalOnWebApplication // absente du rejeu hors ligne (profil rescore)
 public class DemoSecurityConfig {
 
     // Il est géré et inséré par l'Auto-Configuration de la librairie.
@@ -0,0 +1,127 @@
+package com.springaishield.example.replay;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rejoue le trafic enregistré contre un serveur local avec {@code concurrency} threads clients.
+ * <ul>
+ *     <li>{@code rate > 0} : modèle ouvert, la requête {@code i} est prévue à {@code i / rate} secondes ; la latence
+ *     est mesurée depuis l'instant prévu, pour ne pas masquer les files d'attente (omission coordonnée).</li>
+ *     <li>{@code rate == 0} : débit maximal, chaque client enchaîne ses requêtes.</li>
+ * </ul>
+ * Les premières {@code warmup} requêtes (compilation JIT, pools, caches) ne sont pas mesurées.
+ */
+final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<RecordedRequest> traffic;
+    private final int concurrency;
+    private final double rate;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadGenerator(List<RecordedRequest> traffic, int concurrency, double rate) {
+        if (traffic.isEmpty()) {
+            throw new IllegalArgumentException("Aucune requête à rejouer.");
+        }
+        this.traffic = traffic;
+        this.concurrency = concurrency;
+        this.rate = rate;
+    }
+
+    Result run(String baseUrl, int warmup, int requests) throws InterruptedException {
+        execute(baseUrl, warmup, false);
+        return execute(baseUrl, requests, true);
+    }
+
+    private Result execute(String baseUrl, int requests, boolean measured) throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        LongAdder blocked = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        List<Histogram> histograms = new ArrayList<>(concurrency);
+        List<Thread> workers = new ArrayList<>(concurrency);
+        long start = System.nanoTime();
+
+        for (int w = 0; w < concurrency; w++) {
+            Histogram histogram = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            histograms.add(histogram);
+            Thread worker = new Thread(() -> {
+                long i;
+                while ((i = sequence.getAndIncrement()) < requests) {
+                    long intended = start + i * intervalNanos;
+                    long now;
+                    while ((now = System.nanoTime()) < intended) {
+                        LockSupport.parkNanos(intended - now);
+                    }
+                    long from = intervalNanos > 0 ? intended : now;
+                    int status = send(baseUrl, traffic.get((int) (i % traffic.size())));
+                    histogram.recordValue(Math.min(System.nanoTime() - from, HIGHEST_TRACKABLE_NANOS));
+                    if (status == 403) {
+                        blocked.increment();
+                    } else if (status < 0 || status >= 500) {
+                        errors.increment();
+                    }
+                }
+            }, "replay-client-" + w);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        histograms.forEach(total::add);
+        return measured ? new Result(requests, blocked.sum(), errors.sum(), elapsed, total) : null;
+    }
+
+    // Code HTTP, ou -1 si la requête n'a pas pu être envoyée
+    private int send(String baseUrl, RecordedRequest recorded) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + recorded.requestUrl()))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET();
+            if (recorded.ipAddress() != null && !recorded.ipAddress().isEmpty()) {
+                request.header("X-Forwarded-For", recorded.ipAddress());
+            }
+            if (recorded.userId() != null && !recorded.userId().isEmpty()) {
+                request.header(ReplayUserValve.HEADER, recorded.userId());
+            }
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException | IllegalArgumentException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    record Result(long requests, long blocked, long errors, long elapsedNanos, Histogram latency) {
+
+        double throughput() {
+            return requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+    }
+}
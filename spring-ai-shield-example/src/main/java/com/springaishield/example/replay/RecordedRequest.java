@@ -0,0 +1,8 @@
+package com.springaishield.example.replay;
+
+/**
+ * Requête enregistrée à rejouer : utilisateur ({@code ANONYMOUS} ou vide si non authentifié), IP et URL
+ * (chemin et chaîne de requête, tels qu'enregistrés par le filtre).
+ */
+record RecordedRequest(String userId, String ipAddress, String requestUrl) {
+}
@@ -0,0 +1,113 @@
+package com.springaishield.example.replay;
+
+import com.springaishield.example.DemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Banc de charge de bout en bout : rejoue du trafic enregistré contre l'application d'exemple démarrée deux fois
+ * dans la JVM (H2 en mémoire), bouclier actif puis désactivé ({@code ai-shield.enabled=false}), et compare débit
+ * et percentiles de latence (HdrHistogram).
+ * <pre>
+ * java -cp ... com.springaishield.example.replay.ReplayHarness \
+ *     --traffic=traffic.csv --rate=500 --concurrency=8 --requests=20000 --warmup=5000
+ * </pre>
+ * Options :
+ * <ul>
+ *     <li>{@code --traffic} : CSV {@code user_id,ip_address,request_url}, ou URL JDBC de la base fichier contenant
+ *     {@code ai_user_behavior} (profil {@code h2file}) ; par défaut, un petit échantillon embarqué ;</li>
+ *     <li>{@code --rate} : requêtes par seconde, {@code 0} pour le débit maximal ;</li>
+ *     <li>{@code --concurrency}, {@code --requests}, {@code --warmup} ;</li>
+ *     <li>{@code --db-user}, {@code --db-password}, {@code --limit} (lignes lues au plus) pour une source JDBC ;</li>
+ *     <li>toute autre option {@code --spring.x=y} ou {@code --ai-shield.x=y} est transmise à l'application.</li>
+ * </ul>
+ */
+public final class ReplayHarness {
+
+    private ReplayHarness() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        Map<String, Object> appProperties = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Option invalide (--nom=valeur attendu) : " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("spring.") || name.startsWith("ai-shield.") || name.startsWith("logging.")
+                    || name.startsWith("server.")) {
+                appProperties.put(name, value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        List<RecordedRequest> traffic = TrafficLoader.load(options.getOrDefault("traffic", TrafficLoader.SAMPLE),
+                options.getOrDefault("db-user", "sa"), options.getOrDefault("db-password", "password"),
+                Integer.parseInt(options.getOrDefault("limit", "1000000")));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", String.valueOf(Math.max(traffic.size(), 10_000))));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", String.valueOf(requests / 4)));
+
+        System.out.printf(Locale.ROOT, "Rejeu de %d requêtes enregistrées : %d mesurées (+%d de chauffe), "
+                        + "%d clients, débit %s%n", traffic.size(), requests, warmup, concurrency,
+                rate > 0 ? rate + " req/s" : "maximal");
+
+        LoadGenerator generator = new LoadGenerator(traffic, concurrency, rate);
+        LoadGenerator.Result enabled = replay(generator, true, appProperties, warmup, requests);
+        LoadGenerator.Result disabled = replay(generator, false, appProperties, warmup, requests);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-10s %9s %12s %8s %7s %9s %9s %10s %9s%n",
+                "Bouclier", "Requêtes", "Débit req/s", "Bloquées", "Erreurs", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        print("actif", enabled);
+        print("désactivé", disabled);
+        System.out.printf(Locale.ROOT, "Latence ajoutée : p50 %+.3f ms, p99 %+.3f ms, p99.9 %+.3f ms%n",
+                enabled.percentileMillis(50) - disabled.percentileMillis(50),
+                enabled.percentileMillis(99) - disabled.percentileMillis(99),
+                enabled.percentileMillis(99.9) - disabled.percentileMillis(99.9));
+    }
+
+    private static LoadGenerator.Result replay(LoadGenerator generator, boolean shieldEnabled,
+                                               Map<String, Object> appProperties, int warmup, int requests)
+            throws InterruptedException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("server.forward-headers-strategy", "native");
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.springaishield", "WARN");
+        properties.putAll(appProperties);
+        properties.put("ai-shield.enabled", shieldEnabled);
+
+        // Arguments de ligne de commande : prioritaires sur application.properties (show-sql, niveaux de log...)
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("replay")
+                .run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.printf("Bouclier %s : application démarrée sur le port %d%n",
+                    shieldEnabled ? "actif" : "désactivé", port);
+            return generator.run("http://localhost:" + port, warmup, requests);
+        }
+    }
+
+    private static void print(String label, LoadGenerator.Result result) {
+        System.out.printf(Locale.ROOT, "%-10s %9d %12.1f %8d %7d %9.3f %9.3f %10.3f %9.3f%n",
+                label, result.requests(), result.throughput(), result.blocked(), result.errors(),
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                result.latency().getMaxValue() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,22 @@
+package com.springaishield.example.replay;
+
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Serveur de l'application sous test du banc de rejeu ({@link ReplayHarness}) : l'IP enregistrée arrive dans
+ * {@code X-Forwarded-For} ({@code server.forward-headers-strategy=native}), l'utilisateur dans
+ * {@link ReplayUserValve#HEADER}.
+ */
+@Configuration
+@Profile("replay")
+class ReplayServerConfiguration {
+
+    @Bean
+    WebServerFactoryCustomizer<TomcatServletWebServerFactory> replayUserValve() {
+        return factory -> factory.addContextValves(new ReplayUserValve());
+    }
+}
@@ -0,0 +1,33 @@
+package com.springaishield.example.replay;
+
+import jakarta.servlet.ServletException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.realm.GenericPrincipal;
+import org.apache.catalina.valves.ValveBase;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Valve Tomcat du banc de rejeu : l'utilisateur enregistré, transmis dans {@value #HEADER}, devient l'utilisateur
+ * de la requête ({@code getRemoteUser()}), comme s'il s'était authentifié. N'est installée que par le profil
+ * {@code replay} : jamais en production, n'importe quel client pourrait s'attribuer une identité.
+ */
+class ReplayUserValve extends ValveBase {
+
+    static final String HEADER = "X-Replay-User";
+
+    ReplayUserValve() {
+        super(true);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        String user = request.getHeader(HEADER);
+        if (user != null && !user.isEmpty() && !"ANONYMOUS".equals(user)) {
+            request.setUserPrincipal(new GenericPrincipal(user, List.of()));
+        }
+        getNext().invoke(request, response);
+    }
+}
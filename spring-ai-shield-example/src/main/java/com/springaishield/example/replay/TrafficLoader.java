@@ -0,0 +1,148 @@
+package com.springaishield.example.replay;
+
+import com.springaishield.core.encoding.IpCodec;
+import com.springaishield.core.encoding.UrlTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chargement du trafic enregistré :
+ * <ul>
+ *     <li>CSV {@code user_id,ip_address,request_url} avec en-tête (champs entre guillemets acceptés) ;</li>
+ *     <li>URL JDBC : export direct de {@code ai_user_behavior}, dans l'ordre d'enregistrement, suivi de
+ *     {@code ai_behavior_event} si la table existe (format compact, voir {@code ai-shield.persistence.format}).</li>
+ * </ul>
+ */
+final class TrafficLoader {
+
+    static final String SAMPLE = "classpath:replay/sample-traffic.csv";
+
+    private TrafficLoader() {
+    }
+
+    static List<RecordedRequest> load(String source, String dbUser, String dbPassword, int limit) {
+        try {
+            if (source.startsWith("jdbc:")) {
+                return fromDatabase(source, dbUser, dbPassword, limit);
+            }
+            if (source.startsWith("classpath:")) {
+                InputStream in = TrafficLoader.class.getClassLoader()
+                        .getResourceAsStream(source.substring("classpath:".length()));
+                if (in == null) {
+                    throw new IllegalArgumentException("Ressource introuvable : " + source);
+                }
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    return fromCsv(reader, limit);
+                }
+            }
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(source))) {
+                return fromCsv(reader, limit);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<RecordedRequest> fromDatabase(String url, String user, String password, int limit) {
+        List<RecordedRequest> requests = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             Statement statement = connection.createStatement()) {
+            boolean compact = hasTable(connection, "ai_behavior_event");
+            statement.setMaxRows(limit);
+            // Lignes déjà migrées : même identifiant dans les deux tables, lues une seule fois
+            try (ResultSet rs = statement.executeQuery(compact
+                    ? "SELECT u.user_id, u.ip_address, u.request_url FROM ai_user_behavior u "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM ai_behavior_event e WHERE e.id = u.id) ORDER BY u.id"
+                    : "SELECT user_id, ip_address, request_url FROM ai_user_behavior ORDER BY id")) {
+                while (rs.next()) {
+                    requests.add(new RecordedRequest(rs.getString(1), rs.getString(2), rs.getString(3)));
+                }
+            }
+            if (compact && requests.size() < limit) {
+                statement.setMaxRows(limit - requests.size());
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT e.user_id, e.ip, t.term, e.url_args FROM ai_behavior_event e "
+                                + "LEFT JOIN ai_behavior_term t ON t.kind = 1 AND t.code = e.url_template ORDER BY e.id")) {
+                    while (rs.next()) {
+                        String ip = IpCodec.decode(rs.getBytes(2));
+                        requests.add(new RecordedRequest(rs.getString(1), ip != null ? ip : "unknown",
+                                UrlTemplate.expand(rs.getString(3), rs.getString(4))));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Lecture de l'historique impossible : " + e.getMessage(), e);
+        }
+        return requests;
+    }
+
+    private static boolean hasTable(Connection connection, String table) throws SQLException {
+        // Casse des identifiants non cotés propre à la base (majuscules pour H2, minuscules pour PostgreSQL)
+        for (String name : new String[]{table, table.toUpperCase()}) {
+            try (ResultSet rs = connection.getMetaData().getTables(null, null, name, null)) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<RecordedRequest> fromCsv(BufferedReader reader, int limit) throws IOException {
+        List<RecordedRequest> requests = new ArrayList<>();
+        String line = reader.readLine(); // en-tête
+        while ((line = reader.readLine()) != null && requests.size() < limit) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            if (fields.size() < 3) {
+                throw new IllegalArgumentException("Ligne de trafic invalide (3 colonnes attendues) : " + line);
+            }
+            requests.add(new RecordedRequest(fields.get(0), fields.get(1), fields.get(2)));
+        }
+        return requests;
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
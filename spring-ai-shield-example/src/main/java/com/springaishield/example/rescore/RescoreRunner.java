@@ -0,0 +1,210 @@
+package com.springaishield.example.rescore;
+
+import com.springaishield.core.encoding.IpCodec;
+import com.springaishield.core.encoding.UrlTemplate;
+import com.springaishield.core.impl.BatchScorer;
+import com.springaishield.core.impl.ScoringPipeline;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.route.RoutePolicies;
+import com.springaishield.core.route.RoutePolicy;
+import com.springaishield.core.route.ScoringLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.springaishield.springboot.service.BehaviorDictionary;
+import com.springaishield.springboot.service.BehaviorDictionary.Kind;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Rejoue l'historique {@code ai_user_behavior} avec les règles actuelles et écrit l'ancien et le nouveau score
+ * de chaque événement dans un CSV, puis l'impact du changement (requêtes nouvellement bloquées ou autorisées).
+ * Les deux décisions sont prises avec les seuils actuels : seul l'effet des règles est mesuré.
+ * <p>
+ * Profil {@code rescore}, sur la base fichier du profil {@code h2file} :
+ * <pre>
+ * # 1. trafic enregistré dans ./data
+ * java -jar spring-ai-shield-example.jar --spring.profiles.active=h2file
+ * # 2. nouvelles règles, puis rejeu
+ * java -jar spring-ai-shield-example.jar --spring.profiles.active=h2file,rescore
+ * </pre>
+ * Les lignes sont lues en flux ({@code queryForStream}) et évaluées par tranches : la mémoire ne dépend pas de la
+ * taille de la table.
+ * <p>
+ * Avec {@code ai-shield.persistence.format=compact}, les lignes de {@code ai_behavior_event} sont rejouées à la suite
+ * des lignes de l'ancienne table pas encore migrées.
+ */
+@Component
+@Profile("rescore")
+public class RescoreRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RescoreRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScoringPipeline scoringPipeline;
+    private final BehaviorRepository behaviorRepository;
+    private final RoutePolicies routePolicies;
+    private final BehaviorDictionary dictionary; // null : format historique
+
+    @Value("${ai-shield.rescore.output:rescore.csv}")
+    private Path output;
+
+    @Value("${ai-shield.rescore.chunk-size:2048}")
+    private int chunkSize;
+
+    @Value("${ai-shield.rescore.parallelism:0}")
+    private int parallelism;
+
+    public RescoreRunner(JdbcTemplate jdbcTemplate, ScoringPipeline scoringPipeline,
+                         BehaviorRepository behaviorRepository, RoutePolicies routePolicies,
+                         ObjectProvider<BehaviorDictionary> dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scoringPipeline = scoringPipeline;
+        this.behaviorRepository = behaviorRepository;
+        this.routePolicies = routePolicies;
+        this.dictionary = dictionary.getIfAvailable();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        BatchScorer scorer = new BatchScorer(scoringPipeline,
+                userId -> behaviorRepository.findRecentByUserId(userId, ScoringPipeline.HISTORY_DEPTH), pool, chunkSize);
+        Impact impact = new Impact();
+        long start = System.nanoTime();
+
+        jdbcTemplate.setFetchSize(chunkSize);
+        try (Stream<Row> rows = rows();
+             BufferedWriter out = Files.newBufferedWriter(output)) {
+            out.write("id,user_id,request_url,old_factors,old_score,new_score,old_decision,new_decision");
+            out.newLine();
+            scorer.score(rows, Row::context, (row, score) -> write(out, row, score, impact));
+        } finally {
+            pool.shutdown();
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Rejeu terminé : {} événements en {} ms ({} chargements d'historique) -> {}",
+                impact.total, millis, scorer.historyLookups(), output.toAbsolutePath());
+        log.info("Impact : {} nouvellement bloqués, {} nouvellement autorisés, {} inchangés",
+                impact.newlyBlocked, impact.newlyAllowed, impact.total - impact.newlyBlocked - impact.newlyAllowed);
+    }
+
+    private Stream<Row> rows() {
+        if (dictionary == null) {
+            return jdbcTemplate.queryForStream(
+                    "SELECT id, user_id, ip_address, event_type, request_url, risk_score FROM ai_user_behavior ORDER BY id",
+                    (rs, rowNum) -> legacyRow(rs));
+        }
+        // Lignes déjà migrées : même identifiant dans les deux tables, lues une seule fois
+        Stream<Row> legacy = jdbcTemplate.queryForStream(
+                "SELECT u.id, u.user_id, u.ip_address, u.event_type, u.request_url, u.risk_score FROM ai_user_behavior u "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM ai_behavior_event e WHERE e.id = u.id) ORDER BY u.id",
+                (rs, rowNum) -> legacyRow(rs));
+        // Ouvert seulement une fois l'ancienne table entièrement lue (une connexion à la fois)
+        Stream<Row> compact = Stream.of(0).flatMap(ignored -> jdbcTemplate.queryForStream(
+                "SELECT id, user_id, ip, url_template, url_args, factor_mask, risk_score FROM ai_behavior_event ORDER BY id",
+                (rs, rowNum) -> compactRow(rs)));
+        return Stream.concat(legacy, compact);
+    }
+
+    private static Row legacyRow(ResultSet rs) throws SQLException {
+        return new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getDouble(6));
+    }
+
+    /** Même décodage que {@code CompactBehaviorRepositoryImpl} ; les facteurs n'ont plus de poids. */
+    private Row compactRow(ResultSet rs) throws SQLException {
+        int templateCode = rs.getInt(4);
+        String template = rs.wasNull() ? null : dictionary.term(Kind.URL_TEMPLATE, templateCode);
+        List<String> factors = new ArrayList<>();
+        for (long mask = rs.getLong(6); mask != 0; mask &= mask - 1) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            String name = bit == BehaviorDictionary.OTHER_FACTOR ? null : dictionary.term(Kind.FACTOR, bit);
+            factors.add(name != null ? name : BehaviorDictionary.OTHER_FACTOR_NAME);
+        }
+        String ip = IpCodec.decode(rs.getBytes(3));
+        return new Row(rs.getLong(1), rs.getString(2), ip != null ? ip : "unknown", String.join("; ", factors),
+                UrlTemplate.expand(template, rs.getString(5)), rs.getShort(7) / 1000.0);
+    }
+
+    private void write(BufferedWriter out, Row row, RiskScore score, Impact impact) {
+        RoutePolicy policy = routePolicies.resolve(pathOf(row.requestUrl()));
+        boolean blocked = isBlocked(policy, score.score());
+        boolean wasBlocked = isBlocked(policy, row.riskScore());
+        impact.total++;
+        if (blocked && !wasBlocked) {
+            impact.newlyBlocked++;
+        } else if (!blocked && wasBlocked) {
+            impact.newlyAllowed++;
+        }
+
+        try {
+            // event_type contient le résumé des facteurs enregistrés (voir BehaviorRepositoryImpl et compactRow)
+            out.write(row.id() + "," + csv(row.userId()) + "," + csv(row.requestUrl()) + "," + csv(row.eventType())
+                    + "," + row.riskScore() + "," + score.score() + "," + decision(wasBlocked) + "," + decision(blocked));
+            out.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isBlocked(RoutePolicy policy, double score) {
+        return policy.level() != ScoringLevel.SKIP && score >= policy.blockingThreshold();
+    }
+
+    private static String decision(boolean blocked) {
+        return blocked ? "ACCESS_DENIED" : "ACCESS_GRANTED";
+    }
+
+    private static String pathOf(String requestUrl) {
+        if (requestUrl == null) {
+            return "/";
+        }
+        int query = requestUrl.indexOf('?');
+        return query < 0 ? requestUrl : requestUrl.substring(0, query);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record Row(long id, String userId, String ipAddress, String eventType, String requestUrl,
+                       double riskScore) {
+
+        SecurityContext context() {
+            return new SecurityContext(userId, requestUrl, ipAddress);
+        }
+    }
+
+    // Mis à jour sur le thread du rejeu uniquement (consommateur de BatchScorer)
+    private static final class Impact {
+        long total;
+        long newlyBlocked;
+        long newlyAllowed;
+    }
+}
@@ -0,0 +1,59 @@
+package com.springaishield.springboot.actuator;
+
+import com.springaishield.core.degradation.AdaptiveDegradation;
+import com.springaishield.core.degradation.DegradationMode;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Endpoint Actuator {@code /actuator/aishield} : mode de dégradation courant et surcoûts mesurés.
+ * <p>
+ * {@code POST {"mode": "HEURISTICS_ONLY"}} fixe le mode (incident connu, maintenance de la base) ;
+ * {@code POST {"mode": "auto"}} rend la main à l'ajustement automatique.
+ */
+@Endpoint(id = "aishield")
+public class AIShieldEndpoint {
+
+    private static final String AUTO = "auto";
+
+    private final AdaptiveDegradation degradation;
+
+    public AIShieldEndpoint(AdaptiveDegradation degradation) {
+        this.degradation = degradation;
+    }
+
+    @ReadOperation
+    public Map<String, Object> degradation() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("mode", degradation.mode());
+        state.put("pinned", degradation.isPinned());
+        state.put("timeInModeMs", degradation.timeInMode().toMillis());
+        state.put("budgetMs", degradation.budgetNanos() / 1_000_000.0);
+        state.put("fullPathMs", millis(degradation.fullPathNanos()));
+        state.put("heuristicPathMs", millis(degradation.heuristicPathNanos()));
+        state.put("transitions", degradation.transitionCount());
+        state.put("probes", degradation.probeCount());
+        state.put("shed", degradation.shedCount());
+        return state;
+    }
+
+    @WriteOperation
+    public Map<String, Object> mode(String mode) {
+        if (AUTO.equalsIgnoreCase(mode)) {
+            degradation.release();
+        } else {
+            degradation.pin(DegradationMode.valueOf(mode.toUpperCase(Locale.ROOT)));
+        }
+        return degradation();
+    }
+
+    // Pas de mesure : null plutôt que NaN, non sérialisable en JSON
+    private static Double millis(double nanos) {
+        return Double.isNaN(nanos) ? null : nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.springaishield.springboot.audit;
+
+import com.springaishield.core.audit.AuditSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transmet les lignes d'audit à SLF4J (niveau INFO) : l'appender, le format et la rotation restent ceux de
+ * l'application. Appelé depuis le thread d'audit, jamais depuis le thread de la requête.
+ */
+public class Slf4jAuditSink implements AuditSink {
+
+    private final Logger logger;
+
+    public Slf4jAuditSink(String loggerName) {
+        this.logger = LoggerFactory.getLogger(loggerName);
+    }
+
+    @Override
+    public void write(CharSequence line) {
+        if (logger.isInfoEnabled()) {
+            logger.info(line.toString());
+        }
+    }
+}
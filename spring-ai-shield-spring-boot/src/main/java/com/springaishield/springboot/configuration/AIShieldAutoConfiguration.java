@@ -1,56 +1,755 @@
 package com.springaishield.springboot.configuration;
 
+import com.springaishield.core.audit.AsyncAuditLog;
+import com.springaishield.core.degradation.AdaptiveDegradation;
 import com.springaishield.core.impl.BehavioralScoringEngine;
+import com.springaishield.core.impl.CachingRiskScoringService;
+import com.springaishield.core.impl.EvaluationMode;
+import com.springaishield.core.impl.ContentSignatureEvaluator;
+import com.springaishield.core.impl.MLPredictor;
+import com.springaishield.core.impl.MachineLearningEvaluator;
+import com.springaishield.core.impl.ReactiveScoringEngine;
+import com.springaishield.core.impl.ScoringPipeline;
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.profile.BehaviorProfileStore;
+import com.springaishield.core.profile.ProfilingBehaviorRepository;
 import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.reputation.IpReputationEvaluator;
+import com.springaishield.core.reputation.ReloadableIpReputation;
+import com.springaishield.core.route.RoutePolicies;
+import com.springaishield.core.route.RoutePolicy;
+import com.springaishield.core.repository.CachingBehaviorRepository;
+import com.springaishield.core.repository.InMemoryReactiveBehaviorRepository;
+import com.springaishield.core.repository.PersistenceSampler;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.repository.SamplingBehaviorRepository;
+import com.springaishield.core.repository.WriteBehindBehaviorRepository;
+import com.springaishield.core.service.ReactiveRiskScoringService;
 import com.springaishield.core.service.RiskScoringService;
+import com.springaishield.core.shadow.ShadowCandidate;
+import com.springaishield.core.shadow.ShadowEvaluator;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.store.MappedEventStore;
+import com.springaishield.core.signature.SignaturePack;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+import com.springaishield.core.velocity.VelocityEvaluator;
+import com.springaishield.core.velocity.VelocityTracker;
+import com.springaishield.springboot.audit.Slf4jAuditSink;
+import com.springaishield.springboot.actuator.AIShieldEndpoint;
+import com.springaishield.springboot.persistence.compact.jpa.JpaBehaviorEventRepository;
+import com.springaishield.springboot.persistence.compact.jpa.JpaBehaviorTermRepository;
+import com.springaishield.springboot.service.BehaviorDictionary;
+import com.springaishield.springboot.persistence.routing.BehaviorRouting;
+import com.springaishield.springboot.service.BehaviorRetentionJob;
+import com.springaishield.springboot.service.BehaviorSchemaManager;
+import com.springaishield.springboot.service.CompactBehaviorMigrator;
+import com.springaishield.springboot.service.CompactBehaviorRepositoryImpl;
 import com.springaishield.springboot.security.AIShieldFilter;
+import com.springaishield.springboot.security.AIShieldWebFilter;
+import com.springaishield.springboot.security.RequestBodyInspection;
+import com.springaishield.springboot.security.ShieldFilterOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import reactor.core.scheduler.Schedulers;
 import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Spring Boot Auto-Configuration Class for the AI ​​Shield module.
+ * Beans communs (signatures, métriques, évaluateurs) puis, selon le type d'application :
+ * pile bloquante (JPA + {@link AIShieldFilter}) ou pile réactive (WebFlux + {@link AIShieldWebFilter}).
+ * {@code ai-shield.enabled=false} retire l'ensemble du module (filtres, persistance), par exemple pour mesurer
+ * le coût du bouclier.
  */
 @Configuration
-
-@EntityScan(basePackages = "com.springaishield.springboot.persistence.entity")
-@EnableJpaRepositories(basePackages = "com.springaishield.springboot.persistence.jpa")
+@ConditionalOnProperty(prefix = "ai-shield", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(AIShieldProperties.class)
 public class AIShieldAutoConfiguration {
 
-    // On déclare explicitement le RepositoryImpl si on a supprimé le ComponentScan
     @Bean
     @ConditionalOnMissingBean
-    public BehaviorRepository behaviorRepository(com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository jpaRepo) {
-        return new com.springaishield.springboot.service.BehaviorRepositoryImpl(jpaRepo);
+    public SignatureMatcher signatureMatcher(AIShieldProperties properties, ResourceLoader resourceLoader) throws IOException {
+        return loadSignatures(properties.getSignatures().getLocation(), resourceLoader);
+    }
+
+    private static SignatureMatcher loadSignatures(String location, ResourceLoader resourceLoader) throws IOException {
+        if (location == null || location.isBlank()) {
+            return SignatureMatcher.compile(SignaturePack.loadDefault());
+        }
+
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            return SignatureMatcher.compile(SignaturePack.load(in, location));
+        }
+    }
+
+    // Repli sans Micrometer ; la variante Micrometer est déclarée avant (AIShieldMetricsAutoConfiguration)
+    @Bean
+    @ConditionalOnMissingBean
+    public ShieldMetrics shieldMetrics() {
+        return ShieldMetrics.NOOP;
+    }
+
+    // Évaluateurs intégrés, désactivables individuellement (ai-shield.evaluators.<nom>.enabled=false)
+    @Bean
+    @ConditionalOnProperty(prefix = "ai-shield.evaluators.ml", name = "enabled", matchIfMissing = true)
+    public MachineLearningEvaluator machineLearningEvaluator(ObjectProvider<BehaviorProfileStore> profileStore) {
+        return new MachineLearningEvaluator(new MLPredictor(), profileStore.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ai-shield.evaluators.content", name = "enabled", matchIfMissing = true)
+    public ContentSignatureEvaluator contentSignatureEvaluator(SignatureMatcher signatureMatcher) {
+        return new ContentSignatureEvaluator(signatureMatcher);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai-shield.body-inspection", name = "enabled", havingValue = "true")
+    public RequestBodyInspection requestBodyInspection(SignatureMatcher signatureMatcher, AIShieldProperties properties) {
+        AIShieldProperties.BodyInspection bodyInspection = properties.getBodyInspection();
+        return new RequestBodyInspection(signatureMatcher, bodyInspection.getMaxLength(),
+                bodyInspection.getContentTypes());
+    }
+
+    // Thread d'audit arrêté avec le contexte (close() inférée) après avoir vidé le tampon
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai-shield.audit", name = "enabled", matchIfMissing = true)
+    public AsyncAuditLog aiShieldAuditLog(AIShieldProperties properties, ShieldMetrics shieldMetrics) {
+        AIShieldProperties.Audit audit = properties.getAudit();
+        AsyncAuditLog auditLog = new AsyncAuditLog(new Slf4jAuditSink(audit.getLogger()), audit.getBufferSize());
+        shieldMetrics.registerGauge("audit.dropped", auditLog::droppedCount);
+        return auditLog;
+    }
+
+    // Partagée par le filtre et l'endpoint Actuator ; jauge du mode : 0 complet, 1 heuristiques, 2 échantillonné
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai-shield.degradation", name = "enabled", havingValue = "true")
+    public AdaptiveDegradation adaptiveDegradation(AIShieldProperties properties, ShieldMetrics shieldMetrics) {
+        AIShieldProperties.Degradation degradation = properties.getDegradation();
+        Logger modeLog = LoggerFactory.getLogger(AdaptiveDegradation.class);
+        AdaptiveDegradation controller = new AdaptiveDegradation(degradation.getBudget(),
+                degradation.getRecoveryRatio(), degradation.getSmoothing(), degradation.getMinDwell(),
+                degradation.getProbeRate(), degradation.getSampleRate(),
+                mode -> modeLog.warn("AIShield : passage en mode {} (budget {} ms)", mode,
+                        degradation.getBudget().toMillis()));
+        shieldMetrics.registerGauge("degradation.mode", () -> controller.mode().ordinal());
+        shieldMetrics.registerGauge("degradation.shed", controller::shedCount);
+        return controller;
     }
 
+    // Segments vidés et fermés avec le contexte (close() inférée) ; servlet et WebFlux
     @Bean
     @ConditionalOnMissingBean
-    public RiskScoringService riskScoringService(BehaviorRepository behaviorRepository) {
-        return new BehavioralScoringEngine(behaviorRepository);
+    @ConditionalOnProperty(prefix = "ai-shield.persistence", name = "store", havingValue = "mapped")
+    public MappedEventStore mappedEventStore(AIShieldProperties properties, ShieldMetrics shieldMetrics)
+            throws IOException {
+        AIShieldProperties.Mapped mapped = properties.getPersistence().getMapped();
+        MappedEventStore store = new MappedEventStore(Path.of(mapped.getDirectory()),
+                Math.toIntExact(mapped.getSegmentSize().toBytes()), mapped.getMaxSegments(),
+                mapped.getEventsPerUser(), mapped.getMaxUsers());
+        LoggerFactory.getLogger(MappedEventStore.class).info(
+                "AIShield : magasin d'événements {} ouvert, {} événements relus, {} utilisateurs.",
+                mapped.getDirectory(), store.recoveredCount(), store.userCount());
+        shieldMetrics.registerGauge("store.segments", store::segmentCount);
+        shieldMetrics.registerGauge("store.dropped", store::droppedCount);
+        return store;
     }
 
+    // Politiques par route compilées une fois ; un motif invalide ou en double fait échouer le démarrage
     @Bean
     @ConditionalOnMissingBean
-    public AIShieldFilter aiShieldFilter(
-            RiskScoringService riskScoringService,
-            BehaviorRepository behaviorRepository
-    ) {
-        return new AIShieldFilter(riskScoringService, behaviorRepository);
+    public RoutePolicies routePolicies(AIShieldProperties properties) {
+        double defaultThreshold = properties.getScoring().getBlockingThreshold();
+        Map<String, RoutePolicy> policies = new LinkedHashMap<>();
+        for (AIShieldProperties.Route route : properties.getRoutes()) {
+            double threshold = route.getBlockingThreshold() != null ? route.getBlockingThreshold() : defaultThreshold;
+            if (policies.put(route.getPattern(), new RoutePolicy(route.getLevel(), threshold, route.isPersist())) != null) {
+                throw new IllegalArgumentException("Motif de route déclaré deux fois : " + route.getPattern());
+            }
+        }
+        return RoutePolicies.compile(policies, RoutePolicy.full(defaultThreshold));
     }
 
+    // Fichier surveillé par un thread démon, arrêté avec le contexte (close() inférée)
     @Bean
-    public FilterRegistrationBean<AIShieldFilter> aiShieldFilterRegistration(AIShieldFilter aiShieldFilter) {
-        FilterRegistrationBean<AIShieldFilter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(aiShieldFilter);
-        registration.addUrlPatterns("/*");
-        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
-        return registration;
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai-shield.reputation", name = "file")
+    public ReloadableIpReputation ipReputation(AIShieldProperties properties) throws IOException {
+        AIShieldProperties.Reputation reputation = properties.getReputation();
+        ReloadableIpReputation ipReputation = new ReloadableIpReputation(Path.of(reputation.getFile()));
+        Duration interval = reputation.getReloadInterval();
+        if (interval != null && !interval.isZero() && !interval.isNegative()) {
+            ipReputation.startWatching(interval);
+        }
+        return ipReputation;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai-shield.reputation", name = "file")
+    public IpReputationEvaluator ipReputationEvaluator(ReloadableIpReputation ipReputation) {
+        return new IpReputationEvaluator(ipReputation);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai-shield.velocity", name = "enabled", havingValue = "true")
+    public VelocityEvaluator velocityEvaluator(AIShieldProperties properties) {
+        AIShieldProperties.Velocity velocity = properties.getVelocity();
+        return new VelocityEvaluator(
+                new VelocityTracker(velocity.getWindow(), velocity.getBuckets(), velocity.getMaxKeys()),
+                new VelocityTracker(velocity.getWindow(), velocity.getBuckets(), velocity.getMaxKeys()),
+                velocity.getIpLimit(), velocity.getUserLimit(), velocity.getWeight());
+    }
+
+    // Tous les beans RiskFactorEvaluator du contexte (intégrés et applicatifs), dans l'ordre @Order.
+    // Avec le cache de décisions, les évaluateurs non cacheables sont exécutés par le cache et non par le pipeline.
+    // En mode PARALLEL, l'exécuteur par défaut est arrêté avec le contexte (close() inférée)
+    private static ScoringPipeline scoringPipeline(BehaviorRepository behaviorRepository,
+                                                   ObjectProvider<RiskFactorEvaluator> evaluators,
+                                                   ShieldMetrics shieldMetrics, AIShieldProperties properties,
+                                                   boolean cacheableOnly) {
+        AIShieldProperties.Scoring scoring = properties.getScoring();
+        List<RiskFactorEvaluator> enabled = evaluators.orderedStream()
+                .filter(evaluator -> !cacheableOnly || evaluator.cacheable())
+                .toList();
+        return new ScoringPipeline(behaviorRepository, enabled, shieldMetrics,
+                scoring.getMode(), scoring.getBlockingThreshold(),
+                scoring.getDeadline(), scoring.getTimeoutPolicy(), null);
+    }
+
+    private static ShieldFilterOptions filterOptions(ShieldMetrics shieldMetrics, RoutePolicies routePolicies,
+                                                     ObjectProvider<AsyncAuditLog> auditLog,
+                                                     ObjectProvider<RequestBodyInspection> bodyInspection,
+                                                     ObjectProvider<AdaptiveDegradation> degradation) {
+        return ShieldFilterOptions.of(shieldMetrics, routePolicies)
+                .withAuditLog(auditLog.getIfAvailable())
+                .withBodyInspection(bodyInspection.getIfAvailable())
+                .withDegradation(degradation.getIfAvailable());
+    }
+
+    // Jeu de règles candidat du mode fantôme : évaluateurs de la production, moins ceux retirés et ceux à état
+    // (compteurs de débit partagés : chaque requête serait comptée deux fois), pack de signatures candidat éventuel.
+    // Toujours SEQUENTIAL : le candidat s'exécute déjà hors du thread de la requête, sans métriques de production.
+    private static ScoringPipeline shadowPipeline(ObjectProvider<RiskFactorEvaluator> evaluators,
+                                                  AIShieldProperties properties, ResourceLoader resourceLoader)
+            throws IOException {
+        AIShieldProperties.Shadow shadow = properties.getShadow();
+        SignatureMatcher candidatePack = shadow.getSignaturesLocation() == null || shadow.getSignaturesLocation().isBlank()
+                ? null : loadSignatures(shadow.getSignaturesLocation(), resourceLoader);
+        List<RiskFactorEvaluator> candidate = evaluators.orderedStream()
+                .filter(RiskFactorEvaluator::cacheable)
+                .filter(evaluator -> !shadow.getDisabledEvaluators().contains(evaluator.name()))
+                .map(evaluator -> candidatePack != null && evaluator instanceof ContentSignatureEvaluator
+                        ? new ContentSignatureEvaluator(candidatePack) : evaluator)
+                .toList();
+        // Historique fourni par ShadowCandidate, borné à l'instant de la décision en production
+        return new ScoringPipeline(null, candidate, ShieldMetrics.NOOP, EvaluationMode.SEQUENTIAL,
+                candidateThreshold(properties));
+    }
+
+    private static double candidateThreshold(AIShieldProperties properties) {
+        Double threshold = properties.getShadow().getBlockingThreshold();
+        return threshold != null ? threshold : properties.getScoring().getBlockingThreshold();
+    }
+
+    // Threads fantômes arrêtés avec le contexte (close() inférée)
+    private static ShadowEvaluator shadowEvaluator(ShadowCandidate candidate, AIShieldProperties properties,
+                                                   ShieldMetrics shieldMetrics) {
+        AIShieldProperties.Shadow shadow = properties.getShadow();
+        Logger diffLog = LoggerFactory.getLogger(shadow.getLogger());
+        ShadowEvaluator evaluator = new ShadowEvaluator(candidate, properties.getScoring().getBlockingThreshold(),
+                candidateThreshold(properties), shadow.getSampleRate(), shadow.getThreads(),
+                shadow.getQueueCapacity(), shadow.getDiffLogSize(), shieldMetrics,
+                diff -> diffLog.info("Divergence du candidat : URL={} | User={} | production={} ({}) | candidat={} ({}) : {}",
+                        diff.context().requestUrl(), diff.context().userId(),
+                        diff.live().score(), decision(diff.liveBlocked()),
+                        diff.candidate().score(), decision(diff.candidateBlocked()), diff.candidate().reason()));
+        shieldMetrics.registerGauge("shadow.pending", evaluator::pendingCount);
+        return evaluator;
+    }
+
+    private static String decision(boolean blocked) {
+        return blocked ? "bloquée" : "autorisée";
+    }
+
+    /**
+     * Pile bloquante : toute application qui n'est pas WebFlux (servlet, ou sans web pour un usage direct du service).
+     */
+    @Configuration
+    @Conditional(NotReactiveCondition.class)
+    static class BlockingShieldConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "ai-shield.profiles", name = "enabled", havingValue = "true")
+        public BehaviorProfileStore behaviorProfileStore(AIShieldProperties properties) {
+            AIShieldProperties.Profiles profiles = properties.getProfiles();
+            return new BehaviorProfileStore(profiles.getMaxUsers(), profiles.getTtl(),
+                    profiles.getExactIpLimit(), profiles.getSketchWidth());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ScoringPipeline scoringPipeline(BehaviorRepository behaviorRepository,
+                                               ObjectProvider<RiskFactorEvaluator> evaluators,
+                                               ShieldMetrics shieldMetrics, AIShieldProperties properties) {
+            return AIShieldAutoConfiguration.scoringPipeline(behaviorRepository, evaluators, shieldMetrics, properties,
+                    properties.getDecisionCache().isEnabled());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RiskScoringService riskScoringService(ScoringPipeline scoringPipeline,
+                                                     ObjectProvider<RiskFactorEvaluator> evaluators,
+                                                     ShieldMetrics shieldMetrics, AIShieldProperties properties) {
+            RiskScoringService engine = new BehavioralScoringEngine(scoringPipeline);
+            AIShieldProperties.DecisionCache decisionCache = properties.getDecisionCache();
+            if (!decisionCache.isEnabled()) {
+                return engine;
+            }
+
+            List<RiskFactorEvaluator> perRequest = evaluators.orderedStream()
+                    .filter(evaluator -> !evaluator.cacheable())
+                    .toList();
+            CachingRiskScoringService cache = new CachingRiskScoringService(engine, perRequest,
+                    decisionCache.getCapacity(), decisionCache.getTtl(), shieldMetrics);
+            shieldMetrics.registerGauge("decision.cache.entries", cache::entryCount);
+            shieldMetrics.registerGauge("decision.cache.memory", cache::estimatedBytes);
+            return cache;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "ai-shield.shadow", name = "enabled", havingValue = "true")
+        public ShadowEvaluator shadowEvaluator(BehaviorRepository behaviorRepository,
+                                               ObjectProvider<RiskFactorEvaluator> evaluators,
+                                               ShieldMetrics shieldMetrics, AIShieldProperties properties,
+                                               ResourceLoader resourceLoader) throws IOException {
+            ScoringPipeline candidate = shadowPipeline(evaluators, properties, resourceLoader);
+            return AIShieldAutoConfiguration.shadowEvaluator(ShadowCandidate.of(candidate, behaviorRepository),
+                    properties, shieldMetrics);
+        }
+    }
+
+    /**
+     * Chaîne commune aux magasins bloquants : écriture différée, cache d'historique, échantillonnage, profils.
+     */
+    static BehaviorRepository decorate(BehaviorRepository repository, AIShieldProperties properties,
+                                       ObjectProvider<BehaviorProfileStore> profileStore) {
+        AIShieldProperties.Persistence persistence = properties.getPersistence();
+        if (persistence.getMode() == AIShieldProperties.Persistence.Mode.WRITE_BEHIND) {
+            AIShieldProperties.WriteBehind writeBehind = persistence.getWriteBehind();
+            // Fermé automatiquement par Spring (méthode close() inférée) : la file est vidée à l'arrêt
+            repository = new WriteBehindBehaviorRepository(
+                    repository,
+                    writeBehind.getQueueCapacity(),
+                    writeBehind.getBatchSize(),
+                    writeBehind.getFlushInterval(),
+                    writeBehind.getBackpressure(),
+                    writeBehind.getSampleRate()
+            );
+        }
+
+        AIShieldProperties.HistoryCache historyCache = properties.getHistoryCache();
+        if (historyCache.isEnabled()) {
+            // Au-dessus de l'écriture différée : les événements encore en file sont déjà visibles en lecture
+            repository = new CachingBehaviorRepository(
+                    repository,
+                    historyCache.getEventsPerUser(),
+                    historyCache.getMaxUsers(),
+                    historyCache.getTtl()
+            );
+        }
+
+        AIShieldProperties.Sampling sampling = persistence.getSampling();
+        if (sampling.isEnabled()) {
+            // Au-dessus du cache : le cache reste identique à ce que la base contiendra
+            repository = new SamplingBehaviorRepository(repository,
+                    new PersistenceSampler(sampling.getGrantedRate(), sampling.getElevatedThreshold()));
+        }
+
+        BehaviorProfileStore profiles = profileStore.getIfAvailable();
+        if (profiles != null) {
+            // En tête de chaîne : le profil est à jour dès l'enregistrement, même si l'écriture est différée
+            repository = new ProfilingBehaviorRepository(repository, profiles);
+        }
+        return repository;
+    }
+
+    /**
+     * Persistance JPA de l'historique, uniquement si JPA est sur le classpath.
+     */
+    @Configuration
+    @Conditional({NotReactiveCondition.class, JpaStoreCondition.class})
+    @ConditionalOnClass(name = "jakarta.persistence.EntityManager")
+    @EntityScan(basePackages = "com.springaishield.springboot.persistence.entity")
+    @EnableJpaRepositories(basePackages = "com.springaishield.springboot.persistence.jpa")
+    static class JpaPersistenceConfiguration {
+
+        // On déclare explicitement le RepositoryImpl si on a supprimé le ComponentScan
+        @Bean
+        @ConditionalOnMissingBean
+        public BehaviorRepository behaviorRepository(com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository jpaRepo,
+                                                     AIShieldProperties properties,
+                                                     ObjectProvider<BehaviorProfileStore> profileStore,
+                                                     ObjectProvider<CompactBehaviorRepositoryImpl> compactRepository,
+                                                     ObjectProvider<BehaviorRouting> routing) {
+            BehaviorRepository repository = compactRepository.getIfAvailable();
+            if (repository == null) {
+                repository = new com.springaishield.springboot.service.BehaviorRepositoryImpl(jpaRepo,
+                        routing.getIfAvailable());
+            }
+
+            return decorate(repository, properties, profileStore);
+        }
+
+        // Index et partitions préparés avant qu'Hibernate ne crée ou valide les tables (voir aiShieldSchemaDependsOn)
+        @Bean
+        @ConditionalOnMissingBean
+        public BehaviorSchemaManager behaviorSchemaManager(JdbcTemplate jdbcTemplate, AIShieldProperties properties,
+                                                           ObjectProvider<BehaviorRouting> routing,
+                                                           Environment environment) {
+            AIShieldProperties.Persistence persistence = properties.getPersistence();
+            AIShieldProperties.Schema schema = persistence.getSchema();
+            boolean compact = persistence.getFormat() == AIShieldProperties.Persistence.Format.COMPACT;
+            List<BehaviorSchemaManager.ManagedTable> tables = compact
+                    ? List.of(BehaviorSchemaManager.USER_BEHAVIOR, BehaviorSchemaManager.BEHAVIOR_EVENT)
+                    : List.of(BehaviorSchemaManager.USER_BEHAVIOR);
+            BehaviorSchemaManager manager = new BehaviorSchemaManager(jdbcTemplate, tables,
+                    schema.getPartitionInterval(), schema.getPartitionsAhead());
+            manager.checkSchemaGeneration(environment.getProperty("spring.jpa.hibernate.ddl-auto"));
+            boolean manage = schema.isManage() || schema.getPartitionInterval() != null;
+            BehaviorRouting shards = routing.getIfAvailable();
+            // Séquence créée ou avancée au-delà des identifiants existants dans tous les cas (mise à niveau d'IDENTITY)
+            if (shards == null) {
+                if (manage) {
+                    manager.ensureSchema();
+                } else {
+                    manager.ensureSequences(1);
+                }
+                return manager;
+            }
+            // Hibernate ne crée que les tables du shard 0 ; chaque autre shard reçoit sa plage d'identifiants
+            for (int shard : shards.shards()) {
+                shards.onPrimary(shard, () -> {
+                    if (shard > 0 || manage) {
+                        manager.ensureSchema(BehaviorRouting.sequenceStart(shard), shard > 0);
+                    } else {
+                        manager.ensureSequences(BehaviorRouting.sequenceStart(shard));
+                    }
+                    return null;
+                });
+            }
+            return manager;
+        }
+
+        @Bean
+        static EntityManagerFactoryDependsOnPostProcessor aiShieldSchemaDependsOn() {
+            return new EntityManagerFactoryDependsOnPostProcessor(BehaviorSchemaManager.class);
+        }
+
+        // Thread démon arrêté avec le contexte (close() inférée) ; premier passage après un intervalle
+        @Bean
+        @ConditionalOnMissingBean
+        @Conditional(RetentionCondition.class)
+        public BehaviorRetentionJob behaviorRetentionJob(JdbcTemplate jdbcTemplate,
+                                                         BehaviorSchemaManager behaviorSchemaManager,
+                                                         ObjectProvider<BehaviorRouting> routing,
+                                                         AIShieldProperties properties, ShieldMetrics shieldMetrics) {
+            AIShieldProperties.Retention retention = properties.getPersistence().getRetention();
+            BehaviorRetentionJob job = new BehaviorRetentionJob(jdbcTemplate, behaviorSchemaManager,
+                    routing.getIfAvailable(), retention.getMaxAge(), retention.getBatchSize(), retention.getBatchPause());
+            job.start(retention.getInterval());
+            shieldMetrics.registerGauge("retention.deleted", job::deletedRows);
+            return job;
+        }
+
+        // Active les lots JDBC d'Hibernate, sans quoi saveAll() enverrait un INSERT par ligne
+        @Bean
+        public HibernatePropertiesCustomizer aiShieldBatchingCustomizer(AIShieldProperties properties) {
+            return hibernateProperties -> {
+                if (properties.getPersistence().getMode() != AIShieldProperties.Persistence.Mode.WRITE_BEHIND) {
+                    return;
+                }
+                hibernateProperties.putIfAbsent("hibernate.jdbc.batch_size",
+                        properties.getPersistence().getWriteBehind().getBatchSize());
+                hibernateProperties.putIfAbsent("hibernate.order_inserts", true);
+            };
+        }
+    }
+
+    /**
+     * Entretien de l'historique nécessaire : rétention configurée, ou partitions à créer au fil du temps.
+     */
+    static class RetentionCondition extends AnyNestedCondition {
+
+        RetentionCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "ai-shield.persistence.retention", name = "max-age")
+        static class OnMaxAge {
+        }
+
+        @ConditionalOnProperty(prefix = "ai-shield.persistence.schema", name = "partition-interval")
+        static class OnPartitioning {
+        }
+    }
+
+    /**
+     * Historique au format compact : entités et dépôts chargés uniquement dans ce mode (une base validée contre
+     * l'ancien schéma n'a pas à connaître les nouvelles tables).
+     */
+    @Configuration
+    @Conditional({NotReactiveCondition.class, JpaStoreCondition.class})
+    @ConditionalOnClass(name = "jakarta.persistence.EntityManager")
+    @ConditionalOnProperty(prefix = "ai-shield.persistence", name = "format", havingValue = "compact")
+    @EntityScan(basePackages = "com.springaishield.springboot.persistence.compact.entity")
+    @EnableJpaRepositories(basePackages = "com.springaishield.springboot.persistence.compact.jpa")
+    static class CompactPersistenceConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public BehaviorDictionary behaviorDictionary(JpaBehaviorTermRepository termRepository,
+                                                     AIShieldProperties properties) {
+            return new BehaviorDictionary(termRepository, properties.getPersistence().getCompact().getMaxUrlTemplates());
+        }
+
+        // L'ancienne table complète les lectures tant que sa migration n'est pas terminée
+        @Bean
+        @ConditionalOnMissingBean
+        public CompactBehaviorRepositoryImpl compactBehaviorRepository(
+                JpaBehaviorEventRepository eventRepository, BehaviorDictionary behaviorDictionary,
+                com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository legacyRepository,
+                ObjectProvider<CompactBehaviorMigrator> migrator) {
+            return new CompactBehaviorRepositoryImpl(eventRepository, behaviorDictionary,
+                    new com.springaishield.springboot.service.BehaviorRepositoryImpl(legacyRepository),
+                    () -> !migrator.getObject().isComplete());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public CompactBehaviorMigrator compactBehaviorMigrator(JdbcTemplate jdbcTemplate,
+                                                               PlatformTransactionManager transactionManager,
+                                                               CompactBehaviorRepositoryImpl compactBehaviorRepository,
+                                                               AIShieldProperties properties) {
+            return new CompactBehaviorMigrator(jdbcTemplate, new TransactionTemplate(transactionManager),
+                    compactBehaviorRepository, properties.getScoring().getBlockingThreshold());
+        }
+
+        // Après le démarrage : le trafic est servi pendant la migration
+        @Bean
+        @ConditionalOnProperty(prefix = "ai-shield.persistence.compact", name = "migrate-on-startup", havingValue = "true")
+        public ApplicationRunner aiShieldCompactMigration(CompactBehaviorMigrator migrator, AIShieldProperties properties) {
+            AIShieldProperties.Compact compact = properties.getPersistence().getCompact();
+            return args -> migrator.migrate(compact.getMigrationBatchSize(), compact.isDeleteMigrated());
+        }
+    }
+
+    /**
+     * Historique dans le magasin embarqué : ni base de données ni JPA nécessaires.
+     */
+    @Configuration
+    @Conditional(NotReactiveCondition.class)
+    @ConditionalOnProperty(prefix = "ai-shield.persistence", name = "store", havingValue = "mapped")
+    static class MappedStorePersistenceConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public BehaviorRepository behaviorRepository(MappedEventStore mappedEventStore, AIShieldProperties properties,
+                                                     ObjectProvider<BehaviorProfileStore> profileStore) {
+            return decorate(mappedEventStore, properties, profileStore);
+        }
+    }
+
+    /**
+     * Filtre servlet, inséré en tête de chaîne.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletShieldConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AIShieldFilter aiShieldFilter(
+                RiskScoringService riskScoringService,
+                BehaviorRepository behaviorRepository,
+                ShieldMetrics shieldMetrics,
+                RoutePolicies routePolicies,
+                ObjectProvider<AsyncAuditLog> auditLog,
+                ObjectProvider<RequestBodyInspection> bodyInspection,
+                ObjectProvider<ShadowEvaluator> shadowEvaluator,
+                ObjectProvider<AdaptiveDegradation> degradation
+        ) {
+            // Les événements enregistrés par le filtre invalident les décisions en cache qu'ils rendent obsolètes
+            if (riskScoringService instanceof CachingRiskScoringService cache) {
+                behaviorRepository = cache.invalidating(behaviorRepository);
+            }
+            ShadowEvaluator shadow = shadowEvaluator.getIfAvailable();
+            if (shadow != null) {
+                riskScoringService = shadow.shadowing(riskScoringService);
+            }
+            return new AIShieldFilter(riskScoringService, behaviorRepository,
+                    filterOptions(shieldMetrics, routePolicies, auditLog, bodyInspection, degradation));
+        }
+
+        @Bean
+        public FilterRegistrationBean<AIShieldFilter> aiShieldFilterRegistration(AIShieldFilter aiShieldFilter) {
+            FilterRegistrationBean<AIShieldFilter> registration = new FilterRegistrationBean<>();
+            registration.setFilter(aiShieldFilter);
+            registration.addUrlPatterns("/*");
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    /**
+     * Pile réactive : scoring et persistance non bloquants, {@link AIShieldWebFilter} enregistré par WebFlux.
+     * Sans dépôt réactif fourni par l'application (R2DBC...), l'historique est conservé en mémoire.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = "reactor.core.publisher.Mono")
+    static class ReactiveShieldConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveBehaviorRepository reactiveBehaviorRepository(AIShieldProperties properties,
+                                                                     ObjectProvider<MappedEventStore> mappedEventStore) {
+            MappedEventStore store = mappedEventStore.getIfAvailable();
+            if (store != null) {
+                // Lecture d'une page pas encore en mémoire : défaut de page, hors de la boucle d'événements
+                return ReactiveBehaviorRepository.fromBlocking(store, Schedulers.boundedElastic());
+            }
+            AIShieldProperties.Reactive reactive = properties.getReactive();
+            return new InMemoryReactiveBehaviorRepository(reactive.getEventsPerUser(), reactive.getMaxUsers());
+        }
+
+        // Historique toujours fourni par le moteur réactif : pas de BehaviorRepository bloquant
+        @Bean
+        @ConditionalOnMissingBean
+        public ScoringPipeline scoringPipeline(ObjectProvider<RiskFactorEvaluator> evaluators,
+                                               ShieldMetrics shieldMetrics, AIShieldProperties properties) {
+            return AIShieldAutoConfiguration.scoringPipeline(null, evaluators, shieldMetrics, properties, false);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveRiskScoringService reactiveRiskScoringService(ScoringPipeline scoringPipeline,
+                                                                     ReactiveBehaviorRepository behaviorRepository,
+                                                                     ShieldMetrics shieldMetrics) {
+            return new ReactiveScoringEngine(scoringPipeline, behaviorRepository, shieldMetrics);
+        }
+
+        // Le candidat s'exécute sur un thread fantôme, hors boucle d'événements : il peut attendre son historique
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "ai-shield.shadow", name = "enabled", havingValue = "true")
+        public ShadowEvaluator shadowEvaluator(ReactiveBehaviorRepository behaviorRepository,
+                                               ObjectProvider<RiskFactorEvaluator> evaluators,
+                                               ShieldMetrics shieldMetrics, AIShieldProperties properties,
+                                               ResourceLoader resourceLoader) throws IOException {
+            ScoringPipeline candidate = shadowPipeline(evaluators, properties, resourceLoader);
+            return AIShieldAutoConfiguration.shadowEvaluator(ShadowCandidate.of(candidate, behaviorRepository),
+                    properties, shieldMetrics);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AIShieldWebFilter aiShieldWebFilter(ReactiveRiskScoringService riskScoringService,
+                                                   ReactiveBehaviorRepository behaviorRepository,
+                                                   ShieldMetrics shieldMetrics, RoutePolicies routePolicies,
+                                                   ObjectProvider<AsyncAuditLog> auditLog,
+                                                   ObjectProvider<RequestBodyInspection> bodyInspection,
+                                                   ObjectProvider<ShadowEvaluator> shadowEvaluator,
+                                                   ObjectProvider<AdaptiveDegradation> degradation,
+                                                   AIShieldProperties properties) {
+            AIShieldProperties.Sampling sampling = properties.getPersistence().getSampling();
+            if (sampling.isEnabled()) {
+                behaviorRepository = ReactiveBehaviorRepository.sampling(behaviorRepository,
+                        new PersistenceSampler(sampling.getGrantedRate(), sampling.getElevatedThreshold()));
+            }
+            ShadowEvaluator shadow = shadowEvaluator.getIfAvailable();
+            if (shadow != null) {
+                riskScoringService = shadow.shadowing(riskScoringService);
+            }
+            return new AIShieldWebFilter(riskScoringService, behaviorRepository,
+                    filterOptions(shieldMetrics, routePolicies, auditLog, bodyInspection, degradation));
+        }
+    }
+
+    static class NotReactiveCondition extends NoneNestedConditions {
+
+        NotReactiveCondition() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+        static class OnReactiveWebApplication {
+        }
+    }
+
+    /**
+     * Historique en base (JPA), sauf si le magasin embarqué est choisi.
+     */
+    static class JpaStoreCondition extends NoneNestedConditions {
+
+        JpaStoreCondition() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnProperty(prefix = "ai-shield.persistence", name = "store", havingValue = "mapped")
+        static class OnMappedStore {
+        }
+    }
+
+    /**
+     * Endpoint {@code aishield}, uniquement si Actuator est sur le classpath et la dégradation adaptative activée.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @ConditionalOnProperty(prefix = "ai-shield.degradation", name = "enabled", havingValue = "true")
+    static class ActuatorEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AIShieldEndpoint aiShieldEndpoint(AdaptiveDegradation adaptiveDegradation) {
+            return new AIShieldEndpoint(adaptiveDegradation);
+        }
     }
-}
\ No newline at end of file
+}
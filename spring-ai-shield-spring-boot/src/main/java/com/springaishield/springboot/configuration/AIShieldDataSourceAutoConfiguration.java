@@ -0,0 +1,86 @@
+package com.springaishield.springboot.configuration;
+
+import com.springaishield.springboot.persistence.routing.BehaviorRouting;
+import com.springaishield.springboot.persistence.routing.BehaviorRoutingDataSource;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historique réparti sur plusieurs bases ({@code ai-shield.persistence.routing.shards}) : la source de données de
+ * l'application devient une {@link BehaviorRoutingDataSource}. Déclarée avant {@link DataSourceAutoConfiguration},
+ * qui n'en crée alors pas d'autre.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "ai-shield", name = "enabled", matchIfMissing = true)
+@ConditionalOnClass(name = "org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource")
+@EnableConfigurationProperties(AIShieldProperties.class)
+public class AIShieldDataSourceAutoConfiguration {
+
+    @Configuration
+    @Conditional({AIShieldAutoConfiguration.NotReactiveCondition.class,
+            AIShieldAutoConfiguration.JpaStoreCondition.class})
+    @ConditionalOnProperty(prefix = "ai-shield.persistence.routing", name = "shards[0].url")
+    static class RoutingConfiguration {
+
+        @Bean
+        public BehaviorRouting behaviorRouting(AIShieldProperties properties) {
+            AIShieldProperties.Routing routing = properties.getPersistence().getRouting();
+            if (properties.getPersistence().getFormat() == AIShieldProperties.Persistence.Format.COMPACT) {
+                // Dictionnaire et migration supposent une base unique
+                throw new IllegalStateException(
+                        "ai-shield.persistence.routing n'est pas compatible avec ai-shield.persistence.format=compact.");
+            }
+            return new BehaviorRouting(routing.getShards().stream()
+                    .map(shard -> shard.getReplicaUrl() != null && !shard.getReplicaUrl().isBlank())
+                    .toList(), routing.getVirtualNodes());
+        }
+
+        @Bean
+        @Primary
+        public BehaviorRoutingDataSource dataSource(AIShieldProperties properties, BehaviorRouting behaviorRouting) {
+            List<AIShieldProperties.Routing.Shard> shards = properties.getPersistence().getRouting().getShards();
+            Map<String, DataSource> targets = new LinkedHashMap<>();
+            for (int i = 0; i < shards.size(); i++) {
+                AIShieldProperties.Routing.Shard shard = shards.get(i);
+                if (shard.getUrl() == null || shard.getUrl().isBlank()) {
+                    throw new IllegalStateException("ai-shield.persistence.routing.shards[" + i + "].url est vide.");
+                }
+                targets.put(BehaviorRouting.primaryKey(i), build(shard.getUrl(), shard.getUsername(),
+                        shard.getPassword(), shard.getDriverClassName()));
+                if (shard.getReplicaUrl() != null && !shard.getReplicaUrl().isBlank()) {
+                    targets.put(BehaviorRouting.replicaKey(i), build(shard.getReplicaUrl(),
+                            shard.getReplicaUsername() != null ? shard.getReplicaUsername() : shard.getUsername(),
+                            shard.getReplicaPassword() != null ? shard.getReplicaPassword() : shard.getPassword(),
+                            shard.getDriverClassName()));
+                }
+            }
+            LoggerFactory.getLogger(BehaviorRouting.class).info(
+                    "AIShield : historique réparti sur {} shards ({} sources de données).",
+                    behaviorRouting.shardCount(), targets.size());
+            return new BehaviorRoutingDataSource(targets);
+        }
+
+        private static DataSource build(String url, String username, String password, String driverClassName) {
+            return DataSourceBuilder.create()
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .driverClassName(driverClassName)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.springaishield.springboot.configuration;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.springboot.metrics.MicrometerShieldMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Métriques Micrometer, si un {@link MeterRegistry} existe (Actuator ou application). Ordre explicite : après la
+ * création des registres d'Actuator, avant {@link AIShieldAutoConfiguration} dont le {@link ShieldMetrics#NOOP} ne sert
+ * plus que de repli.
+ */
+@AutoConfiguration(before = AIShieldAutoConfiguration.class,
+        afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnProperty(prefix = "ai-shield", name = "enabled", matchIfMissing = true)
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class AIShieldMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public ShieldMetrics shieldMetrics(MeterRegistry meterRegistry) {
+        return new MicrometerShieldMetrics(meterRegistry);
+    }
+}
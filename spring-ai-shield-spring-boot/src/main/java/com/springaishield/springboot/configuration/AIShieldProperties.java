@@ -0,0 +1,1259 @@
+package com.springaishield.springboot.configuration;
+
+import com.springaishield.core.impl.EvaluationMode;
+import com.springaishield.core.impl.ScoringPipeline;
+import com.springaishield.core.impl.TimeoutPolicy;
+import com.springaishield.core.repository.BackpressurePolicy;
+import com.springaishield.core.route.ScoringLevel;
+import com.springaishield.springboot.service.BehaviorSchemaManager;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriétés de configuration du module AI Shield (préfixe {@code ai-shield}).
+ */
+@ConfigurationProperties(prefix = "ai-shield")
+public class AIShieldProperties {
+
+    /** Active le module ; {@code false} : aucun filtre ni bean AI Shield. */
+    private boolean enabled = true;
+
+    private final Scoring scoring = new Scoring();
+    private final Persistence persistence = new Persistence();
+    private final HistoryCache historyCache = new HistoryCache();
+    private final Signatures signatures = new Signatures();
+    private final Reactive reactive = new Reactive();
+    private final Profiles profiles = new Profiles();
+    private final Velocity velocity = new Velocity();
+    private final Reputation reputation = new Reputation();
+    private final DecisionCache decisionCache = new DecisionCache();
+    private final Audit audit = new Audit();
+    private final BodyInspection bodyInspection = new BodyInspection();
+    private final Shadow shadow = new Shadow();
+    private final Degradation degradation = new Degradation();
+
+    /** Politiques par route, compilées au démarrage ; les autres chemins reçoivent l'analyse complète. */
+    private List<Route> routes = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Scoring getScoring() {
+        return scoring;
+    }
+
+    public Persistence getPersistence() {
+        return persistence;
+    }
+
+    public HistoryCache getHistoryCache() {
+        return historyCache;
+    }
+
+    public Signatures getSignatures() {
+        return signatures;
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
+    public Profiles getProfiles() {
+        return profiles;
+    }
+
+    public Velocity getVelocity() {
+        return velocity;
+    }
+
+    public Reputation getReputation() {
+        return reputation;
+    }
+
+    public DecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public BodyInspection getBodyInspection() {
+        return bodyInspection;
+    }
+
+    public Shadow getShadow() {
+        return shadow;
+    }
+
+    public Degradation getDegradation() {
+        return degradation;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public static class Scoring {
+
+        /** Score à partir duquel une requête est bloquée (403). */
+        private double blockingThreshold = 0.5;
+
+        /**
+         * SEQUENTIAL : tous les analyseurs, ML puis contenu.
+         * TIERED : analyseurs par coût croissant, arrêt dès que le seuil de blocage est atteint.
+         * PARALLEL : analyseurs coûteux en parallèle, sous le budget {@link #deadline}.
+         */
+        private EvaluationMode mode = EvaluationMode.SEQUENTIAL;
+
+        /** Budget de latence par requête en mode PARALLEL. */
+        private Duration deadline = Duration.ofMillis(50);
+
+        /** Décision si des analyseurs n'ont pas répondu dans le budget (mode PARALLEL). */
+        private TimeoutPolicy timeoutPolicy = TimeoutPolicy.FAIL_OPEN;
+
+        public double getBlockingThreshold() {
+            return blockingThreshold;
+        }
+
+        public void setBlockingThreshold(double blockingThreshold) {
+            this.blockingThreshold = blockingThreshold;
+        }
+
+        public EvaluationMode getMode() {
+            return mode;
+        }
+
+        public void setMode(EvaluationMode mode) {
+            this.mode = mode;
+        }
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        public TimeoutPolicy getTimeoutPolicy() {
+            return timeoutPolicy;
+        }
+
+        public void setTimeoutPolicy(TimeoutPolicy timeoutPolicy) {
+            this.timeoutPolicy = timeoutPolicy;
+        }
+    }
+
+    public static class Persistence {
+
+        /**
+         * SYNC : chaque requête écrit son événement en base avant de continuer.
+         * WRITE_BEHIND : les événements passent par une file bornée vidée par lots en arrière-plan.
+         */
+        private Mode mode = Mode.SYNC;
+
+        /**
+         * LEGACY : table ai_user_behavior (textes libres).
+         * COMPACT : table ai_behavior_event (IP binaire, gabarits d'URL, facteurs en masque de bits).
+         */
+        private Format format = Format.LEGACY;
+
+        /**
+         * JPA : base relationnelle (tables ai_user_behavior / ai_behavior_event).
+         * MAPPED : segments projetés en mémoire sur le disque local, sans base de données.
+         */
+        private Store store = Store.JPA;
+
+        private final WriteBehind writeBehind = new WriteBehind();
+        private final Sampling sampling = new Sampling();
+        private final Compact compact = new Compact();
+        private final Schema schema = new Schema();
+        private final Retention retention = new Retention();
+        private final Mapped mapped = new Mapped();
+        private final Routing routing = new Routing();
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public void setFormat(Format format) {
+            this.format = format;
+        }
+
+        public Compact getCompact() {
+            return compact;
+        }
+
+        public Schema getSchema() {
+            return schema;
+        }
+
+        public Store getStore() {
+            return store;
+        }
+
+        public void setStore(Store store) {
+            this.store = store;
+        }
+
+        public Mapped getMapped() {
+            return mapped;
+        }
+
+        public Retention getRetention() {
+            return retention;
+        }
+
+        public Routing getRouting() {
+            return routing;
+        }
+
+        public WriteBehind getWriteBehind() {
+            return writeBehind;
+        }
+
+        public Sampling getSampling() {
+            return sampling;
+        }
+
+        public enum Mode {
+            SYNC,
+            WRITE_BEHIND
+        }
+
+        public enum Format {
+            LEGACY,
+            COMPACT
+        }
+
+        public enum Store {
+            JPA,
+            MAPPED
+        }
+    }
+
+    /**
+     * Magasin d'événements embarqué (ai-shield.persistence.store=mapped).
+     */
+    public static class Mapped {
+
+        /** Répertoire des segments, réservé à une seule instance. */
+        private String directory = "ai-shield-events";
+
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /** Segments conservés au plus ; au-delà, le plus ancien est compacté. */
+        private int maxSegments = 16;
+
+        /** Événements indexés par utilisateur (profondeur d'historique lue par le scoring). */
+        private int eventsPerUser = ScoringPipeline.HISTORY_DEPTH;
+
+        private int maxUsers = 100_000;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getMaxSegments() {
+            return maxSegments;
+        }
+
+        public void setMaxSegments(int maxSegments) {
+            this.maxSegments = maxSegments;
+        }
+
+        public int getEventsPerUser() {
+            return eventsPerUser;
+        }
+
+        public void setEventsPerUser(int eventsPerUser) {
+            this.eventsPerUser = eventsPerUser;
+        }
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+    }
+
+    /**
+     * Répartition de l'historique sur plusieurs bases (ai-shield.persistence.routing.shards[n].url) : les
+     * utilisateurs sont répartis par hachage cohérent de leur identifiant, les lectures d'historique vont au réplica
+     * du shard. Remplace la source de données de l'application ({@code spring.datasource} est ignoré).
+     */
+    public static class Routing {
+
+        /** Shards, dans un ordre stable : le shard 0 porte aussi le schéma Hibernate et les autres tables. */
+        private List<Shard> shards = new ArrayList<>();
+
+        /** Positions de chaque shard sur l'anneau ; plus il y en a, plus la répartition est régulière. */
+        private int virtualNodes = 128;
+
+        public List<Shard> getShards() {
+            return shards;
+        }
+
+        public void setShards(List<Shard> shards) {
+            this.shards = shards;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        public static class Shard {
+
+            private String url;
+            private String username;
+            private String password;
+            private String driverClassName;
+
+            /** Réplica de lecture de l'historique ; vide : lectures sur le primaire. */
+            private String replicaUrl;
+
+            /** Identifiants du réplica ; vides : ceux du primaire. */
+            private String replicaUsername;
+            private String replicaPassword;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public String getDriverClassName() {
+                return driverClassName;
+            }
+
+            public void setDriverClassName(String driverClassName) {
+                this.driverClassName = driverClassName;
+            }
+
+            public String getReplicaUrl() {
+                return replicaUrl;
+            }
+
+            public void setReplicaUrl(String replicaUrl) {
+                this.replicaUrl = replicaUrl;
+            }
+
+            public String getReplicaUsername() {
+                return replicaUsername;
+            }
+
+            public void setReplicaUsername(String replicaUsername) {
+                this.replicaUsername = replicaUsername;
+            }
+
+            public String getReplicaPassword() {
+                return replicaPassword;
+            }
+
+            public void setReplicaPassword(String replicaPassword) {
+                this.replicaPassword = replicaPassword;
+            }
+        }
+    }
+
+    /**
+     * Schéma des tables d'historique géré par la bibliothèque (index, partitions PostgreSQL).
+     */
+    public static class Schema {
+
+        /** Créer les index manquants au démarrage, avant Hibernate (utile avec ddl-auto=none ou validate). */
+        private boolean manage = false;
+
+        /** Tranche des partitions (PostgreSQL, table créée par la bibliothèque) ; vide : pas de partitionnement. */
+        private BehaviorSchemaManager.PartitionInterval partitionInterval;
+
+        /** Tranches créées d'avance au-delà de la tranche courante. */
+        private int partitionsAhead = 2;
+
+        public boolean isManage() {
+            return manage;
+        }
+
+        public void setManage(boolean manage) {
+            this.manage = manage;
+        }
+
+        public BehaviorSchemaManager.PartitionInterval getPartitionInterval() {
+            return partitionInterval;
+        }
+
+        public void setPartitionInterval(BehaviorSchemaManager.PartitionInterval partitionInterval) {
+            this.partitionInterval = partitionInterval;
+        }
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            this.partitionsAhead = partitionsAhead;
+        }
+    }
+
+    /**
+     * Rétention de l'historique : suppression périodique des événements trop anciens, par partitions entières ou
+     * par lots bornés.
+     */
+    public static class Retention {
+
+        /** Âge maximal des événements ; vide : conservés indéfiniment. */
+        private Duration maxAge;
+
+        /** Lignes supprimées par transaction. */
+        private int batchSize = 1000;
+
+        /** Pause entre deux lots, pour laisser passer le trafic. */
+        private Duration batchPause = Duration.ofMillis(50);
+
+        /** Intervalle entre deux passages (création des partitions à venir comprise). */
+        private Duration interval = Duration.ofHours(1);
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getBatchPause() {
+            return batchPause;
+        }
+
+        public void setBatchPause(Duration batchPause) {
+            this.batchPause = batchPause;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Format compact de l'historique et migration depuis l'ancienne table.
+     */
+    public static class Compact {
+
+        /** Gabarits d'URL au plus dans le dictionnaire ; au-delà, les nouvelles URL sont stockées en clair. */
+        private int maxUrlTemplates = 10000;
+
+        /** Migrer ai_user_behavior au démarrage (lectures complétées par l'ancienne table jusqu'à la fin). */
+        private boolean migrateOnStartup = false;
+
+        private int migrationBatchSize = 1000;
+
+        /** Supprimer les lignes migrées de l'ancienne table. */
+        private boolean deleteMigrated = false;
+
+        public int getMaxUrlTemplates() {
+            return maxUrlTemplates;
+        }
+
+        public void setMaxUrlTemplates(int maxUrlTemplates) {
+            this.maxUrlTemplates = maxUrlTemplates;
+        }
+
+        public boolean isMigrateOnStartup() {
+            return migrateOnStartup;
+        }
+
+        public void setMigrateOnStartup(boolean migrateOnStartup) {
+            this.migrateOnStartup = migrateOnStartup;
+        }
+
+        public int getMigrationBatchSize() {
+            return migrationBatchSize;
+        }
+
+        public void setMigrationBatchSize(int migrationBatchSize) {
+            this.migrationBatchSize = migrationBatchSize;
+        }
+
+        public boolean isDeleteMigrated() {
+            return deleteMigrated;
+        }
+
+        public void setDeleteMigrated(boolean deleteMigrated) {
+            this.deleteMigrated = deleteMigrated;
+        }
+    }
+
+    /**
+     * Échantillonnage de l'historique : refus, risque élevé et nouvelles IP toujours enregistrés,
+     * accès autorisés à faible risque en partie seulement (proportion fixe par utilisateur).
+     */
+    public static class Sampling {
+
+        private boolean enabled = false;
+
+        /** Fraction des accès autorisés à faible risque enregistrés. */
+        private double grantedRate = 0.1;
+
+        /** Score à partir duquel un accès autorisé est toujours enregistré. */
+        private double elevatedThreshold = 0.3;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getGrantedRate() {
+            return grantedRate;
+        }
+
+        public void setGrantedRate(double grantedRate) {
+            this.grantedRate = grantedRate;
+        }
+
+        public double getElevatedThreshold() {
+            return elevatedThreshold;
+        }
+
+        public void setElevatedThreshold(double elevatedThreshold) {
+            this.elevatedThreshold = elevatedThreshold;
+        }
+    }
+
+    public static class WriteBehind {
+
+        private int queueCapacity = 10_000;
+        private int batchSize = 100;
+        private Duration flushInterval = Duration.ofMillis(200);
+        private BackpressurePolicy backpressure = BackpressurePolicy.DROP;
+
+        /** Fraction des événements conservés quand la file est pleine (politique SAMPLE). */
+        private double sampleRate = 0.1;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public BackpressurePolicy getBackpressure() {
+            return backpressure;
+        }
+
+        public void setBackpressure(BackpressurePolicy backpressure) {
+            this.backpressure = backpressure;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class HistoryCache {
+
+        /** Cache mémoire de l'historique récent par utilisateur, devant findRecentByUserId. */
+        private boolean enabled = false;
+
+        /** Taille du tampon circulaire par utilisateur (profondeur d'historique lue par le moteur). */
+        private int eventsPerUser = 50;
+
+        /** Nombre maximal d'utilisateurs en cache : borne la mémoire à max-users × events-per-user événements. */
+        private int maxUsers = 10_000;
+
+        /** Durée d'inactivité après laquelle un utilisateur est rechargé depuis la base / évincé. */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getEventsPerUser() {
+            return eventsPerUser;
+        }
+
+        public void setEventsPerUser(int eventsPerUser) {
+            this.eventsPerUser = eventsPerUser;
+        }
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Signatures {
+
+        /**
+         * Emplacement d'un pack de signatures (ex: classpath:shield/signatures.txt, file:/etc/shield/signatures.txt).
+         * Vide : pack embarqué par défaut.
+         */
+        private String location;
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+    }
+
+    /**
+     * Dépôt en mémoire utilisé par la variante WebFlux en l'absence de bean {@code ReactiveBehaviorRepository}.
+     */
+    public static class Reactive {
+
+        /** Événements conservés par utilisateur. */
+        private int eventsPerUser = 50;
+
+        /** Nombre maximal d'utilisateurs conservés. */
+        private int maxUsers = 10_000;
+
+        public int getEventsPerUser() {
+            return eventsPerUser;
+        }
+
+        public void setEventsPerUser(int eventsPerUser) {
+            this.eventsPerUser = eventsPerUser;
+        }
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+    }
+
+    /**
+     * Profils comportementaux incrémentaux : l'analyse ML lit des agrégats par utilisateur au lieu de l'historique.
+     */
+    public static class Profiles {
+
+        private boolean enabled = false;
+
+        /** Nombre maximal de profils en mémoire. */
+        private int maxUsers = 100_000;
+
+        /** Profils inactifs depuis plus longtemps évincés en priorité (reconstruits depuis la base). */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /** IP distinctes comptées exactement avant de passer au Count-Min Sketch. */
+        private int exactIpLimit = 32;
+
+        /** Largeur du Count-Min Sketch (puissance de 2). */
+        private int sketchWidth = 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxUsers() {
+            return maxUsers;
+        }
+
+        public void setMaxUsers(int maxUsers) {
+            this.maxUsers = maxUsers;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getExactIpLimit() {
+            return exactIpLimit;
+        }
+
+        public void setExactIpLimit(int exactIpLimit) {
+            this.exactIpLimit = exactIpLimit;
+        }
+
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+    }
+
+    /**
+     * Détecteur de débit par IP et par utilisateur (fenêtre glissante en mémoire).
+     */
+    public static class Velocity {
+
+        private boolean enabled = false;
+
+        /** Durée de la fenêtre glissante. */
+        private Duration window = Duration.ofSeconds(10);
+
+        /** Nombre de tranches de la fenêtre (précision du glissement). */
+        private int buckets = 10;
+
+        /** Requêtes maximales par IP sur la fenêtre (0 : pas de limite). */
+        private long ipLimit = 100;
+
+        /** Requêtes maximales par utilisateur authentifié sur la fenêtre (0 : pas de limite). */
+        private long userLimit = 300;
+
+        /** Poids du facteur ajouté en cas de dépassement. */
+        private double weight = 0.5;
+
+        /** Nombre maximal de clés suivies, par dimension (IP, utilisateur). */
+        private int maxKeys = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(int buckets) {
+            this.buckets = buckets;
+        }
+
+        public long getIpLimit() {
+            return ipLimit;
+        }
+
+        public void setIpLimit(long ipLimit) {
+            this.ipLimit = ipLimit;
+        }
+
+        public long getUserLimit() {
+            return userLimit;
+        }
+
+        public void setUserLimit(long userLimit) {
+            this.userLimit = userLimit;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+
+    /**
+     * Listes d'autorisation et de refus par IP / CIDR, rechargées à chaud.
+     */
+    public static class Reputation {
+
+        /** Chemin du fichier de réputation (lignes {@code ALLOW;plage} ou {@code DENY;plage}). Vide : désactivé. */
+        private String file;
+
+        /** Intervalle de vérification des modifications du fichier (0 : pas de rechargement). */
+        private Duration reloadInterval = Duration.ofSeconds(30);
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public Duration getReloadInterval() {
+            return reloadInterval;
+        }
+
+        public void setReloadInterval(Duration reloadInterval) {
+            this.reloadInterval = reloadInterval;
+        }
+    }
+
+    /**
+     * Cache des décisions pour les requêtes identiques (utilisateur, IP, URL) rapprochées.
+     */
+    public static class DecisionCache {
+
+        private boolean enabled = false;
+
+        /** Nombre d'entrées (arrondi à la puissance de deux supérieure). */
+        private int capacity = 4096;
+
+        /** Durée de validité d'une décision. */
+        private Duration ttl = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Politique d'une route : {@code /login}, {@code /api/*}{@code /health}, {@code /static/**}.
+     */
+    public static class Route {
+
+        private String pattern;
+
+        /** SKIP : aucune analyse. HEURISTICS_ONLY : analyseurs sans historique. FULL : pipeline complet. */
+        private ScoringLevel level = ScoringLevel.FULL;
+
+        /** Seuil de blocage propre à la route ; vide : {@code ai-shield.scoring.blocking-threshold}. */
+        private Double blockingThreshold;
+
+        /** Enregistrer les requêtes de la route dans l'historique. */
+        private boolean persist = true;
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public void setPattern(String pattern) {
+            this.pattern = pattern;
+        }
+
+        public ScoringLevel getLevel() {
+            return level;
+        }
+
+        public void setLevel(ScoringLevel level) {
+            this.level = level;
+        }
+
+        public Double getBlockingThreshold() {
+            return blockingThreshold;
+        }
+
+        public void setBlockingThreshold(Double blockingThreshold) {
+            this.blockingThreshold = blockingThreshold;
+        }
+
+        public boolean isPersist() {
+            return persist;
+        }
+
+        public void setPersist(boolean persist) {
+            this.persist = persist;
+        }
+    }
+
+    /**
+     * Journal d'audit asynchrone (une ligne JSON par décision), à la place des traces par requête des filtres.
+     */
+    public static class Audit {
+
+        private boolean enabled = true;
+
+        /** Emplacements du tampon ; au-delà, les lignes sont abandonnées plutôt que de ralentir les requêtes. */
+        private int bufferSize = 8192;
+
+        /** Catégorie SLF4J des lignes d'audit. */
+        private String logger = "ai-shield.audit";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public String getLogger() {
+            return logger;
+        }
+
+        public void setLogger(String logger) {
+            this.logger = logger;
+        }
+    }
+
+    /**
+     * Inspection du corps des requêtes, au fil de sa lecture par l'application (sans mise en mémoire tampon).
+     */
+    public static class BodyInspection {
+
+        private boolean enabled = false;
+
+        /** Octets inspectés au plus par requête ; la suite du corps est transmise sans analyse. */
+        private long maxLength = 65536;
+
+        /** Types de contenu inspectés (paramètres ignorés) ; les autres corps (multipart, binaires) ne le sont pas. */
+        private List<String> contentTypes = new ArrayList<>(List.of(
+                "application/json", "application/x-www-form-urlencoded", "text/plain",
+                "application/xml", "text/xml"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxLength() {
+            return maxLength;
+        }
+
+        public void setMaxLength(long maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        public List<String> getContentTypes() {
+            return contentTypes;
+        }
+
+        public void setContentTypes(List<String> contentTypes) {
+            this.contentTypes = contentTypes;
+        }
+    }
+
+    /**
+     * Mode fantôme : jeu de règles candidat évalué en arrière-plan sur un échantillon des requêtes, sans effet
+     * sur les réponses ; ses divergences avec la production sont comptées et journalisées.
+     */
+    public static class Shadow {
+
+        private boolean enabled = false;
+
+        /** Fraction des requêtes (analysées en entier) soumises au candidat. */
+        private double sampleRate = 0.05;
+
+        private int threads = 1;
+
+        /** Évaluations en attente au plus ; au-delà, elles sont abandonnées (métrique outcome=shed). */
+        private int queueCapacity = 256;
+
+        /** Dernières divergences conservées en mémoire. */
+        private int diffLogSize = 100;
+
+        /** Seuil de blocage du candidat ; vide : {@code ai-shield.scoring.blocking-threshold}. */
+        private Double blockingThreshold;
+
+        /** Pack de signatures du candidat ; vide : celui de la production. */
+        private String signaturesLocation;
+
+        /** Évaluateurs retirés du candidat (noms de {@code RiskFactorEvaluator#name()}). */
+        private List<String> disabledEvaluators = new ArrayList<>();
+
+        /** Catégorie SLF4J des divergences. */
+        private String logger = "ai-shield.shadow";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getDiffLogSize() {
+            return diffLogSize;
+        }
+
+        public void setDiffLogSize(int diffLogSize) {
+            this.diffLogSize = diffLogSize;
+        }
+
+        public Double getBlockingThreshold() {
+            return blockingThreshold;
+        }
+
+        public void setBlockingThreshold(Double blockingThreshold) {
+            this.blockingThreshold = blockingThreshold;
+        }
+
+        public String getSignaturesLocation() {
+            return signaturesLocation;
+        }
+
+        public void setSignaturesLocation(String signaturesLocation) {
+            this.signaturesLocation = signaturesLocation;
+        }
+
+        public List<String> getDisabledEvaluators() {
+            return disabledEvaluators;
+        }
+
+        public void setDisabledEvaluators(List<String> disabledEvaluators) {
+            this.disabledEvaluators = disabledEvaluators;
+        }
+
+        public String getLogger() {
+            return logger;
+        }
+
+        public void setLogger(String logger) {
+            this.logger = logger;
+        }
+    }
+
+    /**
+     * Dégradation adaptative : quand le surcoût moyen du filtre dépasse le budget, l'analyse passe en heuristiques
+     * seules, puis en échantillonnage ; retour automatique quand la latence redescend.
+     */
+    public static class Degradation {
+
+        private boolean enabled = false;
+
+        /** Surcoût moyen toléré par requête. */
+        private Duration budget = Duration.ofMillis(50);
+
+        /** Fraction du budget sous laquelle le mode supérieur est rétabli. */
+        private double recoveryRatio = 0.5;
+
+        /** Poids d'une nouvelle mesure dans la moyenne mobile. */
+        private double smoothing = 0.1;
+
+        /** Durée minimale passée dans un mode. */
+        private Duration minDwell = Duration.ofSeconds(5);
+
+        /** Fraction des requêtes qui mesurent encore l'analyse complète en mode heuristique. */
+        private double probeRate = 0.02;
+
+        /** Fraction des requêtes analysées en mode échantillonné. */
+        private double sampleRate = 0.1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getBudget() {
+            return budget;
+        }
+
+        public void setBudget(Duration budget) {
+            this.budget = budget;
+        }
+
+        public double getRecoveryRatio() {
+            return recoveryRatio;
+        }
+
+        public void setRecoveryRatio(double recoveryRatio) {
+            this.recoveryRatio = recoveryRatio;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public Duration getMinDwell() {
+            return minDwell;
+        }
+
+        public void setMinDwell(Duration minDwell) {
+            this.minDwell = minDwell;
+        }
+
+        public double getProbeRate() {
+            return probeRate;
+        }
+
+        public void setProbeRate(double probeRate) {
+            this.probeRate = probeRate;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+}
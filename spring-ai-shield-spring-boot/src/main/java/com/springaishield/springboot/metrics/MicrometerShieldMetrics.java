@@ -0,0 +1,137 @@
+package com.springaishield.springboot.metrics;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Implémentation Micrometer de {@link ShieldMetrics}, exposée par Actuator (/actuator/metrics, Prometheus...).
+ * <ul>
+ *     <li>{@code ai.shield.stage} (timer, tag stage) : durée de chaque étape du scoring.</li>
+ *     <li>{@code ai.shield.filter.overhead} (timer avec histogramme) : surcoût total du filtre par requête.</li>
+ *     <li>{@code ai.shield.factor.hits} (compteur, tag factor) : contributions de chaque facteur de risque.</li>
+ *     <li>{@code ai.shield.requests} (compteur, tag decision=blocked|allowed).</li>
+ *     <li>{@code ai.shield.evaluator.timeouts} (compteur, tag evaluator) : analyseurs hors budget en mode parallèle.</li>
+ *     <li>{@code ai.shield.evaluator.failures} (compteur, tag evaluator) : exceptions des analyseurs déportés.</li>
+ *     <li>{@code ai.shield.decision.cache} (compteur, tag result=hit|miss) : consultations du cache de décisions.</li>
+ *     <li>{@code ai.shield.shadow} (compteur, tag outcome) : évaluations du jeu de règles candidat (mode fantôme).</li>
+ *     <li>{@code ai.shield.<nom>} (jauges) : valeurs exposées par {@link #registerGauge}.</li>
+ * </ul>
+ * Les meters sont créés une fois puis mis en cache : l'enregistrement ne fait qu'une lecture de map.
+ */
+public class MicrometerShieldMetrics implements ShieldMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> factorCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> timeoutCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> shadowCounters = new ConcurrentHashMap<>();
+    private final Timer filterOverhead;
+    private final Counter blocked;
+    private final Counter allowed;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public MicrometerShieldMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.filterOverhead = Timer.builder("ai.shield.filter.overhead")
+                .description("Temps ajouté à chaque requête par AIShieldFilter")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.blocked = requests("blocked");
+        this.allowed = requests("allowed");
+        this.cacheHits = decisionCache("hit");
+        this.cacheMisses = decisionCache("miss");
+
+        for (String stage : new String[]{HISTORY_FETCH, ML_PREDICTION, CONTENT_ANALYSIS, PERSISTENCE}) {
+            stageTimer(stage);
+        }
+    }
+
+    private Counter requests(String decision) {
+        return Counter.builder("ai.shield.requests")
+                .description("Requêtes analysées par décision")
+                .tag("decision", decision)
+                .register(registry);
+    }
+
+    private Counter decisionCache(String result) {
+        return Counter.builder("ai.shield.decision.cache")
+                .description("Consultations du cache de décisions")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> Timer.builder("ai.shield.stage")
+                .description("Durée des étapes du scoring")
+                .tag("stage", name)
+                .register(registry));
+    }
+
+    @Override
+    public void recordStage(String stage, long nanos) {
+        stageTimer(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordFilterOverhead(long nanos) {
+        filterOverhead.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordFactor(String factorName) {
+        factorCounters.computeIfAbsent(factorName, name -> Counter.builder("ai.shield.factor.hits")
+                .description("Contributions des facteurs de risque")
+                .tag("factor", name)
+                .register(registry)).increment();
+    }
+
+    @Override
+    public void recordDecision(boolean isBlocked) {
+        (isBlocked ? blocked : allowed).increment();
+    }
+
+    @Override
+    public void recordEvaluatorTimeout(String evaluator) {
+        timeoutCounters.computeIfAbsent(evaluator, name -> Counter.builder("ai.shield.evaluator.timeouts")
+                .description("Analyseurs sans réponse dans le budget de latence")
+                .tag("evaluator", name)
+                .register(registry)).increment();
+    }
+
+    @Override
+    public void recordEvaluatorFailure(String evaluator) {
+        failureCounters.computeIfAbsent(evaluator, name -> Counter.builder("ai.shield.evaluator.failures")
+                .description("Exceptions levées par les analyseurs déportés")
+                .tag("evaluator", name)
+                .register(registry)).increment();
+    }
+
+    @Override
+    public void recordDecisionCache(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    @Override
+    public void recordShadow(String outcome) {
+        shadowCounters.computeIfAbsent(outcome, name -> Counter.builder("ai.shield.shadow")
+                .description("Évaluations du jeu de règles candidat, par résultat")
+                .tag("outcome", name)
+                .register(registry)).increment();
+    }
+
+    @Override
+    public void registerGauge(String name, Supplier<Number> value) {
+        Gauge.builder("ai.shield." + name, value)
+                .register(registry);
+    }
+}
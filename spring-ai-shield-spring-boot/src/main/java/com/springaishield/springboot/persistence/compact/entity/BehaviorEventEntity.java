@@ -0,0 +1,131 @@
+package com.springaishield.springboot.persistence.compact.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Ligne compacte de l'historique ({@code ai_behavior_event}) : IP binaire, URL découpée en gabarit (dictionnaire)
+ * et arguments, facteurs en masque de bits, type d'événement codé, score en millièmes.
+ */
+@Entity
+@Table(name = "ai_behavior_event", indexes = {
+        @Index(name = "ai_behavior_event_user_time", columnList = "user_id, event_time"),
+        @Index(name = "ai_behavior_event_time", columnList = "event_time")
+})
+public class BehaviorEventEntity {
+
+    // Même séquence que ai_user_behavior : les lignes migrées gardent leur identifiant, sans collision
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_behavior_event_seq")
+    @SequenceGenerator(name = "ai_behavior_event_seq", sequenceName = "ai_user_behavior_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "ip", length = 16) // 4 octets (IPv4) ou 16 (IPv6)
+    private byte[] ip;
+
+    @Column(name = "url_template") // Code du gabarit dans ai_behavior_term ; null : URL entière dans url_args
+    private Integer urlTemplate;
+
+    @Column(name = "url_hash", nullable = false)
+    private long urlHash;
+
+    @Column(name = "url_args", length = 1024) // Segments variables et chaîne de requête, le plus souvent null
+    private String urlArgs;
+
+    @Column(name = "event_code", nullable = false)
+    private short eventCode;
+
+    @Column(name = "factor_mask", nullable = false)
+    private long factorMask;
+
+    @Column(name = "risk_score", nullable = false) // Millièmes
+    private short riskScore;
+
+    @Column(name = "event_time", nullable = false)
+    private Instant eventTime;
+
+    public BehaviorEventEntity() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public byte[] getIp() {
+        return ip;
+    }
+
+    public void setIp(byte[] ip) {
+        this.ip = ip;
+    }
+
+    public Integer getUrlTemplate() {
+        return urlTemplate;
+    }
+
+    public void setUrlTemplate(Integer urlTemplate) {
+        this.urlTemplate = urlTemplate;
+    }
+
+    public long getUrlHash() {
+        return urlHash;
+    }
+
+    public void setUrlHash(long urlHash) {
+        this.urlHash = urlHash;
+    }
+
+    public String getUrlArgs() {
+        return urlArgs;
+    }
+
+    public void setUrlArgs(String urlArgs) {
+        this.urlArgs = urlArgs;
+    }
+
+    public short getEventCode() {
+        return eventCode;
+    }
+
+    public void setEventCode(short eventCode) {
+        this.eventCode = eventCode;
+    }
+
+    public long getFactorMask() {
+        return factorMask;
+    }
+
+    public void setFactorMask(long factorMask) {
+        this.factorMask = factorMask;
+    }
+
+    public short getRiskScore() {
+        return riskScore;
+    }
+
+    public void setRiskScore(short riskScore) {
+        this.riskScore = riskScore;
+    }
+
+    public Instant getEventTime() {
+        return eventTime;
+    }
+
+    public void setEventTime(Instant eventTime) {
+        this.eventTime = eventTime;
+    }
+}
@@ -0,0 +1,93 @@
+package com.springaishield.springboot.persistence.compact.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Entrée du dictionnaire de l'historique compact ({@code ai_behavior_term}) : gabarit d'URL, nom de facteur ou
+ * type d'événement, identifié par un code court propre à sa catégorie.
+ */
+@Entity
+@Table(name = "ai_behavior_term", uniqueConstraints = @UniqueConstraint(name = "ai_behavior_term_value",
+        columnNames = {"kind", "term"}))
+@IdClass(BehaviorTermEntity.Key.class)
+public class BehaviorTermEntity implements Persistable<BehaviorTermEntity.Key> {
+
+    @Id
+    @Column(name = "kind")
+    private short kind;
+
+    @Id
+    @Column(name = "code")
+    private int code;
+
+    @Column(name = "term", nullable = false, length = 1024)
+    private String term;
+
+    // Identifiant attribué par l'application : toujours un INSERT, jamais une fusion silencieuse avec une entrée
+    // créée au même code par une autre instance (violation de clé, puis relecture du dictionnaire)
+    @Transient
+    private boolean isNew = true;
+
+    public BehaviorTermEntity() {}
+
+    public BehaviorTermEntity(short kind, int code, String term) {
+        this.kind = kind;
+        this.code = code;
+        this.term = term;
+    }
+
+    public short getKind() {
+        return kind;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(kind, code);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        isNew = false;
+    }
+
+    public static class Key implements Serializable {
+
+        private short kind;
+        private int code;
+
+        public Key() {}
+
+        public Key(short kind, int code) {
+            this.kind = kind;
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && kind == key.kind && code == key.code;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, code);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.springaishield.springboot.persistence.compact.jpa;
+
+import com.springaishield.springboot.persistence.compact.entity.BehaviorEventEntity;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface JpaBehaviorEventRepository extends JpaRepository<BehaviorEventEntity, Long> {
+
+    // Servie par l'index (user_id, event_time)
+    @Query(value = "SELECT * FROM ai_behavior_event WHERE user_id = :userId ORDER BY event_time DESC LIMIT :limit", nativeQuery = true)
+    List<BehaviorEventEntity> findRecentByUserIdNative(@Param("userId") String userId, @Param("limit") int limit);
+}
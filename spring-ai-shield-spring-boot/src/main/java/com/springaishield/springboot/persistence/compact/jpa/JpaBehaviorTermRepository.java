@@ -0,0 +1,16 @@
+package com.springaishield.springboot.persistence.compact.jpa;
+
+import com.springaishield.springboot.persistence.compact.entity.BehaviorTermEntity;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+
+public interface JpaBehaviorTermRepository extends JpaRepository<BehaviorTermEntity, BehaviorTermEntity.Key> {
+
+    List<BehaviorTermEntity> findByKind(short kind);
+
+    @Query("SELECT MAX(t.code) FROM BehaviorTermEntity t WHERE t.kind = :kind")
+    Integer findMaxCode(@Param("kind") short kind);
+}
@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "ai_user_behavior")
+// Index de la lecture d'historique (derniers événements d'un utilisateur) et de la purge par ancienneté
+@Table(name = "ai_user_behavior", indexes = {
+        @Index(name = "ai_user_behavior_user_time", columnList = "user_id, timestamp"),
+        @Index(name = "ai_user_behavior_time", columnList = "timestamp")
+})
 public class UserBehaviorEntity {
 
+    // Séquence avec pré-allocation : contrairement à IDENTITY, elle permet à Hibernate de regrouper les INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_user_behavior_seq")
+    @SequenceGenerator(name = "ai_user_behavior_seq", sequenceName = "ai_user_behavior_seq", allocationSize = 50)
     private Long id;
 
     private String userId;
@@ -0,0 +1,117 @@
+package com.springaishield.springboot.persistence.routing;
+
+import com.springaishield.core.routing.ConsistentHashRing;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Aiguillage de l'historique entre plusieurs bases : chaque utilisateur appartient à un shard (anneau de hachage
+ * cohérent sur son identifiant), les écritures vont sur le primaire du shard, les lectures d'historique sur son
+ * réplica quand il en a un.
+ * <p>
+ * La destination est une variable de thread lue par {@link BehaviorRoutingDataSource} à l'ouverture de la connexion :
+ * elle doit donc englober la transaction entière. Dans une transaction déjà ouverte par l'appelant, la connexion est
+ * déjà liée : un aiguillage vers une autre base y est refusé ({@link IllegalStateException}) plutôt que d'écrire ou de
+ * lire silencieusement sur la mauvaise. Hors aiguillage, les connexions vont au primaire du shard 0 (schéma
+ * Hibernate, requêtes JDBC de l'application).
+ */
+public class BehaviorRouting {
+
+    /**
+     * Plage de la séquence de chaque shard (2<sup>48</sup>) : un identifiant reste unique tous shards confondus. Les
+     * blocs d'identifiants d'Hibernate sont partagés par l'instance, l'identifiant ne désigne donc pas le shard.
+     */
+    public static final long SHARD_ID_RANGE = 1L << 48;
+
+    // Pas de la séquence (allocationSize de l'entité)
+    private static final int ID_ALLOCATION = 50;
+
+    private static final ThreadLocal<String> ROUTE = new ThreadLocal<>();
+
+    private final ConsistentHashRing<Integer> ring;
+    private final boolean[] replicas;
+
+    /**
+     * @param replicas     Pour chaque shard, présence d'un réplica de lecture ; la taille fixe le nombre de shards.
+     * @param virtualNodes Positions de chaque shard sur l'anneau.
+     */
+    public BehaviorRouting(List<Boolean> replicas, int virtualNodes) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un shard est requis.");
+        }
+        this.replicas = new boolean[replicas.size()];
+        List<Integer> shards = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas[i] = Boolean.TRUE.equals(replicas.get(i));
+            shards.add(i);
+        }
+        this.ring = new ConsistentHashRing<>(shards, virtualNodes);
+    }
+
+    public int shardCount() {
+        return replicas.length;
+    }
+
+    public int shardOf(String userId) {
+        return replicas.length == 1 ? 0 : ring.nodeFor(userId);
+    }
+
+    /**
+     * Valeur initiale de la séquence du shard : l'optimiseur « pooled » d'Hibernate lit la valeur comme borne haute
+     * du bloc, le premier bloc va donc de {@code shard * SHARD_ID_RANGE + 1} à cette valeur.
+     */
+    public static long sequenceStart(int shard) {
+        return shard * SHARD_ID_RANGE + ID_ALLOCATION;
+    }
+
+    public static String primaryKey(int shard) {
+        return "shard-" + shard;
+    }
+
+    public static String replicaKey(int shard) {
+        return "shard-" + shard + "-replica";
+    }
+
+    public <T> T onPrimary(int shard, Supplier<T> action) {
+        return on(primaryKey(shard), action);
+    }
+
+    /**
+     * Lecture sur le réplica du shard, ou sur son primaire s'il n'en a pas. Un réplica asynchrone peut ne pas
+     * encore contenir les derniers événements écrits.
+     */
+    public <T> T onReplica(int shard, Supplier<T> action) {
+        return on(replicas[shard] ? replicaKey(shard) : primaryKey(shard), action);
+    }
+
+    public List<Integer> shards() {
+        return IntStream.range(0, replicas.length).boxed().toList();
+    }
+
+    static String currentKey() {
+        return ROUTE.get();
+    }
+
+    private static <T> T on(String key, Supplier<T> action) {
+        String previous = ROUTE.get();
+        String bound = previous != null ? previous : primaryKey(0);
+        if (!key.equals(bound) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("AIShield : aiguillage vers " + key + " impossible dans une transaction "
+                    + "déjà ouverte (connexion liée à " + bound + ") ; appeler le dépôt d'historique hors transaction.");
+        }
+        ROUTE.set(key);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ROUTE.remove();
+            } else {
+                ROUTE.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.springaishield.springboot.persistence.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source de données unique exposée à l'application (JPA, JdbcTemplate) ; chaque connexion est prise sur la base
+ * désignée par {@link BehaviorRouting}, le primaire du shard 0 par défaut.
+ */
+public class BehaviorRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> targets;
+
+    /**
+     * @param targets Sources par clé ({@link BehaviorRouting#primaryKey}, {@link BehaviorRouting#replicaKey}) ;
+     *                celle de {@code primaryKey(0)} est obligatoire.
+     */
+    public BehaviorRoutingDataSource(Map<String, DataSource> targets) {
+        DataSource defaultTarget = targets.get(BehaviorRouting.primaryKey(0));
+        if (defaultTarget == null) {
+            throw new IllegalArgumentException("Le primaire du shard 0 est obligatoire.");
+        }
+        this.targets = List.copyOf(targets.values());
+        setTargetDataSources(new HashMap<>(targets));
+        setDefaultTargetDataSource(defaultTarget);
+        // Une clé inconnue est une erreur de configuration, pas un repli silencieux sur le shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BehaviorRouting.currentKey();
+    }
+
+    /**
+     * Ferme les pools créés pour les shards (la fermeture n'est pas propagée par {@link AbstractRoutingDataSource}).
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : targets) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
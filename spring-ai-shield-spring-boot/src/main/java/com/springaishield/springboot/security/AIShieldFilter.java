@@ -1,10 +1,18 @@
 package com.springaishield.springboot.security;
 
+import com.springaishield.core.audit.AsyncAuditLog;
+import com.springaishield.core.degradation.AdaptiveDegradation;
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
 import com.springaishield.core.model.RiskScore;
 import com.springaishield.core.model.SecurityContext;
 import com.springaishield.core.service.RiskScoringService;
 import com.springaishield.core.model.UserBehavior;
 import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.route.RoutePolicies;
+import com.springaishield.core.route.RoutePolicy;
+import com.springaishield.core.route.ScoringLevel;
+import com.springaishield.core.signature.BodyInspector;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,20 +32,46 @@ import org.slf4j.LoggerFactory;
 public class AIShieldFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(AIShieldFilter.class);
-    private static final double RISK_THRESHOLD = 0.5; // Seuil unique de blocage
 
     private final RiskScoringService riskScoringService;
     private final BehaviorRepository behaviorRepository;
+    private final ShieldMetrics metrics;
+    private final RoutePolicies routePolicies;
+    private final AsyncAuditLog auditLog;
+    private final RequestBodyInspection bodyInspection;
+    private final AdaptiveDegradation degradation;
 
     public AIShieldFilter(RiskScoringService riskScoringService, BehaviorRepository behaviorRepository) {
+        this(riskScoringService, behaviorRepository, ShieldFilterOptions.defaults());
+    }
+
+    public AIShieldFilter(RiskScoringService riskScoringService, BehaviorRepository behaviorRepository,
+                          ShieldFilterOptions options) {
         this.riskScoringService = riskScoringService;
         this.behaviorRepository = behaviorRepository;
+        this.metrics = options.metrics();
+        this.routePolicies = options.routePolicies();
+        this.auditLog = options.auditLog();
+        this.bodyInspection = options.bodyInspection();
+        this.degradation = options.degradation();
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        // 0. Politique de la route : chemin décodé et normalisé par le conteneur (servletPath + pathInfo),
+        // et non l'URI brute, pour qu'un chemin encodé ne puisse pas emprunter une route exemptée
+        RoutePolicy policy = routePolicies.resolve(pathOf(request));
+        // Sous charge, le niveau de la route peut être abaissé (voire la requête écartée en mode échantillonné)
+        ScoringLevel level = degradation != null ? degradation.levelFor(policy.level()) : policy.level();
+        if (level == ScoringLevel.SKIP) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+
         // 1. Collecte du Contexte
         String ipAddress = request.getRemoteAddr();
         String requestUrl = request.getRequestURI();
@@ -48,31 +82,59 @@ public class AIShieldFilter extends OncePerRequestFilter {
         String userId = request.getRemoteUser() != null ? request.getRemoteUser() : "ANONYMOUS";
         String eventType = "ACCESS_GRANTED";
 
-        // IMPORTANT : Ordre conforme au Record SecurityContext (userId, requestUrl, ipAddress)
-        SecurityContext context = new SecurityContext(userId, requestUrl, ipAddress);
+        // IMPORTANT : Ordre conforme au Record SecurityContext (userId, requestUrl, ipAddress, blockingThreshold)
+        SecurityContext context = new SecurityContext(userId, requestUrl, ipAddress, policy.blockingThreshold());
 
         // 2. Calcul du Score de Risque (Appel au module Core)
-        RiskScore risk = riskScoringService.calculateRisk(context);
-
-        log.info("AIShield Analysis: URL={} | User={} | Risk Score={} ({})",
-                requestUrl, userId, risk.score(), risk.reason());
+        RiskScore risk = level == ScoringLevel.HEURISTICS_ONLY
+                ? riskScoringService.calculateHeuristicRisk(context)
+                : riskScoringService.calculateRisk(context);
 
         // 3. Prise de décision (Logique de blocage)
-        boolean isBlocked = risk.score() >= RISK_THRESHOLD;
+        boolean isBlocked = risk.score() >= policy.blockingThreshold();
+
+        if (auditLog != null) {
+            auditLog.record(context, risk, isBlocked);
+        } else {
+            log.info("AIShield Analysis: URL={} | User={} | Risk Score={} ({})",
+                    requestUrl, userId, risk.score(), risk.reason());
+        }
 
         if (isBlocked) {
             eventType = "ACCESS_DENIED";
-            log.warn("RISK DETECTED! Blocking request from {} for URL {}", ipAddress, requestUrl);
+            if (auditLog == null) {
+                log.warn("RISK DETECTED! Blocking request from {} for URL {}", ipAddress, requestUrl);
+            }
+            writeBlocked(response);
+        }
 
-            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-            response.setContentType("text/plain;charset=UTF-8");
-            response.getWriter().write("Accès bloqué par Spring AI Shield : Risque de sécurité détecté.");
+        // 4-5. Corps de requête inspecté pendant sa lecture par l'application : décision et sauvegarde reportées
+        // après la chaîne, pour n'enregistrer qu'un événement par requête
+        BodyInspector inspector = !isBlocked && bodyInspection != null
+                ? bodyInspection.start(request.getContentType(), risk.score(), policy.blockingThreshold())
+                : null;
+        if (inspector != null) {
+            long overhead = System.nanoTime() - start;
+            filterWithInspection(request, response, filterChain, inspector);
+            if (inspector.isRejected()) {
+                risk = inspector.risk(risk);
+                if (auditLog != null) {
+                    auditLog.record(context, risk, true);
+                } else {
+                    log.warn("RISK DETECTED! Blocking request body from {} for URL {} ({})",
+                            ipAddress, requestUrl, risk.reason());
+                }
+                if (!response.isCommitted()) {
+                    response.reset();
+                    writeBlocked(response);
+                }
+            }
+            complete(context, eventType(inspector.isRejected()), risk, policy, level, inspector.isRejected(), overhead);
+            return;
         }
 
         // 4. Sauvegarde dans la base de données (Historique)
-        // Vérifie que l'ordre des paramètres correspond à ton constructeur UserBehavior
-        UserBehavior behavior = new UserBehavior(userId, ipAddress, eventType, requestUrl, risk);
-        behaviorRepository.save(behavior);
+        complete(context, eventType, risk, policy, level, isBlocked, System.nanoTime() - start);
 
         // 5. Continuation de la chaîne (UNIQUEMENT si non bloqué)
         if (!isBlocked) {
@@ -81,4 +143,61 @@ public class AIShieldFilter extends OncePerRequestFilter {
         // si isBlocked est vrai,  rien ne se passe,
         // la réponse 403 a déjà été envoyée.
     }
+
+    private static void filterWithInspection(HttpServletRequest request, HttpServletResponse response,
+                                             FilterChain filterChain, BodyInspector inspector)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(new InspectingRequestWrapper(request, inspector),
+                    new RejectionAwareResponseWrapper(response, inspector));
+        } catch (IOException | ServletException | RuntimeException e) {
+            // Échec de lecture provoqué par le rejet, éventuellement enveloppé par l'application : réponse 403
+            if (!inspector.isRejected()) {
+                throw e;
+            }
+        }
+    }
+
+    private void complete(SecurityContext context, String eventType, RiskScore risk, RoutePolicy policy,
+                          ScoringLevel level, boolean isBlocked, long elapsed) {
+        // Vérifie que l'ordre des paramètres correspond à ton constructeur UserBehavior
+        // Analyse dégradée : seuls les blocages sont enregistrés, pour ne pas attendre une base déjà lente
+        if (policy.persist() && (level == policy.level() || isBlocked)) {
+            UserBehavior behavior = new UserBehavior(context.userId(), context.ipAddress(), eventType,
+                    context.requestUrl(), risk);
+            long persistStart = System.nanoTime();
+            behaviorRepository.save(behavior);
+            long persistTime = System.nanoTime() - persistStart;
+            metrics.recordStage(ShieldMetrics.PERSISTENCE, persistTime);
+            elapsed += persistTime;
+        }
+
+        metrics.recordDecision(isBlocked);
+        for (RiskFactor factor : risk.contributingFactors()) {
+            metrics.recordFactor(factor.name());
+        }
+        metrics.recordFilterOverhead(elapsed);
+        if (degradation != null) {
+            degradation.record(level, elapsed);
+        }
+    }
+
+    private static String eventType(boolean isBlocked) {
+        return isBlocked ? "ACCESS_DENIED" : "ACCESS_GRANTED";
+    }
+
+    private static void writeBlocked(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Accès bloqué par Spring AI Shield : Risque de sécurité détecté.");
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        String servletPath = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        if (servletPath == null || servletPath.isEmpty()) {
+            return pathInfo != null ? pathInfo : "/";
+        }
+        return pathInfo != null ? servletPath + pathInfo : servletPath;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.audit.AsyncAuditLog;
+import com.springaishield.core.degradation.AdaptiveDegradation;
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.route.RoutePolicies;
+import com.springaishield.core.route.RoutePolicy;
+import com.springaishield.core.route.ScoringLevel;
+import com.springaishield.core.service.ReactiveRiskScoringService;
+import com.springaishield.core.signature.BodyInspector;
+import com.springaishield.core.signature.BodyRejectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+
+/**
+ * Équivalent WebFlux d'{@link AIShieldFilter} : même décision, mais le scoring et la persistance sont non bloquants
+ * ({@link ReactiveRiskScoringService}, {@link ReactiveBehaviorRepository}), la boucle d'événements n'attend jamais d'I/O.
+ */
+public class AIShieldWebFilter implements WebFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(AIShieldWebFilter.class);
+    private static final byte[] BLOCKED_BODY =
+            "Accès bloqué par Spring AI Shield : Risque de sécurité détecté.".getBytes(StandardCharsets.UTF_8);
+
+    private final ReactiveRiskScoringService riskScoringService;
+    private final ReactiveBehaviorRepository behaviorRepository;
+    private final ShieldMetrics metrics;
+    private final RoutePolicies routePolicies;
+    private final AsyncAuditLog auditLog;
+    private final RequestBodyInspection bodyInspection;
+    private final AdaptiveDegradation degradation;
+
+    public AIShieldWebFilter(ReactiveRiskScoringService riskScoringService, ReactiveBehaviorRepository behaviorRepository,
+                             ShieldFilterOptions options) {
+        this.riskScoringService = riskScoringService;
+        this.behaviorRepository = behaviorRepository;
+        this.metrics = options.metrics();
+        this.routePolicies = options.routePolicies();
+        this.auditLog = options.auditLog();
+        this.bodyInspection = options.bodyInspection();
+        this.degradation = options.degradation();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // 0. Politique de la route (chemin brut : un chemin encodé ou non normalisé reçoit la politique par défaut)
+        ServerHttpRequest request = exchange.getRequest();
+        RoutePolicy policy = routePolicies.resolve(request.getPath().pathWithinApplication().value());
+        // Sous charge, le niveau de la route peut être abaissé (voire la requête écartée en mode échantillonné)
+        ScoringLevel level = degradation != null ? degradation.levelFor(policy.level()) : policy.level();
+        if (level == ScoringLevel.SKIP) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+
+        // 1. Collecte du Contexte
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String ipAddress = remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : "unknown";
+        String requestUrl = request.getURI().getRawPath();
+        if (request.getURI().getRawQuery() != null) {
+            requestUrl += "?" + request.getURI().getRawQuery();
+        }
+        String url = requestUrl;
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("ANONYMOUS")
+                .flatMap(userId -> {
+                    SecurityContext context = new SecurityContext(userId, url, ipAddress, policy.blockingThreshold());
+
+                    // 2. Calcul du Score de Risque, puis 3. décision et 4. sauvegarde
+                    Mono<RiskScore> risk = level == ScoringLevel.HEURISTICS_ONLY
+                            ? riskScoringService.calculateHeuristicRisk(context)
+                            : riskScoringService.calculateRisk(context);
+                    return risk.flatMap(score -> decide(exchange, chain, context, policy, level, score, start));
+                });
+    }
+
+    private Mono<Void> decide(ServerWebExchange exchange, WebFilterChain chain, SecurityContext context,
+                              RoutePolicy policy, ScoringLevel level, RiskScore risk, long start) {
+        boolean isBlocked = risk.score() >= policy.blockingThreshold();
+        if (auditLog != null) {
+            auditLog.record(context, risk, isBlocked);
+        } else {
+            log.info("AIShield Analysis: URL={} | User={} | Risk Score={} ({})",
+                    context.requestUrl(), context.userId(), risk.score(), risk.reason());
+            if (isBlocked) {
+                log.warn("RISK DETECTED! Blocking request from {} for URL {}", context.ipAddress(), context.requestUrl());
+            }
+        }
+
+        // 4-5. Corps de requête inspecté au fil des tampons lus par l'application : décision et sauvegarde
+        // reportées après la chaîne, pour n'enregistrer qu'un événement par requête
+        BodyInspector inspector = !isBlocked && bodyInspection != null
+                ? bodyInspection.start(exchange.getRequest().getHeaders().getFirst("Content-Type"),
+                risk.score(), policy.blockingThreshold())
+                : null;
+        if (inspector != null) {
+            long overhead = System.nanoTime() - start;
+            ServerWebExchange inspected = exchange.mutate().request(new InspectingRequest(exchange.getRequest(), inspector))
+                    .build();
+            return chain.filter(inspected)
+                    .onErrorResume(e -> inspector.isRejected(), e -> Mono.empty())
+                    .then(Mono.defer(() -> {
+                        if (!inspector.isRejected()) {
+                            return complete(context, risk, policy, level, false, overhead);
+                        }
+                        RiskScore bodyRisk = inspector.risk(risk);
+                        if (auditLog != null) {
+                            auditLog.record(context, bodyRisk, true);
+                        } else {
+                            log.warn("RISK DETECTED! Blocking request body from {} for URL {} ({})",
+                                    context.ipAddress(), context.requestUrl(), bodyRisk.reason());
+                        }
+                        Mono<Void> persisted = complete(context, bodyRisk, policy, level, true, overhead);
+                        ServerHttpResponse response = exchange.getResponse();
+                        return response.isCommitted() ? persisted : persisted.then(writeBlocked(response));
+                    }));
+        }
+
+        Mono<Void> persisted = complete(context, risk, policy, level, isBlocked, System.nanoTime() - start);
+
+        // 5. Continuation de la chaîne (UNIQUEMENT si non bloqué)
+        if (!isBlocked) {
+            return persisted.then(Mono.defer(() -> chain.filter(exchange)));
+        }
+        return persisted.then(writeBlocked(exchange.getResponse()));
+    }
+
+    private Mono<Void> complete(SecurityContext context, RiskScore risk, RoutePolicy policy, ScoringLevel level,
+                                boolean isBlocked, long elapsed) {
+        long persistStart = System.nanoTime();
+        Mono<Void> persisted = Mono.empty();
+        // Analyse dégradée : seuls les blocages sont enregistrés
+        if (policy.persist() && (level == policy.level() || isBlocked)) {
+            UserBehavior behavior = new UserBehavior(context.userId(), context.ipAddress(),
+                    isBlocked ? "ACCESS_DENIED" : "ACCESS_GRANTED", context.requestUrl(), risk);
+            persisted = behaviorRepository.save(behavior)
+                    .doOnTerminate(() -> metrics.recordStage(ShieldMetrics.PERSISTENCE, System.nanoTime() - persistStart))
+                    .then();
+        }
+        return persisted.doOnTerminate(() -> {
+            metrics.recordDecision(isBlocked);
+            for (RiskFactor factor : risk.contributingFactors()) {
+                metrics.recordFactor(factor.name());
+            }
+            long overhead = elapsed + System.nanoTime() - persistStart;
+            metrics.recordFilterOverhead(overhead);
+            if (degradation != null) {
+                degradation.record(level, overhead);
+            }
+        });
+    }
+
+    private static Mono<Void> writeBlocked(ServerHttpResponse response) {
+        return Mono.defer(() -> {
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            response.getHeaders().setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+            DataBuffer body = response.bufferFactory().wrap(BLOCKED_BODY);
+            return response.writeWith(Mono.just(body));
+        });
+    }
+
+    /**
+     * Requête dont chaque tampon du corps passe par l'inspecteur avant d'être transmis : rien n'est accumulé.
+     * Au rejet, le tampon en cours est libéré et le flux échoue ({@link BodyRejectedException}).
+     */
+    private static final class InspectingRequest extends ServerHttpRequestDecorator {
+
+        private final BodyInspector inspector;
+
+        InspectingRequest(ServerHttpRequest delegate, BodyInspector inspector) {
+            super(delegate);
+            this.inspector = inspector;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody()
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                            while (buffers.hasNext()) {
+                                ByteBuffer byteBuffer = buffers.next();
+                                inspector.inspect(byteBuffer);
+                            }
+                            sink.next(buffer);
+                        } catch (BodyRejectedException e) {
+                            DataBufferUtils.release(buffer);
+                            sink.error(e);
+                        }
+                    })
+                    .concatWith(Mono.defer(() -> {
+                        try {
+                            inspector.finish();
+                            return Mono.empty();
+                        } catch (BodyRejectedException e) {
+                            return Mono.error(e);
+                        }
+                    }));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.signature.BodyInspector;
+import com.springaishield.core.signature.BodyRejectedException;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Requête dont le corps passe par un {@link BodyInspector} à mesure que l'application le lit : aucune copie,
+ * aucune seconde lecture. Les paramètres d'un formulaire, lus par le conteneur lui-même, sont inspectés une fois
+ * au premier accès (hors valeurs issues de la chaîne de requête, déjà analysées avec l'URL).
+ */
+final class InspectingRequestWrapper extends HttpServletRequestWrapper {
+
+    private final BodyInspector inspector;
+    private InspectingInputStream inputStream;
+    private BufferedReader reader;
+    private boolean parametersInspected;
+
+    InspectingRequestWrapper(HttpServletRequest request, BodyInspector inspector) {
+        super(request);
+        this.inspector = inspector;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new InspectingInputStream(super.getInputStream(), inspector);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        inspectParameters();
+        return super.getParameter(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        inspectParameters();
+        return super.getParameterMap();
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        inspectParameters();
+        return super.getParameterNames();
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        inspectParameters();
+        return super.getParameterValues(name);
+    }
+
+    private void inspectParameters() {
+        if (parametersInspected) {
+            return;
+        }
+        parametersInspected = true;
+        Map<String, Integer> queryCounts = queryParameterCounts(getQueryString());
+        try {
+            StringBuilder pair = new StringBuilder();
+            for (Map.Entry<String, String[]> parameter : super.getParameterMap().entrySet()) {
+                // Valeurs de la chaîne de requête en tête de liste (spécification Servlet) : déjà analysées
+                String[] values = parameter.getValue();
+                for (int i = queryCounts.getOrDefault(parameter.getKey(), 0); i < values.length; i++) {
+                    pair.setLength(0);
+                    pair.append(parameter.getKey()).append('=').append(values[i]).append('&');
+                    inspector.inspect(pair);
+                }
+            }
+            inspector.finish();
+        } catch (BodyRejectedException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Integer> queryParameterCounts(String queryString) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (queryString == null || queryString.isEmpty()) {
+            return counts;
+        }
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            try {
+                counts.merge(URLDecoder.decode(name, StandardCharsets.UTF_8), 1, Integer::sum);
+            } catch (IllegalArgumentException e) {
+                counts.merge(name, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static final class InspectingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final BodyInspector inspector;
+
+        InspectingInputStream(ServletInputStream delegate, BodyInspector inspector) {
+            this.delegate = delegate;
+            this.inspector = inspector;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            inspector.inspect(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, length);
+            if (count < 0) {
+                inspector.finish();
+            } else {
+                inspector.inspect(buffer, offset, count);
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
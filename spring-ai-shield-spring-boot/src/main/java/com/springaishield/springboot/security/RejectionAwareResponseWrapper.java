@@ -0,0 +1,35 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.signature.BodyInspector;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Réponse dont les erreurs sont ignorées une fois le corps rejeté : l'échec de lecture serait sinon traduit par
+ * l'application en 400 (message illisible) avant que {@link AIShieldFilter} ne puisse répondre 403.
+ */
+final class RejectionAwareResponseWrapper extends HttpServletResponseWrapper {
+
+    private final BodyInspector inspector;
+
+    RejectionAwareResponseWrapper(HttpServletResponse response, BodyInspector inspector) {
+        super(response);
+        this.inspector = inspector;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        if (!inspector.isRejected()) {
+            super.sendError(sc, msg);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        if (!inspector.isRejected()) {
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.signature.BodyInspector;
+import com.springaishield.core.signature.SignatureMatcher;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Réglages de l'inspection des corps de requête, partagés par {@link AIShieldFilter} et {@link AIShieldWebFilter} :
+ * décide quels corps sont inspectés et crée un {@link BodyInspector} par requête.
+ */
+public class RequestBodyInspection {
+
+    private final SignatureMatcher matcher;
+    private final long maxLength;
+    private final String[] contentTypes;
+
+    /**
+     * @param maxLength    Octets inspectés au plus par requête.
+     * @param contentTypes Types de contenu inspectés (ex. {@code application/json}), sans paramètres.
+     */
+    public RequestBodyInspection(SignatureMatcher matcher, long maxLength, List<String> contentTypes) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("maxLength doit être strictement positif.");
+        }
+        this.matcher = matcher;
+        this.maxLength = maxLength;
+        this.contentTypes = contentTypes.stream().map(type -> type.trim().toLowerCase(Locale.ROOT))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * @param contentType En-tête {@code Content-Type} de la requête (peut être {@code null}).
+     * @return L'inspecteur de la requête, ou {@code null} si son corps n'est pas à inspecter.
+     */
+    public BodyInspector start(String contentType, double baseScore, double blockingThreshold) {
+        return isInspected(contentType) ? new BodyInspector(matcher, maxLength, baseScore, blockingThreshold) : null;
+    }
+
+    public boolean isInspected(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int end = contentType.indexOf(';');
+        String type = (end < 0 ? contentType : contentType.substring(0, end)).trim();
+        for (String inspected : contentTypes) {
+            if (inspected.equalsIgnoreCase(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
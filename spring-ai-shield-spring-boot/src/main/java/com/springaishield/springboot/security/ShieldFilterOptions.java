@@ -0,0 +1,53 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.audit.AsyncAuditLog;
+import com.springaishield.core.degradation.AdaptiveDegradation;
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.route.RoutePolicies;
+import com.springaishield.core.route.RoutePolicy;
+
+/**
+ * Réglages communs à {@link AIShieldFilter} et {@link AIShieldWebFilter}. Partir de {@link #defaults()} ou
+ * {@link #of(ShieldMetrics, RoutePolicies)}, puis activer les options voulues avec les méthodes {@code with...}.
+ *
+ * @param metrics        Métriques du filtre.
+ * @param routePolicies  Politique de scoring par route.
+ * @param auditLog       Journal d'audit asynchrone ; {@code null} pour tracer chaque décision directement (SLF4J).
+ * @param bodyInspection Inspection des corps de requête ; {@code null} pour ne pas les inspecter.
+ * @param degradation    Dégradation adaptative sous charge ; {@code null} pour toujours appliquer la politique de la
+ *                       route.
+ */
+public record ShieldFilterOptions(ShieldMetrics metrics, RoutePolicies routePolicies, AsyncAuditLog auditLog,
+                                  RequestBodyInspection bodyInspection, AdaptiveDegradation degradation) {
+
+    private static final double DEFAULT_RISK_THRESHOLD = 0.5; // Seuil unique de blocage par défaut
+
+    public ShieldFilterOptions {
+        if (metrics == null || routePolicies == null) {
+            throw new IllegalArgumentException("metrics et routePolicies sont obligatoires.");
+        }
+    }
+
+    /**
+     * Comportement historique : sans métriques, analyse complète de toutes les routes au seuil de 0,5.
+     */
+    public static ShieldFilterOptions defaults() {
+        return of(ShieldMetrics.NOOP, RoutePolicies.uniform(RoutePolicy.full(DEFAULT_RISK_THRESHOLD)));
+    }
+
+    public static ShieldFilterOptions of(ShieldMetrics metrics, RoutePolicies routePolicies) {
+        return new ShieldFilterOptions(metrics, routePolicies, null, null, null);
+    }
+
+    public ShieldFilterOptions withAuditLog(AsyncAuditLog auditLog) {
+        return new ShieldFilterOptions(metrics, routePolicies, auditLog, bodyInspection, degradation);
+    }
+
+    public ShieldFilterOptions withBodyInspection(RequestBodyInspection bodyInspection) {
+        return new ShieldFilterOptions(metrics, routePolicies, auditLog, bodyInspection, degradation);
+    }
+
+    public ShieldFilterOptions withDegradation(AdaptiveDegradation degradation) {
+        return new ShieldFilterOptions(metrics, routePolicies, auditLog, bodyInspection, degradation);
+    }
+}
@@ -0,0 +1,141 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.springboot.persistence.compact.entity.BehaviorTermEntity;
+import com.springaishield.springboot.persistence.compact.jpa.JpaBehaviorTermRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionnaire de l'historique compact ({@code ai_behavior_term}), gardé en mémoire dans les deux sens.
+ * <ul>
+ *     <li>Un terme inconnu reçoit le code suivant de sa catégorie. Deux instances qui créent le même code en même
+ *     temps : la seconde reçoit une violation de clé, relit la catégorie et réessaie.</li>
+ *     <li>Chaque catégorie est plafonnée : au-delà, {@link #NONE} est renvoyé et l'appelant stocke la valeur
+ *     en clair (URL) ou la regroupe (facteurs, bit {@link #OTHER_FACTOR}).</li>
+ * </ul>
+ */
+public class BehaviorDictionary {
+
+    /** Pas de code : terme absent ou catégorie pleine. */
+    public static final int NONE = -1;
+
+    /** Bit des facteurs au-delà des 63 premiers codes. */
+    public static final int OTHER_FACTOR = 63;
+    public static final String OTHER_FACTOR_NAME = "OTHER";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    public enum Kind {
+        URL_TEMPLATE(1),
+        FACTOR(2),
+        EVENT_TYPE(3);
+
+        private final short code;
+
+        Kind(int code) {
+            this.code = (short) code;
+        }
+
+        public short code() {
+            return code;
+        }
+    }
+
+    private final JpaBehaviorTermRepository repository;
+    private final int[] limits = new int[Kind.values().length];
+    private final Category[] categories = new Category[Kind.values().length];
+
+    /**
+     * @param maxUrlTemplates Gabarits d'URL au plus.
+     */
+    public BehaviorDictionary(JpaBehaviorTermRepository repository, int maxUrlTemplates) {
+        if (maxUrlTemplates <= 0) {
+            throw new IllegalArgumentException("maxUrlTemplates doit être strictement positif.");
+        }
+        this.repository = repository;
+        limits[Kind.URL_TEMPLATE.ordinal()] = maxUrlTemplates;
+        limits[Kind.FACTOR.ordinal()] = OTHER_FACTOR;
+        limits[Kind.EVENT_TYPE.ordinal()] = Short.MAX_VALUE;
+    }
+
+    /**
+     * Code du terme, créé s'il est inconnu.
+     *
+     * @return {@link #NONE} pour {@code null} ou si la catégorie est pleine.
+     */
+    public int code(Kind kind, String term) {
+        if (term == null) {
+            return NONE;
+        }
+        Integer code = category(kind).codes.get(term);
+        return code != null ? code : create(kind, term);
+    }
+
+    /**
+     * @return {@code null} si le code est inconnu, même après relecture de la catégorie.
+     */
+    public String term(Kind kind, int code) {
+        if (code == NONE) {
+            return null;
+        }
+        String term = category(kind).terms.get(code);
+        if (term == null) {
+            // Créé par une autre instance depuis le chargement
+            term = reload(kind).terms.get(code);
+        }
+        return term;
+    }
+
+    private synchronized int create(Kind kind, String term) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Category category = reload(kind);
+            Integer existing = category.codes.get(term);
+            if (existing != null) {
+                return existing;
+            }
+            Integer max = repository.findMaxCode(kind.code());
+            int code = max == null ? 0 : max + 1;
+            if (code >= limits[kind.ordinal()]) {
+                return NONE;
+            }
+            try {
+                repository.save(new BehaviorTermEntity(kind.code(), code, term));
+                category.put(code, term);
+                return code;
+            } catch (DataIntegrityViolationException e) {
+                // Code ou terme créé entre-temps par une autre instance : relecture puis nouvel essai
+            }
+        }
+        return NONE;
+    }
+
+    private Category category(Kind kind) {
+        Category category = categories[kind.ordinal()];
+        return category != null ? category : reload(kind);
+    }
+
+    private synchronized Category reload(Kind kind) {
+        Category category = categories[kind.ordinal()];
+        if (category == null) {
+            category = new Category();
+            categories[kind.ordinal()] = category;
+        }
+        for (BehaviorTermEntity entry : repository.findByKind(kind.code())) {
+            category.put(entry.getCode(), entry.getTerm());
+        }
+        return category;
+    }
+
+    private static final class Category {
+
+        final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        final Map<Integer, String> terms = new ConcurrentHashMap<>();
+
+        void put(int code, String term) {
+            terms.put(code, term);
+            codes.put(term, code);
+        }
+    }
+}
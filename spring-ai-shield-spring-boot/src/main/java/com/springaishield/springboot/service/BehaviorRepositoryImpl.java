@@ -5,26 +5,112 @@ import com.springaishield.core.model.UserBehavior;
 import com.springaishield.core.repository.BehaviorRepository;
 import com.springaishield.springboot.persistence.entity.UserBehaviorEntity;
 import com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository;
+import com.springaishield.springboot.persistence.routing.BehaviorRouting;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Collections;
 
 /**
  * Implémentation concrète de l'interface du Core, utilisant Spring Data JPA.
+ * <p>
+ * Avec un {@link BehaviorRouting}, chaque appel porte sur le shard de l'utilisateur : écritures sur son primaire,
+ * historique lu sur son réplica. Un utilisateur n'est jamais réparti sur deux shards.
  */
 @Service
 public class BehaviorRepositoryImpl implements BehaviorRepository {
 
     private final JpaBehaviorRepository jpaRepository;
+    private final BehaviorRouting routing;
 
     public BehaviorRepositoryImpl(JpaBehaviorRepository jpaRepository) {
+        this(jpaRepository, null);
+    }
+
+    /**
+     * @param routing Répartition sur plusieurs bases ; {@code null} : source de données unique.
+     */
+    public BehaviorRepositoryImpl(JpaBehaviorRepository jpaRepository, BehaviorRouting routing) {
         this.jpaRepository = jpaRepository;
+        this.routing = routing;
     }
 
     @Override
     public UserBehavior save(UserBehavior behavior) {
+        // 1. Conversion du modèle Core vers l'entité JPA
+        UserBehaviorEntity entity = mapCoreToEntity(behavior);
+
+        // 2. Sauvegarde en BDD (primaire du shard de l'utilisateur)
+        UserBehaviorEntity savedEntity = routing == null ? jpaRepository.save(entity)
+                : routing.onPrimary(routing.shardOf(behavior.userId()), () -> jpaRepository.save(entity));
+
+        // 3. Reconversion vers le modèle Core
+        return mapEntityToCore(savedEntity);
+    }
+
+    /**
+     * Sauvegarde groupée : une seule transaction, les INSERT sont envoyés par lots JDBC
+     * (hibernate.jdbc.batch_size, identifiants pré-alloués par la séquence).
+     */
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<UserBehaviorEntity> entities = behaviors.stream()
+                .map(this::mapCoreToEntity)
+                .collect(Collectors.toList());
+
+        if (routing == null || routing.shardCount() == 1) {
+            List<UserBehaviorEntity> saved = routing == null ? jpaRepository.saveAll(entities)
+                    : routing.onPrimary(0, () -> jpaRepository.saveAll(entities));
+            return saved.stream()
+                    .map(this::mapEntityToCore)
+                    .collect(Collectors.toList());
+        }
+        return saveAllSharded(behaviors, entities);
+    }
+
+    /**
+     * Un lot (une transaction) par shard ; le résultat garde l'ordre d'entrée. Un shard en échec n'annule pas les
+     * lots déjà écrits sur les autres.
+     */
+    private List<UserBehavior> saveAllSharded(List<UserBehavior> behaviors, List<UserBehaviorEntity> entities) {
+        List<List<Integer>> positions = new ArrayList<>(routing.shardCount());
+        for (int shard = 0; shard < routing.shardCount(); shard++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < behaviors.size(); i++) {
+            positions.get(routing.shardOf(behaviors.get(i).userId())).add(i);
+        }
+
+        UserBehavior[] result = new UserBehavior[behaviors.size()];
+        for (int shard = 0; shard < positions.size(); shard++) {
+            List<Integer> indexes = positions.get(shard);
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            List<UserBehaviorEntity> batch = indexes.stream().map(entities::get).collect(Collectors.toList());
+            List<UserBehaviorEntity> saved = routing.onPrimary(shard, () -> jpaRepository.saveAll(batch));
+            for (int i = 0; i < indexes.size(); i++) {
+                result[indexes.get(i)] = mapEntityToCore(saved.get(i));
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        List<UserBehaviorEntity> entities = routing == null
+                ? jpaRepository.findRecentByUserIdNative(userId, limit)
+                : routing.onReplica(routing.shardOf(userId),
+                        () -> jpaRepository.findRecentByUserIdNative(userId, limit));
+        return entities.stream()
+                .map(this::mapEntityToCore)
+                .collect(Collectors.toList());
+    }
+
+    private UserBehaviorEntity mapCoreToEntity(UserBehavior behavior) {
         // Préparation du résumé des facteurs de risque pour le stockage
         String factorSummary = behavior.riskScore().contributingFactors().stream()
                 .map(f -> f.name() + ":" + f.weight())
@@ -33,7 +119,6 @@ public class BehaviorRepositoryImpl implements BehaviorRepository {
         // On utilise la raison du risque s'il n'y a pas de facteurs détaillés
         String eventDetails = factorSummary.isEmpty() ? behavior.riskScore().reason() : factorSummary;
 
-        // 1. Conversion du modèle Core vers l'entité JPA
         // Ordre constructeur Entity: userId, ipAddress, eventType, requestUrl, riskScore
         UserBehaviorEntity entity = new UserBehaviorEntity(
                 behavior.userId(),
@@ -43,19 +128,11 @@ public class BehaviorRepositoryImpl implements BehaviorRepository {
                 behavior.riskScore().score()
         );
 
-        // 2. Sauvegarde en BDD
-        UserBehaviorEntity savedEntity = jpaRepository.save(entity);
-
-        // 3. Reconversion vers le modèle Core
-        return mapEntityToCore(savedEntity);
-    }
-
-    @Override
-    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
-        List<UserBehaviorEntity> entities = jpaRepository.findRecentByUserIdNative(userId, limit);
-        return entities.stream()
-                .map(this::mapEntityToCore)
-                .collect(Collectors.toList());
+        // En écriture différée, l'horodatage doit rester celui de l'événement, pas celui du flush
+        if (behavior.timestamp() != null) {
+            entity.setTimestamp(behavior.timestamp());
+        }
+        return entity;
     }
 
     private UserBehavior mapEntityToCore(UserBehaviorEntity entity) {
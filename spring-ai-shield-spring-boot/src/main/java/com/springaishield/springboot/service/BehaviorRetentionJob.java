@@ -0,0 +1,209 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.springboot.persistence.routing.BehaviorRouting;
+import com.springaishield.springboot.service.BehaviorSchemaManager.ManagedTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entretien périodique de l'historique :
+ * <ul>
+ *     <li>création d'avance des partitions (PostgreSQL partitionné) ;</li>
+ *     <li>rétention : les partitions entièrement expirées sont supprimées d'un coup, les lignes restantes plus
+ *     anciennes que {@code maxAge} (partition par défaut, tranche en cours, tables non partitionnées) par lots de
+ *     {@code batchSize} identifiants. Chaque lot est une transaction courte, suivie d'une pause : pas de verrou
+ *     long ni de pic d'écriture, quelle que soit la quantité à purger.</li>
+ * </ul>
+ * Avec un {@link BehaviorRouting}, chaque passage traite les shards l'un après l'autre, sur leur primaire.
+ */
+public class BehaviorRetentionJob implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BehaviorRetentionJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BehaviorSchemaManager schemaManager;
+    private final BehaviorRouting routing;
+    private final Duration maxAge;
+    private final int batchSize;
+    private final Duration batchPause;
+
+    private final AtomicLong deletedRows = new AtomicLong();
+    private final AtomicLong droppedPartitions = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    /**
+     * @param maxAge     Âge au-delà duquel les événements sont supprimés ; {@code null} : conservés indéfiniment
+     *                   (seules les partitions sont créées).
+     * @param batchSize  Lignes supprimées par transaction.
+     * @param batchPause Pause entre deux lots.
+     */
+    public BehaviorRetentionJob(JdbcTemplate jdbcTemplate, BehaviorSchemaManager schemaManager, Duration maxAge,
+                                int batchSize, Duration batchPause) {
+        this(jdbcTemplate, schemaManager, null, maxAge, batchSize, batchPause);
+    }
+
+    /**
+     * @param routing Shards à entretenir, à travers la source de données aiguillée de {@code jdbcTemplate} ;
+     *                {@code null} : source de données unique.
+     */
+    public BehaviorRetentionJob(JdbcTemplate jdbcTemplate, BehaviorSchemaManager schemaManager,
+                                BehaviorRouting routing, Duration maxAge, int batchSize, Duration batchPause) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize doit être strictement positif.");
+        }
+        if (maxAge != null && (maxAge.isZero() || maxAge.isNegative())) {
+            throw new IllegalArgumentException("maxAge doit être strictement positif.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaManager = schemaManager;
+        this.routing = routing;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause != null ? batchPause : Duration.ZERO;
+    }
+
+    /**
+     * Lance l'entretien toutes les {@code interval} sur un thread démon dédié.
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null || closed) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-shield-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Un passage complet : partitions à venir, puis purge de chaque table.
+     *
+     * @return Lignes supprimées par lots (hors partitions supprimées).
+     */
+    public long run() {
+        Instant now = Instant.now();
+        if (routing == null) {
+            return run(now);
+        }
+        long deleted = 0;
+        for (int shard : routing.shards()) {
+            if (closed) {
+                break;
+            }
+            deleted += routing.onPrimary(shard, () -> run(now));
+        }
+        return deleted;
+    }
+
+    private long run(Instant now) {
+        schemaManager.ensurePartitions(now);
+        if (maxAge == null) {
+            return 0;
+        }
+        Instant cutoff = now.minus(maxAge);
+        long deleted = 0;
+        int dropped = 0;
+        for (ManagedTable table : schemaManager.tables()) {
+            if (!schemaManager.exists(table.name())) {
+                continue;
+            }
+            dropped += schemaManager.dropPartitionsBefore(table, cutoff);
+            deleted += purge(table, cutoff);
+        }
+        droppedPartitions.addAndGet(dropped);
+        if (deleted > 0 || dropped > 0) {
+            log.info("AIShield : rétention, {} lignes et {} partitions antérieures à {} supprimées.",
+                    deleted, dropped, cutoff);
+        }
+        return deleted;
+    }
+
+    private long purge(ManagedTable table, Instant cutoff) {
+        Timestamp before = Timestamp.from(cutoff);
+        String select = "SELECT id FROM " + table.name() + " WHERE " + table.timeColumn() + " < ?";
+        long deleted = 0;
+        while (!closed) {
+            // setMaxRows plutôt que LIMIT : portable, et l'index d'horodatage borne la lecture
+            List<Long> ids = jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(select);
+                ps.setTimestamp(1, before);
+                ps.setMaxRows(batchSize);
+                return ps;
+            }, (ResultSet rs, int rowNum) -> rs.getLong(1));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            // Le critère de temps restreint aussi la suppression aux partitions concernées
+            String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            List<Object> args = new ArrayList<>(ids.size() + 1);
+            args.add(before);
+            args.addAll(ids);
+            int count = jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE " + table.timeColumn()
+                    + " < ? AND id IN (" + placeholders + ")", args.toArray());
+            deleted += count;
+            deletedRows.addAndGet(count);
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (batchPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            // Nouvel essai au prochain passage ; le thread planifié ne doit pas s'arrêter
+            log.warn("AIShield : entretien de l'historique en échec : {}", e.getMessage());
+        }
+    }
+
+    public long deletedRows() {
+        return deletedRows.get();
+    }
+
+    public long droppedPartitions() {
+        return droppedPartitions.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
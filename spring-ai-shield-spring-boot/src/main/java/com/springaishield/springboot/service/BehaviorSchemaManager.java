@@ -0,0 +1,394 @@
+package com.springaishield.springboot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Schéma des tables d'historique, indépendamment de {@code spring.jpa.hibernate.ddl-auto} :
+ * <ul>
+ *     <li>index composite {@code (user_id, horodatage)} des lectures d'historique et index sur l'horodatage seul
+ *     pour la rétention ;</li>
+ *     <li>sur PostgreSQL, partitionnement par tranche de temps ({@link PartitionInterval}) : la table est créée
+ *     partitionnée si elle n'existe pas, les partitions sont créées d'avance et la rétention les supprime entières.
+ *     Une partition par défaut recueille les lignes hors des tranches créées.</li>
+ * </ul>
+ * Les autres bases n'ont pas de partitionnement natif : la rétention y supprime par lots (voir
+ * {@link BehaviorRetentionJob}), en s'appuyant sur l'index d'horodatage.
+ * <p>
+ * Une table existante non partitionnée n'est jamais convertie (opération à planifier hors de l'application).
+ * <p>
+ * Les identifiants viennent d'une séquence pré-allouée ({@code allocationSize = 50}) : sur une table créée avec une
+ * colonne IDENTITY, {@link #ensureSequences(long)} crée ou avance la séquence au-delà des identifiants existants.
+ * <p>
+ * Avec plusieurs shards ({@link com.springaishield.springboot.persistence.routing.BehaviorRouting}), les appels sont
+ * faits une fois par shard sous son aiguillage ; tous les shards doivent être du même type de base.
+ */
+public class BehaviorSchemaManager {
+
+    private static final Logger log = LoggerFactory.getLogger(BehaviorSchemaManager.class);
+
+    // Bornes de la tranche dans le nom : robuste à un changement d'intervalle entre deux démarrages
+    private static final DateTimeFormatter BUCKET = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String PARTITION_INFIX = "_p";
+    // Pas de la séquence : allocationSize des entités, les identifiants [valeur - 49, valeur] sont réservés par lecture
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    public enum PartitionInterval {
+        DAY,
+        WEEK,
+        MONTH;
+
+        LocalDate floor(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(DayOfWeek.MONDAY);
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+    }
+
+    /**
+     * Table d'historique gérée.
+     *
+     * @param columns Définition des colonnes pour la création par la bibliothèque (table partitionnée, shards
+     *                hors du shard 0), identique au schéma généré par Hibernate pour l'entité.
+     */
+    public record ManagedTable(String name, String timeColumn, String sequence, String columns) {
+    }
+
+    public static final ManagedTable USER_BEHAVIOR = new ManagedTable("ai_user_behavior", "timestamp",
+            "ai_user_behavior_seq",
+            "id BIGINT NOT NULL, user_id VARCHAR(255), ip_address VARCHAR(255), event_type VARCHAR(255), "
+                    + "request_url VARCHAR(1024), risk_score DOUBLE PRECISION NOT NULL, "
+                    + "timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL");
+
+    public static final ManagedTable BEHAVIOR_EVENT = new ManagedTable("ai_behavior_event", "event_time",
+            "ai_user_behavior_seq",
+            "id BIGINT NOT NULL, user_id VARCHAR(255) NOT NULL, ip BYTEA, url_template INTEGER, "
+                    + "url_hash BIGINT NOT NULL, url_args VARCHAR(1024), event_code SMALLINT NOT NULL, "
+                    + "factor_mask BIGINT NOT NULL, risk_score SMALLINT NOT NULL, "
+                    + "event_time TIMESTAMP(6) WITH TIME ZONE NOT NULL");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<ManagedTable> tables;
+    private final PartitionInterval interval;
+    private final int partitionsAhead;
+
+    private volatile String product;
+
+    /**
+     * @param interval        Tranche des partitions ; {@code null} : pas de partitionnement.
+     * @param partitionsAhead Tranches créées d'avance au-delà de la tranche courante.
+     */
+    public BehaviorSchemaManager(JdbcTemplate jdbcTemplate, List<ManagedTable> tables, PartitionInterval interval,
+                                 int partitionsAhead) {
+        if (partitionsAhead < 0) {
+            throw new IllegalArgumentException("partitionsAhead doit être positif ou nul.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.tables = List.copyOf(tables);
+        this.interval = interval;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    public List<ManagedTable> tables() {
+        return tables;
+    }
+
+    /**
+     * À appeler avant la création du schéma par Hibernate : une table PostgreSQL ne peut être partitionnée qu'à sa
+     * création. Les index d'une table pas encore créée sont laissés à Hibernate (annotations {@code @Index}).
+     */
+    public void ensureSchema() {
+        ensureSchema(1, false);
+    }
+
+    /**
+     * @param sequenceStart Valeur initiale de la séquence si elle est créée ici.
+     * @param createTables  Créer aussi les tables absentes non partitionnées : base qu'Hibernate ne voit pas
+     *                      (shards au-delà du shard 0).
+     */
+    public void ensureSchema(long sequenceStart, boolean createTables) {
+        for (ManagedTable table : tables) {
+            boolean exists = exists(table.name());
+            boolean partition = interval != null && isPostgres();
+            if (!exists && (partition || createTables)) {
+                createTable(table, partition, sequenceStart);
+                exists = true;
+            } else if (exists && partition && !isPartitioned(table)) {
+                log.warn("AIShield : {} existe déjà sans partitionnement, la rétention supprimera par lots.",
+                        table.name());
+            }
+            if (exists) {
+                ensureIndex(table, table.name() + "_user_time", "user_id, " + table.timeColumn());
+                ensureIndex(table, table.name() + "_time", table.timeColumn());
+            }
+        }
+        ensureSequences(sequenceStart);
+        ensurePartitions(Instant.now());
+    }
+
+    /**
+     * Chemin de mise à niveau depuis les identifiants IDENTITY : pour chaque séquence dont une table existe déjà,
+     * crée la séquence si elle manque, ou l'avance si elle est en retard, à {@code MAX(id) + 50}. Sans cela,
+     * {@code ddl-auto=update} créerait la séquence à partir de 1 et chaque insertion heurterait une clé existante.
+     * À appeler avant qu'Hibernate ne crée ou valide le schéma. Sans effet sur une table absente ou vide.
+     *
+     * @param sequenceStart Valeur minimale de la séquence créée ici (début de la plage du shard).
+     */
+    public void ensureSequences(long sequenceStart) {
+        // Plusieurs tables partagent la séquence (format compact) : elle doit dépasser le plus grand de leurs identifiants
+        Map<String, Long> maxIds = new LinkedHashMap<>();
+        for (ManagedTable table : tables) {
+            if (exists(table.name())) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table.name(), Long.class);
+                if (maxId != null) {
+                    maxIds.merge(table.sequence(), maxId, Math::max);
+                }
+            }
+        }
+        maxIds.forEach((sequence, maxId) -> {
+            long target = Math.max(sequenceStart, maxId + SEQUENCE_INCREMENT);
+            Long next = nextValue(sequence);
+            if (next == null) {
+                jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " START WITH " + target
+                        + " INCREMENT BY " + SEQUENCE_INCREMENT);
+                log.info("AIShield : séquence {} créée à partir de {} (identifiants existants).", sequence, target);
+            } else if (next < target) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + target);
+                log.info("AIShield : séquence {} avancée de {} à {} (identifiants existants).", sequence, next, target);
+            }
+        });
+    }
+
+    /**
+     * Refuse le partitionnement quand Hibernate recrée les tables à chaque démarrage : la table partitionnée créée
+     * ici serait supprimée puis recréée sans partitions, et la rétention retomberait silencieusement sur la
+     * suppression par lots.
+     *
+     * @param ddlAuto Valeur de {@code spring.jpa.hibernate.ddl-auto} ; {@code null} si absente.
+     * @throws IllegalStateException Partitionnement demandé sur PostgreSQL avec {@code create} ou {@code create-drop}.
+     */
+    public void checkSchemaGeneration(String ddlAuto) {
+        if (interval == null || ddlAuto == null) {
+            return;
+        }
+        String mode = ddlAuto.trim().toLowerCase(Locale.ROOT);
+        if ((mode.equals("create") || mode.equals("create-drop")) && isPostgres()) {
+            throw new IllegalStateException("AIShield : ai-shield.persistence.schema.partition-interval est "
+                    + "incompatible avec spring.jpa.hibernate.ddl-auto=" + mode + " (tables partitionnées recréées "
+                    + "sans partitions à chaque démarrage). Utiliser update, validate ou none.");
+        }
+    }
+
+    /**
+     * Crée les partitions de la tranche de {@code now} et des {@code partitionsAhead} suivantes, pour les tables
+     * partitionnées.
+     */
+    public void ensurePartitions(Instant now) {
+        if (interval == null || !isPostgres()) {
+            return;
+        }
+        for (ManagedTable table : tables) {
+            if (!isPartitioned(table)) {
+                continue;
+            }
+            LocalDate start = interval.floor(now.atOffset(ZoneOffset.UTC).toLocalDate());
+            for (int i = 0; i <= partitionsAhead; i++) {
+                LocalDate end = interval.next(start);
+                createPartition(table, start, end);
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * Détache et supprime les partitions entièrement antérieures à {@code cutoff}. La partition par défaut et la
+     * tranche en cours restent : leurs lignes anciennes sont supprimées par lots.
+     *
+     * @return Nombre de partitions supprimées.
+     */
+    public int dropPartitionsBefore(ManagedTable table, Instant cutoff) {
+        if (!isPostgres() || !isPartitioned(table)) {
+            return 0;
+        }
+        LocalDate limit = cutoff.atOffset(ZoneOffset.UTC).toLocalDate();
+        int dropped = 0;
+        for (String partition : partitions(table)) {
+            LocalDate end = partitionEnd(table, partition);
+            if (end == null || end.isAfter(limit)) {
+                continue;
+            }
+            // DETACH puis DROP : le verrou exclusif sur la table mère ne dure que le temps du détachement
+            jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("AIShield : partition {} supprimée (antérieure à {}).", partition, limit);
+            dropped++;
+        }
+        return dropped;
+    }
+
+    public boolean exists(String tableName) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Casse des identifiants non cotés propre à la base (majuscules pour H2, minuscules pour PostgreSQL)
+            for (String name : new String[]{tableName, tableName.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet rs = metaData.getTables(connection.getCatalog(), null, name, null)) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    /**
+     * Lit (et consomme) la valeur suivante de la séquence : un bloc perdu au démarrage, sans conséquence.
+     *
+     * @return {@code null} si la séquence n'existe pas.
+     */
+    private Long nextValue(String sequence) {
+        String query = isPostgres() ? "SELECT nextval('" + sequence + "')" : "SELECT NEXT VALUE FOR " + sequence;
+        try {
+            return jdbcTemplate.queryForObject(query, Long.class);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    public boolean isPartitioned(ManagedTable table) {
+        if (!isPostgres()) {
+            return false;
+        }
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, table.name());
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    boolean isPostgres() {
+        return "PostgreSQL".equalsIgnoreCase(product());
+    }
+
+    private String product() {
+        String name = product;
+        if (name == null) {
+            name = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            product = name;
+        }
+        return name;
+    }
+
+    private void createTable(ManagedTable table, boolean partitioned, long sequenceStart) {
+        if (partitioned) {
+            // La clé de partitionnement doit faire partie de la clé primaire
+            jdbcTemplate.execute("CREATE TABLE " + table.name() + " (" + table.columns() + ", PRIMARY KEY (id, "
+                    + table.timeColumn() + ")) PARTITION BY RANGE (" + table.timeColumn() + ")");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table.name() + "_default PARTITION OF "
+                    + table.name() + " DEFAULT");
+        } else {
+            jdbcTemplate.execute("CREATE TABLE " + table.name() + " (" + table.columns() + ", PRIMARY KEY (id))");
+        }
+        // Même pas que l'allocation d'Hibernate
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + table.sequence() + " START WITH " + sequenceStart
+                + " INCREMENT BY " + SEQUENCE_INCREMENT);
+        if (partitioned) {
+            log.info("AIShield : table {} créée, partitionnée par {}.", table.name(), interval);
+        } else {
+            log.info("AIShield : table {} créée (séquence à partir de {}).", table.name(), sequenceStart);
+        }
+    }
+
+    private void createPartition(ManagedTable table, LocalDate start, LocalDate end) {
+        String name = table.name() + PARTITION_INFIX + BUCKET.format(start) + "_" + BUCKET.format(end);
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + table.name()
+                    + " FOR VALUES FROM ('" + start + " 00:00:00+00') TO ('" + end + " 00:00:00+00')");
+        } catch (DataAccessException e) {
+            // Lignes de la tranche déjà dans la partition par défaut, ou tranche chevauchant une partition existante
+            log.warn("AIShield : partition {} non créée : {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private List<String> partitions(ManagedTable table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ? ORDER BY c.relname",
+                String.class, table.name());
+    }
+
+    /**
+     * @return Fin (exclue) de la tranche d'après le nom, {@code null} pour une partition qui n'a pas été créée ici.
+     */
+    static LocalDate partitionEnd(ManagedTable table, String partition) {
+        String prefix = table.name() + PARTITION_INFIX;
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        String[] bounds = partition.substring(prefix.length()).split("_");
+        if (bounds.length != 2) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(bounds[1], BUCKET);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void ensureIndex(ManagedTable table, String index, String columns) {
+        boolean postgres = isPostgres();
+        if (!postgres && !"H2".equalsIgnoreCase(product()) && hasIndex(table.name(), index)) {
+            return;
+        }
+        // Sur une table existante non partitionnée, CONCURRENTLY ne bloque pas les écritures pendant la construction
+        String concurrently = postgres && !isPartitioned(table) ? "CONCURRENTLY " : "";
+        String ifNotExists = postgres || "H2".equalsIgnoreCase(product()) ? "IF NOT EXISTS " : "";
+        try {
+            jdbcTemplate.execute("CREATE INDEX " + concurrently + ifNotExists + index + " ON " + table.name()
+                    + " (" + columns + ")");
+        } catch (DataAccessException e) {
+            log.warn("AIShield : index {} non créé : {}", index, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private boolean hasIndex(String tableName, String index) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            for (String name : new String[]{tableName, tableName.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, name,
+                        false, true)) {
+                    while (rs.next()) {
+                        if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
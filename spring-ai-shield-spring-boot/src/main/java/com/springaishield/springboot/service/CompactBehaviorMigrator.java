@@ -0,0 +1,155 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.springboot.persistence.compact.entity.BehaviorEventEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Migration de l'ancien historique ({@code ai_user_behavior}) vers le format compact ({@code ai_behavior_event}).
+ * <ul>
+ *     <li>Lots de {@code batchSize} lignes lus dans l'ordre des identifiants ; chaque lot est inséré (et
+ *     éventuellement supprimé de l'ancienne table) dans sa propre transaction.</li>
+ *     <li>Reprise après interruption : les lignes migrées gardent leur identifiant (séquence partagée), le
+ *     curseur est le plus grand identifiant migré.</li>
+ *     <li>L'ancienne colonne {@code event_type} contient le résumé des facteurs ({@code NOM:poids; ...}) : les noms
+ *     deviennent le masque de facteurs. La décision, non conservée, est déduite du score et du seuil courant.</li>
+ * </ul>
+ * Les écritures de l'application continuent pendant la migration, directement au format compact.
+ */
+public class CompactBehaviorMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactBehaviorMigrator.class);
+    private static final Pattern FACTOR_ENTRY = Pattern.compile("[A-Za-z0-9_]+:-?[0-9.Ee-]+");
+
+    private static final String INSERT = "INSERT INTO ai_behavior_event (id, user_id, ip, url_template, url_hash, "
+            + "url_args, event_code, factor_mask, risk_score, event_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CompactBehaviorRepositoryImpl repository;
+    private final double blockingThreshold;
+
+    private volatile Boolean complete; // null : pas encore vérifié
+
+    public CompactBehaviorMigrator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   CompactBehaviorRepositoryImpl repository, double blockingThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.repository = repository;
+        this.blockingThreshold = blockingThreshold;
+    }
+
+    /**
+     * @param deleteMigrated Supprimer chaque lot de l'ancienne table une fois copié.
+     * @return Nombre de lignes migrées.
+     */
+    public long migrate(int batchSize, boolean deleteMigrated) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize doit être strictement positif.");
+        }
+        long cursor = cursor();
+        long migrated = 0;
+        while (true) {
+            // Conversion (et création des entrées du dictionnaire) hors de la transaction du lot
+            List<Row> rows = jdbcTemplate.query(
+                    "SELECT id, user_id, ip_address, event_type, request_url, risk_score, timestamp "
+                            + "FROM ai_user_behavior WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, i) -> new Row(rs.getLong("id"), convert(rs.getString("user_id"), rs.getString("ip_address"),
+                            rs.getString("event_type"), rs.getString("request_url"), rs.getDouble("risk_score"),
+                            rs.getTimestamp("timestamp"))),
+                    cursor, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            long from = cursor;
+            long to = rows.get(rows.size() - 1).id();
+            transactionTemplate.executeWithoutResult(status -> {
+                insert(rows);
+                if (deleteMigrated) {
+                    jdbcTemplate.update("DELETE FROM ai_user_behavior WHERE id > ? AND id <= ?", from, to);
+                }
+            });
+            cursor = to;
+            migrated += rows.size();
+            log.info("AIShield : {} lignes d'historique migrées au format compact (identifiant {}).", migrated, cursor);
+        }
+        complete = Boolean.TRUE;
+        return migrated;
+    }
+
+    /**
+     * Plus de ligne à migrer. Vérifié en base au premier appel seulement (appelé à chaque lecture d'historique),
+     * puis mis à jour par {@link #migrate(int, boolean)}.
+     */
+    public boolean isComplete() {
+        Boolean done = complete;
+        if (done == null) {
+            Long pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM ai_user_behavior WHERE id > ?", Long.class, cursor());
+            done = pending == null || pending == 0;
+            complete = done;
+        }
+        return done;
+    }
+
+    /**
+     * Plus grand identifiant déjà migré : les nouvelles lignes compactes ont des identifiants supérieurs à
+     * toutes les lignes de l'ancienne table (séquence partagée), elles sont exclues.
+     */
+    private long cursor() {
+        Long cursor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(e.id), 0) FROM ai_behavior_event e "
+                        + "WHERE e.id <= (SELECT COALESCE(MAX(u.id), 0) FROM ai_user_behavior u)", Long.class);
+        return cursor != null ? cursor : 0L;
+    }
+
+    private BehaviorEventEntity convert(String userId, String ipAddress, String eventType, String requestUrl,
+                                        double score, Timestamp timestamp) {
+        List<String> factors = new ArrayList<>();
+        if (eventType != null) {
+            for (String entry : eventType.split("; ")) {
+                if (!FACTOR_ENTRY.matcher(entry).matches()) {
+                    factors.clear(); // Raison en clair, pas un résumé de facteurs
+                    break;
+                }
+                factors.add(entry.substring(0, entry.indexOf(':')));
+            }
+        }
+        String decision = score >= blockingThreshold ? "ACCESS_DENIED" : "ACCESS_GRANTED";
+        return repository.encode(userId, ipAddress, decision, requestUrl, factors, score,
+                timestamp != null ? timestamp.toInstant() : Instant.EPOCH);
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, row) -> {
+            BehaviorEventEntity e = row.entity();
+            ps.setLong(1, row.id());
+            ps.setString(2, e.getUserId());
+            ps.setBytes(3, e.getIp());
+            if (e.getUrlTemplate() != null) {
+                ps.setInt(4, e.getUrlTemplate());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setLong(5, e.getUrlHash());
+            ps.setString(6, e.getUrlArgs());
+            ps.setShort(7, e.getEventCode());
+            ps.setLong(8, e.getFactorMask());
+            ps.setShort(9, e.getRiskScore());
+            ps.setTimestamp(10, Timestamp.from(e.getEventTime()));
+        });
+    }
+
+    private record Row(long id, BehaviorEventEntity entity) {
+    }
+}
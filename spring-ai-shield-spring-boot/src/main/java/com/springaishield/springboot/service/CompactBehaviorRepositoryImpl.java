@@ -0,0 +1,161 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.core.encoding.IpCodec;
+import com.springaishield.core.encoding.UrlTemplate;
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.springboot.persistence.compact.entity.BehaviorEventEntity;
+import com.springaishield.springboot.persistence.compact.jpa.JpaBehaviorEventRepository;
+import com.springaishield.springboot.service.BehaviorDictionary.Kind;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Historique au format compact ({@code ai_behavior_event}), même contrat que {@link BehaviorRepositoryImpl}.
+ * <ul>
+ *     <li>IP en binaire (4 ou 16 octets) ; une valeur non littérale est relue {@code "unknown"}.</li>
+ *     <li>URL : gabarit de chemin dans le dictionnaire, segments variables et chaîne de requête sur la ligne,
+ *     empreinte 64 bits de l'URL complète. L'URL relue est identique à l'URL enregistrée.</li>
+ *     <li>Facteurs en masque de bits (un bit par nom de facteur) ; les poids ne sont pas conservés. La raison
+ *     relue est la liste des facteurs.</li>
+ *     <li>Type d'événement ({@code ACCESS_GRANTED}, {@code ACCESS_DENIED}...) codé, score en millièmes.</li>
+ * </ul>
+ * Pendant une migration, les lectures complètent l'historique compact par l'ancienne table (voir
+ * {@link CompactBehaviorMigrator}) ; les lignes migrées gardent leur identifiant et ne sont pas lues deux fois.
+ */
+public class CompactBehaviorRepositoryImpl implements BehaviorRepository {
+
+    static final String UNKNOWN_IP = "unknown";
+
+    private final JpaBehaviorEventRepository jpaRepository;
+    private final BehaviorDictionary dictionary;
+    private final BehaviorRepository legacyRepository;
+    private final BooleanSupplier legacyReads;
+
+    public CompactBehaviorRepositoryImpl(JpaBehaviorEventRepository jpaRepository, BehaviorDictionary dictionary) {
+        this(jpaRepository, dictionary, null, () -> false);
+    }
+
+    /**
+     * @param legacyRepository Ancien historique, lu tant que {@code legacyReads} est vrai ; peut être {@code null}.
+     */
+    public CompactBehaviorRepositoryImpl(JpaBehaviorEventRepository jpaRepository, BehaviorDictionary dictionary,
+                                         BehaviorRepository legacyRepository, BooleanSupplier legacyReads) {
+        this.jpaRepository = jpaRepository;
+        this.dictionary = dictionary;
+        this.legacyRepository = legacyRepository;
+        this.legacyReads = legacyReads;
+    }
+
+    @Override
+    public UserBehavior save(UserBehavior behavior) {
+        return decode(jpaRepository.save(encode(behavior)));
+    }
+
+    @Override
+    public List<UserBehavior> saveAll(List<UserBehavior> behaviors) {
+        List<BehaviorEventEntity> entities = behaviors.stream()
+                .map(this::encode)
+                .collect(Collectors.toList());
+
+        return jpaRepository.saveAll(entities).stream()
+                .map(this::decode)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<UserBehavior> findRecentByUserId(String userId, int limit) {
+        List<UserBehavior> recent = jpaRepository.findRecentByUserIdNative(userId, limit).stream()
+                .map(this::decode)
+                .collect(Collectors.toList());
+        if (recent.size() >= limit || legacyRepository == null || !legacyReads.getAsBoolean()) {
+            return recent;
+        }
+        return merge(recent, legacyRepository.findRecentByUserId(userId, limit), limit);
+    }
+
+    private static List<UserBehavior> merge(List<UserBehavior> recent, List<UserBehavior> legacy, int limit) {
+        Set<String> ids = recent.stream().map(UserBehavior::id).collect(Collectors.toCollection(HashSet::new));
+        List<UserBehavior> merged = new ArrayList<>(recent);
+        for (UserBehavior behavior : legacy) {
+            if (ids.add(behavior.id())) {
+                merged.add(behavior);
+            }
+        }
+        merged.sort(Comparator.comparing(UserBehavior::timestamp, Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private BehaviorEventEntity encode(UserBehavior behavior) {
+        List<String> factors = behavior.riskScore().contributingFactors().stream().map(RiskFactor::name).toList();
+        return encode(behavior.userId(), behavior.ipAddress(), behavior.eventType(), behavior.requestUrl(), factors,
+                behavior.riskScore().score(),
+                // En écriture différée, l'horodatage doit rester celui de l'événement, pas celui du flush
+                behavior.timestamp() != null ? behavior.timestamp() : Instant.now());
+    }
+
+    BehaviorEventEntity encode(String userId, String ipAddress, String eventType, String requestUrl,
+                               List<String> factors, double score, Instant timestamp) {
+        BehaviorEventEntity entity = new BehaviorEventEntity();
+        entity.setUserId(userId);
+        entity.setIp(IpCodec.encode(ipAddress));
+
+        UrlTemplate.Split url = UrlTemplate.split(requestUrl);
+        int template = dictionary.code(Kind.URL_TEMPLATE, url.template());
+        if (template == BehaviorDictionary.NONE) {
+            entity.setUrlArgs(requestUrl); // Dictionnaire plein (ou URL non absolue) : URL en clair
+        } else {
+            entity.setUrlTemplate(template);
+            entity.setUrlArgs(url.args());
+        }
+        entity.setUrlHash(UrlTemplate.hash(requestUrl));
+
+        entity.setEventCode((short) dictionary.code(Kind.EVENT_TYPE, eventType));
+        long mask = 0L;
+        for (String factor : factors) {
+            int code = dictionary.code(Kind.FACTOR, factor);
+            mask |= 1L << (code == BehaviorDictionary.NONE ? BehaviorDictionary.OTHER_FACTOR : code);
+        }
+        entity.setFactorMask(mask);
+        entity.setRiskScore((short) Math.max(0, Math.min(Short.MAX_VALUE, Math.round(score * 1000))));
+        entity.setEventTime(timestamp);
+        return entity;
+    }
+
+    UserBehavior decode(BehaviorEventEntity entity) {
+        List<String> factors = new ArrayList<>(Long.bitCount(entity.getFactorMask()));
+        for (long mask = entity.getFactorMask(); mask != 0; mask &= mask - 1) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            String name = bit == BehaviorDictionary.OTHER_FACTOR
+                    ? BehaviorDictionary.OTHER_FACTOR_NAME : dictionary.term(Kind.FACTOR, bit);
+            factors.add(name != null ? name : BehaviorDictionary.OTHER_FACTOR_NAME);
+        }
+        // Comme l'ancien format : facteurs détaillés perdus, leur liste sert de raison
+        RiskScore score = new RiskScore(entity.getRiskScore() / 1000.0, String.join("; ", factors),
+                Collections.emptyList());
+
+        String template = entity.getUrlTemplate() != null
+                ? dictionary.term(Kind.URL_TEMPLATE, entity.getUrlTemplate()) : null;
+        String ip = IpCodec.decode(entity.getIp());
+
+        return new UserBehavior(
+                String.valueOf(entity.getId()),
+                entity.getUserId(),
+                ip != null ? ip : UNKNOWN_IP,
+                dictionary.term(Kind.EVENT_TYPE, entity.getEventCode()),
+                UrlTemplate.expand(template, entity.getUrlArgs()),
+                score,
+                entity.getEventTime()
+        );
+    }
+}
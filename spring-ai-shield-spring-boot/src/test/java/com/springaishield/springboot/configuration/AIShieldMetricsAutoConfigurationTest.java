@@ -0,0 +1,51 @@
+package com.springaishield.springboot.configuration;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.springboot.metrics.MicrometerShieldMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AIShieldMetricsAutoConfigurationTest {
+
+    @TempDir
+    Path directory;
+
+    // Magasin embarqué : le contexte démarre sans base de données
+    private ApplicationContextRunner runner() {
+        return new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AIShieldAutoConfiguration.class,
+                        AIShieldMetricsAutoConfiguration.class))
+                .withPropertyValues("ai-shield.persistence.store=mapped",
+                        "ai-shield.persistence.mapped.directory=" + directory);
+    }
+
+    @Test
+    @DisplayName("Métriques - Sans MeterRegistry, repli unique sur NOOP")
+    void testNoopWithoutMeterRegistry() {
+        runner().run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(ShieldMetrics.class);
+            assertThat(context.getBean(ShieldMetrics.class)).isSameAs(ShieldMetrics.NOOP);
+        });
+    }
+
+    @Test
+    @DisplayName("Métriques - Avec un MeterRegistry, variante Micrometer et jauges enregistrées")
+    void testMicrometerWithMeterRegistry() {
+        runner().withBean(MeterRegistry.class, SimpleMeterRegistry::new).run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(ShieldMetrics.class);
+            assertThat(context.getBean(ShieldMetrics.class)).isInstanceOf(MicrometerShieldMetrics.class);
+            assertThat(context.getBean(MeterRegistry.class).find("ai.shield.store.segments").gauge()).isNotNull();
+        });
+    }
+}
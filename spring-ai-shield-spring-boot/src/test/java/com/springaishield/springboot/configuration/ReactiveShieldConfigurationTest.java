@@ -0,0 +1,112 @@
+package com.springaishield.springboot.configuration;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.InMemoryReactiveBehaviorRepository;
+import com.springaishield.core.repository.ReactiveBehaviorRepository;
+import com.springaishield.core.spi.EvaluationContext;
+import com.springaishield.core.spi.RiskFactorEvaluator;
+import com.springaishield.springboot.security.AIShieldFilter;
+import com.springaishield.springboot.security.AIShieldWebFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.assertj.AssertableReactiveWebApplicationContext;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveShieldConfigurationTest {
+
+    @TempDir
+    Path directory;
+
+    private ReactiveWebApplicationContextRunner runner() {
+        return new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AIShieldMetricsAutoConfiguration.class,
+                        AIShieldAutoConfiguration.class))
+                .withBean(AdminPathEvaluator.class, AdminPathEvaluator::new);
+    }
+
+    // Application réduite à une route : seul le filtre issu de l'auto-configuration s'intercale
+    private static WebTestClient client(AssertableReactiveWebApplicationContext context) {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/**", request -> ServerResponse.ok().bodyValue("ok"))
+                .build();
+        return WebTestClient.bindToRouterFunction(routes)
+                .webFilter(context.getBean(AIShieldWebFilter.class))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Réactif - Requête saine transmise, requête à risque bloquée en 403")
+    void testAllowedAndBlockedResponses() {
+        runner().run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(AIShieldWebFilter.class);
+            assertThat(context).doesNotHaveBean(AIShieldFilter.class);
+            WebTestClient client = client(context);
+
+            client.get().uri("/home").exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("ok");
+            client.get().uri("/admin/users").exchange()
+                    .expectStatus().isEqualTo(HttpStatus.FORBIDDEN)
+                    .expectBody(String.class).value(body -> assertThat(body).contains("Accès bloqué"));
+
+            ReactiveBehaviorRepository repository = context.getBean(ReactiveBehaviorRepository.class);
+            assertThat(repository).isInstanceOf(InMemoryReactiveBehaviorRepository.class);
+            assertThat(repository.findRecentByUserId("ANONYMOUS", 10).map(UserBehavior::eventType)
+                    .collectList().block()).containsExactlyInAnyOrder("ACCESS_GRANTED", "ACCESS_DENIED");
+        });
+    }
+
+    @Test
+    @DisplayName("Réactif - Magasin embarqué bloquant exécuté sur boundedElastic, hors boucle d'événements")
+    void testBlockingStoreRunsOnBoundedElastic() {
+        runner().withPropertyValues("ai-shield.persistence.store=mapped",
+                "ai-shield.persistence.mapped.directory=" + directory).run(context -> {
+            assertThat(context).hasNotFailed();
+            WebTestClient client = client(context);
+
+            client.get().uri("/admin/users").exchange().expectStatus().isEqualTo(HttpStatus.FORBIDDEN);
+
+            ReactiveBehaviorRepository repository = context.getBean(ReactiveBehaviorRepository.class);
+            assertThat(repository).isNotInstanceOf(InMemoryReactiveBehaviorRepository.class);
+            List<String> threads = repository.findRecentByUserId("ANONYMOUS", 10)
+                    .map(behavior -> behavior.eventType() + "@" + Thread.currentThread().getName())
+                    .collectList().block();
+            assertThat(threads).singleElement().asString().startsWith("ACCESS_DENIED@boundedElastic-");
+        });
+    }
+
+    // Risque maximal pour l'administration : décision déterministe, indépendante des évaluateurs par défaut
+    static class AdminPathEvaluator implements RiskFactorEvaluator {
+
+        @Override
+        public String name() {
+            return "admin";
+        }
+
+        @Override
+        public int cost() {
+            return 1;
+        }
+
+        @Override
+        public void evaluate(EvaluationContext context, List<RiskFactor> factors) {
+            if (context.securityContext().requestUrl().startsWith("/admin")) {
+                factors.add(new RiskFactor("ADMIN_PATH", 1.0, "Chemin d'administration"));
+            }
+        }
+    }
+}
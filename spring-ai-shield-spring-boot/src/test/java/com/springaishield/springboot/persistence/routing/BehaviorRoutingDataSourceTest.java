@@ -0,0 +1,180 @@
+package com.springaishield.springboot.persistence.routing;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.springboot.configuration.AIShieldAutoConfiguration;
+import com.springaishield.springboot.configuration.AIShieldDataSourceAutoConfiguration;
+import com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository;
+import com.springaishield.springboot.service.BehaviorRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BehaviorRoutingDataSourceTest {
+
+    private static final int SHARDS = 3;
+
+    // Bases nommées gardées ouvertes par ces connexions : le test les lit directement, à côté des pools du contexte
+    private final List<SingleConnectionDataSource> primaries = new ArrayList<>();
+    private SingleConnectionDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < SHARDS; i++) {
+            primaries.add(database());
+        }
+        // Réplica du shard 0 : base distincte, non répliquée, pour distinguer les lectures
+        replica = database();
+        new JdbcTemplate(replica).execute("CREATE TABLE ai_user_behavior (id BIGINT PRIMARY KEY, "
+                + "user_id VARCHAR(255), ip_address VARCHAR(255), event_type VARCHAR(255), request_url VARCHAR(1024), "
+                + "risk_score DOUBLE PRECISION NOT NULL, timestamp TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaries.forEach(SingleConnectionDataSource::destroy);
+        replica.destroy();
+    }
+
+    private ApplicationContextRunner runner() {
+        return new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AIShieldDataSourceAutoConfiguration.class,
+                        AIShieldAutoConfiguration.class, DataSourceAutoConfiguration.class,
+                        DataSourceTransactionManagerAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+                        HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class))
+                .withPropertyValues("spring.jpa.hibernate.ddl-auto=create-drop",
+                        "ai-shield.audit.enabled=false",
+                        "ai-shield.persistence.routing.shards[0].url=" + primaries.get(0).getUrl(),
+                        "ai-shield.persistence.routing.shards[0].username=sa",
+                        "ai-shield.persistence.routing.shards[0].replica-url=" + replica.getUrl(),
+                        "ai-shield.persistence.routing.shards[1].url=" + primaries.get(1).getUrl(),
+                        "ai-shield.persistence.routing.shards[1].username=sa",
+                        "ai-shield.persistence.routing.shards[2].url=" + primaries.get(2).getUrl(),
+                        "ai-shield.persistence.routing.shards[2].username=sa");
+    }
+
+    @Test
+    @DisplayName("Routage - Écriture sur le primaire du shard, lecture sur son réplica ou à défaut son primaire")
+    void testWritesOnPrimaryReadsOnReplica() {
+        runner().run(context -> {
+            assertThat(context).hasNotFailed();
+            BehaviorRouting routing = context.getBean(BehaviorRouting.class);
+            BehaviorRepositoryImpl repository = repository(context);
+            String onShard0 = userOn(routing, 0);
+            String onShard1 = userOn(routing, 1);
+
+            repository.save(event(onShard0, "/primaire"));
+            repository.save(event(onShard1, "/primaire"));
+            new JdbcTemplate(replica).update("INSERT INTO ai_user_behavior VALUES (1, ?, '10.0.0.1', "
+                    + "'ACCESS_GRANTED', '/replica', 0.1, ?)", onShard0, Timestamp.from(Instant.now()));
+
+            for (int shard = 0; shard < SHARDS; shard++) {
+                assertThat(users(primaries.get(shard))).as("shard %d", shard).containsExactlyElementsOf(
+                        shard == 0 ? List.of(onShard0) : shard == 1 ? List.of(onShard1) : List.of());
+            }
+            assertThat(repository.findRecentByUserId(onShard0, 10)).extracting(UserBehavior::requestUrl)
+                    .containsExactly("/replica");
+            assertThat(repository.findRecentByUserId(onShard1, 10)).extracting(UserBehavior::requestUrl)
+                    .containsExactly("/primaire");
+        });
+    }
+
+    @Test
+    @DisplayName("Routage - saveAll réparti par shard : ordre d'entrée conservé, identifiants uniques")
+    void testShardedSaveAllKeepsOrderAndUniqueIds() {
+        runner().run(context -> {
+            BehaviorRouting routing = context.getBean(BehaviorRouting.class);
+            BehaviorRepositoryImpl repository = repository(context);
+            // Plus de deux blocs d'identifiants (allocationSize = 50), utilisateurs entremêlés
+            List<UserBehavior> batch = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                batch.add(event("user" + i, "/page/" + i));
+            }
+
+            List<UserBehavior> saved = repository.saveAll(batch);
+
+            assertThat(saved).extracting(UserBehavior::requestUrl)
+                    .containsExactlyElementsOf(batch.stream().map(UserBehavior::requestUrl).toList());
+            assertThat(saved).extracting(UserBehavior::userId)
+                    .containsExactlyElementsOf(batch.stream().map(UserBehavior::userId).toList());
+            Set<Long> ids = new HashSet<>();
+            for (int shard = 0; shard < SHARDS; shard++) {
+                List<Long> shardIds = new JdbcTemplate(primaries.get(shard))
+                        .queryForList("SELECT id FROM ai_user_behavior", Long.class);
+                assertThat(shardIds).isNotEmpty();
+                ids.addAll(shardIds);
+                int expected = shard;
+                assertThat(users(primaries.get(shard))).allSatisfy(
+                        user -> assertThat(routing.shardOf(user)).isEqualTo(expected));
+            }
+            assertThat(ids).hasSize(batch.size());
+            assertThat(saved).extracting(behavior -> Long.valueOf(behavior.id())).containsExactlyInAnyOrderElementsOf(ids);
+        });
+    }
+
+    @Test
+    @DisplayName("Routage - Écriture vers un autre shard refusée dans une transaction de l'application")
+    void testRoutingInsideApplicationTransactionRejected() {
+        runner().run(context -> {
+            BehaviorRouting routing = context.getBean(BehaviorRouting.class);
+            BehaviorRepositoryImpl repository = repository(context);
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            String onShard1 = userOn(routing, 1);
+
+            assertThatThrownBy(() -> transaction.executeWithoutResult(
+                    status -> repository.save(event(onShard1, "/dans-transaction"))))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(users(primaries.get(0))).isEmpty();
+            assertThat(users(primaries.get(1))).isEmpty();
+        });
+    }
+
+    private static BehaviorRepositoryImpl repository(AssertableApplicationContext context) {
+        return new BehaviorRepositoryImpl(context.getBean(JpaBehaviorRepository.class),
+                context.getBean(BehaviorRouting.class));
+    }
+
+    private static String userOn(BehaviorRouting routing, int shard) {
+        for (int i = 0; ; i++) {
+            if (routing.shardOf("user" + i) == shard) {
+                return "user" + i;
+            }
+        }
+    }
+
+    private static UserBehavior event(String userId, String url) {
+        return new UserBehavior(userId, "10.0.0.1", "ACCESS_GRANTED", url, new RiskScore(0.1, "Contexte habituel."));
+    }
+
+    private static List<String> users(SingleConnectionDataSource database) {
+        return new JdbcTemplate(database).queryForList("SELECT DISTINCT user_id FROM ai_user_behavior", String.class);
+    }
+
+    private static SingleConnectionDataSource database() {
+        return new SingleConnectionDataSource("jdbc:h2:mem:" + UUID.randomUUID(), "sa", "", true);
+    }
+}
@@ -0,0 +1,57 @@
+package com.springaishield.springboot.persistence.routing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehaviorRoutingTest {
+
+    private final BehaviorRouting routing = new BehaviorRouting(List.of(true, false), 16);
+
+    @Test
+    @DisplayName("Aiguillage - Route précédente restaurée, y compris après une exception")
+    void testPreviousRouteRestored() {
+        assertNull(BehaviorRouting.currentKey());
+
+        String nested = routing.onPrimary(1, () -> {
+            assertEquals("shard-1", BehaviorRouting.currentKey());
+            String inner = routing.onReplica(0, BehaviorRouting::currentKey);
+            assertEquals("shard-1", BehaviorRouting.currentKey());
+            return inner;
+        });
+        assertEquals("shard-0-replica", nested);
+        assertNull(BehaviorRouting.currentKey());
+
+        assertThrows(IllegalStateException.class, () -> routing.onPrimary(1, () -> {
+            throw new IllegalStateException("échec");
+        }));
+        assertNull(BehaviorRouting.currentKey());
+    }
+
+    @Test
+    @DisplayName("Aiguillage - Lecture sur le primaire d'un shard sans réplica")
+    void testReplicaFallsBackToPrimary() {
+        assertEquals("shard-0-replica", routing.onReplica(0, BehaviorRouting::currentKey));
+        assertEquals("shard-1", routing.onReplica(1, BehaviorRouting::currentKey));
+    }
+
+    @Test
+    @DisplayName("Aiguillage - Refusé vers une autre base dans une transaction déjà ouverte")
+    void testRoutingInsideTransactionRejected() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> routing.onPrimary(1, () -> "écrit"));
+            assertTrue(e.getMessage().contains("shard-0"), e.getMessage());
+            assertNull(BehaviorRouting.currentKey());
+            // Même base que la connexion déjà liée : sans effet, donc accepté
+            assertEquals("écrit", routing.onPrimary(0, () -> "écrit"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.metrics.ShieldMetrics;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.SecurityContext;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.core.route.RoutePolicies;
+import com.springaishield.core.route.RoutePolicy;
+import com.springaishield.core.route.ScoringLevel;
+import com.springaishield.core.service.RiskScoringService;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AIShieldFilterTest {
+
+    private static final String CLEAN_BODY = "{\"comment\":\"Bonjour, tout va bien\"}";
+    private static final String MALICIOUS_BODY = "{\"comment\":\"1 union select password from users --\"}";
+
+    private BehaviorRepository behaviorRepository;
+    private AIShieldFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        behaviorRepository = mock(BehaviorRepository.class);
+        RiskScoringService scoring = context -> RiskScore.low();
+        RequestBodyInspection inspection = new RequestBodyInspection(
+                SignatureMatcher.compile(SignaturePack.loadDefault()), 8192, List.of("application/json"));
+        filter = new AIShieldFilter(scoring, behaviorRepository,
+                ShieldFilterOptions.defaults().withBodyInspection(inspection));
+    }
+
+    @Test
+    @DisplayName("Filtre - Corps sain : requête transmise à l'application, accès enregistré")
+    void testCleanBodyPasses() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(post(CLEAN_BODY), response, echo());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CLEAN_BODY, response.getContentAsString());
+        assertEquals(List.of("ACCESS_GRANTED"), savedEventTypes());
+    }
+
+    @Test
+    @DisplayName("Filtre - Corps malveillant : 403 et un seul événement ACCESS_DENIED")
+    void testMaliciousBodyIsBlocked() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(post(MALICIOUS_BODY), response, echo());
+
+        assertEquals(403, response.getStatus());
+        assertTrue(response.getContentAsString().startsWith("Accès bloqué"));
+        assertEquals(List.of("ACCESS_DENIED"), savedEventTypes());
+    }
+
+    @Test
+    @DisplayName("Filtre - Réponse déjà validée : laissée intacte, rejet tout de même enregistré")
+    void testCommittedResponseIsLeftAlone() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain streaming = (request, servletResponse) -> {
+            servletResponse.getWriter().write("début");
+            servletResponse.flushBuffer();
+            request.getInputStream().readAllBytes();
+        };
+
+        filter.doFilter(post(MALICIOUS_BODY), response, streaming);
+
+        assertTrue(response.isCommitted());
+        assertEquals(200, response.getStatus());
+        assertEquals("début", response.getContentAsString());
+        assertEquals(List.of("ACCESS_DENIED"), savedEventTypes());
+    }
+
+    @Test
+    @DisplayName("Filtre - Seuil de la route transmis au scoring (arrêt anticipé du mode TIERED)")
+    void testRouteThresholdPassedToScoring() throws Exception {
+        List<SecurityContext> scored = new ArrayList<>();
+        RoutePolicies policies = RoutePolicies.compile(
+                Map.of("/comments", new RoutePolicy(ScoringLevel.FULL, 0.8, true)),
+                new RoutePolicy(ScoringLevel.FULL, 0.5, true));
+        AIShieldFilter strict = new AIShieldFilter(context -> {
+            scored.add(context);
+            return RiskScore.low();
+        }, behaviorRepository, ShieldFilterOptions.of(ShieldMetrics.NOOP, policies));
+
+        strict.doFilter(post(CLEAN_BODY), new MockHttpServletResponse(), echo());
+
+        assertEquals(1, scored.size());
+        assertEquals(0.8, scored.get(0).blockingThreshold());
+    }
+
+    @Test
+    @DisplayName("Filtre - IOException étrangère au rejet : propagée à l'appelant")
+    void testUnrelatedIOExceptionPropagates() {
+        FilterChain failing = (request, response) -> {
+            request.getInputStream().readAllBytes();
+            throw new IOException("connexion interrompue");
+        };
+
+        IOException e = assertThrows(IOException.class,
+                () -> filter.doFilter(post(CLEAN_BODY), new MockHttpServletResponse(), failing));
+        assertEquals("connexion interrompue", e.getMessage());
+    }
+
+    private static MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/comments");
+        request.setServletPath("/comments");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Application qui lit tout le corps avant de le renvoyer
+    private static FilterChain echo() {
+        return (request, response) -> {
+            byte[] body = request.getInputStream().readAllBytes();
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write(new String(body, StandardCharsets.UTF_8));
+        };
+    }
+
+    private List<String> savedEventTypes() {
+        ArgumentCaptor<UserBehavior> saved = ArgumentCaptor.forClass(UserBehavior.class);
+        verify(behaviorRepository, atLeast(0)).save(saved.capture());
+        return saved.getAllValues().stream().map(UserBehavior::eventType).toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.springaishield.springboot.security;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.InMemoryReactiveBehaviorRepository;
+import com.springaishield.core.service.ReactiveRiskScoringService;
+import com.springaishield.core.signature.SignatureMatcher;
+import com.springaishield.core.signature.SignaturePack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AIShieldWebFilterTest {
+
+    private InMemoryReactiveBehaviorRepository behaviorRepository;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        behaviorRepository = new InMemoryReactiveBehaviorRepository(100, 100);
+        ReactiveRiskScoringService scoring = context -> Mono.just(RiskScore.low());
+        RequestBodyInspection inspection = new RequestBodyInspection(
+                SignatureMatcher.compile(SignaturePack.loadDefault()), 8192, List.of("application/json"));
+        AIShieldWebFilter filter = new AIShieldWebFilter(scoring, behaviorRepository,
+                ShieldFilterOptions.defaults().withBodyInspection(inspection));
+
+        // Application qui lit tout le corps avant de le renvoyer
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .POST("/comments", request -> request.bodyToMono(String.class)
+                                .flatMap(body -> ServerResponse.ok().bodyValue(body)))
+                        .build())
+                .webFilter(filter)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Filtre réactif - Corps sain : requête transmise à l'application, accès enregistré")
+    void testCleanBodyPasses() {
+        client.post().uri("/comments").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"comment\":\"Bonjour, tout va bien\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("{\"comment\":\"Bonjour, tout va bien\"}");
+
+        assertThat(savedEventTypes()).containsExactly("ACCESS_GRANTED");
+    }
+
+    @Test
+    @DisplayName("Filtre réactif - Corps malveillant : 403 et un seul événement ACCESS_DENIED")
+    void testMaliciousBodyIsBlocked() {
+        client.post().uri("/comments").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"comment\":\"1 union select password from users --\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.FORBIDDEN)
+                .expectBody(String.class).value(body -> assertThat(body).startsWith("Accès bloqué"));
+
+        assertThat(savedEventTypes()).containsExactly("ACCESS_DENIED");
+    }
+
+    private List<String> savedEventTypes() {
+        return behaviorRepository.findRecentByUserId("ANONYMOUS", 10).map(UserBehavior::eventType)
+                .collectList().block();
+    }
+}
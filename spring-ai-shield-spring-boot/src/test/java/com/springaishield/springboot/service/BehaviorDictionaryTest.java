@@ -0,0 +1,75 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.springboot.persistence.compact.jpa.JpaBehaviorTermRepository;
+import com.springaishield.springboot.service.BehaviorDictionary.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BehaviorDictionaryTest {
+
+    private static final int TERMS = 20;
+    private static final int THREADS = 8;
+
+    @Test
+    @DisplayName("Dictionnaire - Créations concurrentes sur deux instances : un seul code par terme")
+    void testConcurrentInsertsReuseTerms() {
+        PersistenceTestContexts.compact().run(context -> {
+            JpaBehaviorTermRepository terms = context.getBean(JpaBehaviorTermRepository.class);
+            // Deux instances de l'application partageant la même base
+            BehaviorDictionary[] instances = {new BehaviorDictionary(terms, 1000), new BehaviorDictionary(terms, 1000)};
+            Map<String, Integer> codes = new ConcurrentHashMap<>();
+            List<String> conflicts = new ArrayList<>();
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    BehaviorDictionary dictionary = instances[t % instances.length];
+                    tasks.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < TERMS; i++) {
+                            String term = "/api/route" + i + "/{}";
+                            int code = dictionary.code(Kind.URL_TEMPLATE, term);
+                            Integer previous = codes.putIfAbsent(term, code);
+                            if (previous != null && previous != code) {
+                                synchronized (conflicts) {
+                                    conflicts.add(term + " : " + previous + " / " + code);
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(conflicts).isEmpty();
+            assertThat(codes).hasSize(TERMS).doesNotContainValue(BehaviorDictionary.NONE);
+            assertThat(codes.values()).doesNotHaveDuplicates();
+            Long rows = context.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT COUNT(*) FROM ai_behavior_term WHERE kind = ?", Long.class, Kind.URL_TEMPLATE.code());
+            assertThat(rows).isEqualTo(TERMS);
+            for (BehaviorDictionary dictionary : instances) {
+                codes.forEach((term, code) -> assertThat(dictionary.term(Kind.URL_TEMPLATE, code)).isEqualTo(term));
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.springaishield.springboot.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.springaishield.springboot.service.BehaviorSchemaManager.USER_BEHAVIOR;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehaviorRetentionJobTest {
+
+    private SingleConnectionDataSource dataSource;
+    private DeleteRecordingJdbcTemplate jdbc;
+    private BehaviorSchemaManager manager;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource(PersistenceTestContexts.h2Url(), true);
+        jdbc = new DeleteRecordingJdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE ai_user_behavior (" + USER_BEHAVIOR.columns() + ", PRIMARY KEY (id))");
+        manager = new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR), null, 0);
+
+        Instant now = Instant.now();
+        for (int i = 0; i < 30; i++) {
+            // 25 événements expirés, 5 récents
+            Instant timestamp = i < 25 ? now.minus(Duration.ofDays(10)).plusSeconds(i) : now.minusSeconds(i);
+            jdbc.update("INSERT INTO ai_user_behavior (id, user_id, ip_address, event_type, request_url, risk_score, "
+                    + "timestamp) VALUES (?, 'dave', '10.0.0.1', 'ACCESS_GRANTED', '/home', 0.1, ?)",
+                    i + 1, Timestamp.from(timestamp));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("Rétention - Seules les lignes expirées sont supprimées, par lots de batchSize")
+    void testPurgeDeletesOnlyExpiredRowsInBatches() {
+        BehaviorRetentionJob job = new BehaviorRetentionJob(jdbc, manager, Duration.ofDays(1), 10, Duration.ZERO);
+
+        assertEquals(25, job.run());
+
+        assertEquals(List.of(10, 10, 5), jdbc.deleteBatches);
+        assertEquals(25, job.deletedRows());
+        assertEquals(List.of(26L, 27L, 28L, 29L, 30L),
+                jdbc.queryForList("SELECT id FROM ai_user_behavior ORDER BY id", Long.class));
+        assertEquals(0, job.run());
+    }
+
+    @Test
+    @DisplayName("Rétention - close() interrompt la purge entre deux lots")
+    void testCloseStopsPurge() {
+        BehaviorRetentionJob job = new BehaviorRetentionJob(jdbc, manager, Duration.ofDays(1), 10, Duration.ZERO);
+        jdbc.afterDelete = job::close;
+
+        assertEquals(10, job.run());
+
+        assertEquals(List.of(10), jdbc.deleteBatches);
+        assertEquals(20L, jdbc.queryForObject("SELECT COUNT(*) FROM ai_user_behavior", Long.class));
+    }
+
+    /**
+     * Enregistre la taille de chaque lot supprimé.
+     */
+    private static final class DeleteRecordingJdbcTemplate extends JdbcTemplate {
+
+        final List<Integer> deleteBatches = new ArrayList<>();
+        Runnable afterDelete = () -> { };
+
+        DeleteRecordingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            int count = super.update(sql, args);
+            if (sql.startsWith("DELETE")) {
+                deleteBatches.add(count);
+                afterDelete.run();
+            }
+            return count;
+        }
+    }
+}
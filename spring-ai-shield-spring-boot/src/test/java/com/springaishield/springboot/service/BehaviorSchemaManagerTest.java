@@ -0,0 +1,188 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.core.repository.BehaviorRepository;
+import com.springaishield.springboot.service.BehaviorSchemaManager.PartitionInterval;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.springaishield.springboot.service.BehaviorSchemaManager.USER_BEHAVIOR;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BehaviorSchemaManagerTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource(PersistenceTestContexts.h2Url(), "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    @DisplayName("Schéma - Table existante sans index : les deux index sont créés, appel répété sans effet")
+    void testEnsureSchemaIndexesExistingTable() {
+        jdbc.execute("CREATE TABLE ai_user_behavior (" + USER_BEHAVIOR.columns() + ", PRIMARY KEY (id))");
+        BehaviorSchemaManager manager = new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR), null, 0);
+
+        manager.ensureSchema();
+        List<String> first = indexes();
+        manager.ensureSchema();
+
+        assertTrue(first.contains("AI_USER_BEHAVIOR_USER_TIME(USER_ID,TIMESTAMP)"), first::toString);
+        assertTrue(first.contains("AI_USER_BEHAVIOR_TIME(TIMESTAMP)"), first::toString);
+        assertEquals(first, indexes());
+    }
+
+    @Test
+    @DisplayName("Schéma - Table absente : laissée à Hibernate, sauf création demandée (shard), séquence à sa plage")
+    void testEnsureSchemaCreatesTableOnlyWhenAsked() {
+        BehaviorSchemaManager manager = new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR), null, 0);
+
+        manager.ensureSchema();
+        assertFalse(manager.exists("ai_user_behavior"));
+
+        manager.ensureSchema(1000, true);
+        assertTrue(manager.exists("ai_user_behavior"));
+        assertEquals(1000L, jdbc.queryForObject("SELECT NEXT VALUE FOR ai_user_behavior_seq", Long.class));
+        assertEquals(2, indexes().stream().filter(index -> index.startsWith("AI_USER_BEHAVIOR_")).count());
+    }
+
+    @Test
+    @DisplayName("Séquence - Table IDENTITY existante : séquence créée puis avancée au-delà des identifiants")
+    void testEnsureSequencesAboveExistingIds() {
+        legacyTable(120);
+        BehaviorSchemaManager manager = new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR), null, 0);
+
+        manager.ensureSequences(1);
+        assertEquals(170L, jdbc.queryForObject("SELECT NEXT VALUE FOR ai_user_behavior_seq", Long.class));
+
+        // Séquence en retard (créée à 1 par une version précédente, ou restaurée) : avancée
+        jdbc.execute("ALTER SEQUENCE ai_user_behavior_seq RESTART WITH 1");
+        manager.ensureSequences(1);
+        assertEquals(170L, jdbc.queryForObject("SELECT NEXT VALUE FOR ai_user_behavior_seq", Long.class));
+
+        // Séquence en avance : laissée en place, au bloc consommé par la vérification près
+        manager.ensureSequences(1);
+        assertEquals(270L, jdbc.queryForObject("SELECT NEXT VALUE FOR ai_user_behavior_seq", Long.class));
+    }
+
+    @Test
+    @DisplayName("Séquence - Mise à niveau avec ddl-auto=update : les insertions ne heurtent pas les lignes existantes")
+    void testUpgradeFromIdentityWithSchemaUpdate() {
+        legacyTable(120);
+
+        PersistenceTestContexts.jpa()
+                .withPropertyValues("spring.datasource.url=" + dataSource.getUrl(),
+                        "spring.jpa.hibernate.ddl-auto=update")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    BehaviorRepository repository = context.getBean(BehaviorRepository.class);
+
+                    for (int i = 0; i < 60; i++) {
+                        repository.save(new UserBehavior("nouveau", "10.0.0.2", "ACCESS_GRANTED", "/page/" + i,
+                                new RiskScore(0.1, "Contexte habituel.")));
+                    }
+
+                    assertEquals(62, jdbc.queryForObject("SELECT COUNT(*) FROM ai_user_behavior", Integer.class));
+                    assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM ai_user_behavior WHERE id <= 120",
+                            Integer.class));
+                });
+    }
+
+    @Test
+    @DisplayName("Schéma - Partitionnement refusé sur PostgreSQL si Hibernate recrée les tables")
+    void testPartitioningRejectedWithRecreatedSchema() {
+        BehaviorSchemaManager postgres = new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR),
+                PartitionInterval.MONTH, 2) {
+            @Override
+            boolean isPostgres() {
+                return true;
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> postgres.checkSchemaGeneration("create"));
+        assertThrows(IllegalStateException.class, () -> postgres.checkSchemaGeneration("CREATE-DROP"));
+        assertDoesNotThrow(() -> postgres.checkSchemaGeneration("update"));
+        assertDoesNotThrow(() -> postgres.checkSchemaGeneration(null));
+        // Sans partitionnement, ou hors PostgreSQL (partitionnement ignoré), rien à refuser
+        assertDoesNotThrow(() -> new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR), null, 0)
+                .checkSchemaGeneration("create-drop"));
+        assertDoesNotThrow(() -> new BehaviorSchemaManager(jdbc, List.of(USER_BEHAVIOR), PartitionInterval.MONTH, 2)
+                .checkSchemaGeneration("create-drop"));
+    }
+
+    @Test
+    @DisplayName("Partitions - Fin de tranche lue dans le nom, null pour un nom étranger ou mal formé")
+    void testPartitionEnd() {
+        assertEquals(LocalDate.of(2026, 2, 1),
+                BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_user_behavior_p20260101_20260201"));
+        assertNull(BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_user_behavior_default"));
+        assertNull(BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_behavior_event_p20260101_20260201"));
+        assertNull(BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_user_behavior_p20260101"));
+        assertNull(BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_user_behavior_p20260101_20260201_old"));
+        assertNull(BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_user_behavior_p20260101_2026xx01"));
+        assertNull(BehaviorSchemaManager.partitionEnd(USER_BEHAVIOR, "ai_user_behavior_p20260101_20261301"));
+    }
+
+    // Table créée par une version précédente (id IDENTITY), lignes d'identifiants 1 et maxId
+    private void legacyTable(long maxId) {
+        jdbc.execute("CREATE TABLE ai_user_behavior (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "user_id VARCHAR(255), ip_address VARCHAR(255), event_type VARCHAR(255), request_url VARCHAR(1024), "
+                + "risk_score DOUBLE PRECISION NOT NULL, timestamp TIMESTAMP(6) WITH TIME ZONE)");
+        jdbc.update("INSERT INTO ai_user_behavior (id, user_id, ip_address, event_type, request_url, risk_score, "
+                + "timestamp) VALUES (?, 'ancien', '10.0.0.1', 'ACCESS_GRANTED', '/', 0.1, CURRENT_TIMESTAMP), "
+                + "(?, 'ancien', '10.0.0.1', 'ACCESS_GRANTED', '/', 0.1, CURRENT_TIMESTAMP)", 1L, maxId);
+    }
+
+    // Index secondaires de la table, sous la forme NOM(COLONNE,...)
+    private List<String> indexes() {
+        return jdbc.execute((ConnectionCallback<List<String>>) connection -> {
+            List<String> indexes = new ArrayList<>();
+            try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null,
+                    "AI_USER_BEHAVIOR", false, false)) {
+                String current = null;
+                StringBuilder columns = new StringBuilder();
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    if (name.toUpperCase(Locale.ROOT).startsWith("PRIMARY_KEY")) {
+                        continue;
+                    }
+                    if (!name.equals(current)) {
+                        if (current != null) {
+                            indexes.add(current + "(" + columns + ")");
+                        }
+                        current = name;
+                        columns.setLength(0);
+                    } else {
+                        columns.append(',');
+                    }
+                    columns.append(rs.getString("COLUMN_NAME"));
+                }
+                if (current != null) {
+                    indexes.add(current + "(" + columns + ")");
+                }
+            }
+            indexes.sort(null);
+            return indexes;
+        });
+    }
+}
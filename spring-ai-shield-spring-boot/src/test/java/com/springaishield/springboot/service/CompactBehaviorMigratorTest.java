@@ -0,0 +1,84 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactBehaviorMigratorTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    @DisplayName("Migration - Reprise après un lot interrompu, sans identifiant dupliqué")
+    void testResumeAfterPartialBatch() {
+        PersistenceTestContexts.compact().run(context -> {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            CompactBehaviorRepositoryImpl repository = context.getBean(CompactBehaviorRepositoryImpl.class);
+            BehaviorRepositoryImpl legacy = new BehaviorRepositoryImpl(context.getBean(JpaBehaviorRepository.class));
+            for (int i = 0; i < 5; i++) {
+                legacy.save(new UserBehavior(null, "carol", "10.0.0." + i, "SQL_HEURISTIC:0.6", "/page/" + i,
+                        new RiskScore(0.6, "SQL_HEURISTIC:0.6"), T0.plusSeconds(i)));
+            }
+            List<Long> legacyIds = jdbc.queryForList("SELECT id FROM ai_user_behavior ORDER BY id", Long.class);
+
+            // Arrêt pendant le deuxième lot : seul le premier (2 lignes) est validé
+            CompactBehaviorMigrator interrupted = new CompactBehaviorMigrator(jdbc,
+                    new InterruptedTransactionTemplate(context.getBean(PlatformTransactionManager.class), 1),
+                    repository, 0.5);
+            assertThrows(IllegalStateException.class, () -> interrupted.migrate(2, false));
+            assertThat(jdbc.queryForList("SELECT id FROM ai_behavior_event ORDER BY id", Long.class))
+                    .containsExactlyElementsOf(legacyIds.subList(0, 2));
+
+            // L'application continue d'écrire au format compact entre-temps
+            repository.save(new UserBehavior(null, "carol", "10.0.0.9", "ACCESS_GRANTED", "/nouveau",
+                    new RiskScore(0.1, "Contexte habituel."), T0.plusSeconds(60)));
+
+            CompactBehaviorMigrator migrator = context.getBean(CompactBehaviorMigrator.class);
+            assertThat(migrator.migrate(2, false)).isEqualTo(3);
+            assertThat(migrator.isComplete()).isTrue();
+
+            List<Long> ids = jdbc.queryForList("SELECT id FROM ai_behavior_event ORDER BY id", Long.class);
+            assertThat(ids).hasSize(6).doesNotHaveDuplicates().containsAll(legacyIds);
+            assertThat(repository.findRecentByUserId("carol", 10))
+                    .filteredOn(behavior -> behavior.requestUrl().startsWith("/page/"))
+                    .allSatisfy(behavior -> {
+                        assertThat(behavior.eventType()).isEqualTo("ACCESS_DENIED");
+                        assertThat(behavior.riskScore().reason()).isEqualTo("SQL_HEURISTIC");
+                    })
+                    .hasSize(5);
+        });
+    }
+
+    /**
+     * Valide les {@code committed} premières transactions puis échoue, comme un arrêt de l'application en plein lot.
+     */
+    private static final class InterruptedTransactionTemplate extends TransactionTemplate {
+
+        private int remaining;
+
+        InterruptedTransactionTemplate(PlatformTransactionManager transactionManager, int committed) {
+            super(transactionManager);
+            this.remaining = committed;
+        }
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            if (remaining-- <= 0) {
+                throw new IllegalStateException("Arrêt simulé");
+            }
+            return super.execute(action);
+        }
+    }
+}
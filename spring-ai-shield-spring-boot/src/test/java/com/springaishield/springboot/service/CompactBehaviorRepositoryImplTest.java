@@ -0,0 +1,79 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.core.model.RiskFactor;
+import com.springaishield.core.model.RiskScore;
+import com.springaishield.core.model.UserBehavior;
+import com.springaishield.springboot.persistence.jpa.JpaBehaviorRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactBehaviorRepositoryImplTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    @DisplayName("Compact - Aller-retour : IP, URL (gabarit + arguments), type, facteurs et score en millièmes")
+    void testRoundTrip() {
+        PersistenceTestContexts.compact().run(context -> {
+            CompactBehaviorRepositoryImpl repository = context.getBean(CompactBehaviorRepositoryImpl.class);
+            RiskScore risk = new RiskScore(0.8765, "Requête suspecte", List.of(
+                    new RiskFactor("SQL_HEURISTIC", 0.6, "Mot-clé SQL"),
+                    new RiskFactor("XSS_HEURISTIC", 0.2766, "Motif XSS")));
+
+            repository.save(new UserBehavior(null, "alice", "192.168.1.10", "ACCESS_DENIED",
+                    "/api/users/42/orders?page=2", risk, T0));
+            List<UserBehavior> history = repository.findRecentByUserId("alice", 10);
+
+            assertThat(history).hasSize(1);
+            UserBehavior read = history.get(0);
+            assertThat(read.ipAddress()).isEqualTo("192.168.1.10");
+            assertThat(read.requestUrl()).isEqualTo("/api/users/42/orders?page=2");
+            assertThat(read.eventType()).isEqualTo("ACCESS_DENIED");
+            assertThat(read.riskScore().score()).isEqualTo(0.877);
+            assertThat(read.riskScore().reason()).isEqualTo("SQL_HEURISTIC; XSS_HEURISTIC");
+            assertThat(read.timestamp()).isEqualTo(T0);
+
+            Map<String, Object> row = context.getBean(JdbcTemplate.class).queryForMap(
+                    "SELECT ip, url_template, url_args, factor_mask, risk_score FROM ai_behavior_event");
+            assertThat((byte[]) row.get("IP")).containsExactly(192, 168, 1, 10);
+            assertThat(row.get("URL_TEMPLATE")).isNotNull();
+            assertThat(row.get("URL_ARGS")).isEqualTo("42?page=2");
+            assertThat(row.get("FACTOR_MASK")).isEqualTo(0b11L);
+            assertThat(((Number) row.get("RISK_SCORE")).intValue()).isEqualTo(877);
+        });
+    }
+
+    @Test
+    @DisplayName("Compact - Migration en cours : ancien et nouvel historique fusionnés par date, tronqués à la limite")
+    void testMergedLegacyAndCompactReads() {
+        PersistenceTestContexts.compact().run(context -> {
+            BehaviorRepositoryImpl legacy = new BehaviorRepositoryImpl(context.getBean(JpaBehaviorRepository.class));
+            CompactBehaviorRepositoryImpl repository = context.getBean(CompactBehaviorRepositoryImpl.class);
+            for (int minute : new int[]{1, 3, 5}) {
+                legacy.save(event("ancien-" + minute, minute));
+            }
+            for (int minute : new int[]{2, 4}) {
+                repository.save(event("compact-" + minute, minute));
+            }
+
+            List<UserBehavior> history = repository.findRecentByUserId("bob", 4);
+
+            assertThat(history).extracting(UserBehavior::timestamp).containsExactly(
+                    T0.plusSeconds(300), T0.plusSeconds(240), T0.plusSeconds(180), T0.plusSeconds(120));
+            assertThat(history).extracting(UserBehavior::requestUrl).containsExactly(
+                    "/ancien-5", "/compact-4", "/ancien-3", "/compact-2");
+        });
+    }
+
+    private static UserBehavior event(String path, int minute) {
+        return new UserBehavior(null, "bob", "10.0.0.1", "ACCESS_GRANTED", "/" + path,
+                new RiskScore(0.1, "Contexte habituel."), T0.plusSeconds(minute * 60L));
+    }
+}
@@ -0,0 +1,41 @@
+package com.springaishield.springboot.service;
+
+import com.springaishield.springboot.configuration.AIShieldAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.UUID;
+
+/**
+ * Contextes de persistance des tests : auto-configuration AI Shield sur une base H2 en mémoire propre à chaque
+ * contexte, schéma créé par Hibernate.
+ */
+final class PersistenceTestContexts {
+
+    private PersistenceTestContexts() {
+    }
+
+    static ApplicationContextRunner jpa() {
+        return new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(AIShieldAutoConfiguration.class,
+                        DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+                        JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+                        TransactionAutoConfiguration.class))
+                .withPropertyValues("spring.datasource.url=" + h2Url(),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "ai-shield.audit.enabled=false");
+    }
+
+    static ApplicationContextRunner compact() {
+        return jpa().withPropertyValues("ai-shield.persistence.format=compact");
+    }
+
+    static String h2Url() {
+        return "jdbc:h2:mem:" + UUID.randomUUID();
+    }
+}